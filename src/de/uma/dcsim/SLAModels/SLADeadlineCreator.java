@@ -4,9 +4,12 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
 
+import de.uma.dcsim.simulationControl.Setup;
 import de.uma.dcsim.utilities.BatchJob;
 import de.uma.dcsim.utilities.BatchJobParser;
+import de.uma.dcsim.utilities.BatchJobTraceStatistics;
 import de.uma.dcsim.utilities.Constants;
+import de.uma.dcsim.utilities.CsvTrace;
 
 public class SLADeadlineCreator {
 	
@@ -17,7 +20,8 @@ public class SLADeadlineCreator {
 	public static void main(String[] args) {
 		StandardSLAModel slaModel = new StandardSLAModel();
 		try {
-			List<BatchJob> oJobs = BatchJobParser.parseJobFile(originalWorkloadTrace, Constants.getDateFormat().parse("01.01.2014 00:00:00"));
+			CsvTrace<BatchJob, BatchJobTraceStatistics> trace = BatchJobParser.parseJobTrace(originalWorkloadTrace, Constants.getDateFormat().parse("01.01.2014 00:00:00"));
+			List<BatchJob> oJobs = trace.getRecords();
 			System.out.println(Constants.getDateFormat().format(Constants.getDateFormat().parse("01.01.2014 00:00:00")));
 			List<BatchJob> tJobs = new ArrayList<BatchJob>();
 			
@@ -26,7 +30,8 @@ public class SLADeadlineCreator {
 				tJobs.add(job);
 			}
 			
-			BatchJobParser.writeBatchJobFile(outputPath, tJobs, Constants.getDateFormat().parse("01.01.2014 00:00:00"));
+			BatchJobParser.writeBatchJobFile(outputPath, tJobs, Constants.getDateFormat().parse("01.01.2014 00:00:00"),
+					BatchJobParser.getSecondsPerSimulationTimestep(trace.getStatistics(), Setup.secondsPerSimulationTimestep));
 			
 		} catch (ParseException e) {
 			// TODO Auto-generated catch block
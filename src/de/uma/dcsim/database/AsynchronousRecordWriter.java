@@ -0,0 +1,370 @@
+package de.uma.dcsim.database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class writes records to the monitoring database on a background thread.
+ * The simulation thread only places the records in a bounded ring buffer. The writer thread drains the buffer, adds the records to the JDBC batches
+ * of the corresponding insert statements and executes the batches once a configurable amount of records is collected.
+ * Commits are performed after a configurable amount of records or when a commit is requested.
+ *
+ * The values of schema-bound records are copied into record instances that are owned by the ring buffer and reused for all subsequent records,
+ * thus buffering a schema-bound record does not allocate any objects and the caller can reuse its record instance right away.
+ *
+ * If the writer thread fails (including a JDBC batch that cannot be collected or executed), the failure is rethrown (wrapped in an IllegalStateException) to all threads that wait for the writer or
+ * try to buffer further records. Records cannot be buffered after the writer was closed.
+ * @author nilsw
+ *
+ */
+class AsynchronousRecordWriter implements Runnable {
+
+	/**
+	 * Element of the buffer that requests a commit of all previously buffered records.
+	 */
+	private static final Object COMMIT_REQUEST = new Object();
+
+	/**
+	 * Element of the buffer that stops the writer thread after all previously buffered records are written.
+	 */
+	private static final Object SHUTDOWN_REQUEST = new Object();
+
+	/**
+	 * Database handler that provides the insert statements and the connection to the database.
+	 */
+	private SqLiteDBHandler dbHandler;
+
+	/**
+	 * Ring buffer that contains the records (and requests) that were not yet processed by the writer thread.
+	 */
+	private Object[] elements;
+
+	/**
+	 * Record instances that are owned by the ring buffer (one per position, created when the position is used for a schema-bound record for the first time).
+	 */
+	private BoundDatabaseRecord[] slots;
+
+	/**
+	 * Position of the oldest element in the ring buffer.
+	 */
+	private int head;
+
+	/**
+	 * Amount of elements in the ring buffer (including the elements that are currently processed by the writer thread).
+	 */
+	private int count;
+
+	/**
+	 * Lock that guards the positions of the ring buffer.
+	 */
+	private ReentrantLock lock;
+
+	/**
+	 * Signaled when the writer thread has freed positions of the ring buffer.
+	 */
+	private Condition notFull;
+
+	/**
+	 * Signaled when an element is placed in the empty ring buffer.
+	 */
+	private Condition notEmpty;
+
+	/**
+	 * Amount of records after which the collected JDBC batches are executed.
+	 */
+	private int batchSize;
+
+	/**
+	 * Amount of records after which a commit is performed (0 means that commits are only performed on request).
+	 */
+	private int commitInterval;
+
+	/**
+	 * Thread that drains the buffer.
+	 */
+	private Thread writerThread;
+
+	/**
+	 * Indicates whether the writer was already closed (set when the shutdown request is buffered).
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Failure that stopped the writer thread (null as long as the writer thread works properly).
+	 */
+	private volatile Throwable failure;
+
+	/**
+	 * Creates the writer and starts the writer thread.
+	 * @param dbHandler Database handler to which the records are written.
+	 * @param bufferCapacity Maximum amount of records that can be buffered.
+	 * @param batchSize Amount of records after which the collected JDBC batches are executed.
+	 * @param commitInterval Amount of records after which a commit is performed (0 means that commits are only performed on request).
+	 */
+	AsynchronousRecordWriter(SqLiteDBHandler dbHandler, int bufferCapacity, int batchSize, int commitInterval) {
+		this.dbHandler = dbHandler;
+		this.elements = new Object[Math.max(1, bufferCapacity)];
+		this.slots = new BoundDatabaseRecord[this.elements.length];
+		this.head = 0;
+		this.count = 0;
+		this.lock = new ReentrantLock();
+		this.notFull = this.lock.newCondition();
+		this.notEmpty = this.lock.newCondition();
+		this.batchSize = Math.max(1, batchSize);
+		this.commitInterval = Math.max(0, commitInterval);
+		this.closed = false;
+
+		this.writerThread = new Thread(this, "DCSim-DB-Writer");
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+	}
+
+	/**
+	 * Places a record in the buffer. If the buffer is full, the calling thread waits until the writer thread has drained a part of it.
+	 * @param record Record that should be written to the database.
+	 */
+	void addRecord(DatabaseRecord record) {
+		this.enqueue(record, null);
+	}
+
+	/**
+	 * Copies the values of a schema-bound record into the buffer. If the buffer is full, the calling thread waits until the writer thread has drained a part of it.
+	 * @param record Record that should be written to the database. The instance can be reused by the caller as soon as the method returns.
+	 */
+	void addRecord(BoundDatabaseRecord record) {
+		this.enqueue(null, record);
+	}
+
+	/**
+	 * Requests a commit that is performed as soon as all previously buffered records are written.
+	 */
+	void requestCommit() {
+		this.enqueue(COMMIT_REQUEST, null);
+	}
+
+	/**
+	 * Waits until all previously buffered records are written and committed.
+	 * @throws IllegalStateException If the writer thread failed.
+	 */
+	void flush() {
+		if(this.closed) {
+			this.checkFailure();
+			return;
+		}
+		CountDownLatch written = new CountDownLatch(1);
+		this.enqueue(written, null);
+		try {
+			written.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			e.printStackTrace();
+		}
+		this.checkFailure();
+	}
+
+	/**
+	 * Writes and commits all buffered records and stops the writer thread.
+	 * @throws IllegalStateException If the writer thread failed.
+	 */
+	void close() {
+		if(this.failure == null) {
+			this.enqueue(SHUTDOWN_REQUEST, null);
+		}
+		else {
+			this.closed = true;
+		}
+		try {
+			this.writerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			e.printStackTrace();
+		}
+		this.checkFailure();
+	}
+
+	/**
+	 * Rethrows the failure of the writer thread (if it failed).
+	 */
+	private void checkFailure() {
+		if(this.failure != null) {
+			throw new IllegalStateException("The database writer thread failed", this.failure);
+		}
+	}
+
+	/**
+	 * Places an element or the values of a schema-bound record at the tail of the ring buffer.
+	 * @param element Element that is placed in the buffer (ignored if a schema-bound record is passed).
+	 * @param boundRecord Schema-bound record whose values are copied into the buffer (null if an element is passed).
+	 * @throws IllegalStateException If the writer was closed or the writer thread failed.
+	 */
+	private void enqueue(Object element, BoundDatabaseRecord boundRecord) {
+		this.lock.lock();
+		try {
+			if(this.closed) {
+				//Closing an already closed writer has no effect
+				if(element == SHUTDOWN_REQUEST) {
+					return;
+				}
+				throw new IllegalStateException("The database writer is already closed");
+			}
+			while(this.count == this.elements.length && this.failure == null) {
+				this.notFull.awaitUninterruptibly();
+			}
+			this.checkFailure();
+			int tail = (this.head + this.count) % this.elements.length;
+			if(boundRecord != null) {
+				BoundDatabaseRecord slot = this.slots[tail];
+				if(slot == null) {
+					slot = new BoundDatabaseRecord(boundRecord.getTargetEvaluationTable());
+					this.slots[tail] = slot;
+				}
+				slot.copyFrom(boundRecord);
+				element = slot;
+			}
+			this.elements[tail] = element;
+			this.count++;
+			if(element == SHUTDOWN_REQUEST) {
+				this.closed = true;
+			}
+			if(this.count == 1) {
+				this.notEmpty.signal();
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			this.writeBufferedRecords();
+		} catch (Throwable t) {
+			this.fail(t);
+		}
+	}
+
+	/**
+	 * Records the failure of the writer thread and releases all threads that wait for it. Threads that wait for free positions of the
+	 * buffer or for a flush rethrow the failure.
+	 * @param t Failure that stopped the writer thread.
+	 */
+	private void fail(Throwable t) {
+		this.lock.lock();
+		try {
+			this.failure = t;
+			for(int i=0; i < this.count; i++) {
+				Object element = this.elements[(this.head + i) % this.elements.length];
+				if(element instanceof CountDownLatch) {
+					((CountDownLatch)element).countDown();
+				}
+			}
+			this.notFull.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Drains the buffer until the shutdown request is processed.
+	 * @throws SQLException If a record cannot be added to the batch of its insert statement or a batch cannot be executed.
+	 */
+	private void writeBufferedRecords() throws SQLException {
+		LinkedHashSet<PreparedStatement> pendingStatements = new LinkedHashSet<PreparedStatement>();
+		PreparedStatement statement;
+		Object element;
+		int start;
+		int available;
+		int batchedRecords = 0;
+		int uncommittedRecords = 0;
+		boolean running = true;
+
+		while(running) {
+			//Wait for elements; the positions stay occupied until they are processed, thus they are not overwritten in the meantime
+			this.lock.lock();
+			try {
+				while(this.count == 0) {
+					this.notEmpty.awaitUninterruptibly();
+				}
+				start = this.head;
+				available = Math.min(this.count, this.batchSize);
+			} finally {
+				this.lock.unlock();
+			}
+
+			for(int i=0; i < available; i++) {
+				element = this.elements[(start + i) % this.elements.length];
+
+				if(element instanceof DatabaseRecord || element instanceof BoundDatabaseRecord) {
+					if(element instanceof BoundDatabaseRecord) {
+						statement = this.dbHandler.bindRecord((BoundDatabaseRecord)element);
+					}
+					else {
+						statement = this.dbHandler.bindRecord((DatabaseRecord)element);
+					}
+					if(statement == null) {
+						continue;
+					}
+					statement.addBatch();
+					pendingStatements.add(statement);
+					batchedRecords++;
+					uncommittedRecords++;
+
+					if(batchedRecords >= this.batchSize) {
+						this.executeBatches(pendingStatements);
+						batchedRecords = 0;
+					}
+					if(this.commitInterval > 0 && uncommittedRecords >= this.commitInterval) {
+						this.executeBatches(pendingStatements);
+						this.dbHandler.commitConnection();
+						batchedRecords = 0;
+						uncommittedRecords = 0;
+					}
+				}
+				else {
+					//All requests require that the previously buffered records are written and committed
+					this.executeBatches(pendingStatements);
+					this.dbHandler.commitConnection();
+					batchedRecords = 0;
+					uncommittedRecords = 0;
+
+					if(element instanceof CountDownLatch) {
+						((CountDownLatch)element).countDown();
+					}
+					else if(element == SHUTDOWN_REQUEST) {
+						running = false;
+					}
+				}
+			}
+
+			//Free the processed positions
+			this.lock.lock();
+			try {
+				for(int i=0; i < available; i++) {
+					this.elements[(start + i) % this.elements.length] = null;
+				}
+				this.head = (start + available) % this.elements.length;
+				this.count -= available;
+				this.notFull.signalAll();
+			} finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Executes the collected JDBC batches of all passed insert statements.
+	 * @param pendingStatements Insert statements that have collected batches. The set is cleared afterwards.
+	 * @throws SQLException If a batch cannot be executed.
+	 */
+	private void executeBatches(LinkedHashSet<PreparedStatement> pendingStatements) throws SQLException {
+		for(PreparedStatement statement : pendingStatements) {
+			statement.executeBatch();
+		}
+		pendingStatements.clear();
+	}
+
+}
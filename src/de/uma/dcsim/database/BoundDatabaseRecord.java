@@ -0,0 +1,187 @@
+package de.uma.dcsim.database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * This class represents a record that is bound to the schema of a specific evaluation table.
+ * In contrast to DatabaseRecord, the values are stored in primitive slot arrays that are indexed by the position of the columns in the table schema.
+ * Thus, an instance can be reused for all records of a table without allocating new objects for each record.
+ * @author nilsw
+ *
+ */
+public class BoundDatabaseRecord {
+
+	/**
+	 * Position of each column type in the schema of each evaluation table (indexed by the ordinals of EvaluationTable and ColumnType, -1 if a column is not part of a schema).
+	 */
+	private static final int[][] COLUMN_POSITIONS = createColumnPositions();
+
+	/**
+	 * Java types of the columns of each evaluation table (indexed by the ordinal of EvaluationTable and the position of the column in the schema).
+	 */
+	private static final VarType[][] COLUMN_TYPES = createColumnTypes();
+
+	/**
+	 * Evaluation table to which the record is bound.
+	 */
+	private EvaluationTable evaluationTable;
+
+	/**
+	 * Java types of the columns of the table schema.
+	 */
+	private VarType[] columnTypes;
+
+	/**
+	 * Values of all LONG and INT columns.
+	 */
+	private long[] longValues;
+
+	/**
+	 * Values of all DOUBLE columns.
+	 */
+	private double[] doubleValues;
+
+	/**
+	 * Values of all TEXT columns.
+	 */
+	private String[] textValues;
+
+	/**
+	 * Creates an empty record for the specified evaluation table.
+	 * @param evaluationTable Evaluation table to which the record is bound.
+	 */
+	public BoundDatabaseRecord(EvaluationTable evaluationTable) {
+		this.bindToTable(evaluationTable);
+	}
+
+	public void setLong(ColumnType column, long value) {
+		this.longValues[this.getPosition(column, VarType.LONG)] = value;
+	}
+
+	public void setInt(ColumnType column, int value) {
+		this.longValues[this.getPosition(column, VarType.INT)] = value;
+	}
+
+	public void setDouble(ColumnType column, double value) {
+		this.doubleValues[this.getPosition(column, VarType.DOUBLE)] = value;
+	}
+
+	public void setString(ColumnType column, String value) {
+		this.textValues[this.getPosition(column, VarType.TEXT)] = value;
+	}
+
+	public long getLong(ColumnType column) {
+		return this.longValues[this.getPosition(column, VarType.LONG)];
+	}
+
+	public int getInt(ColumnType column) {
+		return (int)this.longValues[this.getPosition(column, VarType.INT)];
+	}
+
+	public double getDouble(ColumnType column) {
+		return this.doubleValues[this.getPosition(column, VarType.DOUBLE)];
+	}
+
+	public String getString(ColumnType column) {
+		return this.textValues[this.getPosition(column, VarType.TEXT)];
+	}
+
+	public EvaluationTable getTargetEvaluationTable() {
+		return this.evaluationTable;
+	}
+
+	/**
+	 * Sets the values of the record in a prepared insert statement of the table to which the record is bound.
+	 * @param statement Prepared insert statement in which the values are set.
+	 * @throws SQLException If a value cannot be set in the statement.
+	 */
+	void setValuesInPreparedStatement(PreparedStatement statement) throws SQLException {
+		for(int i=0; i < this.columnTypes.length; i++) {
+			switch(this.columnTypes[i]) {
+			case DOUBLE:
+				statement.setDouble(i+1, this.doubleValues[i]);
+				break;
+			case INT:
+				statement.setInt(i+1, (int)this.longValues[i]);
+				break;
+			case LONG:
+				statement.setLong(i+1, this.longValues[i]);
+				break;
+			case TEXT:
+				statement.setString(i+1, this.textValues[i]);
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Copies all values of another record into this record. If the other record is bound to another evaluation table, this record is bound to
+	 * that table as well.
+	 * @param other Record from which the values are copied.
+	 */
+	void copyFrom(BoundDatabaseRecord other) {
+		if(this.evaluationTable != other.evaluationTable) {
+			this.bindToTable(other.evaluationTable);
+		}
+		int length = this.columnTypes.length;
+		System.arraycopy(other.longValues, 0, this.longValues, 0, length);
+		System.arraycopy(other.doubleValues, 0, this.doubleValues, 0, length);
+		System.arraycopy(other.textValues, 0, this.textValues, 0, length);
+	}
+
+	private void bindToTable(EvaluationTable evaluationTable) {
+		this.evaluationTable = evaluationTable;
+		this.columnTypes = COLUMN_TYPES[evaluationTable.ordinal()];
+
+		//The slot arrays are only replaced if they are too small, thus records that are reused for several tables allocate them only once
+		if(this.longValues == null || this.longValues.length < this.columnTypes.length) {
+			this.longValues = new long[this.columnTypes.length];
+			this.doubleValues = new double[this.columnTypes.length];
+			this.textValues = new String[this.columnTypes.length];
+		}
+	}
+
+	private int getPosition(ColumnType column, VarType type) {
+		int position = COLUMN_POSITIONS[this.evaluationTable.ordinal()][column.ordinal()];
+		if(position < 0 || this.columnTypes[position] != type) {
+			throw new IllegalArgumentException(column + " is not a " + type + " column of " + this.evaluationTable);
+		}
+		return position;
+	}
+
+	private static int[][] createColumnPositions() {
+		EvaluationTable[] tables = EvaluationTable.values();
+		int[][] result = new int[tables.length][ColumnType.values().length];
+
+		ColumnType[] schema;
+		for(int t=0; t < tables.length; t++) {
+			for(int c=0; c < result[t].length; c++) {
+				result[t][c] = -1;
+			}
+			schema = EvaluationTable.getTableSchema(tables[t]);
+			for(int i=0; i < schema.length; i++) {
+				result[t][schema[i].ordinal()] = i;
+			}
+		}
+		return result;
+	}
+
+	private static VarType[][] createColumnTypes() {
+		EvaluationTable[] tables = EvaluationTable.values();
+		VarType[][] result = new VarType[tables.length][];
+
+		ColumnType[] schema;
+		for(int t=0; t < tables.length; t++) {
+			schema = EvaluationTable.getTableSchema(tables[t]);
+			result[t] = new VarType[schema.length];
+			for(int i=0; i < schema.length; i++) {
+				result[t][i] = ColumnType.getJavaVarType(schema[i]);
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,257 @@
+package de.uma.dcsim.database;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * This class stores the simulation monitoring values in a directory of columnar files instead of a SQLite database.
+ * For each evaluation table, a sub directory contains one append-only, memory-mapped file per column and a small time index (see ColumnarTable).
+ * In contrast to the SQLite database, the records of a table are not split into separate tables per simulated day and inserting a record only
+ * copies its values into the mapped files. Queries on a time interval only scan the rows of the index blocks that overlap the interval.
+ * @author nilsw
+ *
+ */
+public class ColumnarResultsStore implements ResultsBackend {
+
+	/**
+	 * Name of the file that marks a directory as columnar results store.
+	 */
+	private static final String MARKER_FILE_NAME = "columnar.store";
+
+	/**
+	 * Directory of the store.
+	 */
+	private File directory;
+
+	/**
+	 * Opened tables of the store (indexed by the ordinal of EvaluationTable, null if a table was not opened yet).
+	 */
+	private ColumnarTable[] tables;
+
+	/**
+	 * Indicates whether the store is only read. Read-only stores ignore all inserted records.
+	 */
+	private boolean readOnly;
+
+	/**
+	 * Opens an existing store or creates a new store at the specified path.
+	 * @param path Path of the store directory.
+	 */
+	public ColumnarResultsStore(String path) {
+		this(path, false);
+	}
+
+	/**
+	 * Opens an existing store or creates a new store at the specified path.
+	 * @param path Path of the store directory.
+	 * @param readOnly Indicates whether the store is only read. Several read-only stores can read the same directory concurrently.
+	 */
+	public ColumnarResultsStore(String path, boolean readOnly) {
+		this.directory = new File(path);
+		this.tables = new ColumnarTable[EvaluationTable.values().length];
+		this.readOnly = readOnly;
+		if(this.readOnly) {
+			return;
+		}
+
+		if(!this.directory.exists()) {
+			this.directory.mkdirs();
+		}
+		File marker = new File(this.directory, MARKER_FILE_NAME);
+		if(!marker.exists()) {
+			try {
+				FileWriter writer = new FileWriter(marker);
+				writer.write("DCSim columnar results store");
+				writer.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a path contains a columnar results store.
+	 * @param path Path that is checked.
+	 * @return True if the path is a directory that was created by a columnar results store.
+	 */
+	public static boolean isColumnarStore(String path) {
+		File directory = new File(path);
+		return directory.isDirectory() && new File(directory, MARKER_FILE_NAME).exists();
+	}
+
+	/**
+	 * Discards all records of the evaluation table. Since the records are not split into daily tables, the simulation interval is not needed.
+	 */
+	@Override
+	public void createRecordTables(Date simStart, Date simEnd, EvaluationTable evaluationTable) {
+		if(this.readOnly) {
+			return;
+		}
+		ColumnarTable table = this.getTable(evaluationTable, true);
+		if(table != null) {
+			table.clear();
+		}
+	}
+
+	@Override
+	public void insertRecord(DatabaseRecord record) {
+		if(this.readOnly) {
+			return;
+		}
+		ColumnarTable table = this.getTable(record.getTargetEvaluationTable(), true);
+		if(table != null) {
+			table.append(record);
+		}
+	}
+
+	@Override
+	public void insertRecord(BoundDatabaseRecord record) {
+		if(this.readOnly) {
+			return;
+		}
+		ColumnarTable table = this.getTable(record.getTargetEvaluationTable(), true);
+		if(table != null) {
+			table.append(record);
+		}
+	}
+
+	/**
+	 * Inserting a record only copies its values into the mapped column files, thus no background writer is used.
+	 */
+	@Override
+	public void startAsynchronousWriter(int bufferCapacity, int batchSize, int commitInterval) {
+	}
+
+	/**
+	 * Persists the row counts and time indexes of all opened tables. The column files are forced to disk before the index of a table is replaced (see ColumnarTable.writeIndex).
+	 */
+	@Override
+	public void commit() {
+		for(ColumnarTable table : this.tables) {
+			if(table != null) {
+				table.writeIndex();
+			}
+		}
+	}
+
+	@Override
+	public void flush() {
+		this.commit();
+	}
+
+	@Override
+	public void close() {
+		for(int i=0; i < this.tables.length; i++) {
+			if(this.tables[i] != null) {
+				this.tables[i].close();
+				this.tables[i] = null;
+			}
+		}
+	}
+
+	@Override
+	public ArrayList<String> getTableCatalog() {
+		ArrayList<String> tableCatalog = new ArrayList<String>();
+		for(EvaluationTable evaluationTable : EvaluationTable.values()) {
+			if(this.tables[evaluationTable.ordinal()] != null || this.getTableDirectory(evaluationTable).isDirectory()) {
+				tableCatalog.add(EvaluationTable.getTableName(evaluationTable));
+			}
+		}
+		return tableCatalog;
+	}
+
+	@Override
+	public ArrayList<DatabaseRecord> getRecordsBetweenDates(EvaluationTable evaluationTable, Date firstDate, Date lastDate) {
+		ColumnarTable table = this.getTable(evaluationTable, false);
+		if(table == null) {
+			return null;
+		}
+		return table.getRecordsBetween(firstDate.getTime(), lastDate.getTime());
+	}
+
+	@Override
+	public void scanRecordsBetweenDates(EvaluationTable evaluationTable, Date firstDate, Date lastDate, ColumnType[] columns, RecordScanner scanner) {
+		ColumnarTable table = this.getTable(evaluationTable, false);
+		if(table != null) {
+			table.scan(firstDate.getTime(), lastDate.getTime(), columns, scanner);
+		}
+	}
+
+	@Override
+	public double getStatistic(EvaluationTable evaluationTable, ColumnType column, StatisticType statistic) {
+		return this.getStatisticWithFilter(evaluationTable, statistic, column, new ArrayList<ColumnType>(), new ArrayList<Object[]>());
+	}
+
+	@Override
+	public double getStatisticWithFilter(EvaluationTable evaluationTable, StatisticType statistic, ColumnType statisticColumn, List<ColumnType> filterColumns, List<Object[]> filterFrames) {
+		ColumnarTable table = this.getTable(evaluationTable, false);
+		if(table == null) {
+			return 0.0;
+		}
+		return table.getStatistic(statistic, statisticColumn, filterColumns, filterFrames);
+	}
+
+	@Override
+	public int getRowCount(EvaluationTable evaluationTable) {
+		ColumnarTable table = this.getTable(evaluationTable, false);
+		if(table == null) {
+			return 0;
+		}
+		return (int)table.getRowCount();
+	}
+
+	@Override
+	public long getRecordOffset(EvaluationTable evaluationTable) {
+		ColumnarTable table = this.getTable(evaluationTable, false);
+		if(table == null) {
+			return 0;
+		}
+		return table.getRowCount();
+	}
+
+	@Override
+	public void truncateRecordTable(EvaluationTable evaluationTable, long recordOffset) {
+		if(this.readOnly) {
+			return;
+		}
+		ColumnarTable table = this.getTable(evaluationTable, true);
+		if(table != null) {
+			table.truncate(recordOffset);
+		}
+	}
+
+	/**
+	 * Retrieves an opened table of the store. Tables are opened on their first access.
+	 * @param evaluationTable Evaluation table that is requested.
+	 * @param create Indicates whether the table is created if it does not exist yet (ignored for read-only stores).
+	 * @return Opened table (null if the table does not exist and should not be created or cannot be opened).
+	 */
+	private ColumnarTable getTable(EvaluationTable evaluationTable, boolean create) {
+		if(evaluationTable == null) {
+			return null;
+		}
+		ColumnarTable table = this.tables[evaluationTable.ordinal()];
+		if(table == null) {
+			File tableDirectory = this.getTableDirectory(evaluationTable);
+			if((!create || this.readOnly) && !tableDirectory.isDirectory()) {
+				return null;
+			}
+			try {
+				table = new ColumnarTable(tableDirectory, evaluationTable, this.readOnly);
+				this.tables[evaluationTable.ordinal()] = table;
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return table;
+	}
+
+	private File getTableDirectory(EvaluationTable evaluationTable) {
+		return new File(this.directory, EvaluationTable.getTableName(evaluationTable));
+	}
+
+}
@@ -0,0 +1,723 @@
+package de.uma.dcsim.database;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class stores the records of one evaluation table in a columnar format. Each column of the table schema is stored in a separate
+ * append-only, memory-mapped file that contains the values of the column as primitive values (TEXT columns store offsets into a separate heap file).
+ * In addition, a small time index stores the minimum and maximum TIMESTAMP value of each block of consecutive rows, thus queries on a time interval
+ * only scan the blocks that overlap the interval.
+ * The amount of valid rows and the time index are persisted in the index file whenever the table is committed. The column and heap files are
+ * written back to disk before the index file is replaced, thus the index never refers to rows whose values did not reach the disk (e.g., after a crash).
+ * @author nilsw
+ *
+ */
+class ColumnarTable {
+
+	/**
+	 * Amount of rows that are summarized by one entry of the time index.
+	 */
+	static final int INDEX_BLOCK_SIZE = 1024;
+
+	/**
+	 * Name of the file that contains the row count and the time index.
+	 */
+	private static final String INDEX_FILE_NAME = "time.idx";
+
+	/**
+	 * Schema of the stored evaluation table.
+	 */
+	private ColumnType[] schema;
+
+	/**
+	 * Java types of the columns of the schema.
+	 */
+	private VarType[] columnTypes;
+
+	/**
+	 * Width (in bytes) of the values in each column file.
+	 */
+	private int[] columnWidths;
+
+	/**
+	 * Position of each column type in the schema (indexed by the ordinal of ColumnType, -1 if a column is not part of the schema).
+	 */
+	private int[] columnPositions;
+
+	/**
+	 * Column files (one per column of the schema).
+	 */
+	private MappedColumnFile[] columns;
+
+	/**
+	 * Heap files that contain the strings of the TEXT columns (null for all other columns).
+	 */
+	private MappedColumnFile[] textHeaps;
+
+	/**
+	 * Directory in which the files of the table are located.
+	 */
+	private File directory;
+
+	/**
+	 * Position of the TIMESTAMP column in the schema.
+	 */
+	private int timestampPosition;
+
+	/**
+	 * Amount of rows in the table.
+	 */
+	private long rowCount;
+
+	/**
+	 * Minimum TIMESTAMP value of each index block.
+	 */
+	private long[] blockMinimums;
+
+	/**
+	 * Maximum TIMESTAMP value of each index block.
+	 */
+	private long[] blockMaximums;
+
+	/**
+	 * Indicates whether the rows were appended in the order of their TIMESTAMP values, which allows to search the time index.
+	 */
+	private boolean timeOrdered;
+
+	/**
+	 * TIMESTAMP value of the row that was appended last.
+	 */
+	private long lastTimestamp;
+
+	/**
+	 * Indicates whether the table is only read (the index file is not written in this case).
+	 */
+	private boolean readOnly;
+
+	/**
+	 * Opens the columnar files of an evaluation table or creates them if they do not exist.
+	 * @param directory Directory in which the files of the table are located.
+	 * @param evaluationTable Evaluation table that is stored.
+	 * @param readOnly Indicates whether the table is only read.
+	 * @throws IOException If the files cannot be opened.
+	 */
+	ColumnarTable(File directory, EvaluationTable evaluationTable, boolean readOnly) throws IOException {
+		this.directory = directory;
+		this.readOnly = readOnly;
+		if(!this.readOnly) {
+			this.directory.mkdirs();
+		}
+		this.schema = EvaluationTable.getTableSchema(evaluationTable);
+		this.columnTypes = new VarType[this.schema.length];
+		this.columnWidths = new int[this.schema.length];
+		this.columnPositions = new int[ColumnType.values().length];
+		Arrays.fill(this.columnPositions, -1);
+		this.timestampPosition = -1;
+		for(int i=0; i < this.schema.length; i++) {
+			this.columnTypes[i] = ColumnType.getJavaVarType(this.schema[i]);
+			this.columnWidths[i] = this.columnTypes[i] == VarType.INT ? 4 : 8;
+			this.columnPositions[this.schema[i].ordinal()] = i;
+			if(this.schema[i] == ColumnType.TIMESTAMP) {
+				this.timestampPosition = i;
+			}
+		}
+		this.blockMinimums = new long[16];
+		this.blockMaximums = new long[16];
+		this.timeOrdered = true;
+		this.lastTimestamp = Long.MIN_VALUE;
+
+		//Only rows that were committed are regarded as valid
+		long[] textHeapSizes = new long[this.schema.length];
+		this.readIndex(textHeapSizes);
+
+		this.columns = new MappedColumnFile[this.schema.length];
+		this.textHeaps = new MappedColumnFile[this.schema.length];
+		for(int i=0; i < this.schema.length; i++) {
+			this.columns[i] = new MappedColumnFile(new File(this.directory, ColumnType.convertToStringName(this.schema[i]) + ".col"), this.rowCount*this.columnWidths[i], this.readOnly);
+			if(this.columnTypes[i] == VarType.TEXT) {
+				this.textHeaps[i] = new MappedColumnFile(new File(this.directory, ColumnType.convertToStringName(this.schema[i]) + ".txt"), textHeapSizes[i], this.readOnly);
+			}
+		}
+	}
+
+	/**
+	 * Appends a schema-bound record to the table.
+	 * @param record Record that is appended.
+	 */
+	void append(BoundDatabaseRecord record) {
+		try {
+			for(int i=0; i < this.schema.length; i++) {
+				switch(this.columnTypes[i]) {
+				case DOUBLE:
+					this.columns[i].appendDouble(record.getDouble(this.schema[i]));
+					break;
+				case INT:
+					this.columns[i].appendInt(record.getInt(this.schema[i]));
+					break;
+				case LONG:
+					this.columns[i].appendLong(record.getLong(this.schema[i]));
+					break;
+				case TEXT:
+					this.appendText(i, record.getString(this.schema[i]));
+					break;
+				default:
+					break;
+				}
+			}
+			this.updateIndex(record.getLong(ColumnType.TIMESTAMP));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Appends a record to the table. Missing values are stored as 0 (or as null for TEXT columns).
+	 * @param record Record that is appended.
+	 */
+	void append(DatabaseRecord record) {
+		try {
+			Object value;
+			for(int i=0; i < this.schema.length; i++) {
+				value = record.getValueByColumnType(this.schema[i]);
+				switch(this.columnTypes[i]) {
+				case DOUBLE:
+					this.columns[i].appendDouble(value == null ? 0 : ((Number)value).doubleValue());
+					break;
+				case INT:
+					this.columns[i].appendInt(value == null ? 0 : ((Number)value).intValue());
+					break;
+				case LONG:
+					this.columns[i].appendLong(value == null ? 0 : ((Number)value).longValue());
+					break;
+				case TEXT:
+					this.appendText(i, (String)value);
+					break;
+				default:
+					break;
+				}
+			}
+			Object timestamp = record.getValueByColumnType(ColumnType.TIMESTAMP);
+			this.updateIndex(timestamp == null ? 0 : ((Number)timestamp).longValue());
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Discards all rows of the table.
+	 */
+	void clear() {
+		for(int i=0; i < this.schema.length; i++) {
+			this.columns[i].clear();
+			if(this.textHeaps[i] != null) {
+				this.textHeaps[i].clear();
+			}
+		}
+		this.rowCount = 0;
+		this.timeOrdered = true;
+		this.lastTimestamp = Long.MIN_VALUE;
+		this.writeIndex();
+	}
+
+	long getRowCount() {
+		return this.rowCount;
+	}
+
+	/**
+	 * Discards all rows after the specified amount of rows and persists the index. The time index entry of the last remaining block
+	 * is recalculated from the TIMESTAMP values of its rows.
+	 * @param rows Amount of rows that remain valid.
+	 */
+	void truncate(long rows) {
+		if(rows >= this.rowCount) {
+			return;
+		}
+		try {
+			for(int i=0; i < this.schema.length; i++) {
+				if(this.textHeaps[i] != null) {
+					//The column of a TEXT column contains the heap position of the value of each row
+					this.textHeaps[i].truncate(this.columns[i].getLong(rows*this.columnWidths[i]));
+				}
+				this.columns[i].truncate(rows*this.columnWidths[i]);
+			}
+			this.rowCount = rows;
+
+			int block = (int)(rows / INDEX_BLOCK_SIZE);
+			long timestamp;
+			for(long row = (long)block*INDEX_BLOCK_SIZE; row < rows; row++) {
+				timestamp = this.getTimestamp(row);
+				if(row % INDEX_BLOCK_SIZE == 0) {
+					this.blockMinimums[block] = timestamp;
+					this.blockMaximums[block] = timestamp;
+				}
+				else {
+					this.blockMinimums[block] = Math.min(this.blockMinimums[block], timestamp);
+					this.blockMaximums[block] = Math.max(this.blockMaximums[block], timestamp);
+				}
+			}
+			this.lastTimestamp = rows > 0 ? this.getTimestamp(rows-1) : Long.MIN_VALUE;
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		this.writeIndex();
+	}
+
+	private long getTimestamp(long row) throws IOException {
+		if(this.timestampPosition < 0) {
+			return 0;
+		}
+		return this.columns[this.timestampPosition].getLong(row*this.columnWidths[this.timestampPosition]);
+	}
+
+	/**
+	 * Calculates a statistic of a column over all rows that match the specified filter intervals.
+	 * @param statistic Statistic that is calculated.
+	 * @param statisticColumn Column for which the statistic is calculated.
+	 * @param filterColumns Columns on which the rows are filtered.
+	 * @param filterFrames Interval boundaries (both inclusive) for the filter columns.
+	 * @return Value of the statistic (0 if no row matches the filters).
+	 */
+	double getStatistic(StatisticType statistic, ColumnType statisticColumn, List<ColumnType> filterColumns, List<Object[]> filterFrames) {
+		int statisticPosition = this.columnPositions[statisticColumn.ordinal()];
+		if(statisticPosition < 0 || this.columnTypes[statisticPosition] == VarType.TEXT) {
+			System.out.println("Statistics are not applicable on " + statisticColumn + "!");
+			return 0.0;
+		}
+
+		RowFilter filter = new RowFilter(filterColumns, filterFrames);
+		double sum = 0.0;
+		double minimum = Double.POSITIVE_INFINITY;
+		double maximum = Double.NEGATIVE_INFINITY;
+		long matches = 0;
+		double value;
+
+		try {
+			long end;
+			for(long block = this.firstBlock(filter); block*INDEX_BLOCK_SIZE < this.rowCount; block++) {
+				if(this.timeOrdered && this.blockMinimums[(int)block] > filter.timeEnd) {
+					break;
+				}
+				if(!filter.overlapsBlock(this.blockMinimums[(int)block], this.blockMaximums[(int)block])) {
+					continue;
+				}
+				end = Math.min(this.rowCount, (block+1)*INDEX_BLOCK_SIZE);
+				for(long row = block*INDEX_BLOCK_SIZE; row < end; row++) {
+					if(!filter.matches(row)) {
+						continue;
+					}
+					value = this.getNumericValue(statisticPosition, row);
+					sum += value;
+					minimum = Math.min(minimum, value);
+					maximum = Math.max(maximum, value);
+					matches++;
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		if(matches == 0) {
+			return 0.0;
+		}
+		switch(statistic) {
+		case COUNT:
+			return matches;
+		case AVERAGE:
+			return sum/matches;
+		case MAXIMUM:
+			return maximum;
+		case MINIMUM:
+			return minimum;
+		case SUM:
+			return sum;
+		default:
+			return 0.0;
+		}
+	}
+
+	/**
+	 * Retrieves all rows with a TIMESTAMP value in the specified interval (in the order in which they were inserted).
+	 * @param start Start of the interval (inclusive).
+	 * @param end End of the interval (inclusive).
+	 * @return List of the selected rows as instances of DatabaseRecord.
+	 */
+	ArrayList<DatabaseRecord> getRecordsBetween(long start, long end) {
+		ArrayList<DatabaseRecord> result = new ArrayList<DatabaseRecord>();
+		List<ColumnType> filterColumns = new ArrayList<ColumnType>();
+		filterColumns.add(ColumnType.TIMESTAMP);
+		List<Object[]> filterFrames = new ArrayList<Object[]>();
+		filterFrames.add(new Object[] {start, end});
+		RowFilter filter = new RowFilter(filterColumns, filterFrames);
+
+		try {
+			long blockEnd;
+			Object[] values;
+			for(long block = this.firstBlock(filter); block*INDEX_BLOCK_SIZE < this.rowCount; block++) {
+				if(this.timeOrdered && this.blockMinimums[(int)block] > filter.timeEnd) {
+					break;
+				}
+				if(!filter.overlapsBlock(this.blockMinimums[(int)block], this.blockMaximums[(int)block])) {
+					continue;
+				}
+				blockEnd = Math.min(this.rowCount, (block+1)*INDEX_BLOCK_SIZE);
+				for(long row = block*INDEX_BLOCK_SIZE; row < blockEnd; row++) {
+					if(!filter.matches(row)) {
+						continue;
+					}
+					values = new Object[this.schema.length];
+					for(int i=0; i < this.schema.length; i++) {
+						values[i] = this.getValue(i, row);
+					}
+					result.add(new DatabaseRecord(this.schema, values));
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return result;
+	}
+
+	/**
+	 * Passes the values of the specified columns of all rows with a TIMESTAMP value in the specified interval to a scanner (in the order in which the rows were inserted).
+	 * @param start Start of the interval (inclusive).
+	 * @param end End of the interval (inclusive).
+	 * @param columns Columns whose values are passed to the scanner.
+	 * @param scanner Scanner that receives the values of the selected rows.
+	 */
+	void scan(long start, long end, ColumnType[] columns, RecordScanner scanner) {
+		List<ColumnType> filterColumns = new ArrayList<ColumnType>();
+		filterColumns.add(ColumnType.TIMESTAMP);
+		List<Object[]> filterFrames = new ArrayList<Object[]>();
+		filterFrames.add(new Object[] {start, end});
+		RowFilter filter = new RowFilter(filterColumns, filterFrames);
+
+		int[] positions = new int[columns.length];
+		for(int i=0; i < columns.length; i++) {
+			positions[i] = this.columnPositions[columns[i].ordinal()];
+		}
+		double[] values = new double[columns.length];
+
+		try {
+			long blockEnd;
+			for(long block = this.firstBlock(filter); block*INDEX_BLOCK_SIZE < this.rowCount; block++) {
+				if(this.timeOrdered && this.blockMinimums[(int)block] > filter.timeEnd) {
+					break;
+				}
+				if(!filter.overlapsBlock(this.blockMinimums[(int)block], this.blockMaximums[(int)block])) {
+					continue;
+				}
+				blockEnd = Math.min(this.rowCount, (block+1)*INDEX_BLOCK_SIZE);
+				for(long row = block*INDEX_BLOCK_SIZE; row < blockEnd; row++) {
+					if(!filter.matches(row)) {
+						continue;
+					}
+					for(int i=0; i < positions.length; i++) {
+						values[i] = positions[i] < 0 ? 0.0 : this.getNumericValue(positions[i], row);
+					}
+					scanner.scanRecord(this.getIntegralValue(this.timestampPosition, row), values);
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Persists the row count and the time index, which makes all previously appended rows valid for subsequent readers.
+	 * The column and heap files are forced to disk first. The index is written to a temporary file, which atomically replaces the previous index.
+	 */
+	void writeIndex() {
+		if(this.readOnly) {
+			return;
+		}
+		for(int i=0; i < this.schema.length; i++) {
+			this.columns[i].force();
+			if(this.textHeaps[i] != null) {
+				this.textHeaps[i].force();
+			}
+		}
+		File indexFile = new File(this.directory, INDEX_FILE_NAME);
+		File temporaryFile = new File(this.directory, INDEX_FILE_NAME + ".tmp");
+		try {
+			FileOutputStream fileOut = new FileOutputStream(temporaryFile);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+			out.writeLong(this.rowCount);
+			for(int i=0; i < this.schema.length; i++) {
+				out.writeLong(this.textHeaps[i] != null ? this.textHeaps[i].getPosition() : 0);
+			}
+			out.writeBoolean(this.timeOrdered);
+			int blocks = this.getBlockCount();
+			out.writeInt(blocks);
+			for(int i=0; i < blocks; i++) {
+				out.writeLong(this.blockMinimums[i]);
+				out.writeLong(this.blockMaximums[i]);
+			}
+			out.flush();
+			fileOut.getFD().sync();
+			out.close();
+			Files.move(temporaryFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Persists the index (after the column files were forced to disk, see writeIndex) and closes all column files.
+	 */
+	void close() {
+		this.writeIndex();
+		for(int i=0; i < this.schema.length; i++) {
+			this.columns[i].close();
+			if(this.textHeaps[i] != null) {
+				this.textHeaps[i].close();
+			}
+		}
+	}
+
+	private void readIndex(long[] textHeapSizes) throws IOException {
+		File indexFile = new File(this.directory, INDEX_FILE_NAME);
+		this.rowCount = 0;
+		if(!indexFile.exists()) {
+			return;
+		}
+
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+		try {
+			this.rowCount = in.readLong();
+			for(int i=0; i < this.schema.length; i++) {
+				textHeapSizes[i] = in.readLong();
+			}
+			this.timeOrdered = in.readBoolean();
+			int blocks = in.readInt();
+			this.ensureBlockCapacity(blocks);
+			for(int i=0; i < blocks; i++) {
+				this.blockMinimums[i] = in.readLong();
+				this.blockMaximums[i] = in.readLong();
+			}
+			if(blocks > 0) {
+				this.lastTimestamp = this.blockMaximums[blocks-1];
+			}
+		} finally {
+			in.close();
+		}
+	}
+
+	private void appendText(int position, String value) throws IOException {
+		MappedColumnFile heap = this.textHeaps[position];
+		this.columns[position].appendLong(heap.getPosition());
+		if(value == null) {
+			heap.appendInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		heap.appendInt(bytes.length);
+		heap.appendBytes(bytes);
+	}
+
+	/**
+	 * Adds the TIMESTAMP value of the row that was appended last to the time index and increases the row count.
+	 * @param timestamp TIMESTAMP value of the appended row.
+	 */
+	private void updateIndex(long timestamp) {
+		int block = (int)(this.rowCount / INDEX_BLOCK_SIZE);
+		if(this.rowCount % INDEX_BLOCK_SIZE == 0) {
+			this.ensureBlockCapacity(block+1);
+			this.blockMinimums[block] = timestamp;
+			this.blockMaximums[block] = timestamp;
+		}
+		else {
+			this.blockMinimums[block] = Math.min(this.blockMinimums[block], timestamp);
+			this.blockMaximums[block] = Math.max(this.blockMaximums[block], timestamp);
+		}
+		if(timestamp < this.lastTimestamp) {
+			this.timeOrdered = false;
+		}
+		this.lastTimestamp = timestamp;
+		this.rowCount++;
+	}
+
+	private void ensureBlockCapacity(int blocks) {
+		if(this.blockMinimums.length < blocks) {
+			int capacity = Math.max(blocks, 2*this.blockMinimums.length);
+			this.blockMinimums = Arrays.copyOf(this.blockMinimums, capacity);
+			this.blockMaximums = Arrays.copyOf(this.blockMaximums, capacity);
+		}
+	}
+
+	private int getBlockCount() {
+		return (int)((this.rowCount + INDEX_BLOCK_SIZE - 1) / INDEX_BLOCK_SIZE);
+	}
+
+	/**
+	 * Determines the first index block that can contain rows that match the filter. As long as the rows are ordered by time (which is the case if they
+	 * are appended in the order of the simulation time), the block is found by a binary search. Otherwise, the scan starts at the first block.
+	 * @param filter Filter of the query.
+	 * @return Index of the first block that has to be scanned.
+	 */
+	private long firstBlock(RowFilter filter) {
+		if(!this.timeOrdered) {
+			return 0;
+		}
+		int low = 0;
+		int high = this.getBlockCount();
+		int middle;
+		while(low < high) {
+			middle = (low + high) >>> 1;
+			if(this.blockMaximums[middle] < filter.timeStart) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private double getNumericValue(int position, long row) throws IOException {
+		switch(this.columnTypes[position]) {
+		case DOUBLE:
+			return this.columns[position].getDouble(row*8);
+		case INT:
+			return this.columns[position].getInt(row*4);
+		case LONG:
+			return this.columns[position].getLong(row*8);
+		default:
+			return 0.0;
+		}
+	}
+
+	private long getIntegralValue(int position, long row) throws IOException {
+		if(this.columnTypes[position] == VarType.INT) {
+			return this.columns[position].getInt(row*4);
+		}
+		return this.columns[position].getLong(row*8);
+	}
+
+	private Object getValue(int position, long row) throws IOException {
+		switch(this.columnTypes[position]) {
+		case DOUBLE:
+			return this.columns[position].getDouble(row*8);
+		case INT:
+			return this.columns[position].getInt(row*4);
+		case LONG:
+			return this.columns[position].getLong(row*8);
+		case TEXT:
+			long offset = this.columns[position].getLong(row*8);
+			int length = this.textHeaps[position].getInt(offset);
+			if(length < 0) {
+				return null;
+			}
+			return new String(this.textHeaps[position].getBytes(offset+4, length), StandardCharsets.UTF_8);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * This class represents the filter intervals of a query in a form that can be evaluated on the column files without allocating objects per row.
+	 */
+	private class RowFilter {
+
+		/**
+		 * Positions of the filtered columns in the schema.
+		 */
+		private int[] positions;
+
+		/**
+		 * Indicates whether a filtered column is compared as floating point value.
+		 */
+		private boolean[] floatingPoint;
+
+		private long[] lowerBounds;
+		private long[] upperBounds;
+		private double[] lowerBoundsD;
+		private double[] upperBoundsD;
+
+		/**
+		 * Intersection of all TIMESTAMP filter intervals (used to skip index blocks).
+		 */
+		private long timeStart;
+		private long timeEnd;
+
+		/**
+		 * Indicates that a filter refers to a column that cannot be filtered, thus no row matches.
+		 */
+		private boolean empty;
+
+		private RowFilter(List<ColumnType> filterColumns, List<Object[]> filterFrames) {
+			int size = filterColumns == null ? 0 : filterColumns.size();
+			this.positions = new int[size];
+			this.floatingPoint = new boolean[size];
+			this.lowerBounds = new long[size];
+			this.upperBounds = new long[size];
+			this.lowerBoundsD = new double[size];
+			this.upperBoundsD = new double[size];
+			this.timeStart = Long.MIN_VALUE;
+			this.timeEnd = Long.MAX_VALUE;
+			this.empty = false;
+
+			ColumnType column;
+			Object[] frame;
+			for(int i=0; i < size; i++) {
+				column = filterColumns.get(i);
+				frame = filterFrames.get(i);
+				this.positions[i] = columnPositions[column.ordinal()];
+				if(this.positions[i] < 0 || columnTypes[this.positions[i]] == VarType.TEXT) {
+					System.out.println("Filtering for an interval is not applicable on " + column + "!");
+					this.empty = true;
+					continue;
+				}
+				this.floatingPoint[i] = columnTypes[this.positions[i]] == VarType.DOUBLE;
+				this.lowerBounds[i] = ((Number)frame[0]).longValue();
+				this.upperBounds[i] = ((Number)frame[1]).longValue();
+				this.lowerBoundsD[i] = ((Number)frame[0]).doubleValue();
+				this.upperBoundsD[i] = ((Number)frame[1]).doubleValue();
+				if(this.positions[i] == timestampPosition) {
+					this.timeStart = Math.max(this.timeStart, this.lowerBounds[i]);
+					this.timeEnd = Math.min(this.timeEnd, this.upperBounds[i]);
+				}
+			}
+			if(this.timeStart > this.timeEnd) {
+				this.empty = true;
+			}
+		}
+
+		private boolean overlapsBlock(long blockMinimum, long blockMaximum) {
+			return !this.empty && blockMaximum >= this.timeStart && blockMinimum <= this.timeEnd;
+		}
+
+		private boolean matches(long row) throws IOException {
+			double valueD;
+			long value;
+			for(int i=0; i < this.positions.length; i++) {
+				if(this.floatingPoint[i]) {
+					valueD = columns[this.positions[i]].getDouble(row*8);
+					if(valueD < this.lowerBoundsD[i] || valueD > this.upperBoundsD[i]) {
+						return false;
+					}
+				}
+				else {
+					value = getIntegralValue(this.positions[i], row);
+					if(value < this.lowerBounds[i] || value > this.upperBounds[i]) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+	}
+
+}
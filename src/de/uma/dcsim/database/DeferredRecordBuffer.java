@@ -0,0 +1,97 @@
+package de.uma.dcsim.database;
+
+import java.util.ArrayList;
+
+/**
+ * This class collects the monitoring records of a DC that is simulated on a worker thread. The records are inserted into the results backend
+ * by the simulation thread after all DCs finished the current timestep(s), thus the records of all DCs are inserted in the same order as
+ * during a sequential simulation and the backend is only accessed by a single thread.
+ *
+ * The values of schema-bound records are copied into record instances that are owned by the buffer and reused after the buffer was cleared,
+ * thus buffering a schema-bound record does not allocate any objects once the buffer has reached its working size.
+ * @author nilsw
+ *
+ */
+public class DeferredRecordBuffer {
+
+	/**
+	 * Record instances that are owned by the buffer.
+	 */
+	private ArrayList<BoundDatabaseRecord> boundRecords;
+
+	/**
+	 * Amount of schema-bound records that are currently buffered.
+	 */
+	private int boundRecordCount;
+
+	/**
+	 * Buffered records that are not schema-bound.
+	 */
+	private ArrayList<DatabaseRecord> records;
+
+	public DeferredRecordBuffer() {
+		this.boundRecords = new ArrayList<BoundDatabaseRecord>();
+		this.boundRecordCount = 0;
+		this.records = new ArrayList<DatabaseRecord>();
+	}
+
+	/**
+	 * Buffers a copy of a schema-bound record. The record instance can be reused by the caller as soon as the method returns.
+	 * @param record Record that should be buffered.
+	 */
+	public void insertRecord(BoundDatabaseRecord record) {
+		if(this.boundRecordCount == this.boundRecords.size()) {
+			this.boundRecords.add(new BoundDatabaseRecord(record.getTargetEvaluationTable()));
+		}
+		this.boundRecords.get(this.boundRecordCount).copyFrom(record);
+		this.boundRecordCount++;
+	}
+
+	/**
+	 * Buffers a record.
+	 * @param record Record that should be buffered.
+	 */
+	public void insertRecord(DatabaseRecord record) {
+		this.records.add(record);
+	}
+
+	/**
+	 * @return Amount of schema-bound records that are currently buffered.
+	 */
+	public int getBoundRecordCount() {
+		return this.boundRecordCount;
+	}
+
+	/**
+	 * Retrieves a buffered schema-bound record.
+	 * @param index Position of the record in the order of insertion.
+	 * @return Buffered record (only valid until the buffer is cleared).
+	 */
+	public BoundDatabaseRecord getBoundRecord(int index) {
+		return this.boundRecords.get(index);
+	}
+
+	/**
+	 * Inserts all buffered records into a results backend (in the order of their insertion into the buffer) and clears the buffer.
+	 * The records of each evaluation table are either schema-bound or not, thus the order of the records within each table is retained.
+	 * @param backend Backend into which the records are inserted.
+	 */
+	public void flush(ResultsBackend backend) {
+		for(int i=0; i < this.boundRecordCount; i++) {
+			backend.insertRecord(this.boundRecords.get(i));
+		}
+		for(DatabaseRecord record : this.records) {
+			backend.insertRecord(record);
+		}
+		this.clear();
+	}
+
+	/**
+	 * Removes all buffered records without inserting them.
+	 */
+	public void clear() {
+		this.boundRecordCount = 0;
+		this.records.clear();
+	}
+
+}
@@ -0,0 +1,232 @@
+package de.uma.dcsim.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+
+/**
+ * This class represents an append-only file that is accessed through memory-mapped segments of fixed size.
+ * The file grows by one segment whenever the mapped part is exhausted, thus appending a value is a plain memory store.
+ * The amount of valid bytes is not stored in the file itself, but is tracked by the owner of the file (the file may be longer than its valid content).
+ * @author nilsw
+ *
+ */
+class MappedColumnFile {
+
+	/**
+	 * Size of a mapped segment in bytes. The size is a multiple of all value widths, thus no value spans two segments.
+	 */
+	static final int SEGMENT_SIZE = 1 << 20;
+
+	/**
+	 * File that is mapped.
+	 */
+	private RandomAccessFile file;
+
+	/**
+	 * Channel of the mapped file.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Mapped segments of the file (in order of their position in the file).
+	 */
+	private ArrayList<MappedByteBuffer> segments;
+
+	/**
+	 * Position (in bytes) at which the next value is appended.
+	 */
+	private long position;
+
+	/**
+	 * Indicates whether the file is only read (segments are mapped read-only and are not extended).
+	 */
+	private boolean readOnly;
+
+	/**
+	 * Amount of bytes at the start of the file that were written back to the file by the last call of force.
+	 */
+	private long forcedPosition;
+
+	/**
+	 * Amount of segments that were mapped when force was called last (mapping a new segment extends the file).
+	 */
+	private int forcedSegments;
+
+	/**
+	 * Opens (or creates) a column file.
+	 * @param file Path of the column file.
+	 * @param validBytes Amount of bytes of the existing file that contain valid values. Subsequent values are appended after them.
+	 * @param readOnly Indicates whether the file is only read.
+	 * @throws IOException If the file cannot be opened.
+	 */
+	MappedColumnFile(File file, long validBytes, boolean readOnly) throws IOException {
+		this.readOnly = readOnly;
+		this.file = new RandomAccessFile(file, readOnly ? "r" : "rw");
+		this.channel = this.file.getChannel();
+		this.segments = new ArrayList<MappedByteBuffer>();
+		this.position = validBytes;
+		this.forcedPosition = validBytes;
+		this.forcedSegments = 0;
+	}
+
+	void appendLong(long value) throws IOException {
+		this.segment(this.position).putLong((int)(this.position % SEGMENT_SIZE), value);
+		this.position += 8;
+	}
+
+	void appendInt(int value) throws IOException {
+		this.segment(this.position).putInt((int)(this.position % SEGMENT_SIZE), value);
+		this.position += 4;
+	}
+
+	void appendDouble(double value) throws IOException {
+		this.segment(this.position).putDouble((int)(this.position % SEGMENT_SIZE), value);
+		this.position += 8;
+	}
+
+	/**
+	 * Appends a byte sequence. Sequences that do not fit into the remaining part of the current segment are split across segments.
+	 * @param bytes Bytes that are appended.
+	 * @throws IOException If the file cannot be extended.
+	 */
+	void appendBytes(byte[] bytes) throws IOException {
+		int written = 0;
+		int offset;
+		int length;
+		MappedByteBuffer segment;
+		while(written < bytes.length) {
+			offset = (int)(this.position % SEGMENT_SIZE);
+			length = Math.min(bytes.length - written, SEGMENT_SIZE - offset);
+			segment = this.segment(this.position);
+			for(int i=0; i < length; i++) {
+				segment.put(offset + i, bytes[written + i]);
+			}
+			written += length;
+			this.position += length;
+		}
+	}
+
+	long getLong(long bytePosition) throws IOException {
+		return this.segment(bytePosition).getLong((int)(bytePosition % SEGMENT_SIZE));
+	}
+
+	int getInt(long bytePosition) throws IOException {
+		return this.segment(bytePosition).getInt((int)(bytePosition % SEGMENT_SIZE));
+	}
+
+	double getDouble(long bytePosition) throws IOException {
+		return this.segment(bytePosition).getDouble((int)(bytePosition % SEGMENT_SIZE));
+	}
+
+	byte[] getBytes(long bytePosition, int length) throws IOException {
+		byte[] result = new byte[length];
+		int read = 0;
+		int offset;
+		int partLength;
+		MappedByteBuffer segment;
+		while(read < length) {
+			offset = (int)((bytePosition + read) % SEGMENT_SIZE);
+			partLength = Math.min(length - read, SEGMENT_SIZE - offset);
+			segment = this.segment(bytePosition + read);
+			for(int i=0; i < partLength; i++) {
+				result[read + i] = segment.get(offset + i);
+			}
+			read += partLength;
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieves the position at which the next value is appended, which corresponds to the amount of valid bytes in the file.
+	 * @return Amount of valid bytes in the file.
+	 */
+	long getPosition() {
+		return this.position;
+	}
+
+	/**
+	 * Discards all values of the file.
+	 */
+	void clear() {
+		this.position = 0;
+		this.forcedPosition = 0;
+	}
+
+	/**
+	 * Discards all values after the specified position. Subsequent values are appended at this position.
+	 * @param validBytes Amount of bytes at the start of the file that remain valid.
+	 */
+	void truncate(long validBytes) {
+		this.position = Math.min(this.position, validBytes);
+		this.forcedPosition = Math.min(this.forcedPosition, this.position);
+	}
+
+	/**
+	 * Writes all segments that were modified since the last call back to the file. If new segments were mapped in the meantime,
+	 * the size of the file is written back as well.
+	 */
+	void force() {
+		if(this.readOnly) {
+			return;
+		}
+		if(this.position > this.forcedPosition) {
+			int first = (int)(this.forcedPosition / SEGMENT_SIZE);
+			int last = (int)((this.position - 1) / SEGMENT_SIZE);
+			MappedByteBuffer segment;
+			for(int i=first; i <= last && i < this.segments.size(); i++) {
+				segment = this.segments.get(i);
+				if(segment != null) {
+					segment.force();
+				}
+			}
+		}
+		if(this.segments.size() > this.forcedSegments) {
+			try {
+				this.channel.force(true);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			this.forcedSegments = this.segments.size();
+		}
+		this.forcedPosition = this.position;
+	}
+
+	void close() {
+		this.segments.clear();
+		try {
+			this.channel.close();
+			this.file.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Retrieves the mapped segment that contains the specified byte position. Missing segments are mapped (and the file is extended) on demand.
+	 * @param bytePosition Position of a byte in the file.
+	 * @return Mapped segment that contains the byte position.
+	 * @throws IOException If the segment cannot be mapped.
+	 */
+	private MappedByteBuffer segment(long bytePosition) throws IOException {
+		int index = (int)(bytePosition / SEGMENT_SIZE);
+		while(this.segments.size() <= index) {
+			this.segments.add(null);
+		}
+		MappedByteBuffer segment = this.segments.get(index);
+		if(segment == null) {
+			if(this.readOnly) {
+				segment = this.channel.map(FileChannel.MapMode.READ_ONLY, (long)index * SEGMENT_SIZE, Math.min(SEGMENT_SIZE, this.channel.size() - (long)index * SEGMENT_SIZE));
+			}
+			else {
+				segment = this.channel.map(FileChannel.MapMode.READ_WRITE, (long)index * SEGMENT_SIZE, SEGMENT_SIZE);
+			}
+			this.segments.set(index, segment);
+		}
+		return segment;
+	}
+
+}
@@ -0,0 +1,18 @@
+package de.uma.dcsim.database;
+
+/**
+ * This interface can be implemented to receive the records of an evaluation table that are streamed by ResultsBackend.scanRecordsBetweenDates.
+ * @author nilsw
+ *
+ */
+public interface RecordScanner {
+
+	/**
+	 * Is called once for each scanned record.
+	 * @param timestamp TIMESTAMP value of the record.
+	 * @param values Values of the requested columns of the record (in the order in which the columns were requested). The array is reused for
+	 * all records, thus it must not be stored by the scanner.
+	 */
+	public void scanRecord(long timestamp, double[] values);
+
+}
@@ -0,0 +1,128 @@
+package de.uma.dcsim.database;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * This interface defines the insert and query operations that a storage backend for the simulation monitoring values has to provide.
+ * The simulation core writes the monitoring records through this interface and the evaluation classes read them through it, thus the storage format
+ * can be exchanged without changing the simulation or the evaluation.
+ * @author nilsw
+ *
+ */
+public interface ResultsBackend {
+
+	/**
+	 * Creates (or recreates) the storage for all records of an evaluation table within the specified simulation interval.
+	 * @param simStart Start date of the simulation for which the backend is used.
+	 * @param simEnd End date of the simulation for which the backend is used.
+	 * @param evaluationTable Value of EvaluationTable for which the storage is created.
+	 */
+	public void createRecordTables(Date simStart, Date simEnd, EvaluationTable evaluationTable);
+
+	/**
+	 * Inserts a record into the evaluation table to which it belongs.
+	 * @param record Instance of DatabaseRecord that corresponds to the record that should be inserted.
+	 */
+	public void insertRecord(DatabaseRecord record);
+
+	/**
+	 * Inserts a schema-bound record into the evaluation table to which it is bound. The record instance can be reused by the caller as soon as the method returns.
+	 * @param record Instance of BoundDatabaseRecord that corresponds to the record that should be inserted.
+	 */
+	public void insertRecord(BoundDatabaseRecord record);
+
+	/**
+	 * Starts a background thread that writes all subsequently inserted records (backends for which the insertion is cheap can ignore the call).
+	 * @param bufferCapacity Maximum amount of buffered records.
+	 * @param batchSize Amount of records that are written together.
+	 * @param commitInterval Amount of records after which a commit is performed (0 means that commits are only performed when commit() is called).
+	 */
+	public void startAsynchronousWriter(int bufferCapacity, int batchSize, int commitInterval);
+
+	/**
+	 * Makes all previously inserted records durable (possibly on a background thread).
+	 */
+	public void commit();
+
+	/**
+	 * Waits until all previously inserted records are written and visible for queries.
+	 */
+	public void flush();
+
+	/**
+	 * Writes all previously inserted records and releases all resources of the backend.
+	 */
+	public void close();
+
+	/**
+	 * Retrieves a list of names of all tables that currently exist in the backend.
+	 * @return List of the names of all existing tables.
+	 */
+	public ArrayList<String> getTableCatalog();
+
+	/**
+	 * Retrieves all records from an evaluation table that have a TIMESTAMP value that lies between the specified dates (both inclusive).
+	 * @param evaluationTable Evaluation table from which the records should be retrieved.
+	 * @param firstDate First date of the interval in which the selected records are located.
+	 * @param lastDate Last date of the interval in which the selected records are located.
+	 * @return List of all selected records.
+	 */
+	public ArrayList<DatabaseRecord> getRecordsBetweenDates(EvaluationTable evaluationTable, Date firstDate, Date lastDate);
+
+	/**
+	 * Passes the values of the specified columns of all records with a TIMESTAMP value between the specified dates (both inclusive) to a scanner.
+	 * In contrast to getRecordsBetweenDates, the records are streamed without creating an object per record, thus several statistics can be
+	 * calculated in a single pass over a table.
+	 * @param evaluationTable Evaluation table from which the records are read.
+	 * @param firstDate First date of the interval in which the selected records are located.
+	 * @param lastDate Last date of the interval in which the selected records are located.
+	 * @param columns Numerical columns whose values are passed to the scanner (in this order).
+	 * @param scanner Scanner that receives the values of the selected records in the order of their TIMESTAMP values.
+	 */
+	public void scanRecordsBetweenDates(EvaluationTable evaluationTable, Date firstDate, Date lastDate, ColumnType[] columns, RecordScanner scanner);
+
+	/**
+	 * Retrieves a statistic of a column over all records of an evaluation table.
+	 * @param evaluationTable Evaluation table from which the statistic is requested.
+	 * @param column Column for which the statistic is requested.
+	 * @param statistic Statistic that is requested.
+	 * @return Value of the requested statistic (0 if the table contains no records).
+	 */
+	public double getStatistic(EvaluationTable evaluationTable, ColumnType column, StatisticType statistic);
+
+	/**
+	 * Retrieves a statistic from all records of an evaluation table that match one or several filtering intervals.
+	 * @param evaluationTable Evaluation table for which the statistic is requested.
+	 * @param statistic Statistic that is requested.
+	 * @param statisticColumn Column for which the statistic is requested.
+	 * @param filterColumns Columns on which the records that are used to calculate the statistic are filtered.
+	 * @param filterFrames Interval boundaries (both inclusive) for the columns that are specified by the filterColumns parameter.
+	 * @return Value of the requested statistic (0 if no record matches the filters).
+	 */
+	public double getStatisticWithFilter(EvaluationTable evaluationTable, StatisticType statistic, ColumnType statisticColumn, List<ColumnType> filterColumns, List<Object[]> filterFrames);
+
+	/**
+	 * Retrieves the amount of records in an evaluation table.
+	 * @param evaluationTable Evaluation table for which the row count is requested.
+	 * @return Row count of the specified table.
+	 */
+	public int getRowCount(EvaluationTable evaluationTable);
+
+	/**
+	 * Retrieves the amount of records that were inserted into an evaluation table so far. All previously inserted records have to be flushed before.
+	 * The offset is stored in the checkpoints of a simulation, thus the records that were inserted after a checkpoint can be discarded when the simulation is resumed.
+	 * @param evaluationTable Evaluation table for which the offset is requested.
+	 * @return Amount of records in the specified table (in contrast to getRowCount, identical records are counted separately).
+	 */
+	public long getRecordOffset(EvaluationTable evaluationTable);
+
+	/**
+	 * Discards all records of an evaluation table that were inserted after the specified amount of records (in the order of their insertion).
+	 * @param evaluationTable Evaluation table whose records are discarded.
+	 * @param recordOffset Amount of records that are kept (see getRecordOffset).
+	 */
+	public void truncateRecordTable(EvaluationTable evaluationTable, long recordOffset);
+
+}
@@ -0,0 +1,92 @@
+package de.uma.dcsim.database;
+
+/**
+ * This enum defines the available storage backends for the simulation monitoring values.
+ * @author nilsw
+ *
+ */
+public enum ResultsBackendType {
+
+	/**
+	 * SQLite database with a separate table per evaluation table and simulated day.
+	 */
+	SQLITE,
+
+	/**
+	 * Directory with append-only, memory-mapped column files per evaluation table.
+	 */
+	COLUMNAR;
+
+	public static String getName(ResultsBackendType type) {
+		switch(type) {
+		case SQLITE:
+			return "sqlite";
+		case COLUMNAR:
+			return "columnar";
+		default:
+			return "";
+		}
+	}
+
+	public static ResultsBackendType parseFromString(String type) {
+		for(ResultsBackendType bType : ResultsBackendType.values()) {
+			if(ResultsBackendType.getName(bType).equals(type.toLowerCase().trim())) {
+				return bType;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Determines the backend type of existing monitoring results. Columnar stores are directories, SQLite databases are files.
+	 * @param path Path of the monitoring results.
+	 * @return Value of ResultsBackendType that corresponds to the format of the results at the specified path.
+	 */
+	public static ResultsBackendType detectFromPath(String path) {
+		if(ColumnarResultsStore.isColumnarStore(path)) {
+			return COLUMNAR;
+		}
+		return SQLITE;
+	}
+
+	/**
+	 * Creates a backend of the specified type that stores its results at the specified path.
+	 * @param type Value of ResultsBackendType that indicates the backend that is created.
+	 * @param path Path of the SQLite database file or of the columnar store directory.
+	 * @return Backend that is connected to the specified path.
+	 */
+	public static ResultsBackend createBackend(ResultsBackendType type, String path) {
+		switch(type) {
+		case COLUMNAR:
+			return new ColumnarResultsStore(path);
+		case SQLITE:
+		default:
+			return new SqLiteDBHandler(path);
+		}
+	}
+
+	/**
+	 * Opens existing monitoring results in the backend that matches their format.
+	 * @param path Path of the monitoring results.
+	 * @return Backend that is connected to the specified path.
+	 */
+	public static ResultsBackend openBackend(String path) {
+		return ResultsBackendType.createBackend(ResultsBackendType.detectFromPath(path), path);
+	}
+
+	/**
+	 * Opens existing monitoring results in read-only mode in the backend that matches their format.
+	 * @param path Path of the monitoring results.
+	 * @return Read-only backend that is connected to the specified path.
+	 */
+	public static ResultsBackend openReadOnlyBackend(String path) {
+		switch(ResultsBackendType.detectFromPath(path)) {
+		case COLUMNAR:
+			return new ColumnarResultsStore(path, true);
+		case SQLITE:
+		default:
+			return new SqLiteDBHandler(path, true);
+		}
+	}
+
+}
@@ -10,10 +10,14 @@ import java.sql.Statement;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.TreeMap;
+
+import org.sqlite.SQLiteConfig;
 
 
 /**
@@ -21,7 +25,7 @@ import java.util.TimeZone;
  * @author nilsw
  *
  */
-public class SqLiteDBHandler {
+public class SqLiteDBHandler implements ResultsBackend {
 
 	/**
 	 * Connection to the SQLite database.
@@ -53,7 +57,27 @@ public class SqLiteDBHandler {
 	 * Indicates whether the createTables() method was called.
 	 */
 	private boolean createTablesCalled;
-	
+
+	/**
+	 * Writer that inserts the records on a background thread (null if the records are inserted synchronously).
+	 */
+	private AsynchronousRecordWriter recordWriter;
+
+	/**
+	 * Insert statements that were used last for each evaluation table (indexed by the ordinal of EvaluationTable).
+	 */
+	private PreparedStatement[] cachedInsertStatements;
+
+	/**
+	 * Simulated days (in days since 01.01.1970, GMT) to which the cached insert statements belong.
+	 */
+	private long[] cachedInsertStatementDays;
+
+	/**
+	 * Indicates whether the database was opened in read-only mode (no insert statements are prepared in this case).
+	 */
+	private boolean readOnly;
+
 	/**
 	 * 
 	 */
@@ -71,14 +95,35 @@ public class SqLiteDBHandler {
 	 * the newly created database.
 	 */
 	public SqLiteDBHandler(String databaseName) {
+		this(databaseName, false);
+	}
+
+	/**
+	 * Connects to an existing database or creates a new database.
+	 * @param databaseName Name of the database to which the handler should connect or, in the case that no database with this name exists, the name of
+	 * the newly created database.
+	 * @param readOnly Indicates whether the connection is opened in read-only mode. Read-only connections only connect to existing databases and
+	 * several of them can read the same database concurrently.
+	 */
+	public SqLiteDBHandler(String databaseName, boolean readOnly) {
 		String url = "jdbc:sqlite:" + databaseName;
+		this.readOnly = readOnly;
 		this.format = new SimpleDateFormat("dd_MM_yyyy");
 		this.format.setTimeZone(TimeZone.getTimeZone("GMT"));
 		this.createTablesCalled = false;
+		this.cachedInsertStatements = new PreparedStatement[EvaluationTable.values().length];
+		this.cachedInsertStatementDays = new long[EvaluationTable.values().length];
 		
 		try {
 			//Establish connection to the database.
-			this.dbConnection = DriverManager.getConnection(url);
+			if(this.readOnly) {
+				SQLiteConfig config = new SQLiteConfig();
+				config.setReadOnly(true);
+				this.dbConnection = DriverManager.getConnection(url, config.toProperties());
+			}
+			else {
+				this.dbConnection = DriverManager.getConnection(url);
+			}
 			if (this.dbConnection != null) {
 				DatabaseMetaData meta = this.dbConnection.getMetaData();
 				System.out.println("The driver name is " + meta.getDriverName());
@@ -175,6 +220,9 @@ public class SqLiteDBHandler {
 		}while(current.before(end));
 		this.updatePreparedStatements(name);
 		
+		//The insert statements of the recreated tables were replaced
+		Arrays.fill(this.cachedInsertStatements, null);
+		
 		this.createTablesCalled = false;
 	}
 
@@ -185,30 +233,164 @@ public class SqLiteDBHandler {
 	 * @param evaluationTable Value of TableType that corresponds to the type of the table in which the record should be inserted.
 	 */
 	public void insertRecord(DatabaseRecord record) {
+		//If the asynchronous writer is started, the record is only buffered
+		if(this.recordWriter != null) {
+			this.recordWriter.addRecord(record);
+			return;
+		}
+
+		PreparedStatement insertStatement = this.bindRecord(record);
+		if (insertStatement != null) {
+			try {
+				insertStatement.executeUpdate();
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Inserts a schema-bound record into a table of the database. The record instance can be reused by the caller as soon as the method returns.
+	 * @param record Instance of BoundDatabaseRecord that corresponds to the record that should be inserted.
+	 */
+	public void insertRecord(BoundDatabaseRecord record) {
+		//If the asynchronous writer is started, the values of the record are only copied into its buffer
+		if(this.recordWriter != null) {
+			this.recordWriter.addRecord(record);
+			return;
+		}
+
+		PreparedStatement insertStatement = this.bindRecord(record);
+		if (insertStatement != null) {
+			try {
+				insertStatement.executeUpdate();
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Sets the values of a schema-bound record in the insert statement of the table to which the record belongs.
+	 * @param record Record that should be inserted.
+	 * @return Insert statement in which the values of the record are set (null if no insert statement exists for the target table of the record).
+	 */
+	PreparedStatement bindRecord(BoundDatabaseRecord record) {
+		PreparedStatement insertStatement = this.getInsertStatement(record.getTargetEvaluationTable(), record.getLong(ColumnType.TIMESTAMP));
+
+		if (insertStatement != null) {
+			try {
+				record.setValuesInPreparedStatement(insertStatement);
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+		}
+		return insertStatement;
+	}
+
+	/**
+	 * Retrieves the insert statement of the daily table of an evaluation table that contains the records of the specified point in time.
+	 * The statement is cached per evaluation table, thus the table name is only created once per simulated day.
+	 * @param evaluationTable Evaluation table for which the insert statement is requested.
+	 * @param timestamp Point in time (in milliseconds) of the record that should be inserted.
+	 * @return Insert statement of the daily table (null if the table does not exist).
+	 */
+	private PreparedStatement getInsertStatement(EvaluationTable evaluationTable, long timestamp) {
+		int table = evaluationTable.ordinal();
+		long day = Math.floorDiv(timestamp, 86400000L);
+
+		if(this.cachedInsertStatements[table] == null || this.cachedInsertStatementDays[table] != day) {
+			this.cachedInsertStatements[table] = insertStatements.get(this.createTableNameFromPrefix(EvaluationTable.getTableName(evaluationTable), timestamp));
+			this.cachedInsertStatementDays[table] = day;
+		}
+		return this.cachedInsertStatements[table];
+	}
+
+	/**
+	 * Sets the values of a record in the insert statement of the table to which the record belongs.
+	 * @param record Record that should be inserted.
+	 * @return Insert statement in which the values of the record are set (null if no insert statement exists for the target table of the record).
+	 */
+	PreparedStatement bindRecord(DatabaseRecord record) {
 //		tableName += "_" + this.format.format(new Date(record.getTimestamp()));
 		EvaluationTable targetEvaluationTable = record.getTargetEvaluationTable();
-		String tableName = EvaluationTable.getTableName(targetEvaluationTable);
-		PreparedStatement insertStatement = insertStatements.get(this.createTableNameFromPrefix(tableName, record.getLong(ColumnType.TIMESTAMP)));
+		PreparedStatement insertStatement = this.getInsertStatement(targetEvaluationTable, record.getLong(ColumnType.TIMESTAMP));
 		ColumnType[] tableSchema = EvaluationTable.getTableSchema(targetEvaluationTable);
-		
+
 		if (insertStatement != null) {
+			ColumnType cType;
+			for(int i=1; i <= tableSchema.length; i++) {
+				cType = tableSchema[i-1];
+				this.setValueInPreparedStatement(insertStatement, cType, record.getValueByColumnType(cType), i);
+			}
+		}
+		return insertStatement;
+	}
+
+	/**
+	 * Starts a background thread that inserts all subsequently inserted records. Thereby, the records are buffered in a bounded ring buffer and
+	 * are written to the database in JDBC batches. The insert statements of all tables have to be created before the writer is started.
+	 * @param bufferCapacity Maximum amount of buffered records. If the buffer is full, insertRecord waits until the writer thread has drained a part of it.
+	 * @param batchSize Amount of records after which the collected batches are executed.
+	 * @param commitInterval Amount of records after which a commit is performed (0 means that commits are only performed when commit() is called).
+	 */
+	public void startAsynchronousWriter(int bufferCapacity, int batchSize, int commitInterval) {
+		if(this.recordWriter == null) {
+			this.recordWriter = new AsynchronousRecordWriter(this, bufferCapacity, batchSize, commitInterval);
+		}
+	}
+
+	/**
+	 * Perform commit on the database. If the asynchronous writer is started, the commit is performed by the writer thread as soon as all
+	 * previously inserted records are written.
+	 */
+	public void commit() {
+		if(this.recordWriter != null) {
+			this.recordWriter.requestCommit();
+		}
+		else {
+			this.commitConnection();
+		}
+	}
+
+	/**
+	 * Waits until all previously inserted records are written to the database and commits them.
+	 */
+	public void flush() {
+		if(this.recordWriter != null) {
+			this.recordWriter.flush();
+		}
+		else {
+			this.commitConnection();
+		}
+	}
+
+	/**
+	 * Writes and commits all previously inserted records, stops the asynchronous writer (if it was started) and closes the connection to the database.
+	 */
+	public void close() {
+		try {
+			if(this.recordWriter != null) {
+				AsynchronousRecordWriter writer = this.recordWriter;
+				this.recordWriter = null;
+				writer.close();
+			}
+			else {
+				this.commitConnection();
+			}
+		} finally {
 			try {
-				ColumnType cType;
-				for(int i=1; i <= tableSchema.length; i++) {
-					cType = tableSchema[i-1];
-					this.setValueInPreparedStatement(insertStatement, cType, record.getValueByColumnType(cType), i);
-				}
-				insertStatement.executeUpdate();
+				this.dbConnection.close();
 			} catch (SQLException e) {
 				e.printStackTrace();
 			}
 		}
 	}
-	
+
 	/**
-	 * Perform commit on the database.
+	 * Performs a commit on the database connection.
 	 */
-	public void commit() {
+	void commitConnection() {
 		try {
 			dbConnection.commit();
 		} catch (SQLException e) {
@@ -344,6 +526,51 @@ public class SqLiteDBHandler {
 		}
 	}
 
+	/**
+	 * Passes the values of the specified columns of all records with a TIMESTAMP value between the specified dates to a scanner.
+	 * Instead of a union over all daily tables, each daily table that overlaps the interval is queried once (in the order of the days).
+	 * @param evaluationTable Evaluation table from which the records are read.
+	 * @param firstDate First date of the interval in which the selected records are located.
+	 * @param lastDate Last date of the interval in which the selected records are located.
+	 * @param columns Numerical columns whose values are passed to the scanner (in this order).
+	 * @param scanner Scanner that receives the values of the selected records.
+	 */
+	public void scanRecordsBetweenDates(EvaluationTable evaluationTable, Date firstDate, Date lastDate, ColumnType[] columns, RecordScanner scanner) {
+		String tablePrefix = EvaluationTable.getTableName(evaluationTable);
+		ArrayList<String> tableCatalog = this.getTableCatalog();
+
+		StringBuffer columnList = new StringBuffer(ColumnType.convertToStringName(ColumnType.TIMESTAMP));
+		for(ColumnType column : columns) {
+			columnList.append("," + ColumnType.convertToStringName(column));
+		}
+
+		double[] values = new double[columns.length];
+		String tableName;
+		ResultSet entries;
+		for(long day = Math.floorDiv(firstDate.getTime(), 86400000L)*86400000L; day <= lastDate.getTime(); day += 86400000L) {
+			tableName = this.createTableNameFromPrefix(tablePrefix, day);
+			if(!tableCatalog.contains(tableName)) {
+				continue;
+			}
+
+			entries = this.executeQuery("select " + columnList + " from " + tableName + " where timestamp >= " + firstDate.getTime() + " and timestamp <= " + lastDate.getTime() + ";");
+			if(entries == null) {
+				continue;
+			}
+			try {
+				while(entries.next()) {
+					for(int i=0; i < values.length; i++) {
+						values[i] = entries.getDouble(i+2);
+					}
+					scanner.scanRecord(entries.getLong(1), values);
+				}
+				entries.close();
+			} catch (SQLException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
 	/**
 	 * Retrieves a sql statistic value from a database table.
 	 * @param tableName Name of the table from which the statistic is requested.
@@ -463,6 +690,87 @@ public class SqLiteDBHandler {
 		return count;
 	}
 	
+	/**
+	 * Retrieves the amount of records in all daily tables of an evaluation table. In contrast to getRowCount, identical records in different daily tables
+	 * are counted separately.
+	 * @param evaluationTable Evaluation table for which the offset is requested.
+	 * @return Amount of records in the daily tables of the specified table.
+	 */
+	public long getRecordOffset(EvaluationTable evaluationTable) {
+		long offset = 0;
+		for(String tableName : this.getDailyTableNames(evaluationTable)) {
+			offset += this.countRecords(tableName);
+		}
+		return offset;
+	}
+
+	/**
+	 * Discards all records of an evaluation table that were inserted after the specified amount of records. The records are inserted in the order
+	 * of their TIMESTAMP values, thus the insertion order corresponds to the order of the daily tables and the order of the rowids within each table.
+	 * @param evaluationTable Evaluation table whose records are discarded.
+	 * @param recordOffset Amount of records that are kept.
+	 */
+	public void truncateRecordTable(EvaluationTable evaluationTable, long recordOffset) {
+		long remaining = recordOffset;
+		long count;
+		try {
+			Statement st = this.dbConnection.createStatement();
+			for(String tableName : this.getDailyTableNames(evaluationTable)) {
+				count = this.countRecords(tableName);
+				if(remaining >= count) {
+					remaining -= count;
+				}
+				else {
+					st.executeUpdate("delete from " + tableName + " where rowid not in (select rowid from " + tableName + " order by rowid limit " + remaining + ");");
+					remaining = 0;
+				}
+			}
+			st.close();
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		this.commitConnection();
+	}
+
+	/**
+	 * Retrieves the names of all daily tables of an evaluation table in the order of their days.
+	 * @param evaluationTable Evaluation table for which the daily tables are requested.
+	 * @return Names of the daily tables.
+	 */
+	private ArrayList<String> getDailyTableNames(EvaluationTable evaluationTable) {
+		String tablePrefix = EvaluationTable.getTableName(evaluationTable) + "_";
+		TreeMap<Long, String> dailyTables = new TreeMap<Long, String>();
+		String day;
+		for(String name : this.getTableCatalog()) {
+			if(!name.startsWith(tablePrefix)) {
+				continue;
+			}
+			day = name.substring(tablePrefix.length());
+			if(!day.matches("\\d\\d_\\d\\d_\\d\\d\\d\\d")) {
+				continue;
+			}
+			try {
+				dailyTables.put(this.format.parse(day).getTime(), name);
+			} catch (ParseException e) {
+				e.printStackTrace();
+			}
+		}
+		return new ArrayList<String>(dailyTables.values());
+	}
+
+	private long countRecords(String tableName) {
+		ResultSet rowCount = this.executeQuery("select count(*) from " + tableName + ";");
+		long count = 0;
+		try {
+			rowCount.next();
+			count = rowCount.getLong(1);
+			rowCount.close();
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return count;
+	}
+
 	/**
 	 * Executes a custom sql query on the database.
 	 * @param query String that contains the custom sql query.
@@ -655,7 +963,7 @@ public class SqLiteDBHandler {
 //			}
 //		}
 		
-		if (insertStatements.get(tableName) == null) {
+		if (!this.readOnly && insertStatements.get(tableName) == null) {
 			this.prepareInsertStatement(tableName, evaluationTable);
 		}
 		if (selectAllStatements.get(tableName) == null) {
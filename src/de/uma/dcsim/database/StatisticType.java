@@ -25,7 +25,12 @@ public enum StatisticType {
 	/**
 	 * Sum statistic.
 	 */
-	SUM;
+	SUM,
+	
+	/**
+	 * Count statistic (amount of records with a value in the column).
+	 */
+	COUNT;
 	
 	/**
 	 * Retrieves the name of a value of StatisticType as sql representation.
@@ -42,6 +47,8 @@ public enum StatisticType {
 			return "min";
 		case SUM:
 			return "sum";
+		case COUNT:
+			return "count";
 		default:
 			return "";
 		}
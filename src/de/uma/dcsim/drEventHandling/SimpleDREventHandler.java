@@ -1,16 +1,18 @@
 package de.uma.dcsim.drEventHandling;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
-import de.uma.dcsim.energyPriceModels.EnergyPriceModelSelector;
 import de.uma.dcsim.hardware.DC;
-import de.uma.dcsim.powerModels.PowerModelSelector;
-import de.uma.dcsim.runtimeModels.RuntimeModelSelector;
 import de.uma.dcsim.scheduling.Scheduler;
 import de.uma.dcsim.scheduling.SchedulingResult;
 import de.uma.dcsim.simulationControl.Setup;
 import de.uma.dcsim.utilities.BatchJob;
 import de.uma.dcsim.utilities.BatchJobStatus;
+import de.uma.dcsim.utilities.FrequencyIndex;
 import de.uma.dcsim.utilities.PowerType;
 import de.uma.dcsim.utilities.ReserveProvisionType;
 
@@ -81,35 +83,39 @@ public class SimpleDREventHandler implements DREventHandler {
 	}
 	
 	public double[] optimizePowerDemandFlexibilityCost(double powerAdjustmentHeight, ReserveProvisionType adjustmentType, int DRIntervalLength, double compensationReward) {
-		DC cCopy;
 		double cCost;
 		double minI = 0;
 		double minJ = 0;
 		double minimumCost = Double.MAX_VALUE;
 		double shiftingFraction = 0;
 		double scalingFrequency = 2.3;
-		SimpleDREventHandler cEventHandler;
 		int previousNodeSum = -1;
 		int currentNodeSum = 0;
+		boolean parallel = this.handledDC.getContext().getDrOptimizationParallelism() > 1;
 		
 		//Try all possible combinations of shifting fraction and scaling frequency
 		for(int i=0; i <= 100 ; i += 1) {
 			shiftingFraction = (double)i/100.0;
 			currentNodeSum = -1;
+			
+			//If configured, evaluate all scaling frequencies of the current shifting fraction concurrently. The decisions below are still taken in the serial order of the frequencies.
+			CandidateResult[] rowResults = null;
+			if(parallel) {
+				rowResults = this.evaluateCandidateRow(powerAdjustmentHeight, adjustmentType, DRIntervalLength, compensationReward, shiftingFraction, previousNodeSum);
+			}
 
-			for(int j=27; j >= 12; j -= 1) {
+			for(int j=FrequencyIndex.COUNT-1; j >= 0; j -= 1) {
 			
-				scalingFrequency = (double)j/10.0;
+				scalingFrequency = FrequencyIndex.getFrequency(j);
 				
-				//Create copy of the handled DC on which the current configuration is tested
-				cCopy = this.handledDC.deepCopy(this.handledDC.getClock() + DRIntervalLength);
-				cEventHandler = (SimpleDREventHandler) cCopy.getDREventHandler();
-				cEventHandler.setShiftingFraction(shiftingFraction);
-				cEventHandler.setScalingFrequency(scalingFrequency);
-				cEventHandler.setPreviouslyShiftedNodeSteps(previousNodeSum);
-				
-				//Schedule DR event window for copied DC
-				SchedulingResult schedulingResult = cEventHandler.issueDemandResponseRequest(powerAdjustmentHeight, adjustmentType, DRIntervalLength, compensationReward);
+				CandidateResult candidate;
+				if(parallel) {
+					candidate = rowResults[FrequencyIndex.COUNT-1-j];
+				}
+				else {
+					candidate = this.evaluateCandidate(powerAdjustmentHeight, adjustmentType, DRIntervalLength, compensationReward, shiftingFraction, scalingFrequency, previousNodeSum);
+				}
+				SchedulingResult schedulingResult = candidate.schedulingResult;
 				
 				//If the amount of shifted node steps equals the amount of shifted node steps from the previously tested configuration (in this case the costs will be exactly the same)
 				if(schedulingResult.getActuallyShiftedNodeFraction() == -1 && schedulingResult.getShiftedNodeSteps() == -1) {
@@ -117,7 +123,7 @@ public class SimpleDREventHandler implements DREventHandler {
 				}
 				//If the schedule of the copied DC fits the requested power bound (otherwise this combination is not relevant for the optimization)
 				if(schedulingResult.isPowerBoundFitted()) {
-					cCost = this.determinePowerDemandFlexibilityCost(powerAdjustmentHeight, adjustmentType, DRIntervalLength, compensationReward, shiftingFraction, scalingFrequency, cCopy);
+					cCost = candidate.cost;
 					//Capture values of optimal configuration
 					if(cCost < minimumCost) {
 						minimumCost = cCost;
@@ -139,6 +145,72 @@ public class SimpleDREventHandler implements DREventHandler {
 		return new double[] {minI, minJ};
 	}
 	
+	/**
+	 * Tests a single combination of shifting fraction and scaling frequency on a copy of the handled DC.
+	 * The costs of the combination are only determined if the resulting schedule fits the requested power bound.
+	 * @param previousNodeSum Amount of node steps that were shifted for the previously tested shifting fraction (-1 if there is none).
+	 * @return Instance of CandidateResult that contains the scheduling result and the costs of the tested combination.
+	 */
+	private CandidateResult evaluateCandidate(double powerAdjustmentHeight, ReserveProvisionType adjustmentType, int DRIntervalLength, double compensationReward, double shiftingFraction, double scalingFrequency, int previousNodeSum) {
+		//Create copy of the handled DC on which the current configuration is tested
+		DC cCopy = this.handledDC.deepCopy(this.handledDC.getClock() + DRIntervalLength);
+		SimpleDREventHandler cEventHandler = (SimpleDREventHandler) cCopy.getDREventHandler();
+		cEventHandler.setShiftingFraction(shiftingFraction);
+		cEventHandler.setScalingFrequency(scalingFrequency);
+		cEventHandler.setPreviouslyShiftedNodeSteps(previousNodeSum);
+		
+		//Schedule DR event window for copied DC
+		SchedulingResult schedulingResult = cEventHandler.issueDemandResponseRequest(powerAdjustmentHeight, adjustmentType, DRIntervalLength, compensationReward);
+		
+		double cost = Double.MAX_VALUE;
+		if(schedulingResult.isPowerBoundFitted()) {
+			cost = this.determinePowerDemandFlexibilityCost(powerAdjustmentHeight, adjustmentType, DRIntervalLength, compensationReward, shiftingFraction, scalingFrequency, cCopy);
+		}
+		return new CandidateResult(schedulingResult, cost);
+	}
+	
+	/**
+	 * Tests all scaling frequencies (2.7 down to 1.2) for one shifting fraction concurrently on the optimization pool of the simulation (see SimulationContext.getOptimizationPool).
+	 * Every candidate works on its own copy of the handled DC, the handled DC itself is only read.
+	 * @return Array of CandidateResult, ordered in the same way as the scaling frequencies are tested by the serial search.
+	 */
+	private CandidateResult[] evaluateCandidateRow(double powerAdjustmentHeight, ReserveProvisionType adjustmentType, int DRIntervalLength, double compensationReward, double shiftingFraction, int previousNodeSum) {
+		List<Callable<CandidateResult>> tasks = new ArrayList<Callable<CandidateResult>>();
+		for(int j=FrequencyIndex.COUNT-1; j >= 0; j -= 1) {
+			double scalingFrequency = FrequencyIndex.getFrequency(j);
+			tasks.add(() -> this.evaluateCandidate(powerAdjustmentHeight, adjustmentType, DRIntervalLength, compensationReward, shiftingFraction, scalingFrequency, previousNodeSum));
+		}
+		
+		CandidateResult[] result = new CandidateResult[tasks.size()];
+		try {
+			List<Future<CandidateResult>> futures = this.handledDC.getContext().getOptimizationPool().invokeAll(tasks);
+			for(int k=0; k < futures.size(); k++) {
+				result[k] = futures.get(k).get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+		return result;
+	}
+	
+	/**
+	 * Result of testing a single combination of shifting fraction and scaling frequency.
+	 */
+	private static class CandidateResult {
+		
+		private final SchedulingResult schedulingResult;
+		
+		private final double cost;
+		
+		private CandidateResult(SchedulingResult schedulingResult, double cost) {
+			this.schedulingResult = schedulingResult;
+			this.cost = cost;
+		}
+	}
+	
 	public double determinePowerDemandFlexibilityCost(double powerAdjustmentHeight, ReserveProvisionType adjustmentType, int DRIntervalLength, double compensationReward, double shiftingFraction, double DVFSFraction, DC drDC) {
 		double additionalCost = 0;
 		//Copy of the handled DC
@@ -165,7 +237,7 @@ public class SimpleDREventHandler implements DREventHandler {
 
 			//Continue simulation of comparison DC and drDC until they are in equal states again
 			int counter = 0;
-			while (counter <= Setup.maximumRuntime) {
+			while (counter <= this.handledDC.getContext().getMaximumRuntime()) {
 				if (drDC.getRunningJobs().size() == comparisonDC.getRunningJobs().size()
 						&& drDC.getOccupiedServer().size() == comparisonDC.getOccupiedServer().size()
 						&& drDC.getOverallCurrentPC() == comparisonDC.getOverallCurrentPC()
@@ -205,13 +277,13 @@ public class SimpleDREventHandler implements DREventHandler {
 			
 			//Calculate additional SLA and energy costs for comparison DC
 			for(BatchJob job : comparisonRelevantJobs) {
-				comparisonCurrentSLACost += job.getCurrentlyCausedSLACosts(Setup.usagePrice);
-				comparisonCausedEnergyCost += this.determineJobEnergyCostUnderDREventImpact(job, EnergyPriceModelSelector.getEnergyPriceInCentPerKWh(this.handledDC.getClock()), DRIntervalLength, job.getOriginalFrequency(), this.handledDC.getClock());
+				comparisonCurrentSLACost += job.getCurrentlyCausedSLACosts(this.handledDC.getContext().getUsagePrice());
+				comparisonCausedEnergyCost += this.determineJobEnergyCostUnderDREventImpact(job, this.handledDC.getContext().getEnergyPriceInCentPerKWh(this.handledDC.getClock()), DRIntervalLength, job.getOriginalFrequency(), this.handledDC.getClock());
 			}
 			//Calculate additional SLA and energy costs for dr DC
 			for(BatchJob job : drRelevantJobs) {
-				drCurrentSLACost += job.getCurrentlyCausedSLACosts(Setup.usagePrice);
-				drCausedEnergyCost += this.determineJobEnergyCostUnderDREventImpact(job, EnergyPriceModelSelector.getEnergyPriceInCentPerKWh(this.handledDC.getClock()), DRIntervalLength, job.getOriginalFrequency(), this.handledDC.getClock());
+				drCurrentSLACost += job.getCurrentlyCausedSLACosts(this.handledDC.getContext().getUsagePrice());
+				drCausedEnergyCost += this.determineJobEnergyCostUnderDREventImpact(job, this.handledDC.getContext().getEnergyPriceInCentPerKWh(this.handledDC.getClock()), DRIntervalLength, job.getOriginalFrequency(), this.handledDC.getClock());
 			}
 			additionalCost = (drCurrentSLACost+drCausedEnergyCost) - (comparisonCurrentSLACost+comparisonCausedEnergyCost);
 			additionalCost -= compensationReward;
@@ -342,7 +414,7 @@ public class SimpleDREventHandler implements DREventHandler {
 	private double determineJobEnergyCostUnderDREventImpact(BatchJob job, double energyPrice, int DREventLength, double frequencyAfterDREvent, int currentTime) {
 		int intervalEnd = currentTime+DREventLength;
 		if(job.getOriginalFrequency() == job.getFrequency()) {
-			double realTimeHours = ((double)job.getRemainingRuntimeInSimulationTime()*(double)Setup.secondsPerSimulationTimestep)/3600.0;
+			double realTimeHours = ((double)job.getRemainingRuntimeInSimulationTime()*(double)this.handledDC.getContext().getSecondsPerSimulationTimestep())/3600.0;
 			double kWPerStep = (job.getTotalPowerConsumption()/1000.0);
 			return realTimeHours*kWPerStep*energyPrice;
 		}
@@ -364,14 +436,14 @@ public class SimpleDREventHandler implements DREventHandler {
 				tmp++;
 			}
 			
-			double drEventRealTime = ((double)timestepsDuringDREvent*(double)Setup.secondsPerSimulationTimestep)/3600.0;
+			double drEventRealTime = ((double)timestepsDuringDREvent*(double)this.handledDC.getContext().getSecondsPerSimulationTimestep())/3600.0;
 			double drEventkW = (job.getTotalPowerConsumption()/1000.0);
 			
 			int remainingTimeAfterDREvent = job.getRemainingRuntimeInSimulationTime()-timestepsDuringDREvent;
-			remainingTimeAfterDREvent = RuntimeModelSelector.getAdjustedRuntime(frequencyAfterDREvent, job.getFrequency(), remainingTimeAfterDREvent);
+			remainingTimeAfterDREvent = this.handledDC.getContext().getAdjustedRuntime(frequencyAfterDREvent, job.getFrequency(), remainingTimeAfterDREvent);
 			
-			double afterEventRealTime = ((double)remainingTimeAfterDREvent*(double)Setup.secondsPerSimulationTimestep)/3600.0;
-			double afterEventkW = ((PowerModelSelector.getServerPower(frequencyAfterDREvent, job.getJobClass())*job.getAmountOfServers())/1000.0);
+			double afterEventRealTime = ((double)remainingTimeAfterDREvent*(double)this.handledDC.getContext().getSecondsPerSimulationTimestep())/3600.0;
+			double afterEventkW = ((this.handledDC.getContext().getServerPower(frequencyAfterDREvent, job.getJobClass())*job.getAmountOfServers())/1000.0);
 			
 			return ((drEventRealTime*drEventkW) + (afterEventRealTime*afterEventkW))*energyPrice;
 		}
@@ -1,9 +1,9 @@
 package de.uma.dcsim.energyPriceModels;
 
 import java.util.ArrayList;
-import java.util.TreeMap;
 
 import de.uma.dcsim.utilities.EnergyPrice;
+import de.uma.dcsim.utilities.StepFunctionTimeSeries;
 
 /**
  * This class implements the EnergyPriceModel interface and thus can be used as energy price model. The class uses a 
@@ -14,45 +14,27 @@ import de.uma.dcsim.utilities.EnergyPrice;
 public class TraceBasedEnergyPrice implements EnergyPriceModel {
 	
 	/**
-	 * Tree structure that stores all energy prices.
+	 * Step function that stores all energy prices (0.16 if the trace does not contain any energy prices).
 	 */
-	private TreeMap<Integer, Double> priceMap;
+	private StepFunctionTimeSeries prices;
 	
 	public double getEnergyPriceInCentPerKWH(int currentTime) {
-		//If the requested key is not contained in the tree
-		if(!this.priceMap.containsKey(currentTime)) {
-			//Corresponds to the key of the energy price that has the next lowest key below the requested key
-			Integer lowerKey = this.priceMap.lowerKey(currentTime);
-			if(lowerKey != null) {
-				return this.priceMap.get(lowerKey);
-			}
-			else {
-				Integer higherKey = this.priceMap.higherKey(currentTime);
-				if(higherKey != null) {
-					return this.priceMap.get(higherKey);
-				}
-				//If no next highest and next lowest keys are available
-				else {
-					return 0.16;
-				}
-			}
-		}
-		//If the requested key is directly contained in the tree
-		else {
-			return this.priceMap.get(currentTime);
-		}
+		//Energy price with the next lowest timestamp at or below the requested point in simulation time (the first energy price before the start of the trace)
+		return this.prices.getValue(currentTime);
 	}
 	
 	/**
-	 * Initializes the tree structure that stores the energy prices.
+	 * Initializes the step function that stores the energy prices.
 	 * @param energyPrices List of the energy prices that are stored in the model.
 	 */
 	public void initializeModel(ArrayList<EnergyPrice> energyPrices) {
-		 this.priceMap = new TreeMap<Integer, Double>();
-		 
-		 for(EnergyPrice price : energyPrices) {
-			 priceMap.put(price.getTimestamp(), price.getPrice());
-		 }
+		int[] timestamps = new int[energyPrices.size()];
+		double[] values = new double[energyPrices.size()];
+		for(int i=0; i < timestamps.length; i++) {
+			timestamps[i] = energyPrices.get(i).getTimestamp();
+			values[i] = energyPrices.get(i).getPrice();
+		}
+		this.prices = new StepFunctionTimeSeries(timestamps, values, 0.16);
 	}
 
 }
@@ -0,0 +1,276 @@
+package de.uma.dcsim.evaluation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import de.uma.dcsim.database.ColumnType;
+import de.uma.dcsim.database.EvaluationTable;
+import de.uma.dcsim.database.RecordScanner;
+import de.uma.dcsim.database.ResultsBackend;
+import de.uma.dcsim.database.StatisticType;
+
+/**
+ * This class calculates several statistics of the monitoring values in a single pass over each evaluation table.
+ * All aggregations are registered before the aggregation is started. Afterwards, each evaluation table that is affected by at least one aggregation
+ * is scanned once and every scanned record is added to all aggregations (and aggregation intervals) to which it belongs.
+ *
+ * The aggregation intervals correspond to the intervals that are used by SimulationEvaluator.getStatistic: The first interval contains both of its
+ * boundaries, whereas all subsequent intervals end one second before the start of the next interval.
+ * @author nilsw
+ *
+ */
+public class AggregationEngine {
+
+	/**
+	 * Start time (in milliseconds) of the first aggregation interval.
+	 */
+	private long startTime;
+
+	/**
+	 * End time (in milliseconds) of the evaluation. The last aggregation interval is the first interval that ends after this time.
+	 */
+	private long endTime;
+
+	/**
+	 * Amount of milliseconds that each aggregation interval contains.
+	 */
+	private long millisecondsPerInterval;
+
+	/**
+	 * Amount of aggregation intervals between the start and end time.
+	 */
+	private int intervalCount;
+
+	/**
+	 * Registered aggregations (in the order of their registration).
+	 */
+	private List<Aggregation> aggregations;
+
+	/**
+	 * @param startDate Start date of the first aggregation interval.
+	 * @param endDate End date of the evaluation.
+	 * @param millisecondsPerInterval Amount of milliseconds that each aggregation interval contains (at least 1000).
+	 */
+	public AggregationEngine(Date startDate, Date endDate, long millisecondsPerInterval) {
+		this.startTime = startDate.getTime();
+		this.endTime = endDate.getTime();
+		this.millisecondsPerInterval = millisecondsPerInterval;
+		this.intervalCount = 0;
+		if(this.endTime > this.startTime) {
+			this.intervalCount = (int)((this.endTime - this.startTime + millisecondsPerInterval - 1) / millisecondsPerInterval);
+		}
+		this.aggregations = new ArrayList<Aggregation>();
+	}
+
+	/**
+	 * Registers an aggregation that calculates a statistic for each aggregation interval.
+	 * @param evaluationTable Evaluation table that contains the aggregated column.
+	 * @param column Column whose values are aggregated.
+	 * @param statistic Statistic that is calculated.
+	 * @return Identifier of the aggregation, which can be used to retrieve its result.
+	 */
+	public int addIntervalAggregation(EvaluationTable evaluationTable, ColumnType column, StatisticType statistic) {
+		this.aggregations.add(new Aggregation(evaluationTable, column, statistic, this.intervalCount, false));
+		return this.aggregations.size()-1;
+	}
+
+	/**
+	 * Registers an aggregation that calculates a statistic over all records between the start and end date (both inclusive).
+	 * @param evaluationTable Evaluation table that contains the aggregated column.
+	 * @param column Column whose values are aggregated.
+	 * @param statistic Statistic that is calculated.
+	 * @return Identifier of the aggregation, which can be used to retrieve its result.
+	 */
+	public int addTotalAggregation(EvaluationTable evaluationTable, ColumnType column, StatisticType statistic) {
+		this.aggregations.add(new Aggregation(evaluationTable, column, statistic, 1, true));
+		return this.aggregations.size()-1;
+	}
+
+	/**
+	 * Calculates all registered aggregations. Each evaluation table is scanned only once.
+	 * @param backend Backend that contains the monitoring values.
+	 */
+	public void aggregate(ResultsBackend backend) {
+		for(EvaluationTable evaluationTable : EvaluationTable.values()) {
+			final List<Aggregation> tableAggregations = new ArrayList<Aggregation>();
+			List<ColumnType> columns = new ArrayList<ColumnType>();
+			long scanEnd = Long.MIN_VALUE;
+			for(Aggregation aggregation : this.aggregations) {
+				if(aggregation.evaluationTable != evaluationTable) {
+					continue;
+				}
+				aggregation.reset();
+				tableAggregations.add(aggregation);
+				if(!columns.contains(aggregation.column)) {
+					columns.add(aggregation.column);
+				}
+				aggregation.valueIndex = columns.indexOf(aggregation.column);
+				if(aggregation.total) {
+					scanEnd = Math.max(scanEnd, this.endTime);
+				}
+				else if(this.intervalCount > 0) {
+					scanEnd = Math.max(scanEnd, this.getIntervalEnd(this.intervalCount-1));
+				}
+			}
+			if(tableAggregations.isEmpty() || scanEnd < this.startTime) {
+				continue;
+			}
+
+			backend.scanRecordsBetweenDates(evaluationTable, new Date(this.startTime), new Date(scanEnd), columns.toArray(new ColumnType[columns.size()]), new RecordScanner() {
+				@Override
+				public void scanRecord(long timestamp, double[] values) {
+					addRecord(tableAggregations, timestamp, values);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Retrieves the result of an interval aggregation.
+	 * @param aggregation Identifier of the aggregation.
+	 * @return List with the value of the statistic for each aggregation interval (0 for intervals without records).
+	 */
+	public ArrayList<Double> getIntervalResult(int aggregation) {
+		Aggregation cAggregation = this.aggregations.get(aggregation);
+		ArrayList<Double> result = new ArrayList<Double>(cAggregation.counts.length);
+		for(int i=0; i < cAggregation.counts.length; i++) {
+			result.add(cAggregation.getResult(i));
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieves the result of a total aggregation.
+	 * @param aggregation Identifier of the aggregation.
+	 * @return Value of the statistic (0 if no record was aggregated).
+	 */
+	public double getTotalResult(int aggregation) {
+		return this.aggregations.get(aggregation).getResult(0);
+	}
+
+	/**
+	 * Adds a scanned record to all aggregations of its table.
+	 * @param tableAggregations Aggregations of the table from which the record was scanned.
+	 * @param timestamp TIMESTAMP value of the record.
+	 * @param values Values of the scanned columns of the record.
+	 */
+	private void addRecord(List<Aggregation> tableAggregations, long timestamp, double[] values) {
+		//Determine the (at most two) aggregation intervals that contain the record
+		int interval = (int)Math.floorDiv(timestamp - this.startTime, this.millisecondsPerInterval);
+		int firstInterval = -1;
+		int secondInterval = -1;
+		if(interval >= 0 && interval < this.intervalCount && timestamp <= this.getIntervalEnd(interval)) {
+			firstInterval = interval;
+		}
+		if(interval-1 >= 0 && interval-1 < this.intervalCount && timestamp <= this.getIntervalEnd(interval-1)) {
+			secondInterval = interval-1;
+		}
+		boolean inTotal = timestamp >= this.startTime && timestamp <= this.endTime;
+
+		for(Aggregation aggregation : tableAggregations) {
+			if(aggregation.total) {
+				if(inTotal) {
+					aggregation.add(0, values[aggregation.valueIndex]);
+				}
+				continue;
+			}
+			if(firstInterval >= 0) {
+				aggregation.add(firstInterval, values[aggregation.valueIndex]);
+			}
+			if(secondInterval >= 0) {
+				aggregation.add(secondInterval, values[aggregation.valueIndex]);
+			}
+		}
+	}
+
+	/**
+	 * Retrieves the end time (inclusive) of an aggregation interval.
+	 * @param interval Index of the aggregation interval.
+	 * @return End time of the interval in milliseconds.
+	 */
+	private long getIntervalEnd(int interval) {
+		if(interval == 0) {
+			return this.startTime + this.millisecondsPerInterval;
+		}
+		return this.startTime + (interval+1)*this.millisecondsPerInterval - 1000;
+	}
+
+	/**
+	 * This class stores the state of a registered aggregation.
+	 */
+	private static class Aggregation {
+
+		private EvaluationTable evaluationTable;
+		private ColumnType column;
+		private StatisticType statistic;
+
+		/**
+		 * Indicates whether the aggregation covers the whole evaluation interval instead of the separate aggregation intervals.
+		 */
+		private boolean total;
+
+		/**
+		 * Position of the aggregated column in the values of the scanned records.
+		 */
+		private int valueIndex;
+
+		private double[] sums;
+		private double[] minimums;
+		private double[] maximums;
+		private long[] counts;
+
+		private Aggregation(EvaluationTable evaluationTable, ColumnType column, StatisticType statistic, int intervals, boolean total) {
+			this.evaluationTable = evaluationTable;
+			this.column = column;
+			this.statistic = statistic;
+			this.total = total;
+			this.sums = new double[intervals];
+			this.minimums = new double[intervals];
+			this.maximums = new double[intervals];
+			this.counts = new long[intervals];
+			this.reset();
+		}
+
+		private void reset() {
+			Arrays.fill(this.sums, 0.0);
+			Arrays.fill(this.minimums, Double.POSITIVE_INFINITY);
+			Arrays.fill(this.maximums, Double.NEGATIVE_INFINITY);
+			Arrays.fill(this.counts, 0);
+		}
+
+		private void add(int interval, double value) {
+			this.sums[interval] += value;
+			if(value < this.minimums[interval]) {
+				this.minimums[interval] = value;
+			}
+			if(value > this.maximums[interval]) {
+				this.maximums[interval] = value;
+			}
+			this.counts[interval]++;
+		}
+
+		private double getResult(int interval) {
+			//Like the sql statistics, all statistics except COUNT have no value (0) if no record was aggregated
+			if(this.counts[interval] == 0) {
+				return 0.0;
+			}
+			switch(this.statistic) {
+			case AVERAGE:
+				return this.sums[interval]/this.counts[interval];
+			case COUNT:
+				return this.counts[interval];
+			case MAXIMUM:
+				return this.maximums[interval];
+			case MINIMUM:
+				return this.minimums[interval];
+			case SUM:
+				return this.sums[interval];
+			default:
+				return 0.0;
+			}
+		}
+	}
+
+}
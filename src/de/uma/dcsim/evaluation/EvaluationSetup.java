@@ -11,6 +11,11 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import de.uma.dcsim.database.ColumnType;
 import de.uma.dcsim.database.EvaluationTable;
@@ -54,7 +59,10 @@ public class EvaluationSetup {
 	private String endDateString;
 	
 
-	private SimulationEvaluator evaluator;
+	/**
+	 * Amount of databases that are evaluated concurrently.
+	 */
+	private int evaluationParallelism;
 	
 	/**
 	 * Specifies the amount of milliseconds that each aggregation interval of possible evaluations that produce aggregated values has.
@@ -85,6 +93,7 @@ public class EvaluationSetup {
 		this.evaluationName = evaluationName;
 		this.evaluationColumns = specifications;
 		this.decimalSeparator = decimalSeparator;
+		this.evaluationParallelism = Runtime.getRuntime().availableProcessors();
 	}
 
 	public void evaluate() {
@@ -118,46 +127,18 @@ public class EvaluationSetup {
 		}
 				
 		
-		//Carry out evaluation
+		//Carry out evaluation (each database is evaluated by a separate worker)
+		ArrayList<DatabaseEvaluation> databaseEvaluations = this.evaluateDatabases(start, end);
+		
+		//Merge the results in the order of the database names, such that the output does not depend on the order in which the workers finished
 		ArrayList<String> totalSums = new ArrayList<String>();
 		ArrayList<ArrayList<Double>> valueLists = new ArrayList<ArrayList<Double>>();
-		ArrayList<Double> valueList;
-		for(int i=0; i < this.dbNames.size(); i ++) {
-			evaluator = new SimulationEvaluator(start, this.dbPath + this.dbNames.get(i) + ".db");
-			
-			for(EvaluationSpecification specification : evaluationColumns) {
-				switch(specification.getEvaluationType()) {
-				case AGGREGATED_AVERAGE:
-					valueList = evaluator.getStatistic(StatisticType.AVERAGE, specification.getEvaluationTable(), start, end, specification.getColumn(), millisecondsPerAggregationInterval);
-					valueLists.add(valueList);
-					columnNames.add(this.dbNames.get(i) + specification.getEvaluationColumnName());
-					break;
-				case AGGREGATED_SUM:
-					valueList = evaluator.getStatistic(StatisticType.SUM, specification.getEvaluationTable(), start, end, specification.getColumn(), millisecondsPerAggregationInterval);
-					valueLists.add(valueList);
-					columnNames.add(this.dbNames.get(i) + specification.getEvaluationColumnName());
-					break;
-				case ALL_RECORDS:
-					ArrayList<ArrayList<String>> recordsLists = new ArrayList<ArrayList<String>>();
-					ArrayList<String> recordsList;
-					for(ColumnType cType : specification.getColumnTypes()) {
-						recordsList = evaluator.getAllRecords(specification.getEvaluationTable(), start, end, cType, this.dateFormat, this.decimalSeparator);
-						recordsLists.add(recordsList);
-					}
-					this.writeLists(recordsLists, specification.getEvaluationColumnNames(), this.outputPath + "/" + this.evaluationName + "/" + this.dbNames.get(i) + "_" + EvaluationTable.getTableName(specification.getEvaluationTable()) + "_allRecords.csv");
-//					writeList(evaluator.getAllRecords(specification.getEvaluationTable(), start, end, specification.getColumn(), this.dateFormat), outputPath + "/" + evaluationName + "/" + this.dbNames.get(i) + "_" + specification.getEvaluationColumnName() + "_allRecords.csv");
-					break;
-				case TOTAL_SUM:
-					double sum = evaluator.getTotalSum(specification.getEvaluationTable(), start, end, specification.getColumn());
-					totalSums.add(specification.getEvaluationColumnName() + "_" + this.dbNames.get(i) + ";" + (""+sum).replace(".", this.decimalSeparator));
-					break;
-				default:
-					break;
-				
-				}
-			}
-
+		for(DatabaseEvaluation databaseEvaluation : databaseEvaluations) {
+			valueLists.addAll(databaseEvaluation.valueLists);
+			columnNames.addAll(databaseEvaluation.columnNames);
+			totalSums.addAll(databaseEvaluation.totalSums);
 		}
+		
 		//Write output files
 		if(valueLists.size() > 0) {
 			this.writeLists(valueLists, columnNames, times, outputPath + "/" + evaluationName + "/aggregatedStatistics_" + (millisecondsPerAggregationInterval/60000) + "min.csv");
@@ -168,6 +149,117 @@ public class EvaluationSetup {
 
 	}
 	
+	/**
+	 * Evaluates all databases. If the evaluation parallelism is greater than 1, the databases are evaluated concurrently, where each worker
+	 * uses its own read-only connection to its database.
+	 * @param start Start date of the evaluation.
+	 * @param end End date of the evaluation.
+	 * @return List of the evaluation results of all databases (in the order of the database names).
+	 */
+	private ArrayList<DatabaseEvaluation> evaluateDatabases(final Date start, final Date end) {
+		ArrayList<DatabaseEvaluation> result = new ArrayList<DatabaseEvaluation>();
+		int workers = Math.min(this.evaluationParallelism, this.dbNames.size());
+		if(workers <= 1) {
+			for(int i=0; i < this.dbNames.size(); i++) {
+				result.add(this.evaluateDatabase(this.dbNames.get(i), start, end));
+			}
+			return result;
+		}
+		
+		List<Callable<DatabaseEvaluation>> tasks = new ArrayList<Callable<DatabaseEvaluation>>();
+		for(int i=0; i < this.dbNames.size(); i++) {
+			final String dbName = this.dbNames.get(i);
+			tasks.add(() -> this.evaluateDatabase(dbName, start, end));
+		}
+		
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+		try {
+			List<Future<DatabaseEvaluation>> futures = pool.invokeAll(tasks);
+			for(Future<DatabaseEvaluation> future : futures) {
+				result.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+		return result;
+	}
+	
+	/**
+	 * Carries out all evaluation elements for a single database. The files of ALL_RECORDS evaluation elements are written directly, the aggregated
+	 * values and total sums are returned, such that they can be merged with the results of the other databases.
+	 * @param dbName Name of the evaluated database.
+	 * @param start Start date of the evaluation.
+	 * @param end End date of the evaluation.
+	 * @return Evaluation results of the database.
+	 */
+	private DatabaseEvaluation evaluateDatabase(String dbName, Date start, Date end) {
+		DatabaseEvaluation result = new DatabaseEvaluation();
+		SimulationEvaluator evaluator = new SimulationEvaluator(start, this.dbPath + dbName + ".db");
+		
+		//SimpleDateFormat is not thread-safe, thus each database uses its own instance
+		SimpleDateFormat recordDateFormat = (SimpleDateFormat)this.dateFormat.clone();
+		
+		//Register all aggregations of the evaluation, such that each table is only scanned once
+		AggregationEngine engine = new AggregationEngine(start, end, millisecondsPerAggregationInterval);
+		int[] aggregations = new int[this.evaluationColumns.size()];
+		EvaluationSpecification specification;
+		StatisticType statistic;
+		for(int j=0; j < this.evaluationColumns.size(); j++) {
+			specification = this.evaluationColumns.get(j);
+			statistic = EvaluationType.getAggregationStatistic(specification.getEvaluationType());
+			if(statistic != null) {
+				aggregations[j] = engine.addIntervalAggregation(specification.getEvaluationTable(), specification.getColumn(), statistic);
+			}
+			else if(specification.getEvaluationType() == EvaluationType.TOTAL_SUM) {
+				aggregations[j] = engine.addTotalAggregation(specification.getEvaluationTable(), specification.getColumn(), StatisticType.SUM);
+			}
+		}
+		evaluator.aggregate(engine);
+		
+		for(int j=0; j < this.evaluationColumns.size(); j++) {
+			specification = this.evaluationColumns.get(j);
+			switch(specification.getEvaluationType()) {
+			case AGGREGATED_AVERAGE:
+			case AGGREGATED_SUM:
+			case AGGREGATED_MINIMUM:
+			case AGGREGATED_MAXIMUM:
+			case AGGREGATED_COUNT:
+				result.valueLists.add(engine.getIntervalResult(aggregations[j]));
+				result.columnNames.add(dbName + specification.getEvaluationColumnName());
+				break;
+			case ALL_RECORDS:
+				ArrayList<ArrayList<String>> recordsLists = new ArrayList<ArrayList<String>>();
+				ArrayList<String> recordsList;
+				for(ColumnType cType : specification.getColumnTypes()) {
+					recordsList = evaluator.getAllRecords(specification.getEvaluationTable(), start, end, cType, recordDateFormat, this.decimalSeparator);
+					recordsLists.add(recordsList);
+				}
+				this.writeLists(recordsLists, specification.getEvaluationColumnNames(), this.outputPath + "/" + this.evaluationName + "/" + dbName + "_" + EvaluationTable.getTableName(specification.getEvaluationTable()) + "_allRecords.csv");
+//				writeList(evaluator.getAllRecords(specification.getEvaluationTable(), start, end, specification.getColumn(), this.dateFormat), outputPath + "/" + evaluationName + "/" + this.dbNames.get(i) + "_" + specification.getEvaluationColumnName() + "_allRecords.csv");
+				break;
+			case TOTAL_SUM:
+				double sum = engine.getTotalResult(aggregations[j]);
+				result.totalSums.add(specification.getEvaluationColumnName() + "_" + dbName + ";" + (""+sum).replace(".", this.decimalSeparator));
+				break;
+			default:
+				break;
+			
+			}
+		}
+		evaluator.close();
+		
+		return result;
+	}
+	
+	public void setEvaluationParallelism(int evaluationParallelism) {
+		this.evaluationParallelism = Math.max(1, evaluationParallelism);
+	}
+	
 	private static void writeList(ArrayList<String> values, String path) {
 		BufferedWriter writer;
 		
@@ -257,4 +349,16 @@ public class EvaluationSetup {
 		}
 	}
 
+	/**
+	 * Results of the evaluation of a single database that are merged into the output files of all databases.
+	 */
+	private static class DatabaseEvaluation {
+		
+		private ArrayList<ArrayList<Double>> valueLists = new ArrayList<ArrayList<Double>>();
+		
+		private ArrayList<String> columnNames = new ArrayList<String>();
+		
+		private ArrayList<String> totalSums = new ArrayList<String>();
+	}
+
 }
@@ -17,7 +17,7 @@ import de.uma.dcsim.utilities.Constants;
 
 public class EvaluationSetupParser {
 	
-	private static final String[] evaluationSetupElements = {"EvaluationName", "DatabasePath", "OutputPath", "DateFormatString", "EvaluationStartDate", "EvaluationEndDate", "MillisecondsPerAggregationInterval", "DecimalSeparator"};
+	private static final String[] evaluationSetupElements = {"EvaluationName", "DatabasePath", "OutputPath", "DateFormatString", "EvaluationStartDate", "EvaluationEndDate", "MillisecondsPerAggregationInterval", "DecimalSeparator", "EvaluationParallelism"};
 	
 	public static EvaluationSetup parseEvaluationSetup(String path) {
 		
@@ -56,7 +56,12 @@ public class EvaluationSetupParser {
 				}
 				
 				
-				return new EvaluationSetup(evaluationName, dbPath, outputPath, parsedDBNames, dateFormatString, startDate, endDate, millisecondsPerAggregationInterval, parsedEvaluationSpecifications, decimalSeparator);
+				EvaluationSetup evaluationSetup = new EvaluationSetup(evaluationName, dbPath, outputPath, parsedDBNames, dateFormatString, startDate, endDate, millisecondsPerAggregationInterval, parsedEvaluationSpecifications, decimalSeparator);
+				if(parsedElements.get("EvaluationParallelism") != null) {
+					evaluationSetup.setEvaluationParallelism(Integer.parseInt(parsedElements.get("EvaluationParallelism").getText().trim()));
+				}
+				
+				return evaluationSetup;
 				
 				
 			}
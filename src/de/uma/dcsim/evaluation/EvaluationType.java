@@ -1,5 +1,7 @@
 package de.uma.dcsim.evaluation;
 
+import de.uma.dcsim.database.StatisticType;
+
 /**
  * This class defines several constants that represent different types of possible evaluation values.
  * @author nilsw
@@ -25,7 +27,22 @@ public enum EvaluationType {
 	/**
 	 * Performs the same actions as AGGREGATED_AVERAGE, but the sum statistic is used.
 	 */
-	AGGREGATED_SUM;
+	AGGREGATED_SUM,
+	
+	/**
+	 * Performs the same actions as AGGREGATED_AVERAGE, but the minimum statistic is used.
+	 */
+	AGGREGATED_MINIMUM,
+	
+	/**
+	 * Performs the same actions as AGGREGATED_AVERAGE, but the maximum statistic is used.
+	 */
+	AGGREGATED_MAXIMUM,
+	
+	/**
+	 * Performs the same actions as AGGREGATED_AVERAGE, but the amount of records per aggregation interval is counted.
+	 */
+	AGGREGATED_COUNT;
 	
 //	public static EvaluationType parseFromString(String type) {
 //		switch(type.toLowerCase().trim()) {
@@ -48,6 +65,12 @@ public enum EvaluationType {
 			return "aggregatedAverage";
 		case AGGREGATED_SUM:
 			return "aggregatedSum";
+		case AGGREGATED_MINIMUM:
+			return "aggregatedMinimum";
+		case AGGREGATED_MAXIMUM:
+			return "aggregatedMaximum";
+		case AGGREGATED_COUNT:
+			return "aggregatedCount";
 		case ALL_RECORDS:
 			return "allRecords";
 		case TOTAL_SUM:
@@ -58,6 +81,28 @@ public enum EvaluationType {
 		}
 	}
 	
+	/**
+	 * Retrieves the statistic that is used by an aggregated evaluation type.
+	 * @param type Value of EvaluationType for which the statistic is requested.
+	 * @return Statistic of the evaluation type (null if the evaluation type does not produce aggregated time series data).
+	 */
+	public static StatisticType getAggregationStatistic(EvaluationType type) {
+		switch(type) {
+		case AGGREGATED_AVERAGE:
+			return StatisticType.AVERAGE;
+		case AGGREGATED_SUM:
+			return StatisticType.SUM;
+		case AGGREGATED_MINIMUM:
+			return StatisticType.MINIMUM;
+		case AGGREGATED_MAXIMUM:
+			return StatisticType.MAXIMUM;
+		case AGGREGATED_COUNT:
+			return StatisticType.COUNT;
+		default:
+			return null;
+		}
+	}
+	
 	public static EvaluationType parseFromString(String type) {
 		for(EvaluationType eType : EvaluationType.values()) {
 			if(EvaluationType.getStringNameFromType(eType).equals(type.trim())) {
@@ -8,9 +8,9 @@ import java.util.List;
 import de.uma.dcsim.database.ColumnType;
 import de.uma.dcsim.database.DatabaseRecord;
 import de.uma.dcsim.database.EvaluationTable;
-import de.uma.dcsim.database.SqLiteDBHandler;
+import de.uma.dcsim.database.ResultsBackend;
+import de.uma.dcsim.database.ResultsBackendType;
 import de.uma.dcsim.database.StatisticType;
-import de.uma.dcsim.utilities.Constants;
 
 /**
  * This class can be used to retrieve several values from the databases that store the simulation monitoring values.
@@ -20,17 +20,22 @@ import de.uma.dcsim.utilities.Constants;
 public class SimulationEvaluator {
 	
 	/**
-	 * Database handler that is used to access the databases.
+	 * Backend that is used to access the monitoring results (SQLite database or columnar store, depending on the format at the passed path).
 	 */
-	private SqLiteDBHandler dbHandler;
+	private ResultsBackend dbHandler;
 	
 	/**
 	 * Start time of the evaluation.
 	 */
 	private Date simStartTime;
 	
+	/**
+	 * Opens the monitoring results at the specified path in read-only mode.
+	 * @param simStartTime Start time of the evaluation.
+	 * @param dbPath Path of the SQLite database or columnar store that contains the monitoring results.
+	 */
 	public SimulationEvaluator(Date simStartTime, String dbPath) {
-		this.dbHandler = new SqLiteDBHandler(dbPath);
+		this.dbHandler = ResultsBackendType.openReadOnlyBackend(dbPath);
 		this.simStartTime = new Date(simStartTime.getTime());
 	}
 	
@@ -46,6 +51,13 @@ public class SimulationEvaluator {
 		return this.simStartTime;
 	}
 	
+	/**
+	 * Closes the connection to the monitoring results.
+	 */
+	public void close() {
+		this.dbHandler.close();
+	}
+	
 	/**
 	 * Retrieves all records of a specific column of a database table that has TIMESTAMP values between the specified start and end dates.
 	 * @param tableName Name of the table from which the records are requested.
@@ -118,31 +130,20 @@ public class SimulationEvaluator {
 	 * data values are taken have to be in the specified interval. The time series data interval basis is defined by the millisecondsPerTimestep parameter.
 	 */
 	public ArrayList<Double> getStatistic(StatisticType statisticType, EvaluationTable evaluationTable, Date startDate, Date endDate, ColumnType statisticColumn, long millisecondsPerTimestep) {
-		ArrayList<Double> result = new ArrayList<Double>();
-		
-		List<ColumnType> filterColumns = new ArrayList<ColumnType>();
-		filterColumns.add(ColumnType.TIMESTAMP);
+		//All aggregation intervals are calculated in a single pass over the table
+		AggregationEngine engine = new AggregationEngine(startDate, endDate, millisecondsPerTimestep);
+		int aggregation = engine.addIntervalAggregation(evaluationTable, statisticColumn, statisticType);
+		this.aggregate(engine);
 		
-		Date tmp = new Date(startDate.getTime());
-		Date tmp2 = new Date(tmp.getTime() + millisecondsPerTimestep);
-		List<Object[]> filterFrame;
-		while(tmp.before(endDate)) {
-			filterFrame = new ArrayList<Object[]>();
-			filterFrame.add(new Object[] {tmp.getTime(), tmp2.getTime()});
-			
-			result.add(this.dbHandler.getStatisticWithFilter(evaluationTable, statisticType, statisticColumn, filterColumns, filterFrame));
-			
-			if((tmp.getTime()-startDate.getTime())%86400000 == 0) {
-				SimpleDateFormat format = Constants.getDateFormat();
-				System.out.println(format.format(tmp));
-			}
-
-			
-			tmp.setTime(tmp.getTime() + millisecondsPerTimestep);
-			tmp2.setTime(tmp.getTime() + (millisecondsPerTimestep-1000));
-		}
-		
-		return result;
+		return engine.getIntervalResult(aggregation);
+	}
+	
+	/**
+	 * Calculates all aggregations that are registered at an aggregation engine on the monitoring values of the connected database.
+	 * @param engine Aggregation engine with the registered aggregations.
+	 */
+	public void aggregate(AggregationEngine engine) {
+		engine.aggregate(this.dbHandler);
 	}
 
 }
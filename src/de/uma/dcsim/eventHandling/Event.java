@@ -16,6 +16,21 @@ public class Event {
 	 * Point in simulation time at which the event occurs.
 	 */
 	private int timestamp;
+	
+	/**
+	 * EventQueue in which the event is currently scheduled (null if it is not scheduled).
+	 */
+	EventQueue queue;
+	
+	/**
+	 * Position of the event within the heap of its EventQueue (handle that is maintained by the EventQueue).
+	 */
+	int queueIndex = EventQueue.NOT_SCHEDULED;
+	
+	/**
+	 * Sequence number that preserves the scheduling order of events with equal timestamps.
+	 */
+	long queueSequence;
 
 	public Event(EventType type, int timestamp) {
 		super();
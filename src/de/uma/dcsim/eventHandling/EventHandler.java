@@ -1,18 +1,21 @@
 package de.uma.dcsim.eventHandling;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+import de.uma.dcsim.database.BoundDatabaseRecord;
 import de.uma.dcsim.database.ColumnType;
-import de.uma.dcsim.database.DatabaseRecord;
 import de.uma.dcsim.database.EvaluationTable;
 import de.uma.dcsim.hardware.DC;
 import de.uma.dcsim.hardware.Server;
-import de.uma.dcsim.simulationControl.DCSimCore;
 import de.uma.dcsim.simulationControl.Setup;
 import de.uma.dcsim.utilities.BatchJob;
 import de.uma.dcsim.utilities.BatchJobStatus;
+import de.uma.dcsim.utilities.FinishedJobArchive;
 import de.uma.dcsim.utilities.ServerStatus;
 
 /**
@@ -39,9 +42,9 @@ public class EventHandler {
 	private ArrayList<BatchJob> runningJobs;
 	
 	/**
-	 * List of currently finished jobs.
+	 * Archive of the finished jobs. The BatchJob instances are released when a job finished.
 	 */
-	private ArrayList<BatchJob> finishedJobs;
+	private FinishedJobArchive finishedJobs;
 	
 	/**
 	 * List of currently paused jobs.
@@ -66,12 +69,13 @@ public class EventHandler {
 	 */
 	private DC handledDC;
 	
-	private ColumnType[] jobInfoTableSchema = EvaluationTable.getTableSchema(EvaluationTable.FINISHED_JOB_INFO_TABLE);
+	private BoundDatabaseRecord jobInfoRecord = new BoundDatabaseRecord(EvaluationTable.FINISHED_JOB_INFO_TABLE);
 	
 	public EventHandler(DC handledDC) {
 		this.handledDC = handledDC;
 		this.serverJobMapping = new HashMap<Integer, String>();
 		this.currentSLACostTimestamp = 0;
+		this.finishedJobs = new FinishedJobArchive();
 		
 		this.occupiedServer = new ArrayList<Server>(this.getOccupiedServers(handledDC.getServer()));
 		this.idleServer = new ArrayList<Server>(this.getIdleServers(handledDC.getServer()));
@@ -118,10 +122,20 @@ public class EventHandler {
 		return this.idleServer;
 	}
 	
-	public ArrayList<BatchJob> getFinishedJobs() {
+	public FinishedJobArchive getFinishedJobs() {
 		return this.finishedJobs;
 	}
 	
+	/**
+	 * Retrieves the SLA costs of the jobs that finished within an interval.
+	 * @param intervalStart First point in simulation time of the interval.
+	 * @param intervalEnd Last point in simulation time of the interval.
+	 * @return Total SLA costs of the jobs that finished within the interval.
+	 */
+	public double getSLACostsOfFinishedJobs(int intervalStart, int intervalEnd) {
+		return this.finishedJobs.getSLACosts(intervalStart, intervalEnd);
+	}
+	
 	public ArrayList<BatchJob> getRunningJobs() {
 		return this.runningJobs;
 	}
@@ -152,6 +166,39 @@ public class EventHandler {
 		return cSLACost;
 	}
 	
+	/**
+	 * Writes the SLA costs of the current timestep and the archive of the finished jobs to a checkpoint. The remaining job lists and the server lists
+	 * are written by the DC to which the EventHandler belongs.
+	 * @param out Stream to which the checkpoint is written.
+	 * @throws IOException If the state cannot be written.
+	 */
+	public void writeCheckpoint(DataOutputStream out) throws IOException {
+		out.writeDouble(this.currentSLACost);
+		out.writeInt(this.currentSLACostTimestamp);
+		this.finishedJobs.writeCheckpoint(out);
+	}
+	
+	/**
+	 * Restores the state that was written to a checkpoint by writeCheckpoint.
+	 * @param in Stream from which the checkpoint is read.
+	 * @throws IOException If the state cannot be read.
+	 */
+	public void readCheckpoint(DataInputStream in) throws IOException {
+		this.currentSLACost = in.readDouble();
+		this.currentSLACostTimestamp = in.readInt();
+		this.finishedJobs.readCheckpoint(in);
+	}
+	
+	/**
+	 * Sets the occupied and idle server lists of the EventHandler component.
+	 * @param occupiedServer List of all occupied servers.
+	 * @param idleServer List of all idle servers.
+	 */
+	public void setServerLists(ArrayList<Server> occupiedServer, ArrayList<Server> idleServer) {
+		this.occupiedServer = occupiedServer;
+		this.idleServer = idleServer;
+	}
+	
 	/**
 	 * Initializes the occuped and idle server lists of the EventHandler component.
 	 */
@@ -176,11 +223,11 @@ public class EventHandler {
 			
 			startChanged = false;
 			job.setStatus(BatchJobStatus.SUBMITTED);
-			if(Setup.superMUCMode && job.getStartTime() < (this.handledDC.getNextSchedulerCall())) {
+			if(this.handledDC.getContext().isSuperMUCMode() && job.getStartTime() < (this.handledDC.getNextSchedulerCall())) {
 //				System.out.println(this.handledDC + " Start time changed" + " " + job.getStartTime() + " " + currentTime + " " + this.handledDC.getNextSchedulerCall());
 				startChanged = true;
 			}
-			if(Setup.superMUCMode && startChanged) {
+			if(this.handledDC.getContext().isSuperMUCMode() && startChanged) {
 				this.handledDC.submitAffectedSubmittedJob(job);
 			}
 			else {
@@ -225,6 +272,7 @@ public class EventHandler {
 					this.handledDC.submitAffectedSubmittedJob(j);
 					scheduledJobs.remove(j);
 					j.setStatus(BatchJobStatus.SUBMITTED);
+					this.handledDC.getNodeOccupationProfile().releaseJob(j);
 					
 //					this.handledDC.rescheduleEvent(event, startTime);
 //					this.handledDC.rescheduleEvent(j.getFinishEvent(), j.getCalculatedFinishTime());
@@ -233,23 +281,23 @@ public class EventHandler {
 				assignedServers = new ArrayList<Server>();
 				Server cIdleServer;
 				for(int i=0; i < j.getAmountOfServers(); i++) {
-					cIdleServer = this.idleServer.get(0);
+					cIdleServer = this.idleServer.remove(0);
 					
 					cIdleServer.setStatus(ServerStatus.OCCUPIED);
 					cIdleServer.setCurrentJob(j);
 					this.serverJobMapping.put(cIdleServer.getId(), j.getId());
 					this.occupiedServer.add(cIdleServer);
-					this.idleServer.remove(cIdleServer);
 					
 					assignedServers.add(cIdleServer);
-					this.handledDC.scheduleEvent(new ServerEvent(EventType.SERVER_UPDATE, currentTime, cIdleServer));
 				}
 				
 				this.handledDC.rescheduleEvent(j.getFinishEvent(), j.getCalculatedFinishTime());
 				j.assignServers(assignedServers);
 				
 				j.setStatus(BatchJobStatus.RUNNING);
+				this.handledDC.allocateJobServerPower(j, currentTime);
 				this.runningJobs.add(j);
+				this.handledDC.getNodeOccupationProfile().updateJob(j, currentTime);
 				if(!scheduledJobs.remove(j)) {
 					System.out.println("Started job was not in scheduled list! " + j.getStatus());
 				}
@@ -273,6 +321,24 @@ public class EventHandler {
 		}
 	}
 	
+	/**
+	 * Elapses several simulation timesteps at once for all running and paused jobs.
+	 * This is only valid if no events are scheduled within the elapsed timesteps.
+	 * @param scheduledJobs List of all jobs that are currently scheduled.
+	 * @param steps Amount of timesteps to elapse.
+	 */
+	public void elapseSimulationTimestepsForJobs(List<BatchJob> scheduledJobs, int steps) {
+		for (BatchJob j : this.runningJobs) {
+			j.elapseSimulationTimesteps(steps);
+		}
+		for (BatchJob j : this.pausedJobs) {
+			j.elapseSimulationTimesteps(steps);
+		}
+		for (BatchJob j : scheduledJobs) {
+			j.elapseSimulationTimesteps(steps);
+		}
+	}
+	
 	/**
 	 * Handles all job finish events that are scheduled at the specified point in simulation time.
 	 * @param currentTime Point in simulation time for which the job finish events should be handled.
@@ -301,7 +367,7 @@ public class EventHandler {
 			j.setStatus(BatchJobStatus.FINISHED);
 			j.setActualFinsihingTime(currentTime);
 			this.runningJobs.remove(j);
-			this.finishedJobs.add(j);
+			this.handledDC.getNodeOccupationProfile().releaseJob(j);
 			
 			for(Server s : j.getAssignedServers()) {
 				s.setStatus(ServerStatus.IDLE);
@@ -309,22 +375,27 @@ public class EventHandler {
 				this.serverJobMapping.remove(s.getId());
 				this.occupiedServer.remove(s);
 				this.idleServer.add(s);
-				this.handledDC.scheduleEvent(new ServerEvent(EventType.SERVER_UPDATE, currentTime, s));
 			}
+			this.handledDC.releaseJobServerPower(j, currentTime);
 			j.assignServers(null);
 			this.handledDC.handledEvent(event);
 			
-			long lengthInSeconds = ((long)j.getActualFinishingTime() - (long)j.getScheduledStartTime())*(long)Setup.secondsPerSimulationTimestep;
-			long startTime = ((long)this.handledDC.getSimStartTime().getTime())+((long)j.getScheduledStartTime()*(long)Setup.secondsPerSimulationTimestep*1000);
-			long finishTime = ((long)this.handledDC.getSimStartTime().getTime())+((long)j.getActualFinishingTime()*(long)Setup.secondsPerSimulationTimestep*1000);
+			long lengthInSeconds = ((long)j.getActualFinishingTime() - (long)j.getScheduledStartTime())*(long)this.handledDC.getContext().getSecondsPerSimulationTimestep();
+			long startTime = ((long)this.handledDC.getSimStartTime().getTime())+((long)j.getScheduledStartTime()*(long)this.handledDC.getContext().getSecondsPerSimulationTimestep()*1000);
+			long finishTime = ((long)this.handledDC.getSimStartTime().getTime())+((long)j.getActualFinishingTime()*(long)this.handledDC.getContext().getSecondsPerSimulationTimestep()*1000);
 			
 			if(!this.handledDC.isCopy()) {
-				Object[] values = new Object[] {this.handledDC.getCurrentDate().getTime(), j.getId(), startTime, finishTime, lengthInSeconds, (long)((long)j.getFinishingDelayInSimulationTime()*(long)Setup.secondsPerSimulationTimestep), j.getFrequency()};
-				DatabaseRecord dRecord = new DatabaseRecord(this.jobInfoTableSchema, values);
-				(DCSimCore.getDBHandler()).insertRecord(dRecord);
+				this.jobInfoRecord.setLong(ColumnType.TIMESTAMP, this.handledDC.getCurrentTimeInMillis());
+				this.jobInfoRecord.setString(ColumnType.JOB_ID, j.getId());
+				this.jobInfoRecord.setLong(ColumnType.JOB_START_TIME, startTime);
+				this.jobInfoRecord.setLong(ColumnType.JOB_FINISH_TIME, finishTime);
+				this.jobInfoRecord.setLong(ColumnType.JOB_LENGTH_IN_SECONDS, lengthInSeconds);
+				this.jobInfoRecord.setLong(ColumnType.JOB_DELAY_IN_SECONDS, (long)j.getFinishingDelayInSimulationTime()*(long)this.handledDC.getContext().getSecondsPerSimulationTimestep());
+				this.jobInfoRecord.setDouble(ColumnType.JOB_FREQUENCY, j.getFrequency());
+				this.handledDC.insertRecord(this.jobInfoRecord);
 			}
 			
-			this.currentSLACost += j.calculateSLACosts(Setup.usagePrice);
+			this.currentSLACost += this.addFinishedJob(j);
 		}
 	}
 	
@@ -366,6 +437,7 @@ public class EventHandler {
 			j.setIsAlreadyRescheduled(false);
 			this.handledDC.unscheduleEvent(j.getFinishEvent());
 			this.runningJobs.remove(j);
+			this.handledDC.getNodeOccupationProfile().updateJob(j, currentTime);
 			
 			for(Server s : j.getAssignedServers()) {
 				s.setStatus(ServerStatus.IDLE);
@@ -373,8 +445,8 @@ public class EventHandler {
 				this.serverJobMapping.remove(s.getId());
 				this.occupiedServer.remove(s);
 				this.idleServer.add(s);
-				this.handledDC.scheduleEvent(new ServerEvent(EventType.SERVER_UPDATE, currentTime, s));
 			}
+			this.handledDC.releaseJobServerPower(j, currentTime);
 			j.assignServers(null);
 			this.handledDC.handledEvent(event);
 		}
@@ -407,31 +479,32 @@ public class EventHandler {
 					job.setStatus(BatchJobStatus.PAUSED);
 					this.handledDC.unscheduleEvent(job.getRestartEvent());
 					this.handledDC.unscheduleEvent(job.getFinishEvent());
+					this.handledDC.getNodeOccupationProfile().releaseJob(job);
 					continue;
 				}
 				assignedServers = new ArrayList<Server>();
 				Server cIdleServer;
 				for(int i=0; i < job.getAmountOfServers(); i++) {
-					cIdleServer = this.idleServer.get(0);
+					cIdleServer = this.idleServer.remove(0);
 					
 					cIdleServer.setStatus(ServerStatus.OCCUPIED);
 					cIdleServer.setCurrentJob(job);
 					this.serverJobMapping.put(cIdleServer.getId(), job.getId());
 					this.occupiedServer.add(cIdleServer);
-					this.idleServer.remove(cIdleServer);
 					
 					assignedServers.add(cIdleServer);
-					this.handledDC.scheduleEvent(new ServerEvent(EventType.SERVER_UPDATE, currentTime, cIdleServer));
 				}
 				this.handledDC.rescheduleEvent(job.getFinishEvent(), job.getCalculatedFinishTime());
 				job.setStatus(BatchJobStatus.RUNNING);
 				job.assignServers(assignedServers);
+				this.handledDC.allocateJobServerPower(job, currentTime);
 				job.setScheduledRestartTime(0);
 				
 				if(!scheduledJobs.remove(job)) {
 					System.out.println("Restarted job was not in scheduled list! " + job.getStatus());
 				}
 				this.runningJobs.add(job);
+				this.handledDC.getNodeOccupationProfile().updateJob(job, currentTime);
 			}
 			this.handledDC.handledEvent(event);
 		}
@@ -475,20 +548,31 @@ public class EventHandler {
 		return result;
 	}
 	
+	/**
+	 * Adds a job to the archive of the finished jobs.
+	 * @param j Finished job.
+	 * @return SLA costs of the job.
+	 */
+	private double addFinishedJob(BatchJob j) {
+		double slaCosts = j.calculateSLACosts(this.handledDC.getContext().getUsagePrice());
+		this.finishedJobs.add(j, slaCosts);
+		return slaCosts;
+	}
+	
 	/**
 	 * Initializes the job lists of the EventHandler component.
 	 * @param handledDC DC to which this EventHandler component belongs.
 	 */
 	private void initJobLists(DC handledDC) {
 		this.runningJobs = new ArrayList<BatchJob>();
-		this.finishedJobs = new ArrayList<BatchJob>();
+		this.finishedJobs.clear();
 		this.pausedJobs = new ArrayList<BatchJob>();
 		for(BatchJob j : handledDC.getUnsubmittedParsedJobs()) {
 			if(j.getStatus() == BatchJobStatus.RUNNING) {
 				this.runningJobs.add(j);
 			}
 			else if(j.getStatus() == BatchJobStatus.FINISHED) {
-				this.finishedJobs.add(j);
+				this.addFinishedJob(j);
 			}
 			else if(j.getStatus() == BatchJobStatus.PAUSED) {
 				this.pausedJobs.add(j);
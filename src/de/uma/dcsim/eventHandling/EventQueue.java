@@ -1,123 +1,201 @@
 package de.uma.dcsim.eventHandling;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.TreeSet;
 
 import de.uma.dcsim.utilities.BatchJob;
 
 /**
  * This class implements a queue datastructure that is used for the events within the simulation framework.
+ * The scheduled events of each event type are stored in a binary min heap that is ordered by the timestamp of the events.
+ * Events with equal timestamps are ordered by the point in time at which they were scheduled.
+ * Every event stores its position within the heap, thus events can be rescheduled and unscheduled in O(log n).
+ *
+ * When the events of a type are requested for a point in simulation time, they are moved from the heap into a list
+ * (the due events of this type), which is returned to the caller and stays valid until events for another point in simulation time are requested.
+ * An event is contained in the list of due events of its type exactly as long as its handle is DUE, i.e., events that are removed from the list
+ * by the caller are unscheduled.
+ * Events that are scheduled before the requested point in simulation time are considered outdated and are dropped from the queue.
  * @author nilsw
  *
  */
-public class EventQueue {	
+public class EventQueue {
+
+	/**
+	 * Handle value of events that are not scheduled.
+	 */
+	static final int NOT_SCHEDULED = -1;
+
 	/**
-	 * Maps that store the scheduled events.
+	 * Handle value of events that are contained in the list of due events of their type (see DueEventList).
 	 */
-	private HashMap<EventType, HashMap<Long, ArrayList<Event>>> eventMaps;
-	
+	static final int DUE = -2;
+
 	/**
-	 * Maps that store all handled events.
+	 * Marks that no due events are currently extracted for an event type.
 	 */
-	private HashMap<EventType, HashMap<Long, ArrayList<Event>>> handledEventMaps;
-	
+	private static final int NO_TIME = Integer.MIN_VALUE;
+
+	/**
+	 * Initial capacity of the heap of each event type.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * Heaps that store the scheduled events (one per event type, indexed by the ordinal of the event type).
+	 */
+	private Event[][] heaps;
+
+	/**
+	 * Amount of events in each heap.
+	 */
+	private int[] heapSizes;
+
+	/**
+	 * Lists of the events that are due at the point in simulation time that was requested last (one per event type).
+	 */
+	private DueEventList[] dueEvents;
+
+	/**
+	 * Points in simulation time to which the lists of due events belong.
+	 */
+	private int[] dueTimes;
+
+	/**
+	 * Counter that is used to assign sequence numbers to scheduled events.
+	 */
+	private long sequenceCounter;
+
 	/**
 	 * Creates empty event list.
 	 */
 	public EventQueue() {
-		this.eventMaps = new HashMap<EventType, HashMap<Long, ArrayList<Event>>>();
-		this.handledEventMaps = new HashMap<EventType, HashMap<Long, ArrayList<Event>>>();
-		
-		HashMap<Long, ArrayList<Event>> cMap;
-		for(EventType type : EventType.values()) {
-			cMap = new HashMap<Long, ArrayList<Event>>();
-			this.eventMaps.put(type, cMap);
-			
-			cMap = new HashMap<Long, ArrayList<Event>>();
-			this.handledEventMaps.put(type, cMap);
+		int types = EventType.values().length;
+		this.heaps = new Event[types][INITIAL_CAPACITY];
+		this.heapSizes = new int[types];
+		this.dueEvents = new DueEventList[types];
+		this.dueTimes = new int[types];
+		for(int i=0; i < types; i++) {
+			this.dueEvents[i] = new DueEventList();
+			this.dueTimes[i] = NO_TIME;
 		}
-
+		this.sequenceCounter = 0;
 	}
-	
+
 	/**
 	 * Creates event list and schedules submission events for all jobs in the passed list.
 	 * @param initialJobs List of all jobs for which a submission event should be scheduled during the initialization of the queue.
 	 */
 	public EventQueue(ArrayList<BatchJob> initialJobs) {
-		this.eventMaps = new HashMap<EventType, HashMap<Long, ArrayList<Event>>>();
-		this.handledEventMaps = new HashMap<EventType, HashMap<Long, ArrayList<Event>>>();
-		
-		HashMap<Long, ArrayList<Event>> cMap;
-		for(EventType type : EventType.values()) {
-			cMap = new HashMap<Long, ArrayList<Event>>();
-			this.eventMaps.put(type, cMap);
-			
-			cMap = new HashMap<Long, ArrayList<Event>>();
-			this.handledEventMaps.put(type, cMap);
-		}
-		
+		this();
+
 		BatchJob cJob;
 		for(int i=0; i < initialJobs.size(); i++) {
 			cJob = initialJobs.get(i);
 			this.scheduleEvent(new JobEvent(EventType.JOB_SUBMISSION, cJob.getSubmissionTime(), cJob));
 		}
 	}
-	
+
 	/**
-	 * Schedules an event in the event queue.
+	 * Schedules an event in the event queue. If the event is already scheduled in this queue, the call has no effect.
+	 * If the event is scheduled in another queue, it is unscheduled from that queue first.
 	 * @param event Event that should be scheduled.
 	 */
 	public void scheduleEvent(Event event) {
-		this.scheduleEvent(event, this.eventMaps.get(event.getType()));
+		int type = event.getType().ordinal();
+
+		if(event.queue == this) {
+			return;
+		}
+		if(event.queue != null) {
+			event.queue.unscheduleEvent(event);
+		}
+
+		event.queue = this;
+		event.queueSequence = this.sequenceCounter++;
+		if(this.dueTimes[type] == event.getTimestamp()) {
+			this.dueEvents[type].append(event);
+		}
+		else {
+			this.offer(type, event);
+		}
 	}
-	
+
 	/**
 	 * Removes an event from the event queue.
 	 * @param event Event that should be removed.
 	 */
 	public void unscheduleEvent(Event event) {
-		this.unscheduleEvent(event, this.eventMaps.get(event.getType()));
+		if(event.queue != this) {
+			return;
+		}
+		int type = event.getType().ordinal();
+
+		if(event.queueIndex >= 0) {
+			this.removeAt(type, event.queueIndex);
+		}
+		else if(event.queueIndex == DUE) {
+			this.dueEvents[type].removeEvent(event);
+		}
+		this.discard(event);
 	}
-	
+
 	/**
 	 * Reschedules an event from one point in simulation time to another. The timestamp of the passed event will be automatically adjusted.
 	 * @param event Event that should be rescheduled.
 	 * @param newTimestamp New point in simulation time at which the event should be scheduled.
 	 */
 	public void rescheduleEvent(Event event, int newTimestamp) {
-		this.rescheduleEvent(event, newTimestamp, this.eventMaps.get(event.getType()));
+		this.unscheduleEvent(event);
+
+		event.setTimestamp(newTimestamp);
+
+		this.scheduleEvent(event);
 	}
-	
+
 	/**
-	 * Moves an event from the event queue to the list of handled events.
-	 * @param event Event that should be moved.
+	 * Removes a handled event from the event queue.
+	 * @param event Event that should be removed.
 	 */
 	public void handledEvent(Event event) {
-		this.eventHandled(event, this.eventMaps.get(event.getType()), this.handledEventMaps.get(event.getType()));
+		this.unscheduleEvent(event);
 	}
-	
+
 	/**
 	 * Retrieves all events of a specific type that are scheduled at a specified point in simulation time.
+	 * The returned list is backed by the queue, i.e., removing events from the list removes them from the queue.
 	 * @param type Type of events that are requested.
 	 * @param time Point in simulation time for which the events are requested.
-	 * @return List of all events of the specified times that are scheduled at the specified point in simulation time.
+	 * @return List of all events of the specified times that are scheduled at the specified point in simulation time (null if there are none).
 	 */
 	public List<Event> getEvents(EventType type, int time) {
-		return this.eventMaps.get(type).get((long)time);
-	}
-	
-//	/**
-//	 * Retrieves all events of a specific type that were at a specified point in simulation time.
-//	 * @param type Type of handled events that are requested.
-//	 * @param time Point in simulation time for which the handled events are requested.
-//	 * @return List of all handled events of the specified times that are scheduled at the specified point in simulation time.
-//	 */
-//	public List<Event> getHandledEvents(EventType type, int time) {
-//		return this.handledEventMaps.get(type).get((long)time);
-//	}
-	
+		int t = type.ordinal();
+
+		if(this.dueTimes[t] != time) {
+			this.releaseDueEvents(t);
+
+			//Drop all outdated events
+			while(this.heapSizes[t] > 0 && this.heaps[t][0].getTimestamp() < time) {
+				this.discard(this.poll(t));
+			}
+			if(this.heapSizes[t] == 0 || this.heaps[t][0].getTimestamp() != time) {
+				return null;
+			}
+
+			DueEventList due = this.dueEvents[t];
+			while(this.heapSizes[t] > 0 && this.heaps[t][0].getTimestamp() == time) {
+				due.append(this.poll(t));
+			}
+			this.dueTimes[t] = time;
+		}
+		return this.dueEvents[t];
+	}
+
 	/**
 	 * Retrieves all events that are scheduled at a specified point in simulation time.
 	 * @param timestamp Point in simulation time for which all scheduled events are requested.
@@ -125,75 +203,271 @@ public class EventQueue {
 	 */
 	public List<Event> getAllEvents(long timestamp) {
 		ArrayList<Event> result = new ArrayList<Event>();
-		
+
+		List<Event> events;
 		for(EventType type : EventType.values()) {
-			result.addAll(this.eventMaps.get(type).get(timestamp));
+			events = this.getEvents(type, (int)timestamp);
+			if(events != null) {
+				result.addAll(events);
+			}
 		}
 		return result;
 	}
-	
+
 	/**
-	 * Removes the specified key from the map that stores the scheduled events.
-	 * @param timestamp Key that should be removed from the map.
+	 * Removes all events that are scheduled at or before the specified point in simulation time.
+	 * This should be used to avoid that the size of the queue grows too large during long simulations.
+	 * @param timestamp Point in simulation time up to which events should be removed.
 	 */
 	public void removeKey(int timestamp) {
-		for(EventType type : EventType.values()) {
-			this.eventMaps.get(type).remove((long)timestamp);
+		for(int t=0; t < this.heaps.length; t++) {
+			if(this.dueTimes[t] != NO_TIME && this.dueTimes[t] <= timestamp) {
+				this.dueEvents[t].clear();
+				this.dueTimes[t] = NO_TIME;
+			}
+			while(this.heapSizes[t] > 0 && this.heaps[t][0].getTimestamp() <= timestamp) {
+				this.discard(this.poll(t));
+			}
 		}
 	}
-	
+
 	/**
 	 * Retrieves all timestamps at which events of the specified type are scheduled.
 	 * @param type Type of event for which the scheduled times are requested.
 	 * @return Set of all points in simulation time at which events of the specified type are scheduled.
 	 */
 	public Set<Long> getAllKeys(EventType type) {
-		return this.eventMaps.get(type).keySet();
-	}
-	
-	private void scheduleEvent(Event event, HashMap<Long, ArrayList<Event>> map) {
-		long timestamp = event.getTimestamp();
-		ArrayList<Event> eventList = map.get(timestamp);
-		
-		if(eventList == null) {
-			eventList = new ArrayList<Event>();
-			eventList.add(event);
-			map.put(timestamp, eventList);
+		int t = type.ordinal();
+		TreeSet<Long> result = new TreeSet<Long>();
+
+		if(!this.dueEvents[t].isEmpty()) {
+			result.add((long)this.dueTimes[t]);
+		}
+		for(int i=0; i < this.heapSizes[t]; i++) {
+			result.add((long)this.heaps[t][i].getTimestamp());
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieves all scheduled events (including the due events that were not handled yet) in the order in which they were scheduled.
+	 * Scheduling the returned events in this order in an empty queue results in a queue that returns the events in the same order as this queue.
+	 * @return List of all scheduled events.
+	 */
+	public List<Event> getScheduledEvents() {
+		ArrayList<Event> result = new ArrayList<Event>(this.size());
+		for(int t=0; t < this.heaps.length; t++) {
+			result.addAll(this.dueEvents[t]);
+			for(int i=0; i < this.heapSizes[t]; i++) {
+				result.add(this.heaps[t][i]);
+			}
+		}
+		result.sort((a, b) -> Long.compare(a.queueSequence, b.queueSequence));
+		return result;
+	}
+
+	/**
+	 * Determines the point in simulation time of the next scheduled event of any type.
+	 * @return Earliest point in simulation time at which an event is scheduled (Integer.MAX_VALUE if the queue is empty).
+	 */
+	public int nextEventTime() {
+		int result = Integer.MAX_VALUE;
+		int cTime;
+		for(EventType type : EventType.values()) {
+			cTime = this.nextEventTime(type);
+			if(cTime < result) {
+				result = cTime;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Determines the point in simulation time of the next scheduled event of the specified type.
+	 * @param type Type of event for which the next point in simulation time is requested.
+	 * @return Earliest point in simulation time at which an event of the specified type is scheduled (Integer.MAX_VALUE if there is none).
+	 */
+	public int nextEventTime(EventType type) {
+		int t = type.ordinal();
+
+		if(!this.dueEvents[t].isEmpty()) {
+			return this.dueTimes[t];
+		}
+		if(this.heapSizes[t] > 0) {
+			return this.heaps[t][0].getTimestamp();
+		}
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Determines the amount of scheduled events of all types.
+	 * @return Amount of scheduled events.
+	 */
+	public int size() {
+		int result = 0;
+		for(int t=0; t < this.heaps.length; t++) {
+			result += this.heapSizes[t] + this.dueEvents[t].size();
+		}
+		return result;
+	}
+
+	/**
+	 * Moves the due events of an event type back into the heap of this type.
+	 * @param t Ordinal of the event type.
+	 */
+	private void releaseDueEvents(int t) {
+		for(Event event : this.dueEvents[t].events) {
+			this.offer(t, event);
+		}
+		this.dueEvents[t].events.clear();
+		this.dueEvents[t].changed();
+		this.dueTimes[t] = NO_TIME;
+	}
+
+	private void discard(Event event) {
+		event.queue = null;
+		event.queueIndex = NOT_SCHEDULED;
+	}
+
+	private void offer(int t, Event event) {
+		if(this.heapSizes[t] == this.heaps[t].length) {
+			this.heaps[t] = Arrays.copyOf(this.heaps[t], this.heaps[t].length*2);
+		}
+		int index = this.heapSizes[t]++;
+		this.heaps[t][index] = event;
+		event.queueIndex = index;
+		this.siftUp(t, index);
+	}
+
+	private Event poll(int t) {
+		Event result = this.heaps[t][0];
+		this.removeAt(t, 0);
+		return result;
+	}
+
+	private void removeAt(int t, int index) {
+		Event[] heap = this.heaps[t];
+		int last = --this.heapSizes[t];
+
+		if(index != last) {
+			heap[index] = heap[last];
+			heap[index].queueIndex = index;
+			heap[last] = null;
+			if(!this.siftDown(t, index)) {
+				this.siftUp(t, index);
+			}
 		}
 		else {
-			if(!eventList.contains(event)) {
-				eventList.add(event);
+			heap[last] = null;
+		}
+	}
+
+	private void siftUp(int t, int index) {
+		Event[] heap = this.heaps[t];
+		Event event = heap[index];
+		int parent;
+		while(index > 0) {
+			parent = (index-1) >>> 1;
+			if(!this.isBefore(event, heap[parent])) {
+				break;
+			}
+			heap[index] = heap[parent];
+			heap[index].queueIndex = index;
+			index = parent;
+		}
+		heap[index] = event;
+		event.queueIndex = index;
+	}
+
+	/**
+	 * @return True if the event at the specified index was moved down within the heap.
+	 */
+	private boolean siftDown(int t, int index) {
+		Event[] heap = this.heaps[t];
+		int size = this.heapSizes[t];
+		Event event = heap[index];
+		int start = index;
+		int child;
+		while((child = (index << 1) + 1) < size) {
+			if(child+1 < size && this.isBefore(heap[child+1], heap[child])) {
+				child++;
 			}
+			if(!this.isBefore(heap[child], event)) {
+				break;
+			}
+			heap[index] = heap[child];
+			heap[index].queueIndex = index;
+			index = child;
 		}
+		heap[index] = event;
+		event.queueIndex = index;
+		return index != start;
 	}
-		
-	private void unscheduleEvent(Event event, HashMap<Long, ArrayList<Event>> map) {
-		if(map.get((long)event.getTimestamp()) != null) {
-			map.get((long)event.getTimestamp()).remove(event);
+
+	private boolean isBefore(Event a, Event b) {
+		if(a.getTimestamp() != b.getTimestamp()) {
+			return a.getTimestamp() < b.getTimestamp();
 		}
+		return a.queueSequence < b.queueSequence;
 	}
-	
-	private void rescheduleEvent(Event event, int newTimestamp, HashMap<Long, ArrayList<Event>> map) {
-		this.unscheduleEvent(event, map);
-		
-		event.setTimestamp(newTimestamp);
-		
-		this.scheduleEvent(event, map);
-	}
-	
-	private void eventHandled(Event event, HashMap<Long, ArrayList<Event>> map, HashMap<Long, ArrayList<Event>> handledMap) {
-		this.unscheduleEvent(event, map);
-		
-//		ArrayList<Event> eventList = handledMap.get((long)event.getTimestamp());
-		
-//		if(eventList == null) {
-//			eventList = new ArrayList<Event>();
-//			eventList.add(event);
-//			handledMap.put(event.getTimestamp().getTime(), eventList);
-//		}
-//		else {
-//			eventList.add(event);
-//		}
+
+	/**
+	 * List of the due events of an event type that is returned to the callers of getEvents.
+	 * Every event that is added to the list gets the handle DUE and every event that is removed from the list (by the queue or by the caller)
+	 * is unscheduled, thus the handle of an event tells whether it is contained in the list.
+	 * Events can only be added to the list by the queue.
+	 */
+	private class DueEventList extends AbstractList<Event> implements RandomAccess {
+
+		/**
+		 * Due events in the order in which they are returned.
+		 */
+		private ArrayList<Event> events = new ArrayList<Event>();
+
+		@Override
+		public Event get(int index) {
+			return this.events.get(index);
+		}
+
+		@Override
+		public int size() {
+			return this.events.size();
+		}
+
+		@Override
+		public Event remove(int index) {
+			Event event = this.events.remove(index);
+			discard(event);
+			this.changed();
+			return event;
+		}
+
+		@Override
+		public void clear() {
+			for(Event event : this.events) {
+				discard(event);
+			}
+			this.events.clear();
+			this.changed();
+		}
+
+		private void append(Event event) {
+			event.queueIndex = DUE;
+			this.events.add(event);
+			this.changed();
+		}
+
+		private void removeEvent(Event event) {
+			this.events.remove(event);
+			this.changed();
+		}
+
+		/**
+		 * Invalidates the iterators of the list after a structural modification.
+		 */
+		private void changed() {
+			this.modCount++;
+		}
 	}
 
 }
@@ -20,30 +20,41 @@
 
 package de.uma.dcsim.hardware;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 
+import de.uma.dcsim.database.BoundDatabaseRecord;
+import de.uma.dcsim.database.DatabaseRecord;
+import de.uma.dcsim.database.DeferredRecordBuffer;
 import de.uma.dcsim.drEventHandling.DREventHandler;
 import de.uma.dcsim.drEventHandling.SimpleDREventHandler;
-import de.uma.dcsim.energyPriceModels.EnergyPriceModelSelector;
+import de.uma.dcsim.eventHandling.CoolingEvent;
 import de.uma.dcsim.eventHandling.Event;
 import de.uma.dcsim.eventHandling.EventHandler;
 import de.uma.dcsim.eventHandling.EventQueue;
 import de.uma.dcsim.eventHandling.EventType;
 import de.uma.dcsim.eventHandling.JobEvent;
 import de.uma.dcsim.eventHandling.ServerEvent;
-import de.uma.dcsim.powerModels.PowerModelSelector;
-import de.uma.dcsim.pueModels.PUEModelSelector;
 import de.uma.dcsim.scheduling.Scheduler;
 import de.uma.dcsim.scheduling.schedulingStrategies.SchedulingStrategyProvider;
 import de.uma.dcsim.scheduling.schedulingStrategies.demandFlexStrategies.DemandFlexibilitySchedulingStrategy;
-import de.uma.dcsim.simulationControl.Setup;
+import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.NodeOccupationProfile;
+import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.SchedulingStrategyUtilities;
+import de.uma.dcsim.simulationControl.SimulationContext;
 import de.uma.dcsim.utilities.BatchJob;
+import de.uma.dcsim.utilities.BatchJobStatus;
+import de.uma.dcsim.utilities.FinishedJobArchive;
+import de.uma.dcsim.utilities.PowerConsumptionHistory;
 import de.uma.dcsim.utilities.ReserveProvisionType;
 import de.uma.dcsim.utilities.ServerStatus;
+import de.uma.dcsim.utilities.WorkloadSource;
 
 /**
  * @author University of Mannheim
@@ -51,6 +62,18 @@ import de.uma.dcsim.utilities.ServerStatus;
  */
 public class DC {
 	
+	//KINDS OF EVENTS IN CHECKPOINTS
+	private static final byte CHECKPOINT_PLAIN_EVENT = 0;
+	private static final byte CHECKPOINT_JOB_EVENT = 1;
+	private static final byte CHECKPOINT_SERVER_EVENT = 2;
+	private static final byte CHECKPOINT_COOLING_EVENT = 3;
+	
+	//REFERENCES OF JOB EVENTS IN CHECKPOINTS
+	private static final byte CHECKPOINT_SEPARATE_EVENT = 0;
+	private static final byte CHECKPOINT_START_EVENT = 1;
+	private static final byte CHECKPOINT_FINISH_EVENT = 2;
+	private static final byte CHECKPOINT_RESTART_EVENT = 3;
+	
 	//OLD ELEMENTS
 	private boolean changed;
 	
@@ -61,6 +84,11 @@ public class DC {
 	private DemandFlexibilitySchedulingStrategy schedulingStrategy = SchedulingStrategyProvider.getSchedulingStrategy();
 
 	//CONFIGURATION PARAMETERS
+	/**
+	 * Context of the simulation to which the DC belongs (configuration values and models of the simulation).
+	 */
+	private SimulationContext context;
+	
 	/**
 	 * Static PUE of the DC (not used as now a dynamic PUE trace is used).
 	 */
@@ -108,9 +136,9 @@ public class DC {
 	private double currentHVACPower;
 	
 	/**
-	 * List of total facility power consumption  at past points in simulation time.
+	 * Total facility power consumption at past points in simulation time, together with the running sums of energy consumption (kWh) and energy costs (cent).
 	 */
-	private ArrayList<Double> historicOverallPC;
+	private PowerConsumptionHistory historicOverallPC;
 	
 	/**
 	 * Indicates the point in simulation time at which this DC instance was created. Used to calculate energy costs.
@@ -127,6 +155,22 @@ public class DC {
 	 */
 	private double occupiedServerUtil;
 	
+	/**
+	 * Indicates whether power changes of the servers are propagated through one SERVER_UPDATE event per server (see SimulationContext.isServerPowerEvents).
+	 * Otherwise, they are accounted once per job (see allocateJobServerPower).
+	 */
+	private boolean serverPowerEvents;
+	
+	/**
+	 * Sum of the power changes that were accounted per job in the current timestep, but are not yet added to occupiedServerPC.
+	 */
+	private double pendingOccupiedServerPC;
+	
+	/**
+	 * Indicates whether power changes were accounted per job in the current timestep.
+	 */
+	private boolean occupiedServerPCChanged;
+	
 	/**
 	 * Energy costs that come from the current point in simulation time.
 	 */
@@ -174,6 +218,16 @@ public class DC {
 	 */
 	private DREventHandler drEventHandler;
 	
+	/**
+	 * Node occupation profile of the DC, which is updated whenever a job is started, finished, paused or (re)scheduled.
+	 */
+	private NodeOccupationProfile nodeOccupationProfile;
+	
+	/**
+	 * Buffer that collects the monitoring records of the DC while it is simulated on a worker thread (null if the records are directly inserted into the results backend).
+	 */
+	private DeferredRecordBuffer deferredRecordBuffer;
+	
 	/**
 	 * Length of the scheduling interval in simulation time.
 	 */
@@ -191,9 +245,16 @@ public class DC {
 	private ArrayList<BatchJob> unsubmittedParsedJobs;
 	
 	/**
-	 * List of all jobs that are already finished.
+	 * Source from which the unsubmitted jobs are pulled (only exists for DC instances that are not copies and that were created from a workload source).
+	 * The list of unsubmitted parsed jobs only contains the jobs whose submission times are within the look-ahead window of the DC.
+	 */
+	private WorkloadSource workloadSource;
+	
+	/**
+	 * Length of the look-ahead window in simulation time, i.e., how far ahead of the clock the jobs are pulled from the workload source.
 	 */
-	private ArrayList<BatchJob> finishedJobs;	
+	private int workloadLookAhead;
+	
 
 
 	private int copiedIndexOffset;
@@ -220,17 +281,27 @@ public class DC {
 	 */
 	private int copiedIndexOffsetAtCreation;
 	
+	/**
+	 * Mapping from server IDs to the positions of the servers in the server list (created on first use, see writeCheckpoint).
+	 */
+	private HashMap<Integer, Integer> serverIndices;
+	
 
-	public DC(double pue, String name, int id, List<Server> server, ArrayList<BatchJob> jobs, HVAC hvac, List<ESF> ups
+	public DC(SimulationContext context, double pue, String name, int id, List<Server> server, ArrayList<BatchJob> jobs, HVAC hvac, List<ESF> ups
 			, Calendar simStartTime, int schedulingInterval) {
+		this.context = context;
 		this.pue = pue;
 		this.setName(name);
 		this.setId(id);
 		this.server = server;
 		this.unsubmittedParsedJobs = jobs;
+		for(BatchJob job : jobs) {
+			job.setContext(context);
+		}
 		this.hvac = hvac;
 		this.ups = ups;
 		this.clock = 0;
+		this.nodeOccupationProfile = new NodeOccupationProfile(SchedulingStrategyUtilities.MAXIMUM_AMOUNT_OF_NODES);
 		this.eventHandler = new EventHandler(this);
 		this.scheduler = new Scheduler(this.schedulingStrategy, this);
 		this.simStartTime = simStartTime;
@@ -240,18 +311,30 @@ public class DC {
 		this.isCopy = false;
 		this.occupiedServerPC = 0;
 		this.occupiedServerUtil = 0;
+		this.serverPowerEvents = context.isServerPowerEvents();
+		this.pendingOccupiedServerPC = 0;
+		this.occupiedServerPCChanged = false;
 		this.copiedIndexOffset = 0;
 		this.historicOverallECOffset = 1;
 		this.currentEnergyCost = 0;
 
-		
-		this.finishedJobs = new ArrayList<BatchJob>();
-		this.finishedJobs = this.eventHandler.getFinishedJobs();
-		this.historicOverallPC = new ArrayList<Double>();
+		this.historicOverallPC = new PowerConsumptionHistory(this.getPowerHistoryRetention());
 		
 		this.eventQueue = new EventQueue(jobs);
 		
 	}
+	
+	/**
+	 * Creates a DC whose jobs are pulled from a workload source in a look-ahead window of scheduling intervals (see SimulationContext.getWorkloadLookAheadIntervals).
+	 * Jobs beyond the window are only pulled when the clock advances or when a copy of the DC requests them (see deepCopy).
+	 */
+	public DC(SimulationContext context, double pue, String name, int id, List<Server> server, WorkloadSource workloadSource, HVAC hvac, List<ESF> ups
+			, Calendar simStartTime, int schedulingInterval) {
+		this(context, pue, name, id, server, new ArrayList<BatchJob>(), hvac, ups, simStartTime, schedulingInterval);
+		this.workloadSource = workloadSource;
+		this.workloadLookAhead = Math.max(1, context.getWorkloadLookAheadIntervals())*schedulingInterval;
+		this.pullUnsubmittedJobs(this.workloadLookAhead);
+	}
 
 	/**
 	 * Provides a deep copy of this DC instance.
@@ -261,7 +344,7 @@ public class DC {
 	 */
 	public DC deepCopy(int lastSubmissionDateOfCopiedUnsubmittedJobs) {
 		//Create new DC instance
-		DC copy = new DC(this.pue, this.name, this.id, new ArrayList<Server>(), new ArrayList<BatchJob>(),
+		DC copy = new DC(this.context, this.pue, this.name, this.id, new ArrayList<Server>(), new ArrayList<BatchJob>(),
 				hvac.deepCopy(), new ArrayList<ESF>(), (Calendar) simStartTime.clone(),
 				schedulingInterval);
 		
@@ -282,6 +365,8 @@ public class DC {
 		//Set power consumption of the occupied servers and set overall PC offset
 		copy.setOccupiedServerPC(this.occupiedServerPC);
 		copy.setHistoricOverallPCOffset(this.clock-1);
+		//Copies are evaluated from the point in simulation time at which they were created, thus their complete history is retained
+		copy.historicOverallPC = new PowerConsumptionHistory(PowerConsumptionHistory.UNLIMITED_RETENTION);
 
 		//Copy all ESF devices
 		for (ESF esf : ups) {
@@ -298,13 +383,17 @@ public class DC {
 		HashMap<String, BatchJob> jobIDInstanceMapping = new HashMap<String, BatchJob>();
 		
 		BatchJob job;
-		for(int i=0; i < this.unsubmittedParsedJobs.size(); i++) {
-			job = this.unsubmittedParsedJobs.get(i);
-			if(job.getSubmissionTime() <= lastSubmissionDateOfCopiedUnsubmittedJobs) {
-				jobs.add(job);
-			}
-			else {
-				break;
+		//Several copies of a DC can be created concurrently (see SimpleDREventHandler.evaluateCandidateRow) and pulling jobs modifies the list of unsubmitted jobs
+		synchronized(this) {
+			this.pullUnsubmittedJobs(lastSubmissionDateOfCopiedUnsubmittedJobs);
+			for(int i=0; i < this.unsubmittedParsedJobs.size(); i++) {
+				job = this.unsubmittedParsedJobs.get(i);
+				if(job.getSubmissionTime() <= lastSubmissionDateOfCopiedUnsubmittedJobs) {
+					jobs.add(job);
+				}
+				else {
+					break;
+				}
 			}
 		}
 		if(this.isCopy && this.lastUnsubmittedJobRequestDate < lastSubmissionDateOfCopiedUnsubmittedJobs) {
@@ -425,6 +514,341 @@ public class DC {
 		return copy;
 	}
 	
+	/**
+	 * Writes the complete state of this DC instance to a checkpoint, i.e., the power consumption values, the historic power consumption values,
+	 * all jobs with their status, the resource allocation, the scheduled events and the configuration of the demand flexibility scheduling strategy.
+	 * Each job is written only once into a job table. The job lists, the servers and the events refer to the jobs through their position in this table.
+	 * DR request events are not written, as they are scheduled from the DR event trace when the DC is created (see readCheckpoint).
+	 * Only DC instances that are not copies can be written to a checkpoint.
+	 * @param out Stream to which the checkpoint is written.
+	 * @throws IOException If the state cannot be written.
+	 */
+	public void writeCheckpoint(DataOutputStream out) throws IOException {
+		if(this.isCopy) {
+			throw new IllegalStateException("Copies of a DC cannot be written to a checkpoint.");
+		}
+		List<Event> events = this.eventQueue.getScheduledEvents();
+		
+		//Collect all jobs that are referenced by the DC (each instance is written only once)
+		IdentityHashMap<BatchJob, Integer> jobIndices = new IdentityHashMap<BatchJob, Integer>();
+		ArrayList<BatchJob> jobTable = new ArrayList<BatchJob>();
+		ArrayList<List<BatchJob>> jobLists = this.getCheckpointJobLists();
+		for(List<BatchJob> jobList : jobLists) {
+			for(BatchJob job : jobList) {
+				DC.addToJobTable(job, jobIndices, jobTable);
+			}
+		}
+		for(Server s : this.server) {
+			DC.addToJobTable(s.getCurrentJob(), jobIndices, jobTable);
+		}
+		for(Event event : events) {
+			if(event instanceof JobEvent) {
+				DC.addToJobTable(((JobEvent) event).getAffectedJob(), jobIndices, jobTable);
+			}
+		}
+		
+		out.writeUTF(this.name);
+		out.writeInt(this.clock);
+		out.writeInt(this.nextSchedulerCall);
+		out.writeBoolean(this.changed);
+		out.writeInt(this.copiedIndexOffset);
+		out.writeInt(this.workloadSource != null ? this.workloadSource.getPosition() : -1);
+		out.writeInt(this.historicOverallECOffset);
+		out.writeDouble(this.overallCurrentServerUtil);
+		out.writeInt(this.overallCurrentPC);
+		out.writeDouble(this.currentHVACPower);
+		out.writeDouble(this.occupiedServerPC);
+		out.writeDouble(this.occupiedServerUtil);
+		out.writeDouble(this.currentEnergyCost);
+		out.writeDouble(this.currentITPower);
+		this.historicOverallPC.writeCheckpoint(out);
+		out.writeDouble(this.schedulingStrategy.getShiftingPowerFraction());
+		out.writeDouble(this.schedulingStrategy.getScalingFrequency());
+		out.writeInt(this.schedulingStrategy.getPreviouslyShiftedNodeSteps());
+		this.hvac.writeCheckpoint(out);
+		this.eventHandler.writeCheckpoint(out);
+		
+		//Job table
+		out.writeInt(jobTable.size());
+		for(BatchJob job : jobTable) {
+			job.writeCheckpoint(out);
+		}
+		
+		//Servers and the resource allocation
+		out.writeInt(this.server.size());
+		for(Server s : this.server) {
+			s.writeCheckpoint(out);
+			out.writeInt(DC.getCheckpointIndex(s.getCurrentJob(), jobIndices));
+		}
+		for(BatchJob job : jobTable) {
+			if(job.getAssignedServers() == null) {
+				out.writeInt(-1);
+			}
+			else {
+				out.writeInt(job.getAssignedServers().size());
+				for(Server s : job.getAssignedServers()) {
+					out.writeInt(this.getServerIndices().get(s.getId()));
+				}
+			}
+		}
+		
+		//Job lists and server lists
+		for(List<BatchJob> jobList : jobLists) {
+			out.writeInt(jobList.size());
+			for(BatchJob job : jobList) {
+				out.writeInt(jobIndices.get(job));
+			}
+		}
+		this.writeCheckpointServerList(out, this.eventHandler.getOccupiedServer());
+		this.writeCheckpointServerList(out, this.eventHandler.getIdleServer());
+		
+		//Scheduled events (in the order in which they were scheduled)
+		int eventCount = 0;
+		for(Event event : events) {
+			if(event.getType() != EventType.DR_REQUEST) {
+				eventCount++;
+			}
+		}
+		out.writeInt(eventCount);
+		for(Event event : events) {
+			if(event.getType() == EventType.DR_REQUEST) {
+				continue;
+			}
+			out.writeInt(event.getType().ordinal());
+			out.writeInt(event.getTimestamp());
+			if(event instanceof JobEvent) {
+				BatchJob job = ((JobEvent) event).getAffectedJob();
+				out.writeByte(CHECKPOINT_JOB_EVENT);
+				out.writeInt(jobIndices.get(job));
+				if(event == job.getStartEvent()) {
+					out.writeByte(CHECKPOINT_START_EVENT);
+				}
+				else if(event == job.getFinishEvent()) {
+					out.writeByte(CHECKPOINT_FINISH_EVENT);
+				}
+				else if(event == job.getRestartEvent()) {
+					out.writeByte(CHECKPOINT_RESTART_EVENT);
+				}
+				else {
+					out.writeByte(CHECKPOINT_SEPARATE_EVENT);
+				}
+			}
+			else if(event instanceof ServerEvent) {
+				out.writeByte(CHECKPOINT_SERVER_EVENT);
+				out.writeInt(this.getServerIndices().get(((ServerEvent) event).getAffectedServer().getId()));
+			}
+			else if(event instanceof CoolingEvent) {
+				out.writeByte(CHECKPOINT_COOLING_EVENT);
+				out.writeDouble(((CoolingEvent) event).getNewTemperatureSetpoint());
+			}
+			else {
+				out.writeByte(CHECKPOINT_PLAIN_EVENT);
+			}
+		}
+	}
+	
+	/**
+	 * Restores the state that was written to a checkpoint by writeCheckpoint. The DC instance has to be created from the same configuration
+	 * (servers and DR event trace) as the DC instance that was written to the checkpoint. The unsubmitted jobs of the configuration are replaced
+	 * by the jobs of the checkpoint, whereas the DR request events of the configuration that are scheduled at or after the clock of the checkpoint are kept.
+	 * Thus, a checkpoint can also be restored into a DC whose DR event trace differs from the one of the checkpointed DC.
+	 * @param in Stream from which the checkpoint is read.
+	 * @throws IOException If the state cannot be read or does not match the configuration of this DC.
+	 */
+	public void readCheckpoint(DataInputStream in) throws IOException {
+		String checkpointName = in.readUTF();
+		if(!checkpointName.equals(this.name)) {
+			throw new IOException("Checkpoint of DC " + checkpointName + " cannot be restored into DC " + this.name);
+		}
+		this.clock = in.readInt();
+		this.nextSchedulerCall = in.readInt();
+		this.changed = in.readBoolean();
+		this.copiedIndexOffset = in.readInt();
+		int workloadPosition = in.readInt();
+		if((workloadPosition >= 0) != (this.workloadSource != null)) {
+			throw new IOException("Checkpoint of DC " + this.name + " and the DC do not both stream their workload");
+		}
+		if(this.workloadSource != null) {
+			this.workloadSource.seek(workloadPosition);
+		}
+		this.historicOverallECOffset = in.readInt();
+		this.overallCurrentServerUtil = in.readDouble();
+		this.overallCurrentPC = in.readInt();
+		this.currentHVACPower = in.readDouble();
+		this.occupiedServerPC = in.readDouble();
+		this.occupiedServerUtil = in.readDouble();
+		this.currentEnergyCost = in.readDouble();
+		this.currentITPower = in.readDouble();
+		this.historicOverallPC.readCheckpoint(in);
+		this.schedulingStrategy.setShiftingPowerFraction(in.readDouble());
+		this.schedulingStrategy.setScalingFrequency(in.readDouble());
+		this.schedulingStrategy.setPreviouslyShiftedNodeSteps(in.readInt());
+		this.hvac.readCheckpoint(in);
+		this.eventHandler.readCheckpoint(in);
+		
+		//Job table
+		BatchJob[] jobTable = new BatchJob[in.readInt()];
+		for(int i=0; i < jobTable.length; i++) {
+			jobTable[i] = BatchJob.readCheckpoint(in, this.context);
+		}
+		
+		//Servers and the resource allocation
+		int serverCount = in.readInt();
+		if(serverCount != this.server.size()) {
+			throw new IOException("Checkpoint of DC " + this.name + " contains " + serverCount + " servers, but the DC has " + this.server.size() + " servers");
+		}
+		for(Server s : this.server) {
+			s.readCheckpoint(in);
+			s.setCurrentJob(DC.getCheckpointJob(in.readInt(), jobTable));
+		}
+		int assignedServers;
+		for(BatchJob job : jobTable) {
+			assignedServers = in.readInt();
+			if(assignedServers >= 0) {
+				ArrayList<Server> servers = new ArrayList<Server>(assignedServers);
+				for(int i=0; i < assignedServers; i++) {
+					servers.add(this.server.get(in.readInt()));
+				}
+				job.assignServers(servers);
+			}
+		}
+		
+		//Job lists and server lists (the list instances are kept, as they are referenced by the components of the DC)
+		int listSize;
+		for(List<BatchJob> jobList : this.getCheckpointJobLists()) {
+			jobList.clear();
+			listSize = in.readInt();
+			for(int i=0; i < listSize; i++) {
+				jobList.add(jobTable[in.readInt()]);
+			}
+		}
+		ArrayList<Server> occupiedServer = this.readCheckpointServerList(in);
+		ArrayList<Server> idleServer = this.readCheckpointServerList(in);
+		this.eventHandler.setServerLists(occupiedServer, idleServer);
+		HashMap<Integer, String> serverJobMapping = new HashMap<Integer, String>();
+		for(Server s : occupiedServer) {
+			serverJobMapping.put(s.getId(), s.getCurrentJob().getId());
+		}
+		this.eventHandler.setServerJobMapping(serverJobMapping);
+		
+		//Scheduled events
+		EventQueue restoredQueue = new EventQueue();
+		for(Event event : this.eventQueue.getScheduledEvents()) {
+			if(event.getType() == EventType.DR_REQUEST && event.getTimestamp() >= this.clock) {
+				restoredQueue.scheduleEvent(event);
+			}
+		}
+		int eventCount = in.readInt();
+		EventType type;
+		int timestamp;
+		BatchJob job;
+		Event event;
+		for(int i=0; i < eventCount; i++) {
+			type = EventType.values()[in.readInt()];
+			timestamp = in.readInt();
+			switch(in.readByte()) {
+			case CHECKPOINT_JOB_EVENT:
+				job = jobTable[in.readInt()];
+				switch(in.readByte()) {
+				case CHECKPOINT_START_EVENT:
+					event = job.getStartEvent();
+					break;
+				case CHECKPOINT_FINISH_EVENT:
+					event = job.getFinishEvent();
+					break;
+				case CHECKPOINT_RESTART_EVENT:
+					event = job.getRestartEvent();
+					break;
+				default:
+					event = new JobEvent(type, timestamp, job);
+					break;
+				}
+				break;
+			case CHECKPOINT_SERVER_EVENT:
+				event = new ServerEvent(type, timestamp, this.server.get(in.readInt()));
+				break;
+			case CHECKPOINT_COOLING_EVENT:
+				event = new CoolingEvent(type, timestamp, in.readDouble());
+				break;
+			default:
+				event = new Event(type, timestamp);
+				break;
+			}
+			restoredQueue.scheduleEvent(event);
+		}
+		this.eventQueue = restoredQueue;
+		
+		//Rebuild the node occupation profile from the running and scheduled jobs
+		this.nodeOccupationProfile = new NodeOccupationProfile(SchedulingStrategyUtilities.MAXIMUM_AMOUNT_OF_NODES);
+		List<BatchJob> occupationPlanRelevantJobs = new ArrayList<BatchJob>(this.scheduler.getScheduledJobs());
+		occupationPlanRelevantJobs.addAll(this.eventHandler.getRunningJobs());
+		this.nodeOccupationProfile.synchronize(occupationPlanRelevantJobs, this.clock);
+	}
+	
+	/**
+	 * @return All job lists of the DC in the order in which they are written to a checkpoint.
+	 */
+	private ArrayList<List<BatchJob>> getCheckpointJobLists() {
+		ArrayList<List<BatchJob>> jobLists = new ArrayList<List<BatchJob>>();
+		jobLists.add(this.unsubmittedParsedJobs);
+		jobLists.add(this.scheduler.getSubmittedJobs());
+		jobLists.add(this.scheduler.getAffectedSubmittedJobs());
+		jobLists.add(this.scheduler.getScheduledJobs());
+		jobLists.add(this.eventHandler.getRunningJobs());
+		jobLists.add(this.eventHandler.getPausedJobs());
+		return jobLists;
+	}
+	
+	private void writeCheckpointServerList(DataOutputStream out, List<Server> servers) throws IOException {
+		out.writeInt(servers.size());
+		for(Server s : servers) {
+			out.writeInt(this.getServerIndices().get(s.getId()));
+		}
+	}
+	
+	/**
+	 * @return Mapping from server IDs to the positions of the servers in the server list.
+	 */
+	private HashMap<Integer, Integer> getServerIndices() {
+		if(this.serverIndices == null) {
+			this.serverIndices = new HashMap<Integer, Integer>();
+			for(int i=0; i < this.server.size(); i++) {
+				this.serverIndices.put(this.server.get(i).getId(), i);
+			}
+		}
+		return this.serverIndices;
+	}
+	
+	private ArrayList<Server> readCheckpointServerList(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		ArrayList<Server> servers = new ArrayList<Server>(size);
+		for(int i=0; i < size; i++) {
+			servers.add(this.server.get(in.readInt()));
+		}
+		return servers;
+	}
+	
+	private static void addToJobTable(BatchJob job, IdentityHashMap<BatchJob, Integer> jobIndices, ArrayList<BatchJob> jobTable) {
+		if(job != null && !jobIndices.containsKey(job)) {
+			jobIndices.put(job, jobTable.size());
+			jobTable.add(job);
+		}
+	}
+	
+	private static int getCheckpointIndex(BatchJob job, IdentityHashMap<BatchJob, Integer> jobIndices) {
+		if(job == null) {
+			return -1;
+		}
+		return jobIndices.get(job);
+	}
+	
+	private static BatchJob getCheckpointJob(int index, BatchJob[] jobTable) {
+		if(index < 0) {
+			return null;
+		}
+		return jobTable[index];
+	}
+	
 	/**
 	 * Schedules the jobs for the upcoming scheduling interval.
 	 * Thereby, the method checks whether the current value of the clock variable of the DC equals the value of the 
@@ -432,6 +856,9 @@ public class DC {
 	 * When this is not the case, the scheduler component of the DC is not called.
 	 */
 	public void scheduleJobs() {
+		if(this.workloadSource != null) {
+			this.pullUnsubmittedJobs(this.clock + this.workloadLookAhead);
+		}
 		if(this.getJobSubmissionEvents(this.clock) != null) {
 			this.eventHandler.handleJobSubmissionEvents(this.clock);
 		}
@@ -459,6 +886,7 @@ public class DC {
 		//If this is false, it is used for a setup action, thus the occupied server power consumption is recalculated
 		if(!updateRemainingJobTimes) {
 			this.occupiedServerPC = 0;
+			this.pendingOccupiedServerPC = 0;
 			for(Server s : this.server) {
 				s.update();
 				if(s.getStatus() == ServerStatus.OCCUPIED) {
@@ -472,7 +900,49 @@ public class DC {
 		if(increaseClock) {
 			eventHandler.update(this.scheduler.getScheduledJobs(), this.clock, updateRemainingJobTimes);
 		}
-
+		
+		this.updatePowerConsumption(increaseClock);
+	}
+	
+	/**
+	 * Elapses a timestep of simulation time in which no events are scheduled and the scheduler is not called.
+	 * In contrast to updateJobAllocation, no events are handled and no simulation time is elapsed for the jobs (see elapseJobTimesteps).
+	 * Only the power consumption values and the energy costs of the timestep are updated and the clock is increased.
+	 */
+	public void updateQuietTimestep() {
+		this.updatePowerConsumption(true);
+	}
+	
+	/**
+	 * Elapses the specified amount of timesteps of simulation time for all running, paused and scheduled jobs at once.
+	 * This has to be used together with updateQuietTimestep, when timesteps without scheduled events are skipped.
+	 * @param steps Amount of timesteps to elapse.
+	 */
+	public void elapseJobTimesteps(int steps) {
+		this.eventHandler.elapseSimulationTimestepsForJobs(this.scheduler.getScheduledJobs(), steps);
+	}
+	
+	/**
+	 * Determines the next point in simulation time at which the state of the DC can change, i.e., the time of the next scheduled event or of the next scheduler call.
+	 * All timesteps between the current value of clock and the returned point in simulation time can be elapsed through updateQuietTimestep.
+	 * @return Next point in simulation time at which the DC has to be updated through scheduleJobs and updateJobAllocation.
+	 */
+	public int getNextEventTime() {
+		int nextEventTime = Math.min(this.eventQueue.nextEventTime(), this.nextSchedulerCall);
+		if(this.workloadSource != null) {
+			nextEventTime = Math.min(nextEventTime, this.workloadSource.getNextSubmissionTime());
+		}
+		if(nextEventTime < this.clock) {
+			return this.clock;
+		}
+		return nextEventTime;
+	}
+	
+	/**
+	 * Updates the power consumption values and the energy costs of the current timestep.
+	 * @param increaseClock Indicates whether the clock of the DC should be increased.
+	 */
+	private void updatePowerConsumption(boolean increaseClock) {
 		// --SERVER EC--
 		//Handle server update events
 		if (server.size() != 0) {
@@ -498,12 +968,22 @@ public class DC {
 				}
 			}
 			
+			//Apply the power changes that were accounted per job
+			if(this.occupiedServerPCChanged) {
+				this.occupiedServerPC += this.pendingOccupiedServerPC;
+				this.pendingOccupiedServerPC = 0;
+				this.occupiedServerPCChanged = false;
+				if(Math.abs(this.occupiedServerPC) < 0.1) {
+					this.occupiedServerPC = 0;
+				}
+			}
+			
 			//Calculate current total facility power consumption
 			this.overallCurrentPC = 0;
 			double serverPower = (this.eventHandler.getIdleServer().size())*Server.IDLE_POWER;
 			serverPower += this.occupiedServerPC;
 			
-			this.overallCurrentPC += PowerModelSelector.getITPower(serverPower, this.eventHandler.getRunningJobs().size(), this.eventHandler.getOccupiedServer().size());
+			this.overallCurrentPC += this.context.getITPower(serverPower, this.eventHandler.getRunningJobs().size(), this.eventHandler.getOccupiedServer().size());
 			this.currentITPower = this.overallCurrentPC;
 
 			this.overallCurrentServerUtil = ((double)this.eventHandler.getOccupiedServer().size()/(double)this.server.size());
@@ -511,17 +991,17 @@ public class DC {
 		}
 
 		// --HVAC EC--
-		this.hvac.update(overallCurrentServerUtil, this.overallCurrentPC, PUEModelSelector.getPUE(this.clock));
+		this.hvac.update(overallCurrentServerUtil, this.overallCurrentPC, this.context.getPUE(this.clock), this.context);
 		this.overallCurrentPC += hvac.getCurrentPC();
 		this.currentHVACPower = hvac.getCurrentPC();
 		
-		double usedEnergy = ((double)this.overallCurrentPC/1000.0)/(3600.0/(double)Setup.secondsPerSimulationTimestep);
-		this.currentEnergyCost = EnergyPriceModelSelector.getEnergyPriceInCentPerKWh(clock)*usedEnergy;
+		double usedEnergy = ((double)this.overallCurrentPC/1000.0)/(3600.0/(double)this.context.getSecondsPerSimulationTimestep());
+		this.currentEnergyCost = this.context.getEnergyPriceInCentPerKWh(clock)*usedEnergy;
 		
 		//If the clock should be increased, increase the clock and store current total facility power consumption in the list of the historic power consumption values
 		if(increaseClock) {
 			clock++;
-			this.historicOverallPC.add((double)this.overallCurrentPC);
+			this.addHistoricOverallPC((double)this.overallCurrentPC);
 		}
 	}
 	
@@ -720,13 +1200,13 @@ public class DC {
 		return this.scheduler.getSubmittedJobs();
 	}
 	
-	public ArrayList<BatchJob> getFinishedJobs() {
+	public FinishedJobArchive getFinishedJobs() {
 		return this.eventHandler.getFinishedJobs();
 	}
 	
 	/**
-	 * Retrieves all jobs that exist in the DC.
-	 * @return List of all jobs that exist in the DC.
+	 * Retrieves all jobs that exist in the DC. Finished jobs are not contained, as they are only kept in the archive of the finished jobs (see getFinishedJobs).
+	 * @return List of all jobs that exist in the DC that did not finish yet.
 	 */
 	public List<BatchJob> getJobs() {
 		List<BatchJob> result = new ArrayList<BatchJob>();
@@ -735,7 +1215,6 @@ public class DC {
 		result.addAll(this.scheduler.getScheduledJobs());
 		result.addAll(this.eventHandler.getRunningJobs());
 		result.addAll(this.eventHandler.getPausedJobs());
-		result.addAll(this.eventHandler.getFinishedJobs());
 		
 		return result;
 	}
@@ -749,6 +1228,10 @@ public class DC {
 		return this.eventHandler.getOccupiedServer();
 	}
 	
+	public ArrayList<Server> getIdleServer() {
+		return this.eventHandler.getIdleServer();
+	}
+	
 	public double getPue() {
 		return pue;
 	}
@@ -836,6 +1319,50 @@ public class DC {
 		return this.drEventHandler;
 	}
 	
+	public NodeOccupationProfile getNodeOccupationProfile() {
+		return this.nodeOccupationProfile;
+	}
+	
+	public SimulationContext getContext() {
+		return this.context;
+	}
+	
+	public DeferredRecordBuffer getDeferredRecordBuffer() {
+		return this.deferredRecordBuffer;
+	}
+	
+	public void setDeferredRecordBuffer(DeferredRecordBuffer deferredRecordBuffer) {
+		this.deferredRecordBuffer = deferredRecordBuffer;
+	}
+	
+	/**
+	 * Inserts a monitoring record of this DC into the results backend. If the DC is simulated on a worker thread, the record is collected in
+	 * the deferred record buffer of the DC instead.
+	 * @param record Record that should be inserted (can be reused by the caller as soon as the method returns).
+	 */
+	public void insertRecord(BoundDatabaseRecord record) {
+		if(this.deferredRecordBuffer != null) {
+			this.deferredRecordBuffer.insertRecord(record);
+		}
+		else {
+			this.context.getResultsBackend().insertRecord(record);
+		}
+	}
+	
+	/**
+	 * Inserts a monitoring record of this DC into the results backend. If the DC is simulated on a worker thread, the record is collected in
+	 * the deferred record buffer of the DC instead.
+	 * @param record Record that should be inserted.
+	 */
+	public void insertRecord(DatabaseRecord record) {
+		if(this.deferredRecordBuffer != null) {
+			this.deferredRecordBuffer.insertRecord(record);
+		}
+		else {
+			this.context.getResultsBackend().insertRecord(record);
+		}
+	}
+	
 	public void setNextSchedulerCall(int nextSchedulerCall) {
 		this.nextSchedulerCall = nextSchedulerCall;
 	}
@@ -849,10 +1376,10 @@ public class DC {
 	}
 	
 	public void setHistoricalOverallEC(ArrayList<Double> historicOverallEC) {
-		this.historicOverallPC = new ArrayList<Double>();
+		this.historicOverallPC = new PowerConsumptionHistory(this.isCopy ? PowerConsumptionHistory.UNLIMITED_RETENTION : this.getPowerHistoryRetention());
 		
 		for(double d : historicOverallEC) {
-			this.historicOverallPC.add(d);
+			this.addHistoricOverallPC(d);
 		}
 	}
 	
@@ -862,11 +1389,18 @@ public class DC {
 	 */
 	public Date getCurrentDate() {
 		Date currentDate = this.simStartTime.getTime();
-		currentDate.setTime(currentDate.getTime() + ((long) clock * (Setup.secondsPerSimulationTimestep*1000)));
+		currentDate.setTime(currentDate.getTime() + ((long) clock * (this.context.getSecondsPerSimulationTimestep()*1000)));
 		
 		return currentDate;
 	}
 	
+	/**
+	 * @return Current point in simulation time as milliseconds since 01.01.1970 (equals getCurrentDate().getTime() without creating a Date instance).
+	 */
+	public long getCurrentTimeInMillis() {
+		return this.simStartTime.getTimeInMillis() + ((long) clock * (this.context.getSecondsPerSimulationTimestep()*1000));
+	}
+	
 	public void setScheduler(Scheduler scheduler) {
 		this.scheduler = scheduler;
 		this.drEventHandler.setDCScheduler(scheduler);
@@ -874,7 +1408,80 @@ public class DC {
 	
 	public void setAllocator(EventHandler allocator) {
 		this.eventHandler = allocator;
-		this.finishedJobs = allocator.getFinishedJobs();
+	}
+	
+	/**
+	 * Accounts the power consumption of the servers that were assigned to a started or restarted job. The power consumption of the occupied servers
+	 * is changed by one delta for the whole job, unless the power changes are propagated per server (see SimulationContext.isServerPowerEvents).
+	 * In both cases, the change takes effect when the power consumption of the current timestep is updated.
+	 * @param job Job in the RUNNING status whose servers are already assigned.
+	 * @param currentTime Current point in simulation time.
+	 */
+	public void allocateJobServerPower(BatchJob job, int currentTime) {
+		if(this.serverPowerEvents) {
+			this.scheduleServerUpdateEvents(job, currentTime);
+			return;
+		}
+		double serverPower = job.getModeledAveragePowerConsumption();
+		for(Server s : job.getAssignedServers()) {
+			s.assignJob(job, serverPower);
+		}
+		this.accountOccupiedServerPC(job.getAssignedServers().size()*serverPower);
+	}
+	
+	/**
+	 * Accounts the power consumption of the servers that were released by a finished or paused job (see allocateJobServerPower).
+	 * @param job Job whose servers are already set to the IDLE status, but are still assigned to the job.
+	 * @param currentTime Current point in simulation time.
+	 */
+	public void releaseJobServerPower(BatchJob job, int currentTime) {
+		if(this.serverPowerEvents) {
+			this.scheduleServerUpdateEvents(job, currentTime);
+			return;
+		}
+		for(Server s : job.getAssignedServers()) {
+			s.update();
+		}
+		this.accountOccupiedServerPC(-job.getAssignedServers().size()*job.getModeledAveragePowerConsumption());
+	}
+	
+	/**
+	 * Changes the execution frequency of a job. If the job is running, the power consumption of its servers and its finish event are updated
+	 * (see allocateJobServerPower).
+	 * @param job Job whose frequency is changed.
+	 * @param frequency New execution frequency of the job.
+	 * @param currentTime Current point in simulation time.
+	 */
+	public void setJobFrequency(BatchJob job, double frequency, int currentTime) {
+		if(job.getStatus() != BatchJobStatus.RUNNING) {
+			job.setFrequency(frequency);
+			return;
+		}
+		if(this.serverPowerEvents) {
+			job.setFrequency(frequency);
+			this.scheduleServerUpdateEvents(job, currentTime);
+		}
+		else {
+			double previousServerPower = job.getModeledAveragePowerConsumption();
+			job.setFrequency(frequency);
+			double serverPower = job.getModeledAveragePowerConsumption();
+			for(Server s : job.getAssignedServers()) {
+				s.assignJob(job, serverPower);
+			}
+			this.accountOccupiedServerPC(job.getAssignedServers().size()*(serverPower - previousServerPower));
+		}
+		this.rescheduleEvent(job.getFinishEvent(), job.getCalculatedFinishTime());
+	}
+	
+	private void scheduleServerUpdateEvents(BatchJob job, int currentTime) {
+		for(Server s : job.getAssignedServers()) {
+			this.scheduleEvent(new ServerEvent(EventType.SERVER_UPDATE, currentTime, s));
+		}
+	}
+	
+	private void accountOccupiedServerPC(double delta) {
+		this.pendingOccupiedServerPC += delta;
+		this.occupiedServerPCChanged = true;
 	}
 	
 	/**
@@ -1038,48 +1645,112 @@ public class DC {
 			return this.parent.requestAdditionalUnsubmittedJobs(newEndDate, lastCopiedIndex, copiedIndexOffsetAtCreation);
 		}
 		else {
-			ArrayList<BatchJob> result = new ArrayList<BatchJob>();
-			BatchJob job;
-			int cIndex = (lastCopiedIndex - (this.copiedIndexOffset-copiedIndexOffsetAtCreation));
-			if(cIndex < 0) {
-				cIndex = -1;
-			}
-			for(int i= (cIndex+1); i < this.unsubmittedParsedJobs.size(); i++) {
-				job = this.unsubmittedParsedJobs.get(i);
-				if(job.getSubmissionTime() <= newEndDate) {
-					result.add(job.deepCopy());
+			//Copies of this DC can request jobs concurrently (see copy)
+			synchronized(this) {
+				this.pullUnsubmittedJobs(newEndDate);
+				ArrayList<BatchJob> result = new ArrayList<BatchJob>();
+				BatchJob job;
+				int cIndex = (lastCopiedIndex - (this.copiedIndexOffset-copiedIndexOffsetAtCreation));
+				if(cIndex < 0) {
+					cIndex = -1;
 				}
-				else {
-					break;
+				for(int i= (cIndex+1); i < this.unsubmittedParsedJobs.size(); i++) {
+					job = this.unsubmittedParsedJobs.get(i);
+					if(job.getSubmissionTime() <= newEndDate) {
+						result.add(job.deepCopy());
+					}
+					else {
+						break;
+					}
 				}
+				return result;
 			}
-			return result;
 		}
 	}
 	
+	/**
+	 * Pulls the jobs from the workload source whose submission times are not after the specified point in simulation time.
+	 * The jobs are appended to the list of unsubmitted parsed jobs (in the order of their submission times) and their submission events are scheduled.
+	 * As copies of the DC pull jobs through their parent (see requestAdditionalUnsubmittedJobs), the method is synchronized on the DC.
+	 * @param endDate Submission date up to which the jobs are pulled.
+	 */
+	private synchronized void pullUnsubmittedJobs(int endDate) {
+		if(this.workloadSource == null) {
+			return;
+		}
+		BatchJob job;
+		while(this.workloadSource.getNextSubmissionTime() <= endDate) {
+			job = this.workloadSource.next();
+			job.setContext(this.context);
+			this.unsubmittedParsedJobs.add(job);
+			this.eventQueue.scheduleEvent(new JobEvent(EventType.JOB_SUBMISSION, job.getSubmissionTime(), job));
+		}
+	}
+	
+	/**
+	 * Stores the total facility power consumption of a past point in simulation time and updates the running sums of energy consumption and energy costs.
+	 * @param pc Total facility power consumption.
+	 */
+	private void addHistoricOverallPC(double pc) {
+		//The energy price is determined by the index of the value (like in the previous per-interval summation)
+		double usedEnergy = (pc/1000)/(3600/this.context.getSecondsPerSimulationTimestep());
+		this.historicOverallPC.add(pc, usedEnergy, this.context.getEnergyPriceInCentPerKWh(this.historicOverallPC.size())*usedEnergy);
+	}
+	
+	/**
+	 * Determines the amount of timesteps for which the power consumption history is retained (see SimulationContext.getPowerHistoryRetention).
+	 * @return Retention horizon of the power consumption history.
+	 */
+	private int getPowerHistoryRetention() {
+		if(this.context.getPowerHistoryRetention() < 0) {
+			return Math.max(this.context.getMaximumRuntime(), this.schedulingInterval);
+		}
+		return this.context.getPowerHistoryRetention();
+	}
+	
+	/**
+	 * Retrieves the energy consumption of the DC within the specified interval.
+	 * @param intervalStart Start date of the interval for which the energy consumption should be calculated.
+	 * @param intervalEnd End date of the interval for which the energy consumption should be calculated.
+	 * @return Total energy consumption in kWh within the specified interval.
+	 */
+	public double getEnergyConsumptionInSpecifiedInterval(int intervalStart, int intervalEnd) {
+		int first = intervalStart-this.historicOverallECOffset;
+		int last = (intervalEnd-1)-this.historicOverallECOffset;
+		if(!this.isNonEmptyHistoryRange(first, last, intervalStart, intervalEnd)) {
+			return 0;
+		}
+		return this.historicOverallPC.getEnergySum(last) - this.historicOverallPC.getEnergySum(first);
+	}
+	
 	private double calculateEnergyCosts(int intervalStart, int intervalEnd) {
-		double energyCosts = 0;
-		double energyPrice = 0;
-		double usedEnergy = 0;
-		for(int i = (intervalStart-this.historicOverallECOffset); i < ((intervalEnd-1)-this.historicOverallECOffset); i++) {
-			energyPrice = EnergyPriceModelSelector.getEnergyPriceInCentPerKWh(i);
-			usedEnergy = (this.historicOverallPC.get(i)/1000)/(3600/Setup.secondsPerSimulationTimestep);
-			energyCosts += (energyPrice*usedEnergy);
+		int first = intervalStart-this.historicOverallECOffset;
+		int last = (intervalEnd-1)-this.historicOverallECOffset;
+		if(!this.isNonEmptyHistoryRange(first, last, intervalStart, intervalEnd)) {
+			return 0;
 		}
-		return energyCosts;
+		return this.historicOverallPC.getEnergyCostSum(last) - this.historicOverallPC.getEnergyCostSum(first);
 	}
 	
-	private double calculateSLACosts(int intervalStart, int intervalEnd) {
-		double slaCosts = 0;
-		
-		int actualFinish;
-		for(BatchJob job : this.finishedJobs) {
-			actualFinish = job.getActualFinishingTime();
-			if(actualFinish >= intervalStart && actualFinish <= intervalEnd) {
-				slaCosts += job.calculateSLACosts(Setup.usagePrice);
-			}
+	/**
+	 * Checks whether the values of the power consumption history between two indices are retained. Copies of a DC only store the values from the point
+	 * in simulation time at which they were created (see historicOverallECOffset).
+	 * @param first Index of the first value of the interval.
+	 * @param last Index after the last value of the interval.
+	 * @return False if the interval does not contain any values.
+	 */
+	private boolean isNonEmptyHistoryRange(int first, int last, int intervalStart, int intervalEnd) {
+		if(last <= first) {
+			return false;
+		}
+		if(first < this.historicOverallPC.getFirstRetainedIndex() || last > this.historicOverallPC.size()) {
+			throw new IndexOutOfBoundsException("Interval [" + intervalStart + "," + intervalEnd + "] is not covered by the power consumption history of DC " + this.name);
 		}
-		return slaCosts;
+		return true;
+	}
+	
+	private double calculateSLACosts(int intervalStart, int intervalEnd) {
+		return this.eventHandler.getSLACostsOfFinishedJobs(intervalStart, intervalEnd);
 	}
 
 }
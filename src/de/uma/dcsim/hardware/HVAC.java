@@ -20,7 +20,11 @@
 
 package de.uma.dcsim.hardware;
 
-import de.uma.dcsim.powerModels.PowerModelSelector;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import de.uma.dcsim.simulationControl.SimulationContext;
 
 /**
  * @author University of Mannheim
@@ -76,14 +80,39 @@ public class HVAC {
 	}
 	
 	
+	/**
+	 * Writes the current state of the HVAC system to a checkpoint.
+	 * @param out Stream to which the checkpoint is written.
+	 * @throws IOException If the state cannot be written.
+	 */
+	public void writeCheckpoint(DataOutputStream out) throws IOException {
+		out.writeDouble(this.currentTemperatureSetpoint);
+		out.writeDouble(this.currentTemperature);
+		out.writeDouble(this.currentPC);
+		out.writeDouble(this.currentUtil);
+	}
+	
+	/**
+	 * Restores the state that was written to a checkpoint by writeCheckpoint.
+	 * @param in Stream from which the checkpoint is read.
+	 * @throws IOException If the state cannot be read.
+	 */
+	public void readCheckpoint(DataInputStream in) throws IOException {
+		this.currentTemperatureSetpoint = in.readDouble();
+		this.currentTemperature = in.readDouble();
+		this.currentPC = in.readDouble();
+		this.currentUtil = in.readDouble();
+	}
+	
 	/**
 	 * Updates the current buliding temperature, the current utilization of the HVAC system, and the current power consumption of the HVAC system.
 	 * Uses the PowerModelSelector class to retrieve the current HVAC power consumption.
 	 * @param overallServerUtil Current utilization of all servers in the DC to which this HVAC system belongs.
 	 * @param itPowerConsumption Current IT power consumption of the DC to which this HVAC system belongs.
 	 * @param pue Current PUE of the DC to which this HVAC system belongs.
+	 * @param context Context of the simulation, whose HVAC power model is used.
 	 */
-	public void update(double overallServerUtil, int itPowerConsumption, double pue) {
+	public void update(double overallServerUtil, int itPowerConsumption, double pue, SimulationContext context) {
 		if (currentTemperature < currentTemperatureSetpoint) {
 			currentTemperature += temperatureChangePerTimeInterval;
 			if (currentTemperature > currentTemperatureSetpoint)
@@ -97,7 +126,7 @@ public class HVAC {
 
 //		currentEC = (overallServerEC * (pue - 1) * (1 - ((currentTemperature + minTemp) / 100.0)));
 
-		this.currentPC = PowerModelSelector.getHVACPower(pue, itPowerConsumption);
+		this.currentPC = context.getHVACPower(pue, itPowerConsumption);
 
 	}
 
@@ -20,10 +20,12 @@
 
 package de.uma.dcsim.hardware;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.uma.dcsim.powerModels.PowerModelSelector;
 import de.uma.dcsim.serviceRelatedClasses.VM;
 import de.uma.dcsim.utilities.BatchJob;
 import de.uma.dcsim.utilities.ServerStatus;
@@ -123,9 +125,32 @@ public class Server {
 		return copy;
 	}
 	
+	/**
+	 * Writes the status and the current power consumption and utilization of the server to a checkpoint.
+	 * The currently assigned job is written by the DC to which the server belongs.
+	 * @param out Stream to which the checkpoint is written.
+	 * @throws IOException If the state cannot be written.
+	 */
+	public void writeCheckpoint(DataOutputStream out) throws IOException {
+		out.writeInt(this.status.ordinal());
+		out.writeDouble(this.currentPC);
+		out.writeInt(this.currentUtil);
+	}
+	
+	/**
+	 * Restores the state that was written to a checkpoint by writeCheckpoint.
+	 * @param in Stream from which the checkpoint is read.
+	 * @throws IOException If the state cannot be read.
+	 */
+	public void readCheckpoint(DataInputStream in) throws IOException {
+		this.status = ServerStatus.values()[in.readInt()];
+		this.currentPC = in.readDouble();
+		this.currentUtil = in.readInt();
+	}
+	
 	/**
 	 * Updates the power consumption of the server.
-	 * When the server is in the OCCUPIED status, the PowerModelSelector class is used to retrieve the current power consumption
+	 * When the server is in the OCCUPIED status, the server power model of the simulation is used to retrieve the current power consumption
 	 * of the server in dependance on the execution frequency and the job class of the currently assigned job.
 	 */
 	public void update() {
@@ -139,7 +164,7 @@ public class Server {
 			currentUtil = 0;
 		}
 		else {
-			this.currentPC = PowerModelSelector.getServerPower(this.currentJob.getFrequency(), this.currentJob.getJobClass());
+			this.currentPC = this.currentJob.getModeledAveragePowerConsumption();
 		}
 	}
 
@@ -215,6 +240,16 @@ public class Server {
 		return this.status;
 	}
 	
+	/**
+	 * Assigns a job to the server and sets the power consumption of the server to a value that was already determined by the server power model.
+	 * @param job Job that is executed on the server.
+	 * @param currentPC Power consumption of the server while it executes the job.
+	 */
+	void assignJob(BatchJob job, double currentPC) {
+		this.currentJob = job;
+		this.currentPC = currentPC;
+	}
+	
 	public void setIsCopy(boolean isCopy) {
 		this.isCopy = isCopy;
 	}
@@ -1,5 +1,8 @@
 package de.uma.dcsim.powerModels;
 
+import java.io.IOException;
+
+import de.uma.dcsim.powerModels.frequencyBasedServerPowerModels.CompiledServerPowerModel;
 import de.uma.dcsim.powerModels.frequencyBasedServerPowerModels.WekaBasedServerPowerModel;
 import de.uma.dcsim.powerModels.itPowerModels.FractionBasedITPowerModel;
 import de.uma.dcsim.powerModels.itPowerModels.ITPowerModel;
@@ -9,7 +12,8 @@ import de.uma.dcsim.simulationControl.Setup;
 
 
 /**
- * This class is used by the simulation core to retrieve the power consumption of the server and HVAC components.
+ * This class is used by the simulation core to create the power models of the server and HVAC components. Each SimulationContext
+ * creates its models with this class (or shares the models of another context).
  * Thus, here is the point where a user is supposed to change the utilized power model in the case that it has to be changed.
  * 
  * @author nilsw
@@ -19,49 +23,35 @@ import de.uma.dcsim.simulationControl.Setup;
 public class PowerModelSelector {
 	
 	/**
-	 * Power model which is used to determine the server power consumption.
-	 */
-	private static FrequencyBasedPowerModel serverPowerModel = new WekaBasedServerPowerModel();
-	
-	/**
-	 * Power model which is used to determine the HVAC power consumption.
-	 */
-	private static PUEBasedHVACPowerModel HVACPowerModel = new SimplePUEBasedHVACPowerModel();
-	
-	/**
-	 * ITPowerModel that is used to determine the IT power consumption.
-	 */
-	private static ITPowerModel itPowerModel = new FractionBasedITPowerModel(Setup.SERVER_IT_POWER_FRACTION);
-	
-	/**
-	 * This method returns the server power consumption according to the selected server power model.
-	 * @param frequency Current frequency of the server.
-	 * @param jobClass Job class of the job that is currently executed by the server.
-	 * @return Current power consumption of the server.
+	 * Creates the power model which is used to determine the server power consumption. The model file (Setup.wekaPowerModelFile) may either be
+	 * a WEKA model file, which is compiled once it is parsed, or a compiled model file, which is loaded without the WEKA framework.
+	 * @return New server power model.
 	 */
-	public static double getServerPower(double frequency, int jobClass) {
-		return serverPowerModel.getPower(frequency, jobClass);
+	public static FrequencyBasedPowerModel createServerPowerModel() {
+		if(CompiledServerPowerModel.isCompiledModelFile(Setup.wekaPowerModelFile)) {
+			try {
+				return CompiledServerPowerModel.read(Setup.wekaPowerModelFile);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return new WekaBasedServerPowerModel().compile();
 	}
 	
 	/**
-	 * This method returns the HVAC power consumption according to the selected HVAC power model.
-	 * @param pue Current PUE of the DC.
-	 * @param itPower Current IT power consumption of the DC.
-	 * @return Current power consumption of the HVAC infrastructure.
+	 * Creates the power model which is used to determine the HVAC power consumption.
+	 * @return New HVAC power model.
 	 */
-	public static double getHVACPower(double pue, double itPower) {
-		return HVACPowerModel.getCoolingPower(pue, itPower);
+	public static PUEBasedHVACPowerModel createHVACPowerModel() {
+		return new SimplePUEBasedHVACPowerModel();
 	}
 	
 	/**
-	 * Retrieves the current IT power consumption of the DC.
-	 * @param serverPower Current total server power consumption of the DC.
-	 * @param amountOfRunningJobs Current number of running jobs in the DC.
-	 * @param amountOfOccupiedServers Current number of active compute nodes in the DC.
-	 * @return Current IT power consumption of the DC.
+	 * Creates the ITPowerModel that is used to determine the IT power consumption.
+	 * @return New IT power model.
 	 */
-	public static double getITPower(double serverPower, int amountOfRunningJobs, int amountOfOccupiedServers) {
-		return itPowerModel.getITPower(serverPower, amountOfRunningJobs, amountOfOccupiedServers);
+	public static ITPowerModel createITPowerModel() {
+		return new FractionBasedITPowerModel(Setup.SERVER_IT_POWER_FRACTION);
 	}
 
 }
@@ -0,0 +1,161 @@
+package de.uma.dcsim.powerModels.frequencyBasedServerPowerModels;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import de.uma.dcsim.powerModels.FrequencyBasedPowerModel;
+import de.uma.dcsim.utilities.FrequencyIndex;
+
+/**
+ * This class implements the FrequencyBasedPowerModel interface with the coefficients of linear regression models of the form P_serv = k_1*f^3 + k_2
+ * (see WekaBasedServerPowerModel). The power consumption of all job classes at the discrete execution frequencies (see FrequencyIndex)
+ * is precomputed in a table, other frequencies are calculated from the coefficients. The model is immutable, thus it can be used by concurrent
+ * simulations without synchronization.
+ * 
+ * The model can be stored in a compiled model file, which can be loaded without the WEKA framework (see read and WekaBasedServerPowerModel.main).
+ * 
+ * @author nilsw
+ *
+ */
+public class CompiledServerPowerModel implements FrequencyBasedPowerModel {
+
+	/**
+	 * Identifies compiled model files ("DCPM").
+	 */
+	private static final int MAGIC_NUMBER = 0x4443504D;
+
+	private static final int VERSION = 1;
+
+	/**
+	 * Amount of discrete execution frequencies.
+	 */
+	public static final int FREQUENCY_COUNT = FrequencyIndex.COUNT;
+
+	/**
+	 * Fitting parameters k_1 of the job classes.
+	 */
+	private double[] slopes;
+
+	/**
+	 * Fitting parameters k_2 of the job classes.
+	 */
+	private double[] intercepts;
+
+	/**
+	 * Power consumption of a server, indexed by the job class and the index of the discrete execution frequency.
+	 */
+	private double[][] powerTable;
+
+	/**
+	 * Creates a compiled model.
+	 * @param slopes Fitting parameters k_1 of the job classes.
+	 * @param intercepts Fitting parameters k_2 of the job classes.
+	 * @param powerTable Power consumption of a server for each job class and discrete execution frequency (see getFrequency).
+	 */
+	public CompiledServerPowerModel(double[] slopes, double[] intercepts, double[][] powerTable) {
+		this.slopes = slopes;
+		this.intercepts = intercepts;
+		this.powerTable = powerTable;
+	}
+
+	public double getPower(double frequency, int jobClass) {
+		int frequencyIndex = FrequencyIndex.indexOf(frequency);
+		if(frequencyIndex >= 0) {
+			return this.powerTable[jobClass][frequencyIndex];
+		}
+		//Same order of operations as in the WEKA linear regression model
+		return this.slopes[jobClass]*Math.pow(frequency, 3) + this.intercepts[jobClass];
+	}
+
+	/**
+	 * @param frequencyIndex Index of a discrete execution frequency.
+	 * @return Discrete execution frequency with the specified index.
+	 */
+	public static double getFrequency(int frequencyIndex) {
+		return FrequencyIndex.getFrequency(frequencyIndex);
+	}
+
+	public int getJobClassCount() {
+		return this.slopes.length;
+	}
+
+	/**
+	 * Writes the model to a compiled model file.
+	 * @param file Path of the compiled model file.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void write(String file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		try {
+			out.writeInt(MAGIC_NUMBER);
+			out.writeInt(VERSION);
+			out.writeInt(this.slopes.length);
+			out.writeInt(FREQUENCY_COUNT);
+			for(int c=0; c < this.slopes.length; c++) {
+				out.writeDouble(this.slopes[c]);
+				out.writeDouble(this.intercepts[c]);
+				for(int i=0; i < FREQUENCY_COUNT; i++) {
+					out.writeDouble(this.powerTable[c][i]);
+				}
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Reads a compiled model file that was written by write.
+	 * @param file Path of the compiled model file.
+	 * @return Compiled model.
+	 * @throws IOException If the file cannot be read or is not a compiled model file.
+	 */
+	public static CompiledServerPowerModel read(String file) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if(in.readInt() != MAGIC_NUMBER || in.readInt() != VERSION) {
+				throw new IOException(file + " is not a compiled server power model");
+			}
+			int jobClasses = in.readInt();
+			if(in.readInt() != FREQUENCY_COUNT) {
+				throw new IOException(file + " does not contain the discrete execution frequencies of the simulation");
+			}
+			double[] slopes = new double[jobClasses];
+			double[] intercepts = new double[jobClasses];
+			double[][] powerTable = new double[jobClasses][FREQUENCY_COUNT];
+			for(int c=0; c < jobClasses; c++) {
+				slopes[c] = in.readDouble();
+				intercepts[c] = in.readDouble();
+				for(int i=0; i < FREQUENCY_COUNT; i++) {
+					powerTable[c][i] = in.readDouble();
+				}
+			}
+			return new CompiledServerPowerModel(slopes, intercepts, powerTable);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Determines whether a file is a compiled model file (and not a WEKA model file).
+	 * @param file Path of the model file.
+	 * @return True if the file starts with the identifier of compiled model files.
+	 */
+	public static boolean isCompiledModelFile(String file) {
+		try {
+			DataInputStream in = new DataInputStream(new FileInputStream(file));
+			try {
+				return in.readInt() == MAGIC_NUMBER;
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+}
@@ -6,6 +6,7 @@ import java.io.ObjectInputStream;
 
 import de.uma.dcsim.powerModels.FrequencyBasedPowerModel;
 import de.uma.dcsim.simulationControl.Setup;
+import de.uma.dcsim.utilities.FrequencyIndex;
 import weka.classifiers.functions.LinearRegression;
 import weka.core.DenseInstance;
 import weka.core.Instance;
@@ -36,21 +37,50 @@ public class WekaBasedServerPowerModel implements FrequencyBasedPowerModel {
 	
 
 	public WekaBasedServerPowerModel() {
-		this.filePath = Setup.wekaPowerModelFile;
+		this(Setup.wekaPowerModelFile);
+	}
+	
+	public WekaBasedServerPowerModel(String filePath) {
+		this.filePath = filePath;
 		this.classifiers = this.parseFile(this.filePath);
 	}
 	
 	public double getPower(double frequency, int clusterNumber) {
 		Instance instance = new DenseInstance(1);
 		instance.setValue(0, Math.pow(frequency, 3));
+		//The WEKA classifiers are not thread safe, thus concurrent copies of a DC must not use the same classifier at the same time
 		try {
-			return this.classifiers[clusterNumber].classifyInstance(instance);
+			synchronized(this.classifiers[clusterNumber]) {
+				return this.classifiers[clusterNumber].classifyInstance(instance);
+			}
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
 		return -1;
 	}
 	
+	/**
+	 * Compiles the linear regression models into a model that does not depend on the WEKA framework (see CompiledServerPowerModel).
+	 * The power consumption at the discrete execution frequencies is determined by the WEKA classifiers, the coefficients are only used for other frequencies.
+	 * @return Compiled model.
+	 */
+	public CompiledServerPowerModel compile() {
+		double[] slopes = new double[this.classifiers.length];
+		double[] intercepts = new double[this.classifiers.length];
+		double[][] powerTable = new double[this.classifiers.length][FrequencyIndex.COUNT];
+		double[] coefficients;
+		for(int c=0; c < this.classifiers.length; c++) {
+			//The coefficient of the first attribute (f^3) is followed by the coefficient of the class attribute (0) and the intercept
+			coefficients = this.classifiers[c].coefficients();
+			slopes[c] = coefficients[0];
+			intercepts[c] = coefficients[coefficients.length-1];
+			for(int i=0; i < FrequencyIndex.COUNT; i++) {
+				powerTable[c][i] = this.getPower(FrequencyIndex.getFrequency(i), c);
+			}
+		}
+		return new CompiledServerPowerModel(slopes, intercepts, powerTable);
+	}
+	
 	private LinearRegression[] parseFile(String file) {
 		LinearRegression[] result;
 		
@@ -75,6 +105,22 @@ public class WekaBasedServerPowerModel implements FrequencyBasedPowerModel {
 		return null;
 	}
 	
+	/**
+	 * Converts a WEKA model file into a compiled model file, which can be loaded without the WEKA framework.
+	 * @param args Path of the WEKA model file and path of the compiled model file.
+	 */
+	public static void main(String[] args) {
+		if(args.length != 2) {
+			System.out.println("Usage: WekaBasedServerPowerModel <WEKA model file> <compiled model file>");
+			return;
+		}
+		try {
+			new WekaBasedServerPowerModel(args[0]).compile().write(args[1]);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+	
 //	public static void main(String[] args) {
 //		WekaBasedServerPowerModel powerModel = new WekaBasedServerPowerModel("models.mod");
 //		int clusterNum = 1;
@@ -5,7 +5,7 @@ import java.util.ArrayList;
 import de.uma.dcsim.utilities.PUE;
 
 /**
- * This class is used by the simulation core to request the PUE value of the DC for a specified point in simulation time.
+ * This class is used by the simulation core to create the model that provides the PUE value of the DC for a specified point in simulation time.
  * Therefore, if the model is supposed to be changed, it should be changed in this class.
  * 
  * @author nilsw
@@ -14,22 +14,16 @@ import de.uma.dcsim.utilities.PUE;
 public class PUEModelSelector {
 	
 	/**
-	 * PUE model that is used to obtain the PUE value of the DC.
-	 */
-	private static PUEModel pueModel = new TraceBasedPUE();
-	
-	public static double getPUE(int currentTime) {
-		return pueModel.getPUE(currentTime);
-	}
-	
-	/**
-	 * Initializes a PUE model. Currently this is only necessary for a trace based model.
+	 * Creates and initializes the PUE model that is used to obtain the PUE value of the DC. Currently the initialization is only necessary for a trace based model.
 	 * @param pues PUE trace values that should be captured by the trace based model.
+	 * @return New PUE model.
 	 */
-	public static void initializePUEModel(ArrayList<PUE> pues) {
+	public static PUEModel createPUEModel(ArrayList<PUE> pues) {
+		PUEModel pueModel = new TraceBasedPUE();
 		if(pueModel instanceof TraceBasedPUE) {
 			((TraceBasedPUE)pueModel).initializeModel(pues);
 		}
+		return pueModel;
 	}
 
 }
@@ -1,9 +1,9 @@
 package de.uma.dcsim.pueModels;
 
 import java.util.ArrayList;
-import java.util.TreeMap;
 
 import de.uma.dcsim.utilities.PUE;
+import de.uma.dcsim.utilities.StepFunctionTimeSeries;
 
 /**
  * This class implements a trace based PUE model.
@@ -17,42 +17,27 @@ import de.uma.dcsim.utilities.PUE;
 public class TraceBasedPUE implements PUEModel {
 	
 	/**
-	 * Tree structure that stores the PUE values of the utilized PUE trace.
+	 * Step function that stores the PUE values of the utilized PUE trace (1.15 if the trace does not contain any PUE values).
 	 */
-	private TreeMap<Integer, Double> pueMap;
+	private StepFunctionTimeSeries pues;
 
 	@Override
 	public double getPUE(int currentTime) {
-		if(!this.pueMap.containsKey(currentTime)) {
-			Integer lowerKey = this.pueMap.lowerKey(currentTime);
-			if(lowerKey != null) {
-				return this.pueMap.get(lowerKey);
-			}
-			else {
-				Integer higherKey = this.pueMap.higherKey(currentTime);
-				if(higherKey != null) {
-					return this.pueMap.get(higherKey);
-				}
-				else {
-					return 1.15;
-				}
-			}
-		}
-		else {
-			return this.pueMap.get(currentTime);
-		}
+		return this.pues.getValue(currentTime);
 	}
 
 	/**
-	 * Initializes the tree structure that stores the PUE trace values.
+	 * Initializes the step function that stores the PUE trace values.
 	 * @param pues List of PUE trace values.
 	 */
 	public void initializeModel(ArrayList<PUE> pues) {
-		this.pueMap = new TreeMap<Integer, Double>();
-		
-		for(PUE pue : pues) {
-			pueMap.put(pue.getTimestamp(), pue.getPue());
+		int[] timestamps = new int[pues.size()];
+		double[] values = new double[pues.size()];
+		for(int i=0; i < timestamps.length; i++) {
+			timestamps[i] = pues.get(i).getTimestamp();
+			values[i] = pues.get(i).getPue();
 		}
+		this.pues = new StepFunctionTimeSeries(timestamps, values, 1.15);
 	}
 	
 }
@@ -1,53 +1,113 @@
 package de.uma.dcsim.runtimeModels;
 
-import java.util.HashMap;
+import java.util.Arrays;
+
+import de.uma.dcsim.utilities.FrequencyIndex;
 
 /**
- * This class implements a model that determines the adjusted runtime of a BachJob on the basis of a 
+ * This class implements a model that determines the adjusted runtime of a BachJob on the basis of a
  * measure of memory-boundedness (beta) of the job.
  *
+ * The runtime fractions of the discrete execution frequencies (see FrequencyIndex) are precomputed. The beta values of other frequencies
+ * between the lowest available frequency and f_max are interpolated linearly between the available frequencies.
+ *
  * @author nilsw
  *
  */
 public class BetaRuntimeImpactModel implements DVFSRuntimeImpactModel {
-	
+
 	/**
 	 * Maximum possible CPU frequency.
 	 */
 	private double fMax;
-	
+
+	/**
+	 * Available frequencies (including f_max) in ascending order.
+	 */
+	private double[] frequencies;
+
+	/**
+	 * Beta values for the impact modeling of the (f_max,f) pairs of the available frequencies.
+	 */
+	private double[] betas;
+
 	/**
-	 * Map that stores the beta values for the impact modeling of all (f_max,f) pairs.
+	 * Runtime fractions of the discrete execution frequencies, indexed by FrequencyIndex (NaN if the frequency is not covered by the model).
 	 */
-	private HashMap<Double, Double> betaMap;
-	
-	
+	private double[] fractions;
+
+
 	public BetaRuntimeImpactModel(double[] betas, double[] availableFrequencies, double fMax) {
 		this.fMax = fMax;
-		this.betaMap = new HashMap<Double, Double>();
-	
+
+		//Sort the available frequencies, the beta value of f_max is always 0
+		double[][] pairs = new double[availableFrequencies.length+1][];
 		for(int i=0; i < availableFrequencies.length; i++) {
-			this.betaMap.put(availableFrequencies[i], betas[i]);
+			pairs[i] = new double[] {availableFrequencies[i], betas[i]};
+		}
+		pairs[availableFrequencies.length] = new double[] {fMax, 0.0};
+		Arrays.sort(pairs, (a, b) -> Double.compare(a[0], b[0]));
+		this.frequencies = new double[pairs.length];
+		this.betas = new double[pairs.length];
+		for(int i=0; i < pairs.length; i++) {
+			this.frequencies[i] = pairs[i][0];
+			this.betas[i] = pairs[i][1];
+		}
+
+		this.fractions = new double[FrequencyIndex.COUNT];
+		double f;
+		for(int i=0; i < FrequencyIndex.COUNT; i++) {
+			f = FrequencyIndex.getFrequency(i);
+			this.fractions[i] = this.isCovered(f) ? this.calculateFraction(f, this.getBeta(f)) : Double.NaN;
 		}
-		this.betaMap.put(this.fMax, 0.0);
 	}
 
 	@Override
 	public int getAdjustedRuntime(double adjustedFrequency, double currentFrequency, int remainingRuntime) {
 		int adjustedRuntime = 0;
 		int tFmax = (int)((double)remainingRuntime / this.calculateFraction(currentFrequency));
-		
+
 		adjustedRuntime = (int)((double)tFmax * this.calculateFraction(adjustedFrequency));
-		
+
 		if(adjustedRuntime < 0) {
 			System.out.println("Adjusted Runtime: " + adjustedRuntime);
 		}
-		
+
 		return adjustedRuntime;
 	}
-	
+
 	private double calculateFraction(double f) {
-		return (this.betaMap.get(f) * ((this.fMax/f) - 1.0)) + 1.0;
+		int index = FrequencyIndex.indexOf(f);
+		if(index >= 0 && !Double.isNaN(this.fractions[index])) {
+			return this.fractions[index];
+		}
+		if(!this.isCovered(f)) {
+			throw new IllegalArgumentException("No runtime impact known for " + f + " GHz (available frequencies: " + this.frequencies[0] + " GHz to " + this.fMax + " GHz)");
+		}
+		return this.calculateFraction(f, this.getBeta(f));
+	}
+
+	private double calculateFraction(double f, double beta) {
+		return (beta * ((this.fMax/f) - 1.0)) + 1.0;
+	}
+
+	private boolean isCovered(double f) {
+		return f >= this.frequencies[0] && f <= this.frequencies[this.frequencies.length-1];
+	}
+
+	/**
+	 * Determines the beta value of a frequency that is covered by the model.
+	 */
+	private double getBeta(double f) {
+		int position = Arrays.binarySearch(this.frequencies, f);
+		if(position >= 0) {
+			return this.betas[position];
+		}
+		//Interpolate between the next lower and the next higher available frequency
+		int upper = -position - 1;
+		int lower = upper - 1;
+		double weight = (f - this.frequencies[lower])/(this.frequencies[upper] - this.frequencies[lower]);
+		return this.betas[lower] + weight*(this.betas[upper] - this.betas[lower]);
 	}
 
 }
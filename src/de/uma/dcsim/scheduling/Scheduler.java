@@ -3,14 +3,11 @@ package de.uma.dcsim.scheduling;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.uma.dcsim.eventHandling.EventType;
-import de.uma.dcsim.eventHandling.ServerEvent;
 import de.uma.dcsim.hardware.DC;
-import de.uma.dcsim.hardware.Server;
 import de.uma.dcsim.scheduling.schedulingStrategies.SchedulingStrategy;
 import de.uma.dcsim.scheduling.schedulingStrategies.SchedulingStrategyType;
 import de.uma.dcsim.scheduling.schedulingStrategies.demandFlexStrategies.DemandFlexibilitySchedulingStrategy;
-import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.SchedulingStrategyUtilities;
+import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.NodeOccupationProfile;
 import de.uma.dcsim.scheduling.schedulingStrategies.timeSortScheduling.FirstInFirstOutScheduling;
 import de.uma.dcsim.scheduling.schedulingStrategies.timeSortScheduling.ShortestTimeToDeadlineFirst;
 import de.uma.dcsim.simulationControl.Setup;
@@ -63,7 +60,7 @@ public class Scheduler {
 		this.scheduledJobs = new ArrayList<BatchJob>();
 		this.submittedJobs = new ArrayList<BatchJob>();
 		
-		this.schedulingStrategy = SchedulingStrategyType.getSchedulingStrategyByType(Setup.usedSchedulingStrategyType);
+		this.schedulingStrategy = SchedulingStrategyType.getSchedulingStrategyByType(handledDC.getContext().getSchedulingStrategyType());
 //		this.schedulingStrategy = new FirstInFirstOutScheduling();
 //		this.schedulingStrategy = new ShortestTimeToDeadlineFirst();
 //		this.schedulingStrategy = new ScheduleForMinimumCost(86400, 300);
@@ -92,13 +89,7 @@ public class Scheduler {
 			tmp.addAll(this.scheduledJobs);
 			for(BatchJob job : tmp) {
 				if(job.getFrequency() != job.getOriginalFrequency()) {
-					job.setFrequency(job.getOriginalFrequency());
-					if(job.getStatus() == BatchJobStatus.RUNNING) {
-						for(Server s : job.getAssignedServers()) {
-							this.handledDC.scheduleEvent(new ServerEvent(EventType.SERVER_UPDATE, this.handledDC.getClock(), s));
-						}
-						this.handledDC.rescheduleEvent(job.getFinishEvent(), job.getCalculatedFinishTime());
-					}
+					this.handledDC.setJobFrequency(job, job.getOriginalFrequency(), this.handledDC.getClock());
 				}
 			}
 		}
@@ -129,33 +120,34 @@ public class Scheduler {
 		occupationPlanRelevantJobs.addAll(this.scheduledJobs);
 		occupationPlanRelevantJobs.addAll(this.handledDC.getRunningJobs());
 
-		//Create node occupation plan, which contains the amounts of nodes that are blocked by the currently running and scheduled workload
-		int[] nodeOccupationPlan = SchedulingStrategyUtilities.getNodeOccupationPlan(occupationPlanRelevantJobs, schedulingIntervalLength, currentTime);
+		//Update the node occupation profile, which contains the amounts of nodes that are blocked by the currently running and scheduled workload
+		NodeOccupationProfile nodeOccupationProfile = this.handledDC.getNodeOccupationProfile();
+		nodeOccupationProfile.synchronize(occupationPlanRelevantJobs, currentTime);
 		
 		
 		//If superMUCMode is on, schedule all jobs that were not started at the point in simulation time that was specified in the workload trace
-		if(Setup.superMUCMode) {
-			this.schedulingStrategy.scheduleNextInterval(this.handledDC.getRunningJobs(), this.affectedSubmittedJobs, this.scheduledJobs, this.handledDC.getPausedJobs(), schedulingIntervalLength, currentTime, nodeOccupationPlan, this.handledDC);
+		if(this.handledDC.getContext().isSuperMUCMode()) {
+			this.schedulingStrategy.scheduleNextInterval(this.handledDC.getRunningJobs(), this.affectedSubmittedJobs, this.scheduledJobs, this.handledDC.getPausedJobs(), schedulingIntervalLength, currentTime, nodeOccupationProfile, this.handledDC);
 		}
 		else {
 			if(this.affectedSubmittedJobs.size() > 0) {
-				this.schedulingStrategy.scheduleNextInterval(this.handledDC.getRunningJobs(), this.affectedSubmittedJobs, this.scheduledJobs, this.handledDC.getPausedJobs(), schedulingIntervalLength, currentTime, nodeOccupationPlan, this.handledDC);
+				this.schedulingStrategy.scheduleNextInterval(this.handledDC.getRunningJobs(), this.affectedSubmittedJobs, this.scheduledJobs, this.handledDC.getPausedJobs(), schedulingIntervalLength, currentTime, nodeOccupationProfile, this.handledDC);
 			}
 			if(this.affectedSubmittedJobs.size() == 0) {
-				this.schedulingStrategy.scheduleNextInterval(this.handledDC.getRunningJobs(), this.submittedJobs, this.scheduledJobs, this.handledDC.getPausedJobs(), schedulingIntervalLength, currentTime, nodeOccupationPlan, this.handledDC);
+				this.schedulingStrategy.scheduleNextInterval(this.handledDC.getRunningJobs(), this.submittedJobs, this.scheduledJobs, this.handledDC.getPausedJobs(), schedulingIntervalLength, currentTime, nodeOccupationProfile, this.handledDC);
 		
 			}
 		}
 		
 		//If superMUCMode is on, try to schedule the jobs at the point in simulation time that is specified in the workload trace
-		if(Setup.superMUCMode) {
+		if(this.handledDC.getContext().isSuperMUCMode()) {
 //			Retrieve backfilling deadline from the scheduling strategy
 //			int backfillingDeadline = ((ShortestTimeToDeadlineFirst)this.schedulingStrategy).getBackfillingFinishingDeadline();
 //			int backfillingDeadline = ((FirstInFirstOutScheduling)this.schedulingStrategy).getBackfillingFinishingDeadline();
 			
 			int backfillingDeadline;
 			
-			switch(Setup.usedSchedulingStrategyType) {
+			switch(this.handledDC.getContext().getSchedulingStrategyType()) {
 			case SHORTEST_TIME_TO_DEADLINE_FIRST:
 				backfillingDeadline = ((ShortestTimeToDeadlineFirst)this.schedulingStrategy).getBackfillingFinishingDeadline();
 				break;
@@ -184,13 +176,12 @@ public class Scheduler {
 						if(backfillingDeadline != 0 && j.getStartTime() >= backfillingDeadline) {
 							break;
 						}
-						if (SchedulingStrategyUtilities.checkSchedulingFeasibilityForJob(nodeOccupationPlan, j, currentTime)) {
-							SchedulingStrategyUtilities.updateNodeOccupationPlan(nodeOccupationPlan, j, currentTime);
-
+						if (nodeOccupationProfile.checkSchedulingFeasibility(j, intervalEnd)) {
 							this.scheduledJobs.add(j);
 							this.submittedJobs.remove(j);
 							j.setStatus(BatchJobStatus.SCHEDULED);
 							this.handledDC.rescheduleEvent(j.getStartEvent(), j.getStartTime());
+							nodeOccupationProfile.updateJob(j, currentTime);
 							scheduled = true;
 							if(powerAdjustmentHeight > 0)
 							break;
@@ -199,9 +190,7 @@ public class Scheduler {
 					}
 					if(!scheduled) {
 						if(backfillingDeadline == 0) {
-							List<BatchJob> relevantJobs = new ArrayList<BatchJob>(this.scheduledJobs);
-							relevantJobs.addAll(this.handledDC.getRunningJobs());
-							SchedulingStrategyUtilities.determineEarliestTimeForNodeAvailability(relevantJobs, j.getAmountOfServers(), currentTime);
+							nodeOccupationProfile.determineEarliestTimeForNodeAvailability(j.getAmountOfServers(), currentTime);
 						}
 						j.setStartTime(intervalEnd);
 						this.submittedJobs.remove(j);
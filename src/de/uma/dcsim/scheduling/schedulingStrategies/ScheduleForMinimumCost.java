@@ -6,13 +6,13 @@ import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
 
-import de.uma.dcsim.energyPriceModels.EnergyPriceModelSelector;
 import de.uma.dcsim.hardware.DC;
 import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.JobExecutionPriceComparator;
-import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.SchedulingStrategyUtilities;
-import de.uma.dcsim.simulationControl.Setup;
+import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.NodeOccupationProfile;
+import de.uma.dcsim.simulationControl.SimulationContext;
 import de.uma.dcsim.utilities.BatchJob;
 import de.uma.dcsim.utilities.BatchJobStatus;
+import de.uma.dcsim.utilities.FrequencyIndex;
 import de.uma.dcsim.utilities.JobExecutionPrice;
 
 public class ScheduleForMinimumCost implements SchedulingStrategy {
@@ -29,7 +29,7 @@ public class ScheduleForMinimumCost implements SchedulingStrategy {
 	@Override
 	public void scheduleNextInterval(List<BatchJob> runningJobs, List<BatchJob> submittedJobs,
 			List<BatchJob> scheduledJobs, List<BatchJob> pausedJobs, int intervalLength, int currentTime,
-			int[] nodeOccupationPlan, DC handledDC) {
+			NodeOccupationProfile nodeOccupationProfile, DC handledDC) {
 //		System.out.println("Scheduling started!");
 //		if(currentTime%3600 == 0) {
 //			System.out.println("Current time: " + (currentTime/3600));
@@ -43,9 +43,6 @@ public class ScheduleForMinimumCost implements SchedulingStrategy {
 		
 		this.startDate = new Date(handledDC.getSimStartTime().getTime() + ((long)currentTime*1000L));
 
-		int[] nodeOccupationPlan2 = SchedulingStrategyUtilities.getNodeOccupationPlanEventBased(handledDC, this.lookAheadInterval,
-				currentTime);
-
 		int intervalEnd = currentTime + this.lookAheadInterval;
 		int tmp;
 		boolean scheduled = true;
@@ -60,11 +57,11 @@ public class ScheduleForMinimumCost implements SchedulingStrategy {
 			scheduled = false;
 
 			ArrayList<JobExecutionPrice> prices = new ArrayList<JobExecutionPrice>();
-			int simStepsPerStartTimeStep = this.startTimeStepSize/Setup.secondsPerSimulationTimestep;
+			int simStepsPerStartTimeStep = this.startTimeStepSize/handledDC.getContext().getSecondsPerSimulationTimestep();
 			for (int j = tmp; j <= intervalEnd; j += simStepsPerStartTimeStep) {
-				for (int freq = 12; freq <= 27; freq += 1) {
+				for (int freq = 0; freq < FrequencyIndex.COUNT; freq += 1) {
 					prices.add(new JobExecutionPrice(j,
-							this.calculateCostForJobConfiguration(pJob, ((double) freq / 10.0), j), ((double)freq/10.0)));
+							this.calculateCostForJobConfiguration(pJob, FrequencyIndex.getFrequency(freq), j), FrequencyIndex.getFrequency(freq)));
 				}
 			}
 			prices.sort(new JobExecutionPriceComparator());
@@ -81,19 +78,18 @@ public class ScheduleForMinimumCost implements SchedulingStrategy {
 //				System.out.println(prices.get(index));
 				pJob.setStartTime(prices.get(index).getStartTime());
 				pJob.setFrequency(prices.get(index).getFrequency());
-				if (SchedulingStrategyUtilities.checkSchedulingFeasibilityForJob(nodeOccupationPlan2, pJob,
-						currentTime)) {
+				if (nodeOccupationProfile.checkSchedulingFeasibility(pJob, intervalEnd)) {
 //					if(pJob.getId().equals("srv04-ib.297826")) {
-//						System.out.println("true\t" + pJob.getStartTime() + "\t " + pJob.getAmountOfServers() + "\t " + nodeOccupationPlan2[pJob.getStartTime()-currentTime] + "\t" + currentTime);
+//						System.out.println("true\t" + pJob.getStartTime() + "\t " + pJob.getAmountOfServers() + "\t " + nodeOccupationProfile.getOccupation(pJob.getStartTime()) + "\t" + currentTime);
 //					}
-					SchedulingStrategyUtilities.updateNodeOccupationPlan(nodeOccupationPlan2, pJob, currentTime);
 //					if(pJob.getId().equals("srv04-ib.297826")) {
-//						System.out.println("true\t" + pJob.getStartTime() + "\t " + pJob.getAmountOfServers() + "\t " + nodeOccupationPlan2[pJob.getStartTime()-currentTime]);
+//						System.out.println("true\t" + pJob.getStartTime() + "\t " + pJob.getAmountOfServers() + "\t " + nodeOccupationProfile.getOccupation(pJob.getStartTime()));
 //					}
 					handledDC.rescheduleEvent(pJob.getStartEvent(), pJob.getStartTime());
 					submittedJobs.remove(pJob);
 					scheduledJobs.add(pJob);
 					pJob.setStatus(BatchJobStatus.SCHEDULED);
+					nodeOccupationProfile.updateJob(pJob, currentTime);
 					scheduled = true;
 				}
 				index++;
@@ -109,12 +105,13 @@ public class ScheduleForMinimumCost implements SchedulingStrategy {
 
 	public double calculateCostForJobConfiguration(BatchJob job, double frequency, int startTime) {
 		BatchJob copy = job.deepCopy();
+		SimulationContext context = copy.getContext();
 		copy.setStartTime(startTime);
 		copy.setFrequency(frequency);
 		copy.setActualFinsihingTime(copy.getCalculatedFinishTime());
 		
-		Date calculatedFinishTmp = new Date(this.startDate.getTime() + ((long)(copy.getCalculatedFinishTime()*Setup.secondsPerSimulationTimestep)*1000L));
-		Date startTmp = new Date(this.startDate.getTime() + ((long)(startTime*Setup.secondsPerSimulationTimestep)*1000L));
+		Date calculatedFinishTmp = new Date(this.startDate.getTime() + ((long)(copy.getCalculatedFinishTime()*context.getSecondsPerSimulationTimestep())*1000L));
+		Date startTmp = new Date(this.startDate.getTime() + ((long)(startTime*context.getSecondsPerSimulationTimestep())*1000L));
 		Date tmp = new Date(startTmp.getTime());
 		
 		Calendar current = new GregorianCalendar();
@@ -126,11 +123,11 @@ public class ScheduleForMinimumCost implements SchedulingStrategy {
 		Calendar calculatedFinish = new GregorianCalendar();
 		calculatedFinish.setTime(calculatedFinishTmp);
 		
-		int simulationStepsPerHour = 3600/Setup.secondsPerSimulationTimestep;
+		int simulationStepsPerHour = 3600/context.getSecondsPerSimulationTimestep();
 		int currentSimulationStep = startTime;
 		
 		
-		double slaCost = copy.calculateSLACosts(Setup.usagePrice);
+		double slaCost = copy.calculateSLACosts(context.getUsagePrice());
 
 		double powerUsage = copy.getTotalPowerConsumption()/1000.0;
 		
@@ -147,25 +144,25 @@ public class ScheduleForMinimumCost implements SchedulingStrategy {
 		if(current.after(calculatedFinish)) {
 //			usedEnergy = powerUsage / (((60/simulationStepsPerHour)*copy.getDurationInSimulationTime())/60);
 			usedEnergy = powerUsage * (copy.getDurationInSimulationTime()/simulationStepsPerHour);
-			energyCosts += EnergyPriceModelSelector.getEnergyPriceInCentPerKWh(startTime)*usedEnergy;
+			energyCosts += context.getEnergyPriceInCentPerKWh(startTime)*usedEnergy;
 //			counter++;
 		}
 		else {
 			int secondsInFirstHour = 3600 - ((start.get(Calendar.MINUTE)*60) + start.get(Calendar.SECOND));
 			usedEnergy = (secondsInFirstHour/3600)*powerUsage;
-			energyCosts += EnergyPriceModelSelector.getEnergyPriceInCentPerKWh(startTime)*usedEnergy;
+			energyCosts += context.getEnergyPriceInCentPerKWh(startTime)*usedEnergy;
 //			counter++;
 			
-			currentSimulationStep += (secondsInFirstHour/Setup.secondsPerSimulationTimestep);
+			currentSimulationStep += (secondsInFirstHour/context.getSecondsPerSimulationTimestep());
 			
 			while((currentSimulationStep += simulationStepsPerHour) <= copy.getCalculatedFinishTime()) {
-				energyCosts += EnergyPriceModelSelector.getEnergyPriceInCentPerKWh(currentSimulationStep-1)*powerUsage;
+				energyCosts += context.getEnergyPriceInCentPerKWh(currentSimulationStep-1)*powerUsage;
 //				counter++;
 			}
 			currentSimulationStep -= simulationStepsPerHour;
 			int remainingSimulationSteps = copy.getCalculatedFinishTime()-currentSimulationStep;
 			usedEnergy = powerUsage*(remainingSimulationSteps/simulationStepsPerHour);
-			energyCosts += usedEnergy*EnergyPriceModelSelector.getEnergyPriceInCentPerKWh(copy.getCalculatedFinishTime());
+			energyCosts += usedEnergy*context.getEnergyPriceInCentPerKWh(copy.getCalculatedFinishTime());
 //			counter++;
 			
 //			System.out.println(counter);
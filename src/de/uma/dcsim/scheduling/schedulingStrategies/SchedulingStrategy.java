@@ -3,6 +3,7 @@ package de.uma.dcsim.scheduling.schedulingStrategies;
 import java.util.List;
 
 import de.uma.dcsim.hardware.DC;
+import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.NodeOccupationProfile;
 import de.uma.dcsim.utilities.BatchJob;
 
 /**
@@ -22,9 +23,9 @@ public interface SchedulingStrategy {
 	 * @param pausedJobs List of all currently paused jobs.
 	 * @param intervalLength Length of the interval that should be scheduled in simulation time.
 	 * @param currentTime Point in time at which the scheduled interval starts.
-	 * @param nodeOccupationPlan Array that contains the blocked node sums for each timestep in the scheduled interval.
+	 * @param nodeOccupationProfile Node occupation profile of the DC, which contains all running and scheduled jobs.
 	 * @param handledDC DC to which the scheduler component that calls this strategy belongs.
 	 */
-	public void scheduleNextInterval(List<BatchJob> runningJobs, List<BatchJob> submittedJobs, List<BatchJob> scheduledJobs, List<BatchJob> pausedJobs, int intervalLength, int currentTime, int[] nodeOccupationPlan, DC handledDC);
+	public void scheduleNextInterval(List<BatchJob> runningJobs, List<BatchJob> submittedJobs, List<BatchJob> scheduledJobs, List<BatchJob> pausedJobs, int intervalLength, int currentTime, NodeOccupationProfile nodeOccupationProfile, DC handledDC);
 
 }
@@ -3,6 +3,7 @@ package de.uma.dcsim.scheduling.schedulingStrategies;
 import de.uma.dcsim.scheduling.schedulingStrategies.demandFlexStrategies.DemandFlexibilitySchedulingStrategy;
 import de.uma.dcsim.scheduling.schedulingStrategies.dvfsStrategies.ScaleAllJobsStrategy;
 import de.uma.dcsim.scheduling.schedulingStrategies.shiftingStrategies.ShiftLongestTimeToDeadlineFirstStrategy;
+import de.uma.dcsim.utilities.FrequencyIndex;
 /**
  * This class is used by the simulation core to retrieve new instances of DemandFlexibilitySchedulingStrategy, which
  * are used to schedule DR event windows.
@@ -19,7 +20,8 @@ public class SchedulingStrategyProvider {
 	 * @return Scheduling strategy that is supposed to be used for the scheduling of DR events within the simulation framework.
 	 */
 	public static DemandFlexibilitySchedulingStrategy getSchedulingStrategy() {
-		return new DemandFlexibilitySchedulingStrategy(new ScaleAllJobsStrategy(), new ShiftLongestTimeToDeadlineFirstStrategy(), 1.2, 2.7, 0.5, 2.0);
+		return new DemandFlexibilitySchedulingStrategy(new ScaleAllJobsStrategy(), new ShiftLongestTimeToDeadlineFirstStrategy(), FrequencyIndex.MINIMUM.getFrequency(),
+				FrequencyIndex.MAXIMUM.getFrequency(), 0.5, 2.0);
 	}
 
 }
@@ -199,6 +199,10 @@ public class DemandFlexibilitySchedulingStrategy implements DemandFlexibilityStr
 		this.scalingFrequency = scalingFrequency;
 	}
 	
+	public int getPreviouslyShiftedNodeSteps() {
+		return this.previouslyShiftedNodeSteps;
+	}
+	
 	public void setPreviouslyShiftedNodeSteps(int shiftedNodeSteps) {
 		this.previouslyShiftedNodeSteps = shiftedNodeSteps;
 	}
@@ -3,10 +3,7 @@ package de.uma.dcsim.scheduling.schedulingStrategies.dvfsStrategies;
 import java.util.ArrayList;
 import java.util.List;
 
-import de.uma.dcsim.eventHandling.EventType;
-import de.uma.dcsim.eventHandling.ServerEvent;
 import de.uma.dcsim.hardware.DC;
-import de.uma.dcsim.hardware.Server;
 import de.uma.dcsim.utilities.BatchJob;
 import de.uma.dcsim.utilities.BatchJobStatus;
 import de.uma.dcsim.utilities.ReserveProvisionType;
@@ -34,14 +31,8 @@ public class ScaleAllJobsStrategy implements DVFSStrategy {
 		
 		//Scale all jobs
 		for(BatchJob cJob : scalableJobs) {
-			cJob.setFrequency(requestedFrequency);
-			//If the job is currently running, the power consumption of the server and the finish event of the job have to be updated
-			if(cJob.getStatus() == BatchJobStatus.RUNNING) {
-				for(Server s : cJob.getAssignedServers()) {
-					handledDC.scheduleEvent(new ServerEvent(EventType.SERVER_UPDATE, currentTime, s));
-				}
-				handledDC.rescheduleEvent(cJob.getFinishEvent(), cJob.getCalculatedFinishTime());
-			}
+			//If the job is currently running, the power consumption of the servers and the finish event of the job are updated
+			handledDC.setJobFrequency(cJob, requestedFrequency, currentTime);
 		}
 	}
 	
@@ -60,14 +51,7 @@ public class ScaleAllJobsStrategy implements DVFSStrategy {
 		BatchJob cJob;
 		for(int i=0; i < scalableJobs.size(); i++) {
 			cJob = scalableJobs.get(i);
-			cJob.setFrequency(maximumFrequency);
-			
-			if(cJob.getStatus() == BatchJobStatus.RUNNING) {
-				for(Server s : cJob.getAssignedServers()) {
-					handledDC.scheduleEvent(new ServerEvent(EventType.SERVER_UPDATE, currentTime, s));
-				}
-				handledDC.rescheduleEvent(cJob.getFinishEvent(), cJob.getCalculatedFinishTime());
-			}
+			handledDC.setJobFrequency(cJob, maximumFrequency, currentTime);
 		}
 	}
 	
@@ -85,14 +69,7 @@ public class ScaleAllJobsStrategy implements DVFSStrategy {
 		BatchJob cJob;
 		for(int i=0; i < scalableJobs.size(); i++) {
 			cJob = scalableJobs.get(i);
-			cJob.setFrequency(minimumFrequency);
-			
-			if(cJob.getStatus() == BatchJobStatus.RUNNING) {
-				for(Server s : cJob.getAssignedServers()) {
-					handledDC.scheduleEvent(new ServerEvent(EventType.SERVER_UPDATE, currentTime, s));
-				}
-				handledDC.rescheduleEvent(cJob.getFinishEvent(), cJob.getCalculatedFinishTime());
-			}
+			handledDC.setJobFrequency(cJob, minimumFrequency, currentTime);
 		}
 	}
 	
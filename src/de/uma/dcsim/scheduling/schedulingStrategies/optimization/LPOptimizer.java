@@ -29,10 +29,12 @@ public class LPOptimizer {
 	 * @param handledDC DC to which the scheduler that uses this solver belongs.
 	 */
 	public void scheduleRelevantJobs(List<BatchJob> relevantJobs, int intervalStart, int intervalEnd, DC handledDC) {
+		int secondsPerSimulationTimestep = handledDC.getContext().getSecondsPerSimulationTimestep();
+		
 		//Calculate interval length, if the simulation time is currently set to seconds, the interval length is calculated in minutes. Otherwise it is always calculated in simulation time.
 		int intervalLength = (intervalEnd - intervalStart);
 		
-		if(Setup.secondsPerSimulationTimestep == 1) {
+		if(secondsPerSimulationTimestep == 1) {
 			intervalLength = Math.round((float)intervalLength/(float)60);
 		}
 		double[] powerConsumptionSums = new double[intervalLength];
@@ -170,13 +172,12 @@ public class LPOptimizer {
 			row[0] = 1;
 			solver.setObjFnex(amountOfVariables, row, colno);
 			solver.setMinim();
-			//Writes the model into a file (in .lp format).
-			solver.writeLp("model.lp");
 			
-			//Set a timeout to ensure that the solver does not block the simulator forever.
-			solver.setTimeout(Setup.solverTimeout);	
-			//Writes the output of the solver to a file instead of the system output.
-			solver.setOutputfile("solverLog.txt");
+			//Set a timeout to ensure that the solver does not block the simulator forever. The timeout is measured in wall-clock time,
+			//thus solves that run concurrently (e.g., parallel DR candidates or DCs) can reach it earlier than a serial solve (see Setup.solverTimeout).
+			solver.setTimeout(handledDC.getContext().getSolverTimeout());	
+			//Suppress the output of the solver. No file is written, as several solvers can run concurrently in one JVM.
+			solver.setOutputfile("");
 			
 			solver.setScaling(LpSolve.SCALE_EQUILIBRATE + LpSolve.SCALE_GEOMETRIC);
 			solver.setBbDepthlimit(-10);
@@ -191,7 +192,7 @@ public class LPOptimizer {
 			}
 			//If the solver did not found any solution before the timeout. In this case the jobs are not rescheduled.
 			else if(solution > 2) {
-				System.out.println("No valid solution found in " +  Setup.solverTimeout + " seconds!");
+				System.out.println("No valid solution found in " +  handledDC.getContext().getSolverTimeout() + " seconds!");
 				solver.deleteLp();
 				return;
 			}
@@ -238,7 +239,7 @@ public class LPOptimizer {
 									handledDC.scheduleEvent(new JobEvent(EventType.JOB_PAUSE, intervalStart, cJob));
 									cJob.setIsRequestedToPause(true);
 									cJob.setIsAlreadyRescheduled(true);
-									if(Setup.secondsPerSimulationTimestep == 1) {
+									if(secondsPerSimulationTimestep == 1) {
 										cJob.setScheduledRestartTime(intervalStart + (((j-1)%intervalLength)*60));
 //										System.out.println(j + " " + ((j-2)%intervalLength) + " " + intervalLength);
 									}
@@ -264,7 +265,7 @@ public class LPOptimizer {
 							 */
 							else if(cJob.getStatus() == BatchJobStatus.RESCHEDULED) {
 								//Done in both cases.
-								if(Setup.secondsPerSimulationTimestep == 1) {
+								if(secondsPerSimulationTimestep == 1) {
 									cJob.setScheduledRestartTime(intervalStart + (((j-1)%intervalLength)*60));
 								}
 								else {
@@ -276,12 +277,12 @@ public class LPOptimizer {
 								//Only done in the second case.
 								if (cJob.getCalculatedFinishTime() > intervalEnd) {
 									remainingRuntime = intervalEnd - cJob.getScheduledRestartTime();
-									if (Setup.secondsPerSimulationTimestep == 1) {
+									if (secondsPerSimulationTimestep == 1) {
 										remainingRuntime = (int)((float) remainingRuntime / (float) 60);
 									}
 
 									if (remainingRuntime > jobLengths[i]) {
-										if (Setup.secondsPerSimulationTimestep == 1) {
+										if (secondsPerSimulationTimestep == 1) {
 //											System.out.println(cJob.getScheduledRestartTime() +  " " + cJob.getScheduledRestartTime() + ((jobLengths[i] * 60)));
 											int pauseEventTime = cJob.getScheduledRestartTime() + ((jobLengths[i])*60);
 											if(pauseEventTime > intervalEnd) {
@@ -304,7 +305,7 @@ public class LPOptimizer {
 							 */
 							else if(cJob.getStatus() == BatchJobStatus.SCHEDULED) {
 								//Done for both cases.
-								if(Setup.secondsPerSimulationTimestep == 1) {
+								if(secondsPerSimulationTimestep == 1) {
 									cJob.setStartTime(intervalStart + (((j-1)%intervalLength)*60));
 								}
 								else {
@@ -316,13 +317,13 @@ public class LPOptimizer {
 								//Only done in the second case.
 								if (cJob.getCalculatedFinishTime() > intervalEnd) {
 									remainingRuntime = intervalEnd - cJob.getStartTime();
-									if (Setup.secondsPerSimulationTimestep == 1) {
+									if (secondsPerSimulationTimestep == 1) {
 										remainingRuntime = (int)((float) remainingRuntime / (float) 60);
 									}
 
 									if (remainingRuntime > jobLengths[i]) {
 //										System.out.println("info: " + cJob.getStartEvent().getTimestamp() + " " + cJob.getStartTime() + " " + jobLengths[i] + " " + remainingRuntime + " " + (cJob.getStartTime() + (jobLengths[i])*60) + " " + cJob.getFinishEvent().getTimestamp());
-										if (Setup.secondsPerSimulationTimestep == 1) {
+										if (secondsPerSimulationTimestep == 1) {
 //											System.out.println(cJob.getStartTime() +  " " + (cJob.getStartTime() + ((jobLengths[i] * 60))) + " " + cJob.getId());
 											int pauseEventTime = cJob.getScheduledRestartTime() + ((jobLengths[i])*60);
 											if(pauseEventTime > intervalEnd) {
@@ -359,9 +360,10 @@ public class LPOptimizer {
 	 * @return The originally scheduled runtime of the BatchJob instance within the interval, which is framed by the two simulation time steps.
 	 */
 	private int calculateJobRuntimeInInterval(BatchJob job, int intervalStart, int intervalEnd) {
+		int secondsPerSimulationTimestep = job.getContext().getSecondsPerSimulationTimestep();
 		int jobRuntime = 0;
 		int intervalLength;
-		if(Setup.secondsPerSimulationTimestep == 1) {
+		if(secondsPerSimulationTimestep == 1) {
 			intervalLength = (int)((float)(intervalEnd - intervalStart)/(float)60) + 1;
 		}
 		else {
@@ -372,7 +374,7 @@ public class LPOptimizer {
 				jobRuntime = intervalLength;
 			}
 			else {
-				if(Setup.secondsPerSimulationTimestep == 1) {
+				if(secondsPerSimulationTimestep == 1) {
 					jobRuntime = (int)((float)job.getRemainingRuntimeInSimulationTime()/(float)60) + 1;
 				}
 				else {
@@ -383,13 +385,13 @@ public class LPOptimizer {
 		else if(job.getStatus() == BatchJobStatus.RESCHEDULED) {
 			if(job.getCalculatedFinishTime() >= intervalEnd) {
 				jobRuntime = intervalEnd - job.getScheduledRestartTime();
-				if(Setup.secondsPerSimulationTimestep == 1) {
+				if(secondsPerSimulationTimestep == 1) {
 					jobRuntime = (int)((float)jobRuntime/(float)60) + 1;
 				}
 			}
 			else {
 				jobRuntime = job.getCalculatedFinishTime() - job.getScheduledRestartTime();
-				if(Setup.secondsPerSimulationTimestep == 1) {
+				if(secondsPerSimulationTimestep == 1) {
 					jobRuntime = (int)((float)jobRuntime/(float)60) + 1;
 				}
 			}
@@ -397,13 +399,13 @@ public class LPOptimizer {
 		else if(job.getStatus() == BatchJobStatus.SCHEDULED) {
 			if(job.getCalculatedFinishTime() >= intervalEnd) {
 				jobRuntime = intervalEnd - job.getStartTime();
-				if(Setup.secondsPerSimulationTimestep == 1) {
+				if(secondsPerSimulationTimestep == 1) {
 					jobRuntime = (int)((float)jobRuntime/(float)60) + 1;
 				}
 			}
 			else {
 				jobRuntime = job.getCalculatedFinishTime() - job.getStartTime();
-				if(Setup.secondsPerSimulationTimestep == 1) {
+				if(secondsPerSimulationTimestep == 1) {
 					jobRuntime = (int)((float)jobRuntime/(float)60) + 1;
 				}
 			}
@@ -414,6 +416,7 @@ public class LPOptimizer {
 	}
 	
 	private void updateSums(double[] powerConsumptionSums, int[] nodeOccupationSums, int intervalStart, int intervalEnd, BatchJob job) {
+		int secondsPerSimulationTimestep = job.getContext().getSecondsPerSimulationTimestep();
 		int tmp = 0;
 		if(job.getStatus() == BatchJobStatus.RUNNING) {
 			tmp = intervalStart;
@@ -427,14 +430,14 @@ public class LPOptimizer {
 		
 		
 		int counter = tmp - intervalStart;
-		if(Setup.secondsPerSimulationTimestep == 1) {
+		if(secondsPerSimulationTimestep == 1) {
 			counter = (tmp-intervalStart)/60;
 		}
 		while(tmp < intervalEnd && tmp <= job.getCalculatedFinishTime()) {
 			powerConsumptionSums[counter] += job.getTotalPowerConsumption();
 			nodeOccupationSums[counter] += job.getAmountOfServers();
 			counter++;
-			if(Setup.secondsPerSimulationTimestep == 1) {
+			if(secondsPerSimulationTimestep == 1) {
 				tmp += 60;
 			}
 			else {
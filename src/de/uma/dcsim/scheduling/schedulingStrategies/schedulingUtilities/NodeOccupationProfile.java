@@ -0,0 +1,443 @@
+package de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.uma.dcsim.utilities.BatchJob;
+import de.uma.dcsim.utilities.BatchJobStatus;
+
+/**
+ * This class represents the node occupation profile of a DC, i.e. the amount of nodes that are blocked by the running, scheduled and rescheduled jobs
+ * at each point in simulation time. In contrast to the node occupation plans that are created by SchedulingStrategyUtilities, the profile is not rebuilt for
+ * every scheduling interval, but is maintained incrementally whenever a job is started, finished, paused or (re)scheduled.
+ *
+ * The profile is stored in a segment tree with range-add and range-max/min queries over a window of simulation time, thus feasibility checks and earliest-fit
+ * queries only take logarithmic time instead of time that is linear in the length of the considered interval.
+ * Each point in simulation time t is represented by two positions in the tree: position 2t contains the amount of nodes that are blocked at t when a job also blocks
+ * its nodes at its finish time (as in the node occupation plan), position 2t+1 contains the amount of nodes that are blocked at t when a job releases its nodes at its
+ * finish time (as in SchedulingStrategyUtilities.determineEarliestTimeForNodeAvailability).
+ *
+ * @author nilsw
+ *
+ */
+public class NodeOccupationProfile {
+
+	/**
+	 * Minimum amount of points in simulation time that are covered by the window of the tree.
+	 */
+	private static final int MINIMUM_WINDOW_SIZE = 1024;
+
+	/**
+	 * Maximum amount of nodes that can be occupied at the same time.
+	 */
+	private int nodeCapacity;
+
+	/**
+	 * First point in simulation time that is covered by the window of the tree.
+	 */
+	private int windowStart;
+
+	/**
+	 * Amount of points in simulation time that are covered by the window of the tree (power of two).
+	 */
+	private int windowSize;
+
+	/**
+	 * Maximum of all positions below a tree node (including the pending additions of the node, but not those of its ancestors).
+	 */
+	private int[] maximum;
+
+	/**
+	 * Minimum of all positions below a tree node (including the pending additions of the node, but not those of its ancestors).
+	 */
+	private int[] minimum;
+
+	/**
+	 * Amount of nodes that was added to all positions below a tree node.
+	 */
+	private int[] pending;
+
+	/**
+	 * Interval in simulation time (both inclusive) that is currently blocked by each registered job.
+	 */
+	private IdentityHashMap<BatchJob, Registration> registrations;
+
+	/**
+	 * Amount of registered jobs per calculated finish time.
+	 */
+	private TreeMap<Integer, Integer> finishTimes;
+
+	/**
+	 * Counter that is used to detect the registered jobs that were not passed to the last call of synchronize.
+	 */
+	private int synchronizationRound;
+
+	/**
+	 * @param nodeCapacity Maximum amount of nodes that can be occupied at the same time.
+	 */
+	public NodeOccupationProfile(int nodeCapacity) {
+		this.nodeCapacity = nodeCapacity;
+		this.windowStart = 0;
+		this.windowSize = 0;
+		this.registrations = new IdentityHashMap<BatchJob, Registration>();
+		this.finishTimes = new TreeMap<Integer, Integer>();
+		this.synchronizationRound = 0;
+	}
+
+	/**
+	 * Updates the profile so that it contains exactly the specified jobs (usually all running and scheduled jobs of the DC). Only the jobs whose
+	 * blocked interval changed since the last update are updated in the tree.
+	 * @param jobs List of all jobs that currently block nodes.
+	 * @param currentTime Current point in simulation time.
+	 */
+	public void synchronize(List<BatchJob> jobs, int currentTime) {
+		this.synchronizationRound++;
+		Registration registration;
+		for(BatchJob job : jobs) {
+			this.updateJob(job, currentTime);
+			registration = this.registrations.get(job);
+			if(registration != null) {
+				registration.synchronizationRound = this.synchronizationRound;
+			}
+		}
+
+		Iterator<Map.Entry<BatchJob, Registration>> iterator = this.registrations.entrySet().iterator();
+		Map.Entry<BatchJob, Registration> entry;
+		while(iterator.hasNext()) {
+			entry = iterator.next();
+			if(entry.getValue().synchronizationRound != this.synchronizationRound) {
+				this.unregister(entry.getValue());
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Updates the interval that is blocked by a job according to its current status. RUNNING jobs block their nodes until their calculated finish time,
+	 * SCHEDULED jobs from the timestamp of their start event and RESCHEDULED jobs from their scheduled restart time. Jobs with any other status do
+	 * not block nodes and are removed from the profile.
+	 * @param job Job whose blocked interval is updated.
+	 * @param currentTime Current point in simulation time.
+	 */
+	public void updateJob(BatchJob job, int currentTime) {
+		Registration registration = this.registrations.get(job);
+		int start;
+		switch(job.getStatus()) {
+		case RUNNING:
+			//The past part of the interval of a running job is irrelevant, thus the interval is not moved when the job was already registered
+			start = (registration != null && registration.start <= currentTime) ? registration.start : currentTime;
+			break;
+		case SCHEDULED:
+			start = job.getScheduledStartTime();
+			break;
+		case RESCHEDULED:
+			start = job.getScheduledRestartTime();
+			break;
+		default:
+			this.releaseJob(job);
+			return;
+		}
+		int finish = job.getCalculatedFinishTime();
+
+		if(registration == null) {
+			registration = new Registration(start, finish, job.getAmountOfServers());
+			this.registrations.put(job, registration);
+			this.register(registration);
+		}
+		else if(registration.start != start || registration.finish != finish || registration.nodes != job.getAmountOfServers()) {
+			this.unregister(registration);
+			registration.start = start;
+			registration.finish = finish;
+			registration.nodes = job.getAmountOfServers();
+			this.register(registration);
+		}
+	}
+
+	/**
+	 * Removes a job from the profile.
+	 * @param job Job that does not block nodes anymore.
+	 */
+	public void releaseJob(BatchJob job) {
+		Registration registration = this.registrations.remove(job);
+		if(registration != null) {
+			this.unregister(registration);
+		}
+	}
+
+	/**
+	 * Retrieves the amount of nodes that are blocked at a point in simulation time.
+	 * @param time Point in simulation time.
+	 * @return Amount of blocked nodes.
+	 */
+	public int getOccupation(int time) {
+		return this.getMaximumOccupation(time, time);
+	}
+
+	/**
+	 * Retrieves the maximum amount of nodes that are blocked at the same time within an interval.
+	 * @param firstTime First point in simulation time of the interval.
+	 * @param lastTime Last point in simulation time of the interval.
+	 * @return Maximum amount of blocked nodes (0 if the interval is empty).
+	 */
+	public int getMaximumOccupation(int firstTime, int lastTime) {
+		if(lastTime < firstTime) {
+			return 0;
+		}
+		this.ensureWindow(firstTime, lastTime);
+		return this.queryMaximum(1, 0, 2*this.windowSize-1, this.toPosition(firstTime), this.toPosition(lastTime));
+	}
+
+	/**
+	 * Checks whether it is possible to schedule a job at the start/restart time that is currently specified by the BatchJob instance
+	 * (see SchedulingStrategyUtilities.checkSchedulingFeasibilityForJob).
+	 * @param job BatchJob instance for which it should be checked whether it can be scheduled.
+	 * @param intervalEnd First point in simulation time after the considered interval.
+	 * @return True when the job can be scheduled without exceeding the maximum amount of nodes, false otherwise.
+	 */
+	public boolean checkSchedulingFeasibility(BatchJob job, int intervalEnd) {
+		int start = this.getRequestedStartTime(job);
+		if(start >= intervalEnd) {
+			return false;
+		}
+		int last = Math.min(intervalEnd-1, job.getCalculatedFinishTime());
+		return this.getMaximumOccupation(start, last) + job.getAmountOfServers() <= this.nodeCapacity;
+	}
+
+	/**
+	 * Determines the earliest start/restart time at which a job can be scheduled. A start time t is feasible if checkSchedulingFeasibility would return true
+	 * after the start/restart time of the job was set to t. The start/restart time of the job is not changed by this method.
+	 * @param job BatchJob instance that should be scheduled.
+	 * @param firstStartTime Earliest start time that is considered.
+	 * @param lastStartTime First start time that is not considered anymore.
+	 * @param intervalEnd First point in simulation time after the considered interval.
+	 * @return Earliest feasible start time, -1 if no feasible start time exists.
+	 */
+	public int findEarliestStartTime(BatchJob job, int firstStartTime, int lastStartTime, int intervalEnd) {
+		int duration = job.getCalculatedFinishTime() - this.getRequestedStartTime(job);
+		int threshold = this.nodeCapacity - job.getAmountOfServers();
+		int end = Math.min(lastStartTime, intervalEnd);
+		if(threshold < 0 && duration >= 0) {
+			return -1;
+		}
+
+		int start = firstStartTime;
+		int last;
+		int blocked;
+		while(start < end) {
+			last = Math.min(intervalEnd-1, start + duration);
+			if(last < start) {
+				return start;
+			}
+			this.ensureWindow(start, last);
+			blocked = this.findFirstAbove(1, 0, 2*this.windowSize-1, this.toPosition(start), this.toPosition(last), threshold, 0);
+			if(blocked < 0) {
+				return start;
+			}
+			//Every start time up to the blocked point in simulation time would overlap it
+			start = this.windowStart + blocked/2 + 1;
+		}
+		return -1;
+	}
+
+	/**
+	 * Determines the earliest point in simulation time at which the requested amount of nodes are idle (see SchedulingStrategyUtilities.determineEarliestTimeForNodeAvailability).
+	 * In contrast to the feasibility checks, a job releases its nodes at its calculated finish time.
+	 * @param amountOfRequestedNodes Amount of nodes that are requested.
+	 * @param currentTime Point in simulation time that indicates the point in time at which the check should start.
+	 * @return Earliest point in simulation time at which the requested amount of nodes are idle.
+	 */
+	public int determineEarliestTimeForNodeAvailability(int amountOfRequestedNodes, int currentTime) {
+		if(this.registrations.isEmpty()) {
+			return Integer.MAX_VALUE;
+		}
+		int maxFinishTime = this.finishTimes.lastKey();
+		if(maxFinishTime > currentTime) {
+			this.ensureWindow(currentTime, maxFinishTime-1);
+			int available = this.findFirstAtMost(1, 0, 2*this.windowSize-1, this.toPosition(currentTime), this.toPosition(maxFinishTime-1)+1, this.nodeCapacity - amountOfRequestedNodes, 0);
+			if(available >= 0) {
+				return this.windowStart + available/2;
+			}
+		}
+		return currentTime + maxFinishTime + 1;
+	}
+
+	/**
+	 * Retrieves the start/restart time that is currently requested by a job that should be scheduled.
+	 * @param job BatchJob instance that should be scheduled.
+	 * @return Scheduled restart time for paused jobs, start time for all other jobs.
+	 */
+	private int getRequestedStartTime(BatchJob job) {
+		if(job.getStatus() == BatchJobStatus.PAUSED) {
+			return job.getScheduledRestartTime();
+		}
+		return job.getStartTime();
+	}
+
+	/**
+	 * Adds the nodes of a registration to the tree.
+	 */
+	private void register(Registration registration) {
+		this.addToFinishTimes(registration.finish, 1);
+		this.addRange(registration.start, registration.finish, registration.nodes);
+	}
+
+	/**
+	 * Removes the nodes of a registration from the tree.
+	 */
+	private void unregister(Registration registration) {
+		this.addToFinishTimes(registration.finish, -1);
+		this.addRange(registration.start, registration.finish, -registration.nodes);
+	}
+
+	private void addToFinishTimes(int finish, int count) {
+		Integer current = this.finishTimes.get(finish);
+		int updated = (current == null ? 0 : current) + count;
+		if(updated == 0) {
+			this.finishTimes.remove(finish);
+		}
+		else {
+			this.finishTimes.put(finish, updated);
+		}
+	}
+
+	/**
+	 * Adds an amount of nodes to all positions of the interval [start, finish] that are covered by the window. Parts of the interval outside
+	 * of the window are added when the window is moved.
+	 */
+	private void addRange(int start, int finish, int nodes) {
+		if(this.windowSize == 0 || finish < start) {
+			return;
+		}
+		int first = Math.max(this.toPosition(start), 0);
+		int last = Math.min(this.toPosition(finish), 2*this.windowSize-1);
+		if(first <= last) {
+			this.add(1, 0, 2*this.windowSize-1, first, last, nodes);
+		}
+	}
+
+	private int toPosition(int time) {
+		return 2*(time - this.windowStart);
+	}
+
+	/**
+	 * Makes sure that the window of the tree covers the specified interval. If this is not the case, the window is moved to the start of the interval
+	 * (and enlarged if necessary) and the tree is rebuilt from the registered jobs.
+	 */
+	private void ensureWindow(int firstTime, int lastTime) {
+		if(this.windowSize > 0 && firstTime >= this.windowStart && lastTime < this.windowStart + this.windowSize) {
+			return;
+		}
+		int size = Math.max(this.windowSize, MINIMUM_WINDOW_SIZE);
+		//The window is twice as large as the requested interval, thus it usually can be reused for several scheduling intervals
+		while(size < 2*(lastTime - firstTime + 1)) {
+			size *= 2;
+		}
+
+		if(size != this.windowSize) {
+			this.maximum = new int[4*size];
+			this.minimum = new int[4*size];
+			this.pending = new int[4*size];
+		}
+		else {
+			Arrays.fill(this.maximum, 0);
+			Arrays.fill(this.minimum, 0);
+			Arrays.fill(this.pending, 0);
+		}
+		this.windowSize = size;
+		this.windowStart = firstTime;
+
+		for(Registration registration : this.registrations.values()) {
+			this.addRange(registration.start, registration.finish, registration.nodes);
+		}
+	}
+
+	private void add(int node, int low, int high, int first, int last, int nodes) {
+		if(last < low || high < first) {
+			return;
+		}
+		if(first <= low && high <= last) {
+			this.maximum[node] += nodes;
+			this.minimum[node] += nodes;
+			this.pending[node] += nodes;
+			return;
+		}
+		int middle = (low + high) >>> 1;
+		this.add(2*node, low, middle, first, last, nodes);
+		this.add(2*node+1, middle+1, high, first, last, nodes);
+		this.maximum[node] = Math.max(this.maximum[2*node], this.maximum[2*node+1]) + this.pending[node];
+		this.minimum[node] = Math.min(this.minimum[2*node], this.minimum[2*node+1]) + this.pending[node];
+	}
+
+	private int queryMaximum(int node, int low, int high, int first, int last) {
+		if(last < low || high < first) {
+			return Integer.MIN_VALUE;
+		}
+		if(first <= low && high <= last) {
+			return this.maximum[node];
+		}
+		int middle = (low + high) >>> 1;
+		return Math.max(this.queryMaximum(2*node, low, middle, first, last), this.queryMaximum(2*node+1, middle+1, high, first, last)) + this.pending[node];
+	}
+
+	/**
+	 * Retrieves the first position within [first, last] whose value is greater than the threshold.
+	 * @param offset Sum of the pending additions of all ancestors of the node.
+	 * @return First matching position, -1 if no position matches.
+	 */
+	private int findFirstAbove(int node, int low, int high, int first, int last, int threshold, int offset) {
+		if(last < low || high < first || this.maximum[node] + offset <= threshold) {
+			return -1;
+		}
+		if(low == high) {
+			return low;
+		}
+		int middle = (low + high) >>> 1;
+		int result = this.findFirstAbove(2*node, low, middle, first, last, threshold, offset + this.pending[node]);
+		if(result < 0) {
+			result = this.findFirstAbove(2*node+1, middle+1, high, first, last, threshold, offset + this.pending[node]);
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieves the first position within [first, last] whose value is smaller than or equal to the threshold.
+	 * @param offset Sum of the pending additions of all ancestors of the node.
+	 * @return First matching position, -1 if no position matches.
+	 */
+	private int findFirstAtMost(int node, int low, int high, int first, int last, int threshold, int offset) {
+		if(last < low || high < first || this.minimum[node] + offset > threshold) {
+			return -1;
+		}
+		if(low == high) {
+			return low;
+		}
+		int middle = (low + high) >>> 1;
+		int result = this.findFirstAtMost(2*node, low, middle, first, last, threshold, offset + this.pending[node]);
+		if(result < 0) {
+			result = this.findFirstAtMost(2*node+1, middle+1, high, first, last, threshold, offset + this.pending[node]);
+		}
+		return result;
+	}
+
+	/**
+	 * This class stores the interval that is blocked by a registered job.
+	 */
+	private static class Registration {
+
+		private int start;
+		private int finish;
+		private int nodes;
+		private int synchronizationRound;
+
+		private Registration(int start, int finish, int nodes) {
+			this.start = start;
+			this.finish = finish;
+			this.nodes = nodes;
+		}
+	}
+
+}
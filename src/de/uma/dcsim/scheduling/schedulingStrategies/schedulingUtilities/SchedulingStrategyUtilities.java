@@ -16,6 +16,11 @@ import de.uma.dcsim.utilities.BatchJobStatus;
  *
  */
 public class SchedulingStrategyUtilities {
+	
+	/**
+	 * Maximum amount of nodes that can be occupied at the same time.
+	 */
+	public static final int MAXIMUM_AMOUNT_OF_NODES = 9216;
 
 	/**
 	 * This methods calculates the Theta_STDF values for all jobs and sorts them in ascending order.
@@ -27,7 +32,7 @@ public class SchedulingStrategyUtilities {
 		
 		double jobTheta;
 		for(BatchJob job : jobsToSort) {
-			jobTheta = (((double)job.getSLADeadline() - (double)job.getCalculatedFinishTime())*9216)/(double)job.getAmountOfServers();
+			jobTheta = (((double)job.getSLADeadline() - (double)job.getCalculatedFinishTime())*MAXIMUM_AMOUNT_OF_NODES)/(double)job.getAmountOfServers();
 			sortedJobList.add(new JobSortContainer(job, jobTheta));
 		}
 		
@@ -238,7 +243,7 @@ public class SchedulingStrategyUtilities {
 //			if(job.getId().equals("srv04-ib.263388")) {
 //				System.out.println("tmp: " + tmp + "\t nodeOccPlan+jobServer: " + (nodeOccupationPlan[counter]+job.getAmountOfServers()));
 //			}
-			if((nodeOccupationPlan[counter]+job.getAmountOfServers()) > 9216) {
+			if((nodeOccupationPlan[counter]+job.getAmountOfServers()) > MAXIMUM_AMOUNT_OF_NODES) {
 				return false;
 			}
 			tmp++;
@@ -292,7 +297,7 @@ public class SchedulingStrategyUtilities {
 		}
 		
 		for(int i=0; i < nodeOccupation.length; i++) {
-			if((9216 - nodeOccupation[i]) >= amountOfRequestedNodes) {
+			if((MAXIMUM_AMOUNT_OF_NODES - nodeOccupation[i]) >= amountOfRequestedNodes) {
 				return currentTime + i;
 			}
 		}
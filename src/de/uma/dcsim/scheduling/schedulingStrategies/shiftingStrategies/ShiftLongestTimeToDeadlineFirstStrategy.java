@@ -7,6 +7,7 @@ import de.uma.dcsim.eventHandling.EventType;
 import de.uma.dcsim.eventHandling.JobEvent;
 import de.uma.dcsim.hardware.DC;
 import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.JobSortContainer;
+import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.NodeOccupationProfile;
 import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.SchedulingStrategyUtilities;
 import de.uma.dcsim.simulationControl.Setup;
 import de.uma.dcsim.utilities.BatchJob;
@@ -24,12 +25,13 @@ public class ShiftLongestTimeToDeadlineFirstStrategy implements ShiftingStrategy
 		//Sort jobs according to their Theta_STDF values
 		List<JobSortContainer> sortedList = SchedulingStrategyUtilities.sortJobListByTheta(preponableJobs);
 		
-		//Create list of jobs that are relevant for the creation of the node occupation plan
+		//Create list of jobs that are relevant for the node occupation profile
 		ArrayList<BatchJob> allJobs = new ArrayList<BatchJob>(scheduledJobs);
 		allJobs.addAll(runningJobs);
 		
-		//Create node occupation plan
-		int[] nodeOccupationPlan = SchedulingStrategyUtilities.getNodeOccupationPlan(allJobs, schedulingInterval, currentTime);
+		//Update node occupation profile
+		NodeOccupationProfile nodeOccupationProfile = handledDC.getNodeOccupationProfile();
+		nodeOccupationProfile.synchronize(allJobs, currentTime);
 		
 		
 		//Actually prepone workload
@@ -47,6 +49,9 @@ public class ShiftLongestTimeToDeadlineFirstStrategy implements ShiftingStrategy
 			scheduled = false;
 			originalNodeStepSum = this.calculateNodeStepsForJob(cJob, currentTime, intervalEnd);
 			
+			//The nodes that are blocked by the job at its current start time are available while the job is preponed
+			nodeOccupationProfile.releaseJob(cJob);
+			
 			//Try to prepone job
 			while(tmp < intervalEnd && !scheduled) {
 				//If currently considerd job is paused
@@ -55,7 +60,7 @@ public class ShiftLongestTimeToDeadlineFirstStrategy implements ShiftingStrategy
 						originalStartTime = cJob.getScheduledRestartTime();
 					}
 					cJob.setScheduledRestartTime(tmp);
-					if(SchedulingStrategyUtilities.checkSchedulingFeasibilityForJob(nodeOccupationPlan, cJob, currentTime)) {
+					if(nodeOccupationProfile.checkSchedulingFeasibility(cJob, intervalEnd)) {
 						nodeStepSum += (this.calculateNodeStepsForJob(cJob, currentTime, intervalEnd) - originalNodeStepSum);
 						scheduled = true;
 
@@ -70,7 +75,7 @@ public class ShiftLongestTimeToDeadlineFirstStrategy implements ShiftingStrategy
 						originalStartTime = cJob.getStartTime();
 					}
 					cJob.setStartTime(tmp);
-					if(SchedulingStrategyUtilities.checkSchedulingFeasibilityForJob(nodeOccupationPlan, cJob, currentTime)) {
+					if(nodeOccupationProfile.checkSchedulingFeasibility(cJob, intervalEnd)) {
 						nodeStepSum += (this.calculateNodeStepsForJob(cJob, currentTime, intervalEnd) - originalNodeStepSum);
 						scheduled = true;
 
@@ -86,12 +91,8 @@ public class ShiftLongestTimeToDeadlineFirstStrategy implements ShiftingStrategy
 				}
 				tmp++;
 			}
-			//If currently considered job was scheduled successfully --> update node occupation plan
-			if(scheduled) {
-				SchedulingStrategyUtilities.updateNodeOccupationPlan(nodeOccupationPlan, cJob, currentTime);
-			}
 			//If currently considered job was not scheduled succesffully --> set specified start/restart time back to the original value
-			else {
+			if(!scheduled) {
 				if(cJob.getStatus() == BatchJobStatus.PAUSED) {
 					cJob.setScheduledRestartTime(originalStartTime);
 				}
@@ -99,6 +100,8 @@ public class ShiftLongestTimeToDeadlineFirstStrategy implements ShiftingStrategy
 					cJob.setStartTime(originalStartTime);
 				}
 			}
+			//Update node occupation profile with the new (or original) start/restart time of the job
+			nodeOccupationProfile.updateJob(cJob, currentTime);
 			//If the requested amount of shifted node steps is reached --> stop shifting
 			if(nodeStepSum >= amountOfNodeStepsToShift && amountOfNodeStepsToShift >= 0) {
 				break;
@@ -137,7 +140,7 @@ public class ShiftLongestTimeToDeadlineFirstStrategy implements ShiftingStrategy
 				scheduledJobs.remove(cJob);
 				
 				//If superMUCMode is used, this job hast to be added to the affectedSubmittedJobList
-				if (Setup.superMUCMode) {
+				if (handledDC.getContext().isSuperMUCMode()) {
 					affectedSubmittedJobs.add(cJob);
 				} else {
 					submittedJobs.add(cJob);
@@ -212,7 +215,7 @@ public class ShiftLongestTimeToDeadlineFirstStrategy implements ShiftingStrategy
 				
 				job.setStatus(BatchJobStatus.SUBMITTED);
 				scheduledJobs.remove(job);
-				if(Setup.superMUCMode) {
+				if(handledDC.getContext().isSuperMUCMode()) {
 					affectedSubmittedJobs.add(job);
 				}
 				else {
@@ -5,6 +5,7 @@ import java.util.List;
 
 import de.uma.dcsim.hardware.DC;
 import de.uma.dcsim.scheduling.schedulingStrategies.SchedulingStrategy;
+import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.NodeOccupationProfile;
 import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.JobSortContainer;
 import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.SchedulingStrategyUtilities;
 import de.uma.dcsim.simulationControl.Setup;
@@ -23,7 +24,7 @@ public class ShortestTimeToDeadlineFirst implements SchedulingStrategy {
 	private int backfillingFinishingDeadline;
 
 	@Override
-	public void scheduleNextInterval(List<BatchJob> runningJobs, List<BatchJob> submittedJobs, List<BatchJob> scheduledJobs, List<BatchJob> pausedJobs, int intervalLength, int currentTime, int[] nodeOccupationPlan, DC handledDC) {
+	public void scheduleNextInterval(List<BatchJob> runningJobs, List<BatchJob> submittedJobs, List<BatchJob> scheduledJobs, List<BatchJob> pausedJobs, int intervalLength, int currentTime, NodeOccupationProfile nodeOccupationProfile, DC handledDC) {
 		ArrayList<BatchJob> allJobs = new ArrayList<BatchJob>(pausedJobs);
 		allJobs.addAll(submittedJobs);
 
@@ -33,61 +34,61 @@ public class ShortestTimeToDeadlineFirst implements SchedulingStrategy {
 	
 		//Calculate interval end
 		int intervalEnd = currentTime + intervalLength;
-		int tmp;
+		int startTime;
+		int lastStartTime;
 		boolean scheduled = true;
 		BatchJob pJob;
 		
 		//Schedule jobs
 		for(int i=0; i < sortedJobs.size(); i++) {
 			pJob = sortedJobs.get(i).getJob();
-			tmp = currentTime;
 			scheduled = false;
-			while (tmp < intervalEnd) {
+			if(pJob.getStatus() == BatchJobStatus.PAUSED) {
+				pJob.setScheduledRestartTime(currentTime);
+			}
+			else if(pJob.getStatus() == BatchJobStatus.SUBMITTED) {
+				pJob.setStartTime(currentTime);
+			}
+			
+			//If earlier during this call of the method, a job was not able to be scheduled, the current job has to finish before the 
+			//earliest possible start time of the job that first was not scheduled
+			lastStartTime = intervalEnd;
+			if(this.backfillingFinishingDeadline != 0) {
+				lastStartTime = (int)Math.min((long)intervalEnd, (long)currentTime + (long)this.backfillingFinishingDeadline - (long)pJob.getCalculatedFinishTime());
+			}
+			
+			//Determine the earliest start time at which the maximum number of nodes is not exceeded
+			startTime = nodeOccupationProfile.findEarliestStartTime(pJob, currentTime, lastStartTime, intervalEnd);
+			if(startTime >= 0) {
 				if(pJob.getStatus() == BatchJobStatus.PAUSED) {
-					pJob.setScheduledRestartTime(tmp);
-				}
-				else if(pJob.getStatus() == BatchJobStatus.SUBMITTED) {
-					pJob.setStartTime(tmp);
-				}
-				
-				//If earlier during this call of the method, a job was not able to be scheduled and the current job would finish after the 
-				//earliest possible start time of the job that first was not scheduled
-				if(this.backfillingFinishingDeadline != 0 && pJob.getCalculatedFinishTime() >= this.backfillingFinishingDeadline) {
-					break;
-				}
-				
-				//If it is feasible to schedule a job (maximum number of nodes is not exceeded)
-				if (SchedulingStrategyUtilities.checkSchedulingFeasibilityForJob(nodeOccupationPlan, pJob, currentTime)) {
-					SchedulingStrategyUtilities.updateNodeOccupationPlan(nodeOccupationPlan, pJob, currentTime);
-					if(pJob.getStatus() == BatchJobStatus.PAUSED) {
-						handledDC.rescheduleEvent(pJob.getRestartEvent(), pJob.getScheduledRestartTime());
-						pausedJobs.remove(pJob);
-						scheduledJobs.add(pJob);
-						pJob.setStatus(BatchJobStatus.RESCHEDULED);
-						scheduled = true;
-						if(!handledDC.isCopy() && Setup.testLogOutput) {
-							System.out.println(handledDC + "Restart of " + pJob.getId() + " scheduled!");
-							if(this.backfillingFinishingDeadline != 0) {
-								System.out.println("backfilled");
-							}
+					pJob.setScheduledRestartTime(startTime);
+					handledDC.rescheduleEvent(pJob.getRestartEvent(), pJob.getScheduledRestartTime());
+					pausedJobs.remove(pJob);
+					scheduledJobs.add(pJob);
+					pJob.setStatus(BatchJobStatus.RESCHEDULED);
+					scheduled = true;
+					if(!handledDC.isCopy() && Setup.testLogOutput) {
+						System.out.println(handledDC + "Restart of " + pJob.getId() + " scheduled!");
+						if(this.backfillingFinishingDeadline != 0) {
+							System.out.println("backfilled");
 						}
 					}
-					else if(pJob.getStatus() == BatchJobStatus.SUBMITTED) {
-						handledDC.rescheduleEvent(pJob.getStartEvent(), pJob.getStartTime());
-						submittedJobs.remove(pJob);
-						scheduledJobs.add(pJob);
-						pJob.setStatus(BatchJobStatus.SCHEDULED);
-						scheduled = true;
-						if(!handledDC.isCopy() && Setup.testLogOutput) {
-							System.out.println(handledDC + " Start of " + pJob.getId() + " scheduled! " + currentTime + " " + intervalEnd);
-							if(this.backfillingFinishingDeadline != 0) {
-								System.out.println("backfilled!");
-							}
+				}
+				else if(pJob.getStatus() == BatchJobStatus.SUBMITTED) {
+					pJob.setStartTime(startTime);
+					handledDC.rescheduleEvent(pJob.getStartEvent(), pJob.getStartTime());
+					submittedJobs.remove(pJob);
+					scheduledJobs.add(pJob);
+					pJob.setStatus(BatchJobStatus.SCHEDULED);
+					scheduled = true;
+					if(!handledDC.isCopy() && Setup.testLogOutput) {
+						System.out.println(handledDC + " Start of " + pJob.getId() + " scheduled! " + currentTime + " " + intervalEnd);
+						if(this.backfillingFinishingDeadline != 0) {
+							System.out.println("backfilled!");
 						}
 					}
-					break;
 				}
-				tmp++;
+				nodeOccupationProfile.updateJob(pJob, currentTime);
 			}
 			//If a job was not scheduled successfully
 			if(!scheduled) {
@@ -100,9 +101,7 @@ public class ShortestTimeToDeadlineFirst implements SchedulingStrategy {
 				
 				//If this is the first job that was not scheduled
 				if(this.backfillingFinishingDeadline == 0) {
-					List<BatchJob> relevantJobs = new ArrayList<BatchJob>(runningJobs);
-					relevantJobs.addAll(scheduledJobs);
-					this.backfillingFinishingDeadline = SchedulingStrategyUtilities.determineEarliestTimeForNodeAvailability(relevantJobs, pJob.getAmountOfServers(), currentTime);
+					this.backfillingFinishingDeadline = nodeOccupationProfile.determineEarliestTimeForNodeAvailability(pJob.getAmountOfServers(), currentTime);
 				}
 			}
 		}
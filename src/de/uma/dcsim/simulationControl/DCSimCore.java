@@ -24,21 +24,27 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import de.uma.dcsim.database.BoundDatabaseRecord;
 import de.uma.dcsim.database.ColumnType;
 import de.uma.dcsim.database.DatabaseRecord;
+import de.uma.dcsim.database.DeferredRecordBuffer;
 import de.uma.dcsim.database.EvaluationTable;
-import de.uma.dcsim.database.SqLiteDBHandler;
+import de.uma.dcsim.database.ResultsBackend;
+import de.uma.dcsim.database.ResultsBackendType;
 import de.uma.dcsim.drEventHandling.SimpleDREventHandler;
 import de.uma.dcsim.eventHandling.DRRequestEvent;
 import de.uma.dcsim.eventHandling.Event;
-import de.uma.dcsim.eventHandling.EventType;
-import de.uma.dcsim.eventHandling.ServerEvent;
 import de.uma.dcsim.hardware.DC;
-import de.uma.dcsim.hardware.Server;
 import de.uma.dcsim.scheduling.SchedulingResult;
 import de.uma.dcsim.utilities.BatchJob;
 import de.uma.dcsim.utilities.Constants;
@@ -49,25 +55,27 @@ import de.uma.dcsim.utilities.ReserveProvisionType;
  * 
  */
 public class DCSimCore {
+	/**
+	 * Maximum amount of quiet timesteps that each DC simulates between two synchronizations of the DCs (if the DCs are simulated concurrently).
+	 */
+	private static final int QUIET_TIMESTEP_CHUNK_LENGTH = 3600;
+	
 	private static Thread simulationThread;
-	private static List<DC> dcs;
-	private static List<DCFederation> federations;
 	private static InputStream io;
-	private static int clock;
 	private static int HistoricalTimeFrame;
 	private static int HistoricalNumberOfElements;
-	private static int length;
 	private static boolean simulatorIsRunning;
-	private static Calendar simStartTime;
-	private static SqLiteDBHandler dbHandler;
+	
+	/**
+	 * Context of the simulation that is performed by the simulation thread (all simulation state is held by the context).
+	 */
+	private static SimulationContext context;
 
 	/**
 	 * @param in
 	 */
 	public static void DCSimCore(final InputStream in) {
 		io = in;
-		setClock(0);
-		length = Integer.MAX_VALUE;
 		
 		simulationThread = new Thread() {
 			public void run() {
@@ -78,168 +86,385 @@ public class DCSimCore {
 //				String drRequestRecordTableName = EvaluationTable.getTableName(EvaluationTable.DR_REQUEST_RECORD_TABLE);
 				
 				setSimulatorIsRunning(true);				
-				int i = 0;
 				Setup setup = new Setup();
 				setup.readDC(io);
 				
-				// Setting up all configurations
-				if (length > 0)
-					length = setup.getSimLength();
-				else {
-					length = setup.getSimLength();
-				}
-				dcs = setup.getDcs();
-
-				
-				setFederations(setup.getDcFederations());
-			
 				// Starting the Simulation
 				try {
 					io.close();
 				} catch (IOException e1) {
 					e1.printStackTrace();
 				}
+				context = setup.getContext();
+				simulate(context);
+				setSimulatorIsRunning(false);
+			}
+		};
+	}
+
+	/**
+	 * Performs a simulation on the calling thread. All state of the simulation is held by the passed context, thus several simulations
+	 * can be performed concurrently (each with its own context).
+	 * @param context Context of the simulation, which contains the simulated DCs.
+	 */
+	public static void simulate(SimulationContext context) {
+		List<DC> dcs = context.getDcs();
+		int length = context.getLength();
+		int i = 0;
+		
+		//Restore the state of the DCs from a checkpoint or setup the DCs for a simulation from the beginning
+		SimulationCheckpoint resumedCheckpoint = null;
+		if(context.getResumeCheckpointFile() != null) {
+			try {
+				resumedCheckpoint = SimulationCheckpoint.restore(context.getResumeCheckpointFile(), context);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+			i = resumedCheckpoint.getNextTimestep();
+			System.out.println("Resumed from checkpoint " + context.getResumeCheckpointFile() + " at timestep " + i);
+		}
+		else {
+			for (DC dc : dcs) {
+				dc.setupDC();
+			}
+		}
+		
+		SimpleDateFormat format = Constants.getDateFormat();;
+		Date simStart = new Date();
+		Date simEnd = new Date();
+		
+		try {
+			simStart = format.parse("01.01.2014 00:00:00");
+			simEnd = new Date(simStart.getTime() + ((long)length*(long)1000));
+		}catch(ParseException e) {
+			e.printStackTrace();
+		}
+		
+		
+		// starting the update loop
+		System.out.println(length);
+
+		//Setup variables that are used for the monitoring database
+		BoundDatabaseRecord generalRecord = new BoundDatabaseRecord(EvaluationTable.GENERAL_EVALUATION_TABLE);
+		final ColumnType[] drRequestSchema = EvaluationTable.getTableSchema(EvaluationTable.DR_REQUEST_RECORD_TABLE);
+		
+		//Setup the worker threads that simulate the DCs concurrently (each DC buffers its records until all DCs finished the current timestep(s))
+		final boolean parallelDCs = Setup.dcParallelism > 1 && dcs.size() > 1;
+		ExecutorService dcPool = null;
+		final BoundDatabaseRecord[] dcGeneralRecords = new BoundDatabaseRecord[dcs.size()];
+		List<Callable<Void>> timestepTasks = new ArrayList<Callable<Void>>();
+		if(parallelDCs) {
+			dcPool = Executors.newFixedThreadPool(Math.min(Setup.dcParallelism, dcs.size()));
+			for(int k=0; k < dcs.size(); k++) {
+				final DC dc = dcs.get(k);
+				final BoundDatabaseRecord dcGeneralRecord = new BoundDatabaseRecord(EvaluationTable.GENERAL_EVALUATION_TABLE);
+				dc.setDeferredRecordBuffer(new DeferredRecordBuffer());
+				dcGeneralRecords[k] = dcGeneralRecord;
+				timestepTasks.add(() -> {
+					simulateTimestep(dc, dcGeneralRecord, drRequestSchema);
+					return null;
+				});
+			}
+		}
+		
+		ResultsBackend dbHandler = ResultsBackendType.createBackend(Setup.resultsBackend, context.getEvaluationDatabasePath());
+		context.setResultsBackend(dbHandler);
+		if(resumedCheckpoint != null) {
+			resumedCheckpoint.prepareResultsBackend(dbHandler, context.getEvaluationDatabasePath(), simStart, simEnd);
+		}
+		else {
+			for(EvaluationTable eTable : EvaluationTable.values()) {
+				dbHandler.createRecordTables(simStart, simEnd, eTable);
+			}
+		}
+		if(Setup.asynchronousDatabaseWriter) {
+			dbHandler.startAsynchronousWriter(Setup.databaseWriterBufferSize, Setup.databaseWriterBatchSize, Setup.databaseWriterCommitInterval);
+		}
+//		dbHandler.createRecordTables(generalSimulationRecordTableName, simStart, simEnd, EvaluationTable.GENERAL_EVALUATION_TABLE);
+//		dbHandler.createRecordTables(drRequestRecordTableName, simStart, simEnd, EvaluationTable.DR_REQUEST_RECORD_TABLE);
+
+		//Used to measure the runtime of a simulation run
+		long start = (new Date()).getTime();
+		
+		//Checkpoints are written at the beginning of the first timestep of the simulation loop that is reached in each checkpoint interval
+		int checkpointInterval = context.getCheckpointInterval();
+		boolean writeCheckpoints = checkpointInterval > 0 && context.getCheckpointFile() != null;
+		int nextCheckpoint = writeCheckpoints ? (i/checkpointInterval + 1)*checkpointInterval : length;
+		
+		//Simulation loop
+		while (i < length) {
+			if(writeCheckpoints && i >= nextCheckpoint) {
+				writeCheckpoint(context, i);
+				nextCheckpoint = (i/checkpointInterval + 1)*checkpointInterval;
+			}
+			context.setClock(i++);
+			if(parallelDCs) {
+				//All DCs simulate the current timestep concurrently, their records are inserted after all DCs finished the timestep
+				invokeAll(dcPool, timestepTasks);
 				for (DC dc : dcs) {
-					dc.setupDC();
+					dc.getDeferredRecordBuffer().flush(dbHandler);
 				}
-				
-				SimpleDateFormat format = Constants.getDateFormat();;
-				Date simStart = new Date();
-				Date simEnd = new Date();
-				
-				try {
-					simStart = format.parse("01.01.2014 00:00:00");
-					simEnd = new Date(simStart.getTime() + ((long)length*(long)1000));
-				}catch(ParseException e) {
-					e.printStackTrace();
+			}
+			else {
+				for (DC dc : dcs) {
+					simulateTimestep(dc, generalRecord, drRequestSchema);
 				}
-				
-				
-				// starting the update loop
-				System.out.println(length);
+			}
+			
+			//Print the current date for each day in real time and perform commit on the database
+			if(context.getClock()%86400 == 0) {
+				System.out.println(format.format(dcs.get(0).getCurrentDate()));
+				dbHandler.commit();
+			}
+//			context.setClock(i++);
+			
+			//Skip all timesteps until the next point in simulation time at which an event is scheduled or the scheduler is called in any DC
+			if(Setup.nextEventTimeAdvance) {
+				int nextEventTime = length;
+				for (DC dc : dcs) {
+					nextEventTime = Math.min(nextEventTime, dc.getNextEventTime());
+				}
+				if(nextEventTime > i && parallelDCs) {
+					i = simulateQuietTimestepsInParallel(context, dcPool, dcGeneralRecords, i, nextEventTime, format);
+				}
+				else if(nextEventTime > i) {
+					for (DC dc : dcs) {
+						dc.elapseJobTimesteps(nextEventTime - i);
+					}
+					
+					//The resource allocation does not change within the skipped timesteps, only the power consumption values that depend on the PUE 
+					//and the energy price are updated. Thus, the monitoring values are the same as for the per-timestep loop.
+					while(i < nextEventTime) {
+						context.setClock(i++);
+						for (DC dc : dcs) {
+							dc.updateQuietTimestep();
+							insertGeneralRecord(dc, generalRecord);
+						}
+						if(context.getClock()%86400 == 0) {
+							System.out.println(format.format(dcs.get(0).getCurrentDate()));
+							dbHandler.commit();
+						}
+					}
+				}
+			}
+		}
+		if(dcPool != null) {
+			dcPool.shutdown();
+			for (DC dc : dcs) {
+				dc.setDeferredRecordBuffer(null);
+			}
+		}
+		context.shutdownOptimizationPool();
+		
+		//Write and commit all remaining records and close the databse
+		dbHandler.close();
+		
+		//Print runtime of the current simulation run to the console
+		System.out.println("Length: " + (((new Date()).getTime() -start)/1000));
+		System.out.println(dcs.get(0).getFinishedJobs().size());
+	}
 
-				//Setup variables that are used for the monitoring database
-				DatabaseRecord cRecord;
-				Object[] values;
-				ColumnType[] generalSimulationSchema = EvaluationTable.getTableSchema(EvaluationTable.GENERAL_EVALUATION_TABLE);
-				ColumnType[] drRequestSchema = EvaluationTable.getTableSchema(EvaluationTable.DR_REQUEST_RECORD_TABLE);
-				
-				dbHandler = new SqLiteDBHandler(Setup.evaluationDatabasePath);
-				for(EvaluationTable eTable : EvaluationTable.values()) {
-					dbHandler.createRecordTables(simStart, simEnd, eTable);
+	/**
+	 * Writes a checkpoint of the simulation after all records of the previous timesteps were written to the results backend.
+	 * @param context Context of the simulation.
+	 * @param nextTimestep Timestep of the simulation loop at which a resumed simulation continues.
+	 */
+	private static void writeCheckpoint(SimulationContext context, int nextTimestep) {
+		context.getResultsBackend().flush();
+		try {
+			SimulationCheckpoint.write(context, nextTimestep, context.getCheckpointFile());
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Simulates the current timestep of a DC (handling of DR requests, scheduling, update of the resource allocation and monitoring).
+	 * The method only accesses the given DC, thus the timesteps of different DCs can be simulated concurrently.
+	 * @param dc DC whose current timestep should be simulated.
+	 * @param generalRecord Record of the general evaluation table that is reused for all timesteps of the DC.
+	 * @param drRequestSchema Schema of the DR request evaluation table.
+	 */
+	private static void simulateTimestep(DC dc, BoundDatabaseRecord generalRecord, ColumnType[] drRequestSchema) {
+		DatabaseRecord cRecord;
+		Object[] values;
+		List<Event> drRequestEvents;
+		double averageRemainingRuntime;
+		double averageNodesPerJob;
+		SchedulingResult result;
+		
+		//If DR request event is scheduled for the current point in simulation time
+		if(dc.getDRRequestEvents(dc.getClock()) != null) {
+			
+			//Ensure that all jobs are scaled back to their original frequency (necessary to handle directly subsequent DR events properly)
+			for(BatchJob job : dc.getRunningJobs()) {
+				if(job.getFrequency() != job.getOriginalFrequency()) {
+					dc.setJobFrequency(job, job.getOriginalFrequency(), dc.getClock());
 				}
-//				dbHandler.createRecordTables(generalSimulationRecordTableName, simStart, simEnd, EvaluationTable.GENERAL_EVALUATION_TABLE);
-//				dbHandler.createRecordTables(drRequestRecordTableName, simStart, simEnd, EvaluationTable.DR_REQUEST_RECORD_TABLE);
+			}
+			dc.updateJobAllocation(false, false);
+			
+			//Get list of scheduled DR request events
+			drRequestEvents = dc.getDRRequestEvents(dc.getClock());
+			
+			//If there is more than one event scheduled
+			if(drRequestEvents.size() > 1) {
+				System.out.println("More than one DR request per timestep!");
+			}
+			
+			//Retrieve DR request parameters from the event
+			double adjustmentHeight = ((DRRequestEvent)drRequestEvents.get(0)).getDRRequest().getAdjustmentHeight();
+			double reward = ((DRRequestEvent)drRequestEvents.get(0)).getDRRequest().getReward();
+			int drLength = ((DRRequestEvent)drRequestEvents.get(0)).getDRRequest().getLength();
+			ReserveProvisionType provisionType = ((DRRequestEvent)drRequestEvents.get(0)).getDRRequest().getProvisionType();
+			
+			//Calculate current workload characteristics
+			averageRemainingRuntime = 0;
+			averageNodesPerJob = 0;
+			for(BatchJob job : dc.getRunningJobs()) {
+				averageRemainingRuntime += job.getRemainingRuntimeInSimulationTime();
+				averageNodesPerJob += job.getAmountOfServers();
+			}
+			averageRemainingRuntime /= dc.getRunningJobs().size();
+			averageNodesPerJob /= dc.getRunningJobs().size();
+			
+			//Get DREventHandler of the DC
+			SimpleDREventHandler handler = (SimpleDREventHandler)dc.getDREventHandler();
+			
+			//Determine optimal configuration of power demand flexibility provision techniques for the reaction to the DR event
+			double[] optimalComb = handler.optimizePowerDemandFlexibilityCost(adjustmentHeight, provisionType, drLength, reward);
 
-				//Used to measure the runtime of a simulation run
-				long start = (new Date()).getTime();
+			//If such a combination was found
+			if(optimalComb[0] != 0 || optimalComb[1] != 0) {
+				handler.setShiftingFraction(optimalComb[0]);
+				handler.setScalingFrequency(optimalComb[1]);
 				
+				result = handler.issueDemandResponseRequest(adjustmentHeight, provisionType, drLength, reward);
+				values = new Object[] {dc.getCurrentDate().getTime(), optimalComb[1], optimalComb[0], result.getActuallyShiftedNodeFraction(), 0.0, averageRemainingRuntime, averageNodesPerJob};
+				cRecord = new DatabaseRecord(drRequestSchema, values);
+				dc.insertRecord(cRecord);
+			}
+			//Otherwise enter some default values to the database (indicates that a DR event was not handled successfully)
+			else {
+				values = new Object[] {dc.getCurrentDate().getTime(), optimalComb[1], optimalComb[0], 0.0, 0.0, averageRemainingRuntime, averageNodesPerJob};
+				cRecord = new DatabaseRecord(drRequestSchema, values);
+				dc.insertRecord(cRecord);
+				dc.scheduleJobs();
+			}
+		}
+		//If no DR events are scheduled for the current point in simulation time
+		else {
+			dc.scheduleJobs();
+		}
 		
-				
-				List<Event> drRequestEvents;
-				double averageRemainingRuntime;
-				double averageNodesPerJob;
-				SchedulingResult result;
-				
-				//Simulation loop
-				while (i < length) {
-					setClock(i++);
-					for (DC dc : dcs) {
-						
-						//If DR request event is scheduled for the current point in simulation time
-						if(dc.getDRRequestEvents(dc.getClock()) != null) {
-							
-							//Ensure that all jobs are scaled back to their original frequency (necessary to handle directly subsequent DR events properly)
-							for(BatchJob job : dc.getRunningJobs()) {
-								if(job.getFrequency() != job.getOriginalFrequency()) {
-									job.setFrequency(job.getOriginalFrequency());
-									for(Server s : job.getAssignedServers()) {
-										dc.scheduleEvent(new ServerEvent(EventType.SERVER_UPDATE, dc.getClock(), s));
-									}
-									dc.rescheduleEvent(job.getFinishEvent(), job.getCalculatedFinishTime());
-								}
-							}
-							dc.updateJobAllocation(false, false);
-							
-							//Get list of scheduled DR request events
-							drRequestEvents = dc.getDRRequestEvents(dc.getClock());
-							
-							//If there is more than one event scheduled
-							if(drRequestEvents.size() > 1) {
-								System.out.println("More than one DR request per timestep!");
-							}
-							
-							//Retrieve DR request parameters from the event
-							double adjustmentHeight = ((DRRequestEvent)drRequestEvents.get(0)).getDRRequest().getAdjustmentHeight();
-							double reward = ((DRRequestEvent)drRequestEvents.get(0)).getDRRequest().getReward();
-							int length = ((DRRequestEvent)drRequestEvents.get(0)).getDRRequest().getLength();
-							ReserveProvisionType provisionType = ((DRRequestEvent)drRequestEvents.get(0)).getDRRequest().getProvisionType();
-							
-							//Calculate current workload characteristics
-							averageRemainingRuntime = 0;
-							averageNodesPerJob = 0;
-							for(BatchJob job : dc.getRunningJobs()) {
-								averageRemainingRuntime += job.getRemainingRuntimeInSimulationTime();
-								averageNodesPerJob += job.getAmountOfServers();
-							}
-							averageRemainingRuntime /= dc.getRunningJobs().size();
-							averageNodesPerJob /= dc.getRunningJobs().size();
-							
-							//Get DREventHandler of the DC
-							SimpleDREventHandler handler = (SimpleDREventHandler)dc.getDREventHandler();
-							
-							//Determine optimal configuration of power demand flexibility provision techniques for the reaction to the DR event
-							double[] optimalComb = handler.optimizePowerDemandFlexibilityCost(adjustmentHeight, provisionType, length, reward);
+		//Update resource allocation of the DC
+		dc.updateJobAllocation(true, true);
+		dc.removeKey();
+		
+		//Enter general monitoring values to the monitoring database
+		insertGeneralRecord(dc, generalRecord);
+	}
 
-							//If such a combination was found
-							if(optimalComb[0] != 0 || optimalComb[1] != 0) {
-								handler.setShiftingFraction(optimalComb[0]);
-								handler.setScalingFrequency(optimalComb[1]);
-								
-								result = handler.issueDemandResponseRequest(adjustmentHeight, provisionType, length, reward);
-								values = new Object[] {dc.getCurrentDate().getTime(), optimalComb[1], optimalComb[0], result.getActuallyShiftedNodeFraction(), 0.0, averageRemainingRuntime, averageNodesPerJob};
-								cRecord = new DatabaseRecord(drRequestSchema, values);
-								dbHandler.insertRecord(cRecord);
-							}
-							//Otherwise enter some default values to the database (indicates that a DR event was not handled successfully)
-							else {
-								values = new Object[] {dc.getCurrentDate().getTime(), optimalComb[1], optimalComb[0], 0.0, 0.0, averageRemainingRuntime, averageNodesPerJob};
-								cRecord = new DatabaseRecord(drRequestSchema, values);
-								dbHandler.insertRecord(cRecord);
-								dc.scheduleJobs();
-							}
-						}
-						//If no DR events are scheduled for the current point in simulation time
-						else {
-							dc.scheduleJobs();
-						}
-						
-						//Update resource allocation of the DC
-						dc.updateJobAllocation(true, true);
-						dc.removeKey();
-						
-						//Enter general monitoring values to the monitoring database
-						values = new Object[] {dc.getCurrentDate().getTime(), dc.getOccupiedServer().size(), dc.getRunningJobs().size(), dc.getOverallCurrentPC()/1000.0, dc.getCurrentITPC()/1000.0, dc.getCurrentHVACPC()/1000.0, dc.getCurrentJobPC()/1000.0, dc.getEnergyCostOfCurrentTimestep(), dc.getSLACostOfCurrentTimestep()};
-						cRecord = new DatabaseRecord(generalSimulationSchema, values);
-						dbHandler.insertRecord(cRecord);
-					}
-					
-					//Print the current date for each day in real time and perform commit on the database
-					if(clock%86400 == 0) {
-						System.out.println(format.format(dcs.get(0).getCurrentDate()));
-						dbHandler.commit();
+	/**
+	 * Simulates a sequence of timesteps in which no event is scheduled and the scheduler is not called in any DC. As the DCs do not interact
+	 * within such a sequence, each DC simulates a chunk of the timesteps on its own worker thread and the DCs are only synchronized at the end of each chunk.
+	 * Afterwards, the buffered records are inserted in the same order as in the sequential simulation (timestep by timestep, DC by DC).
+	 * The chunks end at the start of each day at the latest, thus the database commits are performed at the same points in simulation time as in
+	 * the sequential simulation.
+	 * @param context Context of the simulation.
+	 * @param dcPool Worker threads that simulate the DCs.
+	 * @param dcGeneralRecords Record of the general evaluation table that is reused by each DC.
+	 * @param first First timestep of the sequence.
+	 * @param nextEventTime Next point in simulation time at which an event is scheduled or the scheduler is called in any DC (exclusive end of the sequence).
+	 * @param format Format that is used to print the current date.
+	 * @return Next timestep that has to be simulated.
+	 */
+	private static int simulateQuietTimestepsInParallel(SimulationContext context, ExecutorService dcPool, BoundDatabaseRecord[] dcGeneralRecords, int first, int nextEventTime, SimpleDateFormat format) {
+		List<DC> dcs = context.getDcs();
+		ResultsBackend dbHandler = context.getResultsBackend();
+		final int skippedTimesteps = nextEventTime - first;
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (final DC dc : dcs) {
+			tasks.add(() -> {
+				dc.elapseJobTimesteps(skippedTimesteps);
+				return null;
+			});
+		}
+		invokeAll(dcPool, tasks);
+		
+		int i = first;
+		while(i < nextEventTime) {
+			int nextDay = ((i + 86399)/86400)*86400;
+			final int chunkLength = Math.min(Math.min(nextEventTime, i + QUIET_TIMESTEP_CHUNK_LENGTH), nextDay + 1) - i;
+			
+			tasks.clear();
+			for(int k=0; k < dcs.size(); k++) {
+				final DC dc = dcs.get(k);
+				final BoundDatabaseRecord dcGeneralRecord = dcGeneralRecords[k];
+				tasks.add(() -> {
+					for(int step=0; step < chunkLength; step++) {
+						dc.updateQuietTimestep();
+						insertGeneralRecord(dc, dcGeneralRecord);
 					}
-//					setClock(i++);
+					return null;
+				});
+			}
+			invokeAll(dcPool, tasks);
+			
+			for(int step=0; step < chunkLength; step++) {
+				for (DC dc : dcs) {
+					dbHandler.insertRecord(dc.getDeferredRecordBuffer().getBoundRecord(step));
 				}
-				//Commit last uncommited changes on the databse
+			}
+			for (DC dc : dcs) {
+				dc.getDeferredRecordBuffer().clear();
+			}
+			
+			i += chunkLength;
+			context.setClock(i-1);
+			if(context.getClock()%86400 == 0) {
+				System.out.println(format.format(dcs.get(0).getCurrentDate()));
 				dbHandler.commit();
-				
-				//Print runtime of the current simulation run to the console
-				System.out.println("Length: " + (((new Date()).getTime() -start)/1000));
-				System.out.println(dcs.get(0).getFinishedJobs().size());
-				setSimulatorIsRunning(false);
 			}
-		};
+		}
+		return i;
+	}
+
+	/**
+	 * Executes the given tasks on the worker threads and waits until all of them are finished.
+	 * @param dcPool Worker threads that simulate the DCs.
+	 * @param tasks Tasks that should be executed.
+	 */
+	private static void invokeAll(ExecutorService dcPool, List<Callable<Void>> tasks) {
+		try {
+			List<Future<Void>> futures = dcPool.invokeAll(tasks);
+			for(Future<Void> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Enters the general monitoring values of the current timestep of a DC to the monitoring database.
+	 * @param dc DC for which the monitoring values should be entered.
+	 * @param generalRecord Record of the general evaluation table that is reused for all timesteps.
+	 */
+	private static void insertGeneralRecord(DC dc, BoundDatabaseRecord generalRecord) {
+		generalRecord.setLong(ColumnType.TIMESTAMP, dc.getCurrentTimeInMillis());
+		generalRecord.setInt(ColumnType.NUMBER_OF_ACTIVE_NODES, dc.getOccupiedServer().size());
+		generalRecord.setInt(ColumnType.NUMBER_OF_RUNNING_JOBS, dc.getRunningJobs().size());
+		generalRecord.setDouble(ColumnType.TOTAL_EC, dc.getOverallCurrentPC()/1000.0);
+		generalRecord.setDouble(ColumnType.IT_POWER, dc.getCurrentITPC()/1000.0);
+		generalRecord.setDouble(ColumnType.HVAC_EC, dc.getCurrentHVACPC()/1000.0);
+		generalRecord.setDouble(ColumnType.JOB_POWER, dc.getCurrentJobPC()/1000.0);
+		generalRecord.setDouble(ColumnType.ENERGY_COST, dc.getEnergyCostOfCurrentTimestep());
+		generalRecord.setDouble(ColumnType.SLA_COST, dc.getSLACostOfCurrentTimestep());
+		dc.insertRecord(generalRecord);
 	}
 
 	/**
@@ -271,22 +496,22 @@ public class DCSimCore {
 	}
 
 	/**
-	 * @param federations2
+	 * @return Context of the simulation that is performed by the simulation thread (null if no simulation was started).
 	 */
-	private static void setFederations(List<DCFederation> federations2) {
-		federations = federations2;
+	public static SimulationContext getContext() {
+		return context;
 	}
 
 	/**
 	 * @return
 	 */
 	public static List<DCFederation> getFederations() {
-		return federations;
+		return context.getFederations();
 	}
 
 	public static DCFederation getFederationOfDC(int dcID) {
 		DCFederation theFederation = null;
-		for (DCFederation fed : federations) {
+		for (DCFederation fed : context.getFederations()) {
 			for (DC dc : fed.getDcs()) {
 				if (dc.getId() == dcID) {
 					theFederation = fed;
@@ -300,13 +525,11 @@ public class DCSimCore {
 		return theFederation;
 	}
 
-	@SuppressWarnings("static-access")
-	public static void setClock(int clock2) {
-		clock = clock2;
-	}
-
 	public static int getClock() {
-		return clock;
+		if(context == null) {
+			return 0;
+		}
+		return context.getClock();
 	}
 
 	public static void setHistoricalNumberOfElements(
@@ -327,15 +550,19 @@ public class DCSimCore {
 	}
 
 	public static void setLength(int newLength) {
-		length = newLength;
+		if(context != null) {
+			context.setLength(newLength);
+		}
 	}
 
 	public static void setSimStartTime(Calendar simStartTime) {
-		DCSimCore.simStartTime = simStartTime;
+		if(context != null) {
+			context.setSimStartTime(simStartTime);
+		}
 	}
 
 	public static Calendar getSimStartTime() {
-		return simStartTime;
+		return context.getSimStartTime();
 	}
 
 	public static void setSimulatorIsRunning(boolean simulatorIsRunning) {
@@ -347,13 +574,11 @@ public class DCSimCore {
 	}
 	
 	public static Date getCurrentDate() {
-		Date currentTime = DCSimCore.simStartTime.getTime();
-		currentTime.setTime(currentTime.getTime()+(DCSimCore.clock*1000));
-		return currentTime;
+		return context.getCurrentDate();
 	}
 	
-	public static SqLiteDBHandler getDBHandler() {
-		return DCSimCore.dbHandler;
+	public static ResultsBackend getDBHandler() {
+		return context.getResultsBackend();
 	}
 
 }
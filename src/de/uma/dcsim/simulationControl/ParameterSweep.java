@@ -0,0 +1,271 @@
+package de.uma.dcsim.simulationControl;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.uma.dcsim.database.ResultsBackendType;
+import de.uma.dcsim.scheduling.schedulingStrategies.SchedulingStrategyType;
+
+/**
+ * This class performs a parameter sweep within a single JVM. The base configuration (including the workload, energy price and PUE traces)
+ * is parsed only once. Afterwards, one scenario is created for each combination of the configured parameter values and the scenarios
+ * are simulated concurrently on a bounded thread pool. Each scenario has its own SimulationContext and writes its results into its own
+ * results store (scenario_<index> within the results directory).
+ * @author nilsw
+ *
+ */
+public class ParameterSweep {
+
+	private Setup setup;
+
+	/**
+	 * Directory in which the results stores of the scenarios are placed.
+	 */
+	private String resultsDirectory;
+
+	/**
+	 * Amount of scenarios that are simulated concurrently.
+	 */
+	private int parallelism;
+
+	private List<SchedulingStrategyType> schedulingStrategyTypes;
+
+	private List<Double> usagePrices;
+
+	private List<Integer> schedulingIntervals;
+
+	private List<Integer> solverTimeouts;
+
+	private List<String> drEventTraceFiles;
+
+	/**
+	 * Checkpoint from which all scenarios are started (null if the scenarios are simulated from the beginning or from the checkpoint of the base configuration).
+	 */
+	private String baseCheckpoint;
+
+	/**
+	 * Creates a parameter sweep whose scenarios are based on the passed configuration.
+	 * @param baseConfiguration Configuration file that contains the base configuration of all scenarios.
+	 * @param resultsDirectory Directory in which the results stores of the scenarios are placed.
+	 * @param parallelism Amount of scenarios that are simulated concurrently.
+	 */
+	public ParameterSweep(InputStream baseConfiguration, String resultsDirectory, int parallelism) {
+		this.setup = new Setup();
+		this.setup.readSweepBase(baseConfiguration);
+		this.resultsDirectory = resultsDirectory;
+		this.parallelism = Math.max(1, parallelism);
+		this.schedulingStrategyTypes = Collections.emptyList();
+		this.usagePrices = Collections.emptyList();
+		this.schedulingIntervals = Collections.emptyList();
+		this.solverTimeouts = Collections.emptyList();
+		this.drEventTraceFiles = Collections.emptyList();
+	}
+
+	/**
+	 * Creates the scenarios of the sweep, i.e., all combinations of the configured parameter values. Parameters for which no values are
+	 * configured keep the value of the base configuration.
+	 * @return List of all scenarios of the sweep.
+	 */
+	public List<SweepScenario> createScenarios() {
+		List<SweepScenario> scenarios = new ArrayList<SweepScenario>();
+		for(SchedulingStrategyType schedulingStrategyType : ParameterSweep.valuesOrBase(this.schedulingStrategyTypes)) {
+			for(Double usagePrice : ParameterSweep.valuesOrBase(this.usagePrices)) {
+				for(Integer schedulingInterval : ParameterSweep.valuesOrBase(this.schedulingIntervals)) {
+					for(Integer solverTimeout : ParameterSweep.valuesOrBase(this.solverTimeouts)) {
+						for(String drEventTraceFile : ParameterSweep.valuesOrBase(this.drEventTraceFiles)) {
+							scenarios.add(new SweepScenario(schedulingStrategyType, usagePrice, schedulingInterval, solverTimeout, drEventTraceFile));
+						}
+					}
+				}
+			}
+		}
+		return scenarios;
+	}
+
+	/**
+	 * Simulates all scenarios of the sweep.
+	 * @return Throughput of the sweep in scenarios per hour (wall clock time).
+	 */
+	public double run() {
+		List<SweepScenario> scenarios = this.createScenarios();
+		new File(this.resultsDirectory).mkdirs();
+
+		long sweepStart = System.currentTimeMillis();
+		ExecutorService scenarioPool = Executors.newFixedThreadPool(Math.min(this.parallelism, scenarios.size()));
+		try {
+			List<Future<Void>> results = new ArrayList<Future<Void>>();
+			for(int i=0; i < scenarios.size(); i++) {
+				final SweepScenario scenario = scenarios.get(i);
+				final String evaluationDatabasePath = this.getEvaluationDatabasePath(i);
+				results.add(scenarioPool.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						SimulationContext context = setup.createScenarioContext(scenario, evaluationDatabasePath);
+						if(baseCheckpoint != null) {
+							context.setResumeCheckpointFile(baseCheckpoint);
+						}
+						//Each scenario writes its checkpoints next to its results store
+						if(context.getCheckpointInterval() > 0) {
+							context.setCheckpointFile(evaluationDatabasePath + ".checkpoint");
+						}
+						long scenarioStart = System.currentTimeMillis();
+						DCSimCore.simulate(context);
+						System.out.println("Scenario " + scenario + " finished in " + (System.currentTimeMillis() - scenarioStart) + " ms (" + evaluationDatabasePath + ")");
+						return null;
+					}
+				}));
+			}
+			for(Future<Void> result : results) {
+				result.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			scenarioPool.shutdownNow();
+		}
+
+		double elapsedHours = (double)(System.currentTimeMillis() - sweepStart)/3600000.0;
+		double scenariosPerHour = (double)scenarios.size()/elapsedHours;
+		System.out.println("Simulated " + scenarios.size() + " scenarios with " + this.parallelism + " threads. Scenarios per hour: " + scenariosPerHour);
+		return scenariosPerHour;
+	}
+
+	/**
+	 * Determines the path of the results store of a scenario.
+	 * @param scenarioIndex Index of the scenario in the list of scenarios.
+	 * @return Path of the results store.
+	 */
+	private String getEvaluationDatabasePath(int scenarioIndex) {
+		String path = new File(this.resultsDirectory, "scenario_" + scenarioIndex).getPath();
+		if(Setup.resultsBackend == ResultsBackendType.SQLITE) {
+			path += ".db";
+		}
+		return path;
+	}
+
+	private static <T> List<T> valuesOrBase(List<T> values) {
+		if(values.isEmpty()) {
+			return Collections.singletonList(null);
+		}
+		return values;
+	}
+
+	public void setSchedulingStrategyTypes(List<SchedulingStrategyType> schedulingStrategyTypes) {
+		this.schedulingStrategyTypes = schedulingStrategyTypes;
+	}
+
+	public void setUsagePrices(List<Double> usagePrices) {
+		this.usagePrices = usagePrices;
+	}
+
+	public void setSchedulingIntervals(List<Integer> schedulingIntervals) {
+		this.schedulingIntervals = schedulingIntervals;
+	}
+
+	public void setSolverTimeouts(List<Integer> solverTimeouts) {
+		this.solverTimeouts = solverTimeouts;
+	}
+
+	public void setDrEventTraceFiles(List<String> drEventTraceFiles) {
+		this.drEventTraceFiles = drEventTraceFiles;
+	}
+
+	/**
+	 * Sets a checkpoint from which all scenarios are started. The checkpoint has to be written by a simulation of the base configuration.
+	 * The results stores of the scenarios only contain the records of the timesteps after the checkpoint.
+	 * @param baseCheckpoint Path of the checkpoint file.
+	 */
+	public void setBaseCheckpoint(String baseCheckpoint) {
+		this.baseCheckpoint = baseCheckpoint;
+	}
+
+	/**
+	 * Sets the values of one parameter of the sweep from an argument in the form Parameter=value1,value2,... (parameters:
+	 * SchedulingStrategy, UsagePrice, SchedulingInterval, SolverTimeout, DREventTraceFile) or sets the base checkpoint through
+	 * BaseCheckpoint=path. The scenarios are all combinations of the values of the parameters (see createScenarios).
+	 * @param argument Argument that contains the parameter and its values.
+	 */
+	public void parseArgument(String argument) {
+		String[] split = argument.split("=", 2);
+		String[] values = split[1].split(",");
+		switch(split[0].trim().toLowerCase()) {
+		case "schedulingstrategy":
+			List<SchedulingStrategyType> schedulingStrategyTypes = new ArrayList<SchedulingStrategyType>();
+			for(String value : values) {
+				schedulingStrategyTypes.add(SchedulingStrategyType.parseFromString(value.trim()));
+			}
+			this.setSchedulingStrategyTypes(schedulingStrategyTypes);
+			break;
+		case "usageprice":
+			List<Double> usagePrices = new ArrayList<Double>();
+			for(String value : values) {
+				usagePrices.add(Double.parseDouble(value.trim()));
+			}
+			this.setUsagePrices(usagePrices);
+			break;
+		case "schedulinginterval":
+			List<Integer> schedulingIntervals = new ArrayList<Integer>();
+			for(String value : values) {
+				schedulingIntervals.add(Integer.parseInt(value.trim()));
+			}
+			this.setSchedulingIntervals(schedulingIntervals);
+			break;
+		case "solvertimeout":
+			List<Integer> solverTimeouts = new ArrayList<Integer>();
+			for(String value : values) {
+				solverTimeouts.add(Integer.parseInt(value.trim()));
+			}
+			this.setSolverTimeouts(solverTimeouts);
+			break;
+		case "basecheckpoint":
+			this.setBaseCheckpoint(split[1].trim());
+			break;
+		case "dreventtracefile":
+			List<String> drEventTraceFiles = new ArrayList<String>();
+			for(String value : values) {
+				drEventTraceFiles.add(value.trim());
+			}
+			this.setDrEventTraceFiles(drEventTraceFiles);
+			break;
+		default:
+			System.out.println("Unknown sweep parameter: " + split[0]);
+			break;
+		}
+	}
+
+	/**
+	 * Entry point for parameter sweeps. Expected arguments: the base configuration file, the results directory, the amount of scenarios
+	 * that are simulated concurrently and any number of parameter ranges in the form Parameter=value1,value2,... (see parseArgument).
+	 */
+	public static void main(String[] args) {
+		if(args.length < 3) {
+			System.out.println("Usage: ParameterSweep <base configuration> <results directory> <parallelism> [Parameter=value1,value2,...]");
+			System.exit(0);
+		}
+		try {
+			InputStream in = new BufferedInputStream(new FileInputStream(args[0]));
+			ParameterSweep sweep = new ParameterSweep(in, args[1], Integer.parseInt(args[2]));
+			for(int i=3; i < args.length; i++) {
+				sweep.parseArgument(args[i]);
+			}
+			sweep.run();
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+		}
+	}
+
+}
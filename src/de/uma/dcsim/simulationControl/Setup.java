@@ -24,8 +24,11 @@ import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.TimeZone;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -36,6 +39,7 @@ import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
+import de.uma.dcsim.database.ResultsBackendType;
 import de.uma.dcsim.energyPriceModels.EnergyPriceModelSelector;
 import de.uma.dcsim.eventHandling.DRRequestEvent;
 import de.uma.dcsim.eventHandling.EventType;
@@ -45,16 +49,14 @@ import de.uma.dcsim.hardware.HVAC;
 import de.uma.dcsim.hardware.Server;
 import de.uma.dcsim.pueModels.PUEModelSelector;
 import de.uma.dcsim.scheduling.schedulingStrategies.SchedulingStrategyType;
-import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.SchedulingStrategyUtilities;
 import de.uma.dcsim.serviceRelatedClasses.VM;
-import de.uma.dcsim.utilities.BatchJob;
 import de.uma.dcsim.utilities.BatchJobParser;
 import de.uma.dcsim.utilities.DRRequest;
 import de.uma.dcsim.utilities.DRRequestParser;
 import de.uma.dcsim.utilities.EnergyPrice;
-import de.uma.dcsim.utilities.EnergyPriceParser;
 import de.uma.dcsim.utilities.PUE;
-import de.uma.dcsim.utilities.PUEParser;
+import de.uma.dcsim.utilities.PowerConsumptionHistory;
+import de.uma.dcsim.utilities.WorkloadSource;
 
 /**
  * 
@@ -68,6 +70,22 @@ public class Setup {
 	 */
 	private int simLength;
 
+	/**
+	 * Configuration document of a parameter sweep, from which the DCs of the individual scenarios are created.
+	 */
+	private Document sweepBaseDocument;
+
+	/**
+	 * Traces of a parameter sweep. The jobs of the workload trace are never simulated themselves, every DC of every scenario
+	 * receives deep copies of them or streams its own instances from the binary cache of the workload trace.
+	 */
+	private SimulationTraces sweepBaseTraces;
+
+	/**
+	 * Parsed DR event traces of a parameter sweep, indexed by the path of the trace file.
+	 */
+	private Map<String, List<DRRequest>> drRequestsByTraceFile;
+
 	/**
 	 * List of all servers in the DC.
 	 */
@@ -98,6 +116,11 @@ public class Setup {
 	 */
 	private String drEventTraceFile;
 
+	/**
+	 * Context of the simulation that is specified in the configuration.
+	 */
+	private SimulationContext context;
+
 	/**
 	 * Configured length of the scheduling interval.
 	 */
@@ -120,15 +143,105 @@ public class Setup {
 	public static boolean superMUCMode = true;
 
 	/**
-	 * Maximum job runtime that occurs in the workload trace.
+	 * Indicates whether the simulation loop skips timesteps in which no events are scheduled (next-event time advance).
+	 */
+	public static boolean nextEventTimeAdvance = false;
+
+	/**
+	 * Indicates whether power changes of the servers are propagated through one SERVER_UPDATE event per server instead of one power delta per job.
+	 * The per-server propagation is slower and only kept to validate the accounting per job.
 	 */
-	public static int maximumRuntime;
+	public static boolean serverPowerEvents = false;
 
 	/**
-	 * Timeout of the linear solver that is used in the scheduling process.
+	 * Timeout of the linear solver that is used in the scheduling process (in seconds of wall-clock time, 0 disables the timeout).
+	 * As the timeout does not depend on the simulation, solves that are aborted by it are not reproducible. In particular, the parallel
+	 * DR optimization (see drOptimizationParallelism) only yields the same result as the serial search if no solve reaches the timeout,
+	 * which is more likely when several solves compete for the CPU. Use a timeout of 0 if reproducible results are required.
 	 */
 	public static int solverTimeout = 10;
 
+	/**
+	 * Amount of threads that are used to test the combinations of shifting fraction and scaling frequency
+	 * during the optimization of a DR event response (1 means that the combinations are tested serially). The parallel search yields the same
+	 * result as the serial search, unless the linear solver reaches its timeout (see solverTimeout).
+	 */
+	public static int drOptimizationParallelism = 1;
+
+	/**
+	 * Amount of threads that are used to simulate the DCs of a multi-DC setup concurrently (1 means that the DCs are simulated one after another).
+	 * The DCs are synchronized after each timestep, or after each sequence of quiet timesteps when next-event time advance is used.
+	 */
+	public static int dcParallelism = 1;
+
+	/**
+	 * Indicates whether the monitoring records are written to the database by a background thread (off by default, enabled with
+	 * <AsynchronousDatabaseWriter>on</AsynchronousDatabaseWriter>).
+	 */
+	public static boolean asynchronousDatabaseWriter = false;
+
+	/**
+	 * Maximum amount of monitoring records that are buffered for the background thread that writes them to the database.
+	 */
+	public static int databaseWriterBufferSize = 65536;
+
+	/**
+	 * Amount of monitoring records that are written to the database within one JDBC batch.
+	 */
+	public static int databaseWriterBatchSize = 4096;
+
+	/**
+	 * Amount of monitoring records after which the background writer performs a commit (0 means that commits are only performed once per simulated day).
+	 */
+	public static int databaseWriterCommitInterval = 0;
+
+	/**
+	 * Backend in which the monitoring values are stored (SQLite database or columnar store).
+	 */
+	public static ResultsBackendType resultsBackend = ResultsBackendType.SQLITE;
+
+	/**
+	 * Interval (in simulation time) in which the state of the simulation is written to the checkpoint file (0 means that no checkpoints are written).
+	 */
+	public static int checkpointInterval = 0;
+
+	/**
+	 * Path of the file to which the checkpoints of the simulation are written.
+	 */
+	public static String checkpointFile;
+
+	/**
+	 * Path of the checkpoint from which the simulation is resumed (null if the simulation is started from the beginning).
+	 */
+	public static String resumeCheckpointFile;
+
+	/**
+	 * Determines whether parsed workload traces are cached in binary files next to the trace files (see BatchJobTraceCache).
+	 */
+	public static boolean jobTraceCache = true;
+
+	/**
+	 * Maximum amount of threads that parse the chunks of one trace file concurrently (see ParallelCsvReader).
+	 */
+	public static int traceParserParallelism = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Determines whether the DCs stream their jobs from the binary cache of the workload trace instead of parsing the complete trace into memory
+	 * (requires jobTraceCache, see WorkloadSource).
+	 */
+	public static boolean streamingWorkload = true;
+
+	/**
+	 * Length of the window (in scheduling intervals) within which a DC pulls the jobs from its workload source ahead of its clock.
+	 */
+	public static int workloadLookAheadIntervals = 2;
+
+	/**
+	 * Amount of timesteps for which a DC retains its history of power consumption values, which is used to calculate the energy costs within intervals
+	 * (see DC.getCostsInSpecifiedInterval). If negative, the maximum job runtime of the workload is used. Copies of a DC always retain their complete history.
+	 */
+	public static int powerHistoryRetention = -1;
+
 	/**
 	 * Path at which the databse that contains the monitoring values should be
 	 * placed.
@@ -206,6 +319,88 @@ public class Setup {
 		}
 	}
 
+	/**
+	 * Reads the base configuration of a parameter sweep from the passed input stream. In contrast to readDC, no DCs are created.
+	 * The workload, energy price and PUE traces are parsed only once and shared by all scenarios that are created by createScenarioContext.
+	 * 
+	 * @param file
+	 *            Configuration file that should be parsed.
+	 */
+	public void readSweepBase(final InputStream file) {
+		try {
+			DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
+			DocumentBuilder docBuilder = docBuilderFactory.newDocumentBuilder();
+			this.sweepBaseDocument = docBuilder.parse(file);
+			this.readGeneralConfiguration(this.sweepBaseDocument);
+			file.close();
+
+			this.context = new SimulationContext();
+			this.context.setLength(this.simLength);
+			this.context.setSimStartTime(this.c);
+
+			//The traces are loaded concurrently
+			SimulationTraces traces = SimulationTraces.load(this.workloadTraceFile, Setup.energyPriceTraceFile, Setup.pueTraceFile, this.drEventTraceFile, this.c.getTime());
+			this.sweepBaseTraces = traces;
+			this.context.setSecondsPerSimulationTimestep(Setup.secondsPerSimulationTimestep);
+			BatchJobParser.applyStatistics(traces.getWorkloadStatistics(), this.context);
+
+			this.context.setEnergyPriceModel(EnergyPriceModelSelector.createEnergyPriceModel((ArrayList<EnergyPrice>)traces.getEnergyPrices()));
+			this.context.setPUEModel(PUEModelSelector.createPUEModel((ArrayList<PUE>)traces.getPues()));
+
+			this.drRequestsByTraceFile = new HashMap<String, List<DRRequest>>();
+			if(traces.getDrRequests() != null) {
+				this.drRequestsByTraceFile.put(this.drEventTraceFile, Collections.unmodifiableList(traces.getDrRequests()));
+			}
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Creates the context of one scenario of a parameter sweep, whose base configuration was read by readSweepBase.
+	 * The scenario shares the models of the base configuration, but all DCs and jobs are created for it exclusively.
+	 * The method is synchronized, as the configuration document is not thread-safe.
+	 * 
+	 * @param scenario
+	 *            Scenario whose parameter values override the ones of the base configuration.
+	 * @param evaluationDatabasePath
+	 *            Path at which the results of the scenario are stored.
+	 * @return Context of the scenario, which can be simulated by DCSimCore.simulate.
+	 */
+	public synchronized SimulationContext createScenarioContext(SweepScenario scenario, String evaluationDatabasePath) throws Exception {
+		SimulationContext scenarioContext = new SimulationContext(this.context);
+		scenario.applyTo(scenarioContext);
+		scenarioContext.setEvaluationDatabasePath(evaluationDatabasePath);
+
+		String drTraceFile = this.drEventTraceFile;
+		if(scenario.getDrEventTraceFile() != null) {
+			drTraceFile = scenario.getDrEventTraceFile();
+		}
+		List<DRRequest> drRequests = this.drRequestsByTraceFile.get(drTraceFile);
+		if(drRequests == null) {
+			DRRequestParser drRequestParser = new DRRequestParser();
+			drRequests = Collections.unmodifiableList(drRequestParser.parseDRRequestFile(drTraceFile, this.c.getTime()));
+			this.drRequestsByTraceFile.put(drTraceFile, drRequests);
+		}
+
+		DCFederation fed = new DCFederation();
+		List<DC> scenarioDCs = new ArrayList<DC>();
+		NodeList listOfDatacentres = this.sweepBaseDocument.getElementsByTagName("DataCentre");
+		for (int s = 0; s < listOfDatacentres.getLength(); s++) {
+			Node dc = listOfDatacentres.item(s);
+			if (dc.getNodeType() == Node.ELEMENT_NODE) {
+				DC scenarioDC = this.createDC((Element) dc, s, scenarioContext, this.sweepBaseTraces.createWorkloadSource(true), drRequests);
+				scenarioDCs.add(scenarioDC);
+				fed.addDC(scenarioDC);
+			}
+		}
+		List<DCFederation> federations = new ArrayList<DCFederation>();
+		federations.add(fed);
+		scenarioContext.setDcs(scenarioDCs);
+		scenarioContext.setFederations(federations);
+		return scenarioContext;
+	}
+
 	public List<String> readDCNamesOnly(final InputStream file) {
 		ArrayList<String> dcNames = new ArrayList<String>();
 		try {
@@ -253,6 +448,10 @@ public class Setup {
 		return dcFederations;
 	}
 
+	public SimulationContext getContext() {
+		return context;
+	}
+
 	private void setSimLength(int simLength) {
 		this.simLength = simLength;
 		Setup.length = simLength;
@@ -267,6 +466,76 @@ public class Setup {
 	}
 
 	private void readDC(final Document doc) throws Exception {
+		this.readGeneralConfiguration(doc);
+
+//		NodeList histTimeList = doc.getElementsByTagName("HistoricalTimeFrame");
+//		histTime = Integer.parseInt(((Node) (((Element) histTimeList.item(0))
+//				.getChildNodes()).item(0)).getNodeValue().trim());
+//
+//		NodeList histElemList = doc
+//				.getElementsByTagName("HistoricalNumberOfElements");
+//		histElem = Integer.parseInt(((Node) (((Element) histElemList.item(0))
+//				.getChildNodes()).item(0)).getNodeValue().trim());
+
+//		NodeList listOfDatacentreFederations = doc
+//				.getElementsByTagName("DataCentreFederation");
+
+//		for (int f = 0; f < listOfDatacentreFederations.getLength(); f++) {
+//			Node federation = listOfDatacentreFederations.item(f);
+//			if (federation.getNodeType() == Node.ELEMENT_NODE) {
+				//The context is created after all general configuration values are parsed, the DCs of the configuration belong to it
+				this.context = new SimulationContext();
+				this.context.setLength(this.simLength);
+				this.context.setSimStartTime(this.c);
+				DCFederation fed = new DCFederation();
+//				Element fElement = (Element) federation;
+				NodeList listOfDatacentres = doc
+						.getElementsByTagName("DataCentre");
+				List<DC> dcsOfFed= new ArrayList<DC>();
+				
+				//The traces are loaded concurrently and only once, all DCs use the same traces
+				SimulationTraces traces = SimulationTraces.load(this.workloadTraceFile, Setup.energyPriceTraceFile, Setup.pueTraceFile, this.drEventTraceFile, this.c.getTime());
+				this.context.setSecondsPerSimulationTimestep(Setup.secondsPerSimulationTimestep);
+				BatchJobParser.applyStatistics(traces.getWorkloadStatistics(), this.context);
+				this.context.setEnergyPriceModel(EnergyPriceModelSelector.createEnergyPriceModel((ArrayList<EnergyPrice>)traces.getEnergyPrices()));
+				this.context.setPUEModel(PUEModelSelector.createPUEModel((ArrayList<PUE>)traces.getPues()));
+				List<DRRequest> drRequests = traces.getDrRequests();
+				boolean firstDC = true;
+				
+				for (int s = 0; s < listOfDatacentres.getLength(); s++) {
+					Node dc = listOfDatacentres.item(s);
+					if (dc.getNodeType() == Node.ELEMENT_NODE) {
+						
+						//--JOBS--
+						//Each DC simulates its own instances of the jobs
+						WorkloadSource workloadSource = traces.createWorkloadSource(!firstDC);
+						firstDC = false;
+						
+//						DC dc2 = new DC(pue, name, s, hosts, services, hvacInDC,
+//								esfs, this.pricing, this.histElem, this.c, (int) this.schedulingInterval);
+						DC dc2 = this.createDC((Element) dc, s, this.context, workloadSource, drRequests);
+//						System.out.println("DC SETUPT");
+//						System.out.println(dc2.getName());
+						dcs.add(dc2);
+						dcsOfFed.add(dc2);
+
+					}
+				}
+				for (DC dc : dcsOfFed){
+					fed.addDC(dc);
+				}
+				dcFederations.add(fed); 
+				this.context.setDcs(dcs);
+				this.context.setFederations(dcFederations);
+	}
+
+	/**
+	 * Parses the general configuration values (scheduling, trace files, simulation start time and length) from the passed document.
+	 * 
+	 * @param doc
+	 *            Configuration document that should be parsed.
+	 */
+	private void readGeneralConfiguration(final Document doc) throws Exception {
 		doc.getDocumentElement().normalize();
 		NodeList schedulingIntervalList = doc
 				.getElementsByTagName("SchedulingInterval");
@@ -292,6 +561,18 @@ public class Setup {
 			Setup.superMUCMode = false;
 		}
 		
+		NodeList nextEventTimeAdvance = doc.getElementsByTagName("NextEventTimeAdvance");
+		if(nextEventTimeAdvance != null && nextEventTimeAdvance.getLength() > 0) {
+			String advanceMode = ((Node) (((Element) nextEventTimeAdvance.item(0)).getChildNodes()).item(0)).getNodeValue().trim();
+			Setup.nextEventTimeAdvance = advanceMode.toLowerCase().equals("on");
+		}
+		
+		NodeList serverPowerEvents = doc.getElementsByTagName("ServerPowerEvents");
+		if(serverPowerEvents != null && serverPowerEvents.getLength() > 0) {
+			String powerEventMode = ((Node) (((Element) serverPowerEvents.item(0)).getChildNodes()).item(0)).getNodeValue().trim();
+			Setup.serverPowerEvents = powerEventMode.toLowerCase().equals("on");
+		}
+		
 		NodeList usagePrice = doc.getElementsByTagName("UsagePrice");
 		if(usagePrice != null && usagePrice.getLength() > 0) {
 			Setup.usagePrice = Double.parseDouble(((Node) (((Element) usagePrice.item(0)).getChildNodes()).item(0)).getNodeValue().trim());
@@ -310,6 +591,91 @@ public class Setup {
 		NodeList solverTimeout = doc.getElementsByTagName("SolverTimeout");
 		Setup.solverTimeout = Integer.parseInt(((Node) (((Element) solverTimeout.item(0)).getChildNodes()).item(0)).getNodeValue().trim());
 		
+		NodeList drOptimizationParallelism = doc.getElementsByTagName("DROptimizationParallelism");
+		if(drOptimizationParallelism != null && drOptimizationParallelism.getLength() > 0) {
+			Setup.drOptimizationParallelism = Integer.parseInt(((Node) (((Element) drOptimizationParallelism.item(0)).getChildNodes()).item(0)).getNodeValue().trim());
+		}
+		if(Setup.drOptimizationParallelism > 1 && Setup.solverTimeout > 0) {
+			System.out.println("Warning: the DR optimization runs in parallel with a solver timeout of " + Setup.solverTimeout + " seconds, results are only reproducible if no solve reaches the timeout.");
+		}
+
+		NodeList dcParallelism = doc.getElementsByTagName("DCParallelism");
+		if(dcParallelism != null && dcParallelism.getLength() > 0) {
+			Setup.dcParallelism = Integer.parseInt(((Node) (((Element) dcParallelism.item(0)).getChildNodes()).item(0)).getNodeValue().trim());
+		}
+
+		NodeList asynchronousDatabaseWriter = doc.getElementsByTagName("AsynchronousDatabaseWriter");
+		if(asynchronousDatabaseWriter != null && asynchronousDatabaseWriter.getLength() > 0) {
+			String writerMode = ((Node) (((Element) asynchronousDatabaseWriter.item(0)).getChildNodes()).item(0)).getNodeValue().trim();
+			Setup.asynchronousDatabaseWriter = writerMode.toLowerCase().equals("on");
+		}
+
+		NodeList databaseWriterBufferSize = doc.getElementsByTagName("DatabaseWriterBufferSize");
+		if(databaseWriterBufferSize != null && databaseWriterBufferSize.getLength() > 0) {
+			Setup.databaseWriterBufferSize = Integer.parseInt(((Node) (((Element) databaseWriterBufferSize.item(0)).getChildNodes()).item(0)).getNodeValue().trim());
+		}
+
+		NodeList databaseWriterBatchSize = doc.getElementsByTagName("DatabaseWriterBatchSize");
+		if(databaseWriterBatchSize != null && databaseWriterBatchSize.getLength() > 0) {
+			Setup.databaseWriterBatchSize = Integer.parseInt(((Node) (((Element) databaseWriterBatchSize.item(0)).getChildNodes()).item(0)).getNodeValue().trim());
+		}
+
+		NodeList databaseWriterCommitInterval = doc.getElementsByTagName("DatabaseWriterCommitInterval");
+		if(databaseWriterCommitInterval != null && databaseWriterCommitInterval.getLength() > 0) {
+			Setup.databaseWriterCommitInterval = Integer.parseInt(((Node) (((Element) databaseWriterCommitInterval.item(0)).getChildNodes()).item(0)).getNodeValue().trim());
+		}
+
+		NodeList resultsBackend = doc.getElementsByTagName("ResultsBackend");
+		if(resultsBackend != null && resultsBackend.getLength() > 0) {
+			ResultsBackendType backendType = ResultsBackendType.parseFromString(((Node) (((Element) resultsBackend.item(0)).getChildNodes()).item(0)).getNodeValue());
+			if(backendType != null) {
+				Setup.resultsBackend = backendType;
+			}
+		}
+
+		NodeList checkpointInterval = doc.getElementsByTagName("CheckpointInterval");
+		if(checkpointInterval != null && checkpointInterval.getLength() > 0) {
+			Setup.checkpointInterval = Integer.parseInt(((Node) (((Element) checkpointInterval.item(0)).getChildNodes()).item(0)).getNodeValue().trim());
+		}
+
+		NodeList checkpointFile = doc.getElementsByTagName("CheckpointFile");
+		if(checkpointFile != null && checkpointFile.getLength() > 0) {
+			Setup.checkpointFile = ((Node) (((Element) checkpointFile.item(0)).getChildNodes()).item(0)).getNodeValue().trim();
+		}
+
+		NodeList resumeCheckpointFile = doc.getElementsByTagName("ResumeFromCheckpoint");
+		if(resumeCheckpointFile != null && resumeCheckpointFile.getLength() > 0) {
+			Setup.resumeCheckpointFile = ((Node) (((Element) resumeCheckpointFile.item(0)).getChildNodes()).item(0)).getNodeValue().trim();
+		}
+
+		NodeList jobTraceCache = doc.getElementsByTagName("JobTraceCache");
+		if(jobTraceCache != null && jobTraceCache.getLength() > 0) {
+			String cacheMode = ((Node) (((Element) jobTraceCache.item(0)).getChildNodes()).item(0)).getNodeValue().trim();
+			Setup.jobTraceCache = cacheMode.toLowerCase().equals("on");
+		}
+
+		NodeList traceParserParallelism = doc.getElementsByTagName("TraceParserParallelism");
+		if(traceParserParallelism != null && traceParserParallelism.getLength() > 0) {
+			Setup.traceParserParallelism = Integer.parseInt(((Node) (((Element) traceParserParallelism.item(0)).getChildNodes()).item(0)).getNodeValue().trim());
+		}
+
+		NodeList streamingWorkload = doc.getElementsByTagName("StreamingWorkload");
+		if(streamingWorkload != null && streamingWorkload.getLength() > 0) {
+			String streamingMode = ((Node) (((Element) streamingWorkload.item(0)).getChildNodes()).item(0)).getNodeValue().trim();
+			Setup.streamingWorkload = streamingMode.toLowerCase().equals("on");
+		}
+
+		NodeList workloadLookAheadIntervals = doc.getElementsByTagName("WorkloadLookAheadIntervals");
+		if(workloadLookAheadIntervals != null && workloadLookAheadIntervals.getLength() > 0) {
+			Setup.workloadLookAheadIntervals = Integer.parseInt(((Node) (((Element) workloadLookAheadIntervals.item(0)).getChildNodes()).item(0)).getNodeValue().trim());
+		}
+
+		NodeList powerHistoryRetention = doc.getElementsByTagName("PowerHistoryRetention");
+		if(powerHistoryRetention != null && powerHistoryRetention.getLength() > 0) {
+			String retention = ((Node) (((Element) powerHistoryRetention.item(0)).getChildNodes()).item(0)).getNodeValue().trim();
+			Setup.powerHistoryRetention = retention.toLowerCase().equals("all") ? PowerConsumptionHistory.UNLIMITED_RETENTION : Integer.parseInt(retention);
+		}
+		
 		NodeList workloadTrace = doc.getElementsByTagName("WorkloadTraceFile");
 		this.workloadTraceFile = ((Node) (((Element) workloadTrace.item(0)).getChildNodes()).item(0)).getNodeValue().trim();
 		
@@ -345,172 +711,138 @@ public class Setup {
 		if (length < 0)
 			length = length * -1;
 		setSimLength(length);
+	}
 
-//		NodeList histTimeList = doc.getElementsByTagName("HistoricalTimeFrame");
-//		histTime = Integer.parseInt(((Node) (((Element) histTimeList.item(0))
-//				.getChildNodes()).item(0)).getNodeValue().trim());
-//
-//		NodeList histElemList = doc
-//				.getElementsByTagName("HistoricalNumberOfElements");
-//		histElem = Integer.parseInt(((Node) (((Element) histElemList.item(0))
-//				.getChildNodes()).item(0)).getNodeValue().trim());
+	/**
+	 * Creates a DC from its element in the configuration document. The DC is assigned to the passed context and
+	 * the passed DR requests are scheduled as events in the DC.
+	 * 
+	 * @param dcElement
+	 *            Element of the configuration document that specifies the DC.
+	 * @param s
+	 *            Index of the DC in the configuration.
+	 * @param context
+	 *            Context of the simulation to which the DC belongs.
+	 * @param workloadSource
+	 *            Source from which the DC pulls the jobs of the workload trace (the jobs it provides are owned by the DC).
+	 * @param drRequests
+	 *            DR requests that are sent to the DC.
+	 * @return Created DC.
+	 */
+	private DC createDC(Element dcElement, int s, SimulationContext context, WorkloadSource workloadSource, List<DRRequest> drRequests) {
+		List<Server> hosts = new ArrayList<Server>();
+		// Get elements from input-XML-file
+		String name;
+		double pue = 1.0;
+
+		NodeList pueList = dcElement
+				.getElementsByTagName("PUE");
+		pue = Double.parseDouble(((Node) (((Element) pueList.item(0))
+				.getChildNodes()).item(0)).getNodeValue()
+				.trim());
+		
+		NodeList nameList = dcElement
+		.getElementsByTagName("Name");
+		name = ((Node) (((Element) nameList.item(0))
+		.getChildNodes()).item(0)).getNodeValue()
+		.trim();
+
+		// ------- Hosts -------
+		NodeList hostList = dcElement
+				.getElementsByTagName("ServerConfiguration");
+		int serverID = 1;
+		for (int i = 0; i < hostList.getLength(); i++) {
+			Node host = hostList.item(i);
+			if (host.getNodeType() == Node.ELEMENT_NODE) {
+
+				Element hostElement = (Element) host;
+				int numberOfHosts;
+				int mips, pes, ram, bw, storage;
+
+				NodeList nbHostsList = hostElement
+						.getElementsByTagName("NbOfServer");
+				numberOfHosts = Integer
+						.parseInt(((Node) (((Element) nbHostsList
+								.item(0)).getChildNodes())
+								.item(0)).getNodeValue().trim());
+
+				NodeList mipsList = hostElement
+						.getElementsByTagName("MIPS");
+				mips = Integer
+						.parseInt(((Node) (((Element) mipsList
+								.item(0)).getChildNodes())
+								.item(0)).getNodeValue().trim());
+
+				NodeList pesList = hostElement
+						.getElementsByTagName("PES");
+				pes = Integer
+						.parseInt(((Node) (((Element) pesList
+								.item(0)).getChildNodes())
+								.item(0)).getNodeValue().trim());
+
+				NodeList ramList = hostElement
+						.getElementsByTagName("RAM");
+				ram = Integer
+						.parseInt(((Node) (((Element) ramList
+								.item(0)).getChildNodes())
+								.item(0)).getNodeValue().trim());
+
+				NodeList bwList = hostElement
+						.getElementsByTagName("BW");
+				bw = Integer
+						.parseInt(((Node) (((Element) bwList
+								.item(0)).getChildNodes())
+								.item(0)).getNodeValue().trim());
+
+				NodeList storageList = hostElement
+						.getElementsByTagName("Storage");
+				storage = Integer
+						.parseInt(((Node) (((Element) storageList
+								.item(0)).getChildNodes())
+								.item(0)).getNodeValue().trim());
+
+				for (int ii = 0; ii < numberOfHosts; ii++) {
+					Server server = new Server(mips, pes, ram,
+							bw, storage,
+							s * 1000000 + serverID,
+							new ArrayList<VM>());
+					hosts.add(server);
+					serverID++;
+				}
 
-//		NodeList listOfDatacentreFederations = doc
-//				.getElementsByTagName("DataCentreFederation");
+			}
+		}
 
-//		for (int f = 0; f < listOfDatacentreFederations.getLength(); f++) {
-//			Node federation = listOfDatacentreFederations.item(f);
-//			if (federation.getNodeType() == Node.ELEMENT_NODE) {
-				DCFederation fed = new DCFederation();
-//				Element fElement = (Element) federation;
-				NodeList listOfDatacentres = doc
-						.getElementsByTagName("DataCentre");
-				List<DC> dcsOfFed= new ArrayList<DC>();
-				for (int s = 0; s < listOfDatacentres.getLength(); s++) {
-					Node dc = listOfDatacentres.item(s);
-					if (dc.getNodeType() == Node.ELEMENT_NODE) {
-						
-						hosts = new ArrayList<Server>();
-						// Get elements from input-XML-file
-						Element dcElement = (Element) dc;
-						String name;
-						double pue = 1.0;
-
-						NodeList pueList = dcElement
-								.getElementsByTagName("PUE");
-						pue = Double.parseDouble(((Node) (((Element) pueList.item(0))
-								.getChildNodes()).item(0)).getNodeValue()
-								.trim());
-						
-						NodeList nameList = dcElement
-						.getElementsByTagName("Name");
-						name = ((Node) (((Element) nameList.item(0))
-						.getChildNodes()).item(0)).getNodeValue()
-						.trim();
-
-						// ------- Hosts -------
-						NodeList hostList = dcElement
-								.getElementsByTagName("ServerConfiguration");
-						int serverID = 1;
-						for (int i = 0; i < hostList.getLength(); i++) {
-							Node host = hostList.item(i);
-							if (host.getNodeType() == Node.ELEMENT_NODE) {
-
-								Element hostElement = (Element) host;
-								int numberOfHosts;
-								int mips, pes, ram, bw, storage;
-
-								NodeList nbHostsList = hostElement
-										.getElementsByTagName("NbOfServer");
-								numberOfHosts = Integer
-										.parseInt(((Node) (((Element) nbHostsList
-												.item(0)).getChildNodes())
-												.item(0)).getNodeValue().trim());
-
-								NodeList mipsList = hostElement
-										.getElementsByTagName("MIPS");
-								mips = Integer
-										.parseInt(((Node) (((Element) mipsList
-												.item(0)).getChildNodes())
-												.item(0)).getNodeValue().trim());
-
-								NodeList pesList = hostElement
-										.getElementsByTagName("PES");
-								pes = Integer
-										.parseInt(((Node) (((Element) pesList
-												.item(0)).getChildNodes())
-												.item(0)).getNodeValue().trim());
-
-								NodeList ramList = hostElement
-										.getElementsByTagName("RAM");
-								ram = Integer
-										.parseInt(((Node) (((Element) ramList
-												.item(0)).getChildNodes())
-												.item(0)).getNodeValue().trim());
-
-								NodeList bwList = hostElement
-										.getElementsByTagName("BW");
-								bw = Integer
-										.parseInt(((Node) (((Element) bwList
-												.item(0)).getChildNodes())
-												.item(0)).getNodeValue().trim());
-
-								NodeList storageList = hostElement
-										.getElementsByTagName("Storage");
-								storage = Integer
-										.parseInt(((Node) (((Element) storageList
-												.item(0)).getChildNodes())
-												.item(0)).getNodeValue().trim());
-
-								for (int ii = 0; ii < numberOfHosts; ii++) {
-									Server server = new Server(mips, pes, ram,
-											bw, storage,
-											s * 1000000 + serverID,
-											new ArrayList<VM>());
-									hosts.add(server);
-									serverID++;
-								}
-
-							}
-						}
-
-						double standardTemp = 25.0d;
-
-						// ------- HVAC -------
-						NodeList hvacList = dcElement
-								.getElementsByTagName("HVAC");
-						Node hvac = hvacList.item(0);
-						if (hvac.getNodeType() == Node.ELEMENT_NODE) {
-							Element hvacElement = (Element) hvac;
-							NodeList sTList = hvacElement
-									.getElementsByTagName("StandardTemp");
-							standardTemp = Double
-									.parseDouble(((Node) (((Element) sTList
-											.item(0)).getChildNodes()).item(0))
-											.getNodeValue().trim());
-						}
-
-						HVAC hvacInDC = new HVAC(standardTemp);
-
-//						int efficiency = 0;
-//						int input = 0;
-						ArrayList<ESF> esfs = new ArrayList<ESF>();
-						
-						//--JOBS--
-						ArrayList<BatchJob> jobs = (ArrayList<BatchJob>)BatchJobParser.parseJobFile(this.workloadTraceFile, this.c.getTime());
-						jobs = (ArrayList<BatchJob>) SchedulingStrategyUtilities.sortJobListBySubmissionTime(jobs);
+		double standardTemp = 25.0d;
+
+		// ------- HVAC -------
+		NodeList hvacList = dcElement
+				.getElementsByTagName("HVAC");
+		Node hvac = hvacList.item(0);
+		if (hvac.getNodeType() == Node.ELEMENT_NODE) {
+			Element hvacElement = (Element) hvac;
+			NodeList sTList = hvacElement
+					.getElementsByTagName("StandardTemp");
+			standardTemp = Double
+					.parseDouble(((Node) (((Element) sTList
+							.item(0)).getChildNodes()).item(0))
+							.getNodeValue().trim());
+		}
 
-						
-						DRRequestParser drRequestParser = new DRRequestParser();
-						ArrayList<DRRequest> drRequests = (ArrayList<DRRequest>)drRequestParser.parseDRRequestFile(this.drEventTraceFile, this.c.getTime());
-						
-						EnergyPriceParser energyPriceParser = new EnergyPriceParser();
-						ArrayList<EnergyPrice> energyPrices = (ArrayList<EnergyPrice>)energyPriceParser.parseEnergyPriceFile(Setup.energyPriceTraceFile, this.c.getTime());
-						EnergyPriceModelSelector.initializeEnergyPriceModel(energyPrices);
-						
-						PUEParser pueParser = new PUEParser();
-						ArrayList<PUE> pues = (ArrayList<PUE>)pueParser.parsePUEFile(Setup.pueTraceFile, this.c.getTime());
-						PUEModelSelector.initializePUEModel(pues);
-						
-//						DC dc2 = new DC(pue, name, s, hosts, services, hvacInDC,
-//								esfs, this.pricing, this.histElem, this.c, (int) this.schedulingInterval);
-						DC dc2 = new DC(pue, name, s, hosts, jobs, hvacInDC,
-								esfs, this.c, (int) Setup.schedulingInterval);
-						
-						for(DRRequest drRequest : drRequests) {
-							dc2.scheduleEvent(new DRRequestEvent(EventType.DR_REQUEST, drRequest.getTimestamp(), drRequest));
-						}
-//						System.out.println("DC SETUPT");
-//						System.out.println(dc2.getName());
-						dcs.add(dc2);
-						dcsOfFed.add(dc2);
+		HVAC hvacInDC = new HVAC(standardTemp);
 
-					}
-				}
-				for (DC dc : dcsOfFed){
-					fed.addDC(dc);
-				}
-				dcFederations.add(fed); 
+//		int efficiency = 0;
+//		int input = 0;
+		ArrayList<ESF> esfs = new ArrayList<ESF>();
+		
+		//Every DC gets its own calendar instance, as the DCs may be simulated concurrently
+		DC dc = new DC(context, pue, name, s, hosts, workloadSource, hvacInDC,
+				esfs, (Calendar) this.c.clone(), context.getSchedulingInterval());
+		
+		for(DRRequest drRequest : drRequests) {
+			dc.scheduleEvent(new DRRequestEvent(EventType.DR_REQUEST, drRequest.getTimestamp(), drRequest));
+		}
+		return dc;
 	}
 
 }
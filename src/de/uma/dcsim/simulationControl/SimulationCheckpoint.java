@@ -0,0 +1,168 @@
+package de.uma.dcsim.simulationControl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.List;
+
+import de.uma.dcsim.database.EvaluationTable;
+import de.uma.dcsim.database.ResultsBackend;
+import de.uma.dcsim.hardware.DC;
+
+/**
+ * This class writes and restores binary checkpoints of a simulation. A checkpoint is written at the beginning of a timestep of the simulation loop and
+ * contains the clock of the simulation, the complete state of all DCs (see DC.writeCheckpoint) and the amount of records that were written to each
+ * evaluation table so far. Resuming a simulation from a checkpoint yields exactly the same results as the uninterrupted simulation.
+ *
+ * A checkpoint can also be used as the starting point of other scenarios (e.g., within a parameter sweep). In this case, the context of the scenario is created
+ * from a configuration that contains the same DCs, the state of the DCs is restored from the checkpoint and the scenario specific parameters of the context
+ * are used for the remaining simulation.
+ * @author nilsw
+ *
+ */
+public class SimulationCheckpoint {
+
+	/**
+	 * Identifies checkpoint files ("DCSC").
+	 */
+	private static final int MAGIC_NUMBER = 0x44435343;
+
+	private static final int VERSION = 4;
+
+	/**
+	 * Timestep of the simulation loop at which the simulation is resumed.
+	 */
+	private int nextTimestep;
+
+	/**
+	 * Path of the results backend of the checkpointed simulation.
+	 */
+	private String evaluationDatabasePath;
+
+	/**
+	 * Amount of records that were written to each evaluation table (indexed by the ordinal of EvaluationTable).
+	 */
+	private long[] recordOffsets;
+
+	private SimulationCheckpoint(int nextTimestep, String evaluationDatabasePath, long[] recordOffsets) {
+		this.nextTimestep = nextTimestep;
+		this.evaluationDatabasePath = evaluationDatabasePath;
+		this.recordOffsets = recordOffsets;
+	}
+
+	/**
+	 * Writes a checkpoint of a simulation. All records that were inserted into the results backend of the simulation have to be flushed before.
+	 * The checkpoint is first written to a temporary file, which replaces the previous checkpoint afterwards. Thus, an interruption while the
+	 * checkpoint is written does not destroy the previous checkpoint.
+	 * @param context Context of the simulation.
+	 * @param nextTimestep Timestep of the simulation loop at which the simulation is resumed.
+	 * @param path Path of the checkpoint file.
+	 * @throws IOException If the checkpoint cannot be written.
+	 */
+	public static void write(SimulationContext context, int nextTimestep, String path) throws IOException {
+		File checkpointFile = new File(path);
+		File temporaryFile = new File(path + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile), 1 << 16));
+		try {
+			out.writeInt(MAGIC_NUMBER);
+			out.writeInt(VERSION);
+			out.writeInt(nextTimestep);
+			out.writeInt(context.getClock());
+			out.writeUTF(context.getEvaluationDatabasePath() != null ? context.getEvaluationDatabasePath() : "");
+
+			List<DC> dcs = context.getDcs();
+			out.writeInt(dcs.size());
+			for(DC dc : dcs) {
+				dc.writeCheckpoint(out);
+			}
+
+			ResultsBackend resultsBackend = context.getResultsBackend();
+			out.writeInt(EvaluationTable.values().length);
+			for(EvaluationTable eTable : EvaluationTable.values()) {
+				out.writeLong(resultsBackend != null ? resultsBackend.getRecordOffset(eTable) : 0);
+			}
+		} finally {
+			out.close();
+		}
+		Files.move(temporaryFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Restores the state of the DCs and the clock of a simulation from a checkpoint.
+	 * @param path Path of the checkpoint file.
+	 * @param context Context of the simulation, whose DCs were created from the configuration of the checkpointed simulation.
+	 * @return Restored checkpoint, which is used to prepare the results backend (see prepareResultsBackend).
+	 * @throws IOException If the checkpoint cannot be read or does not match the DCs of the context.
+	 */
+	public static SimulationCheckpoint restore(String path, SimulationContext context) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), 1 << 16));
+		try {
+			if(in.readInt() != MAGIC_NUMBER) {
+				throw new IOException(path + " is not a simulation checkpoint");
+			}
+			int version = in.readInt();
+			if(version != VERSION) {
+				throw new IOException("Unsupported checkpoint version " + version + " (" + path + ")");
+			}
+			int nextTimestep = in.readInt();
+			context.setClock(in.readInt());
+			String evaluationDatabasePath = in.readUTF();
+
+			List<DC> dcs = context.getDcs();
+			int dcCount = in.readInt();
+			if(dcCount != dcs.size()) {
+				throw new IOException("Checkpoint contains " + dcCount + " DCs, but the simulation contains " + dcs.size() + " DCs");
+			}
+			for(DC dc : dcs) {
+				dc.readCheckpoint(in);
+			}
+
+			long[] recordOffsets = new long[in.readInt()];
+			for(int i=0; i < recordOffsets.length; i++) {
+				recordOffsets[i] = in.readLong();
+			}
+			return new SimulationCheckpoint(nextTimestep, evaluationDatabasePath, recordOffsets);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Prepares the results backend of the resumed simulation. If the simulation writes into the results backend of the checkpointed simulation,
+	 * all records that were written after the checkpoint are removed. Otherwise (i.e., the checkpoint is the starting point of another scenario),
+	 * new evaluation tables are created, which only contain the records of the timesteps after the checkpoint.
+	 * @param resultsBackend Results backend of the resumed simulation.
+	 * @param evaluationDatabasePath Path of the results backend of the resumed simulation.
+	 * @param simStart Start of the simulation interval.
+	 * @param simEnd End of the simulation interval.
+	 */
+	public void prepareResultsBackend(ResultsBackend resultsBackend, String evaluationDatabasePath, Date simStart, Date simEnd) {
+		boolean sameResultsBackend = evaluationDatabasePath != null
+				&& new File(evaluationDatabasePath).getAbsoluteFile().equals(new File(this.evaluationDatabasePath).getAbsoluteFile());
+		for(EvaluationTable eTable : EvaluationTable.values()) {
+			if(sameResultsBackend) {
+				resultsBackend.truncateRecordTable(eTable, this.recordOffsets[eTable.ordinal()]);
+			}
+			else {
+				resultsBackend.createRecordTables(simStart, simEnd, eTable);
+			}
+		}
+	}
+
+	public int getNextTimestep() {
+		return this.nextTimestep;
+	}
+
+	public String getEvaluationDatabasePath() {
+		return this.evaluationDatabasePath;
+	}
+
+}
@@ -0,0 +1,551 @@
+package de.uma.dcsim.simulationControl;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import de.uma.dcsim.database.ResultsBackend;
+import de.uma.dcsim.energyPriceModels.EnergyPriceModel;
+import de.uma.dcsim.hardware.DC;
+import de.uma.dcsim.powerModels.FrequencyBasedPowerModel;
+import de.uma.dcsim.powerModels.PowerModelSelector;
+import de.uma.dcsim.powerModels.itPowerModels.ITPowerModel;
+import de.uma.dcsim.powerModels.pueBasedHVACPowerModels.PUEBasedHVACPowerModel;
+import de.uma.dcsim.pueModels.PUEModel;
+import de.uma.dcsim.runtimeModels.DVFSRuntimeImpactModel;
+import de.uma.dcsim.runtimeModels.RuntimeModelSelector;
+import de.uma.dcsim.scheduling.schedulingStrategies.SchedulingStrategyType;
+
+/**
+ * This class owns the state of a single simulation: The simulation specific configuration values, the models that are used to
+ * determine power consumption, energy prices, PUE values and adjusted runtimes, as well as the simulation clock, the simulated DCs
+ * and the results backend into which the monitoring values are written.
+ *
+ * Each DC references the context of the simulation to which it belongs, thus several independent simulations can exist (and run
+ * concurrently) within the same JVM. The models are only read during a simulation and can therefore be shared by several contexts
+ * (see the copy constructor).
+ * @author nilsw
+ *
+ */
+public class SimulationContext {
+
+	/**
+	 * Amount of real time seconds that each step in simulation time contains.
+	 */
+	private int secondsPerSimulationTimestep;
+
+	/**
+	 * Indicates whether the simulation is performed in superMUCMode.
+	 */
+	private boolean superMUCMode;
+
+	/**
+	 * Usage price that the DCs charge per compute node per hour in euro.
+	 */
+	private double usagePrice;
+
+	/**
+	 * Maximum job runtime that occurs in the workload trace (see BatchJobParser.applyStatistics).
+	 */
+	private int maximumRuntime;
+
+	/**
+	 * Length of the scheduling interval in simulation time.
+	 */
+	private int schedulingInterval;
+
+	/**
+	 * Type of the scheduling strategy that is used by the schedulers of the DCs.
+	 */
+	private SchedulingStrategyType schedulingStrategyType;
+
+	/**
+	 * Timeout (in seconds) of the linear solver that is used in the scheduling process.
+	 */
+	private int solverTimeout;
+
+	/**
+	 * Indicates whether power changes of the servers are propagated through one SERVER_UPDATE event per server instead of one power delta per job
+	 * (see DC.allocateJobServerPower).
+	 */
+	private boolean serverPowerEvents;
+
+	/**
+	 * Amount of timesteps for which the DCs retain their history of power consumption values (if negative, the maximum job runtime of the
+	 * workload is used, see DC.getPowerHistoryRetention).
+	 */
+	private int powerHistoryRetention;
+
+	/**
+	 * Length of the window (in scheduling intervals) within which the DCs pull the jobs from their workload source ahead of their clocks.
+	 */
+	private int workloadLookAheadIntervals;
+
+	/**
+	 * Amount of threads that are used to test the combinations of shifting fraction and scaling frequency during the optimization of a DR event
+	 * response (see getOptimizationPool).
+	 */
+	private int drOptimizationParallelism;
+
+	/**
+	 * Power model which is used to determine the server power consumption.
+	 */
+	private FrequencyBasedPowerModel serverPowerModel;
+
+	/**
+	 * Power model which is used to determine the HVAC power consumption.
+	 */
+	private PUEBasedHVACPowerModel hvacPowerModel;
+
+	/**
+	 * ITPowerModel that is used to determine the IT power consumption.
+	 */
+	private ITPowerModel itPowerModel;
+
+	/**
+	 * Energy price model that is used for the simulation.
+	 */
+	private EnergyPriceModel energyPriceModel;
+
+	/**
+	 * PUE model that is used to obtain the PUE value of the DCs.
+	 */
+	private PUEModel pueModel;
+
+	/**
+	 * RuntimeImpactModel that is used to determine the adjusted runtime of a BatchJob.
+	 */
+	private DVFSRuntimeImpactModel runtimeModel;
+
+	/**
+	 * Current point in simulation time.
+	 */
+	private int clock;
+
+	/**
+	 * Length of the simulation in simulation time.
+	 */
+	private int length;
+
+	/**
+	 * Simulation start time.
+	 */
+	private Calendar simStartTime;
+
+	/**
+	 * List of all simulated DCs.
+	 */
+	private List<DC> dcs;
+
+	/**
+	 * List of all DC federations of the simulation.
+	 */
+	private List<DCFederation> federations;
+
+	/**
+	 * Path at which the results backend of the simulation is placed.
+	 */
+	private String evaluationDatabasePath;
+
+	/**
+	 * Backend into which the monitoring values of the simulation are written.
+	 */
+	private ResultsBackend resultsBackend;
+
+	/**
+	 * Interval (in simulation time) in which checkpoints of the simulation are written (0 means that no checkpoints are written).
+	 */
+	private int checkpointInterval;
+
+	/**
+	 * Path of the file to which the checkpoints of the simulation are written.
+	 */
+	private String checkpointFile;
+
+	/**
+	 * Path of the checkpoint from which the simulation is resumed (null if the simulation is started from the beginning).
+	 */
+	private String resumeCheckpointFile;
+
+	/**
+	 * Pool that is used by the DREventHandlers of the simulation to test the combinations of shifting fraction and scaling frequency concurrently
+	 * (created on first use, see getOptimizationPool).
+	 */
+	private ForkJoinPool optimizationPool;
+
+	/**
+	 * Creates a context with the configuration values that were parsed by the Setup class and new instances of the server, HVAC, IT and runtime models.
+	 * The energy price and PUE models are trace based and are therefore set during the parsing of the DCs.
+	 */
+	public SimulationContext() {
+		this.secondsPerSimulationTimestep = Setup.secondsPerSimulationTimestep;
+		this.superMUCMode = Setup.superMUCMode;
+		this.usagePrice = Setup.usagePrice;
+		this.schedulingInterval = Setup.schedulingInterval;
+		this.schedulingStrategyType = Setup.usedSchedulingStrategyType;
+		this.solverTimeout = Setup.solverTimeout;
+		this.drOptimizationParallelism = Setup.drOptimizationParallelism;
+		this.workloadLookAheadIntervals = Setup.workloadLookAheadIntervals;
+		this.powerHistoryRetention = Setup.powerHistoryRetention;
+		this.serverPowerEvents = Setup.serverPowerEvents;
+		this.evaluationDatabasePath = Setup.evaluationDatabasePath;
+		this.checkpointInterval = Setup.checkpointInterval;
+		this.checkpointFile = Setup.checkpointFile;
+		this.resumeCheckpointFile = Setup.resumeCheckpointFile;
+		this.serverPowerModel = PowerModelSelector.createServerPowerModel();
+		this.hvacPowerModel = PowerModelSelector.createHVACPowerModel();
+		this.itPowerModel = PowerModelSelector.createITPowerModel();
+		this.runtimeModel = RuntimeModelSelector.createRuntimeModel();
+		this.clock = 0;
+		this.dcs = new ArrayList<DC>();
+		this.federations = new ArrayList<DCFederation>();
+	}
+
+	/**
+	 * Creates a context for a new simulation that uses the same configuration values and shares the (read-only) models with another context.
+	 * The simulation state (clock, DCs, results backend and optimization pool) is not copied.
+	 * @param template Context whose configuration values and models are used.
+	 */
+	public SimulationContext(SimulationContext template) {
+		this.secondsPerSimulationTimestep = template.secondsPerSimulationTimestep;
+		this.superMUCMode = template.superMUCMode;
+		this.usagePrice = template.usagePrice;
+		this.maximumRuntime = template.maximumRuntime;
+		this.schedulingInterval = template.schedulingInterval;
+		this.schedulingStrategyType = template.schedulingStrategyType;
+		this.solverTimeout = template.solverTimeout;
+		this.drOptimizationParallelism = template.drOptimizationParallelism;
+		this.workloadLookAheadIntervals = template.workloadLookAheadIntervals;
+		this.powerHistoryRetention = template.powerHistoryRetention;
+		this.serverPowerEvents = template.serverPowerEvents;
+		this.evaluationDatabasePath = template.evaluationDatabasePath;
+		this.checkpointInterval = template.checkpointInterval;
+		this.checkpointFile = template.checkpointFile;
+		this.resumeCheckpointFile = template.resumeCheckpointFile;
+		this.serverPowerModel = template.serverPowerModel;
+		this.hvacPowerModel = template.hvacPowerModel;
+		this.itPowerModel = template.itPowerModel;
+		this.energyPriceModel = template.energyPriceModel;
+		this.pueModel = template.pueModel;
+		this.runtimeModel = template.runtimeModel;
+		this.length = template.length;
+		if(template.simStartTime != null) {
+			this.simStartTime = (Calendar) template.simStartTime.clone();
+		}
+		this.clock = 0;
+		this.dcs = new ArrayList<DC>();
+		this.federations = new ArrayList<DCFederation>();
+	}
+
+	/**
+	 * Retrieves the server power consumption according to the server power model of the simulation.
+	 * @param frequency Current frequency of the server.
+	 * @param jobClass Job class of the job that is currently executed by the server.
+	 * @return Current power consumption of the server.
+	 */
+	public double getServerPower(double frequency, int jobClass) {
+		return this.serverPowerModel.getPower(frequency, jobClass);
+	}
+
+	/**
+	 * Retrieves the HVAC power consumption according to the HVAC power model of the simulation.
+	 * @param pue Current PUE of the DC.
+	 * @param itPower Current IT power consumption of the DC.
+	 * @return Current power consumption of the HVAC infrastructure.
+	 */
+	public double getHVACPower(double pue, double itPower) {
+		return this.hvacPowerModel.getCoolingPower(pue, itPower);
+	}
+
+	/**
+	 * Retrieves the current IT power consumption of a DC.
+	 * @param serverPower Current total server power consumption of the DC.
+	 * @param amountOfRunningJobs Current number of running jobs in the DC.
+	 * @param amountOfOccupiedServers Current number of active compute nodes in the DC.
+	 * @return Current IT power consumption of the DC.
+	 */
+	public double getITPower(double serverPower, int amountOfRunningJobs, int amountOfOccupiedServers) {
+		return this.itPowerModel.getITPower(serverPower, amountOfRunningJobs, amountOfOccupiedServers);
+	}
+
+	/**
+	 * Retrieves the energy price at a specified point in simulation time.
+	 * @param timestamp Point in simulation time for which the energy price is requested.
+	 * @return Energy price at the specified point in simulation time.
+	 */
+	public double getEnergyPriceInCentPerKWh(int timestamp) {
+		return this.energyPriceModel.getEnergyPriceInCentPerKWH(timestamp);
+	}
+
+	/**
+	 * Retrieves the PUE value at a specified point in simulation time.
+	 * @param currentTime Point in simulation time for which the PUE value is requested.
+	 * @return PUE value at the specified point in simulation time.
+	 */
+	public double getPUE(int currentTime) {
+		return this.pueModel.getPUE(currentTime);
+	}
+
+	/**
+	 * Retrieves the adjusted remaining runtime of a BatchJob dependant on the new execution frequency and the currently remaining runtime
+	 * in simulation time of the job.
+	 * @param adjustedFrequency New execution frequency of the job.
+	 * @param currentFrequency Current execution frequency of the job.
+	 * @param remainingRuntime Currently remaining runtime in simulation time of the job.
+	 * @return Adjusted remaining runtime in simulation time of the job.
+	 */
+	public int getAdjustedRuntime(double adjustedFrequency, double currentFrequency, int remainingRuntime) {
+		return this.runtimeModel.getAdjustedRuntime(adjustedFrequency, currentFrequency, remainingRuntime);
+	}
+
+	/**
+	 * @return Current date of the simulation.
+	 */
+	public Date getCurrentDate() {
+		Date currentTime = this.simStartTime.getTime();
+		currentTime.setTime(currentTime.getTime()+((long)this.clock*(long)this.secondsPerSimulationTimestep*1000L));
+		return currentTime;
+	}
+
+	public int getSecondsPerSimulationTimestep() {
+		return this.secondsPerSimulationTimestep;
+	}
+
+	public void setSecondsPerSimulationTimestep(int secondsPerSimulationTimestep) {
+		this.secondsPerSimulationTimestep = secondsPerSimulationTimestep;
+	}
+
+	public boolean isSuperMUCMode() {
+		return this.superMUCMode;
+	}
+
+	public void setSuperMUCMode(boolean superMUCMode) {
+		this.superMUCMode = superMUCMode;
+	}
+
+	public double getUsagePrice() {
+		return this.usagePrice;
+	}
+
+	public void setUsagePrice(double usagePrice) {
+		this.usagePrice = usagePrice;
+	}
+
+	public int getMaximumRuntime() {
+		return this.maximumRuntime;
+	}
+
+	public void setMaximumRuntime(int maximumRuntime) {
+		this.maximumRuntime = maximumRuntime;
+	}
+
+	public int getSchedulingInterval() {
+		return this.schedulingInterval;
+	}
+
+	public void setSchedulingInterval(int schedulingInterval) {
+		this.schedulingInterval = schedulingInterval;
+	}
+
+	public SchedulingStrategyType getSchedulingStrategyType() {
+		return this.schedulingStrategyType;
+	}
+
+	public void setSchedulingStrategyType(SchedulingStrategyType schedulingStrategyType) {
+		this.schedulingStrategyType = schedulingStrategyType;
+	}
+
+	public int getSolverTimeout() {
+		return this.solverTimeout;
+	}
+
+	public void setSolverTimeout(int solverTimeout) {
+		this.solverTimeout = solverTimeout;
+	}
+
+	public boolean isServerPowerEvents() {
+		return this.serverPowerEvents;
+	}
+
+	public void setServerPowerEvents(boolean serverPowerEvents) {
+		this.serverPowerEvents = serverPowerEvents;
+	}
+
+	public int getPowerHistoryRetention() {
+		return this.powerHistoryRetention;
+	}
+
+	public void setPowerHistoryRetention(int powerHistoryRetention) {
+		this.powerHistoryRetention = powerHistoryRetention;
+	}
+
+	public int getWorkloadLookAheadIntervals() {
+		return this.workloadLookAheadIntervals;
+	}
+
+	public void setWorkloadLookAheadIntervals(int workloadLookAheadIntervals) {
+		this.workloadLookAheadIntervals = workloadLookAheadIntervals;
+	}
+
+	public int getDrOptimizationParallelism() {
+		return this.drOptimizationParallelism;
+	}
+
+	public void setDrOptimizationParallelism(int drOptimizationParallelism) {
+		this.drOptimizationParallelism = drOptimizationParallelism;
+	}
+
+	public FrequencyBasedPowerModel getServerPowerModel() {
+		return this.serverPowerModel;
+	}
+
+	public void setServerPowerModel(FrequencyBasedPowerModel serverPowerModel) {
+		this.serverPowerModel = serverPowerModel;
+	}
+
+	public PUEBasedHVACPowerModel getHVACPowerModel() {
+		return this.hvacPowerModel;
+	}
+
+	public void setHVACPowerModel(PUEBasedHVACPowerModel hvacPowerModel) {
+		this.hvacPowerModel = hvacPowerModel;
+	}
+
+	public ITPowerModel getITPowerModel() {
+		return this.itPowerModel;
+	}
+
+	public void setITPowerModel(ITPowerModel itPowerModel) {
+		this.itPowerModel = itPowerModel;
+	}
+
+	public EnergyPriceModel getEnergyPriceModel() {
+		return this.energyPriceModel;
+	}
+
+	public void setEnergyPriceModel(EnergyPriceModel energyPriceModel) {
+		this.energyPriceModel = energyPriceModel;
+	}
+
+	public PUEModel getPUEModel() {
+		return this.pueModel;
+	}
+
+	public void setPUEModel(PUEModel pueModel) {
+		this.pueModel = pueModel;
+	}
+
+	public DVFSRuntimeImpactModel getRuntimeModel() {
+		return this.runtimeModel;
+	}
+
+	public void setRuntimeModel(DVFSRuntimeImpactModel runtimeModel) {
+		this.runtimeModel = runtimeModel;
+	}
+
+	public int getClock() {
+		return this.clock;
+	}
+
+	public void setClock(int clock) {
+		this.clock = clock;
+	}
+
+	public int getLength() {
+		return this.length;
+	}
+
+	public void setLength(int length) {
+		this.length = length;
+	}
+
+	public Calendar getSimStartTime() {
+		return this.simStartTime;
+	}
+
+	public void setSimStartTime(Calendar simStartTime) {
+		this.simStartTime = simStartTime;
+	}
+
+	public List<DC> getDcs() {
+		return this.dcs;
+	}
+
+	public void setDcs(List<DC> dcs) {
+		this.dcs = dcs;
+	}
+
+	public List<DCFederation> getFederations() {
+		return this.federations;
+	}
+
+	public void setFederations(List<DCFederation> federations) {
+		this.federations = federations;
+	}
+
+	public String getEvaluationDatabasePath() {
+		return this.evaluationDatabasePath;
+	}
+
+	public void setEvaluationDatabasePath(String evaluationDatabasePath) {
+		this.evaluationDatabasePath = evaluationDatabasePath;
+	}
+
+	public int getCheckpointInterval() {
+		return this.checkpointInterval;
+	}
+
+	public void setCheckpointInterval(int checkpointInterval) {
+		this.checkpointInterval = checkpointInterval;
+	}
+
+	public String getCheckpointFile() {
+		return this.checkpointFile;
+	}
+
+	public void setCheckpointFile(String checkpointFile) {
+		this.checkpointFile = checkpointFile;
+	}
+
+	public String getResumeCheckpointFile() {
+		return this.resumeCheckpointFile;
+	}
+
+	public void setResumeCheckpointFile(String resumeCheckpointFile) {
+		this.resumeCheckpointFile = resumeCheckpointFile;
+	}
+
+	/**
+	 * Retrieves the pool on which the DR optimization of the simulation tests the combinations of shifting fraction and scaling frequency.
+	 * The pool is created with drOptimizationParallelism threads on first use and is shared by all DCs (and their copies) of the simulation.
+	 * It is not shared with other contexts (see the copy constructor).
+	 * @return Optimization pool of the simulation.
+	 */
+	public synchronized ForkJoinPool getOptimizationPool() {
+		if(this.optimizationPool == null) {
+			this.optimizationPool = new ForkJoinPool(Math.max(1, this.drOptimizationParallelism));
+		}
+		return this.optimizationPool;
+	}
+
+	/**
+	 * Shuts the optimization pool of the simulation down (if it was created). A pool is created again if the optimization is used afterwards.
+	 */
+	public synchronized void shutdownOptimizationPool() {
+		if(this.optimizationPool != null) {
+			this.optimizationPool.shutdown();
+			this.optimizationPool = null;
+		}
+	}
+
+	public ResultsBackend getResultsBackend() {
+		return this.resultsBackend;
+	}
+
+	public void setResultsBackend(ResultsBackend resultsBackend) {
+		this.resultsBackend = resultsBackend;
+	}
+
+}
@@ -0,0 +1,148 @@
+package de.uma.dcsim.simulationControl;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.SchedulingStrategyUtilities;
+import de.uma.dcsim.utilities.BatchJob;
+import de.uma.dcsim.utilities.BatchJobParser;
+import de.uma.dcsim.utilities.BatchJobTraceStatistics;
+import de.uma.dcsim.utilities.BinaryBatchJobTrace;
+import de.uma.dcsim.utilities.CsvTrace;
+import de.uma.dcsim.utilities.DRRequest;
+import de.uma.dcsim.utilities.DRRequestParser;
+import de.uma.dcsim.utilities.EnergyPrice;
+import de.uma.dcsim.utilities.EnergyPriceParser;
+import de.uma.dcsim.utilities.ListWorkloadSource;
+import de.uma.dcsim.utilities.PUE;
+import de.uma.dcsim.utilities.PUEParser;
+import de.uma.dcsim.utilities.TraceWorkloadSource;
+import de.uma.dcsim.utilities.WorkloadSource;
+
+/**
+ * This class contains the traces of a simulation (workload, energy price, PUE and DR event trace). The four trace files are loaded concurrently,
+ * each of them is additionally parsed in parallel chunks (see ParallelCsvReader). The setup is not changed while the traces are loaded,
+ * the statistics of the workload trace are applied to the simulation context afterwards (see BatchJobParser.applyStatistics).
+ *
+ * If the workload is streamed (see Setup.streamingWorkload), the jobs are not parsed into memory. Instead, the DCs pull them from the binary
+ * cache of the workload trace (see createWorkloadSource).
+ * @author nilsw
+ *
+ */
+public class SimulationTraces {
+
+	/**
+	 * Jobs of the workload trace, sorted by their submission times (null if the workload is streamed).
+	 */
+	private List<BatchJob> jobs;
+
+	/**
+	 * Binary cache of the workload trace (null if the workload is not streamed).
+	 */
+	private BinaryBatchJobTrace workloadTrace;
+
+	private BatchJobTraceStatistics workloadStatistics;
+
+	private List<EnergyPrice> energyPrices;
+
+	private List<PUE> pues;
+
+	private List<DRRequest> drRequests;
+
+	private SimulationTraces() {
+	}
+
+	/**
+	 * Loads the traces of a simulation concurrently. The traces whose files do not exist are null.
+	 * @param workloadTraceFile Path of the workload trace.
+	 * @param energyPriceTraceFile Path of the energy price trace.
+	 * @param pueTraceFile Path of the PUE trace.
+	 * @param drEventTraceFile Path of the DR event trace.
+	 * @param simStartDate Start date of the simulation.
+	 * @return Loaded traces.
+	 */
+	public static SimulationTraces load(final String workloadTraceFile, final String energyPriceTraceFile, final String pueTraceFile, final String drEventTraceFile,
+			final Date simStartDate) {
+		ExecutorService tracePool = Executors.newFixedThreadPool(4);
+		try {
+			final boolean streamWorkload = Setup.streamingWorkload && Setup.jobTraceCache;
+			Future<BinaryBatchJobTrace> binaryWorkloadTrace = tracePool.submit(() -> streamWorkload ? BatchJobParser.openJobTrace(workloadTraceFile, simStartDate) : null);
+			Future<CsvTrace<BatchJob, BatchJobTraceStatistics>> workloadTrace = tracePool.submit(() -> {
+				if(streamWorkload) {
+					return null;
+				}
+				CsvTrace<BatchJob, BatchJobTraceStatistics> trace = BatchJobParser.parseJobTrace(workloadTraceFile, simStartDate);
+				if(trace == null) {
+					return null;
+				}
+				return new CsvTrace<BatchJob, BatchJobTraceStatistics>(SchedulingStrategyUtilities.sortJobListBySubmissionTime(trace.getRecords()), trace.getStatistics());
+			});
+			Future<List<EnergyPrice>> energyPrices = tracePool.submit((Callable<List<EnergyPrice>>) () -> new EnergyPriceParser().parseEnergyPriceFile(energyPriceTraceFile, simStartDate));
+			Future<List<PUE>> pues = tracePool.submit((Callable<List<PUE>>) () -> new PUEParser().parsePUEFile(pueTraceFile, simStartDate));
+			Future<List<DRRequest>> drRequests = tracePool.submit((Callable<List<DRRequest>>) () -> new DRRequestParser().parseDRRequestFile(drEventTraceFile, simStartDate));
+
+			SimulationTraces traces = new SimulationTraces();
+			if(binaryWorkloadTrace.get() != null) {
+				traces.workloadTrace = binaryWorkloadTrace.get();
+				traces.workloadStatistics = BatchJobParser.getStatistics(traces.workloadTrace);
+			}
+			else if(workloadTrace.get() != null) {
+				traces.jobs = workloadTrace.get().getRecords();
+				traces.workloadStatistics = workloadTrace.get().getStatistics();
+			}
+			traces.energyPrices = energyPrices.get();
+			traces.pues = pues.get();
+			traces.drRequests = drRequests.get();
+			return traces;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			tracePool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Creates a cursor over the jobs of the workload trace for one DC.
+	 * @param copyJobs Determines whether the jobs that were parsed into memory are copied (i.e., whether they are shared with other DCs or scenarios).
+	 * Streamed jobs are always new instances.
+	 * @return Workload source (null if no workload trace was loaded).
+	 */
+	public WorkloadSource createWorkloadSource(boolean copyJobs) {
+		if(this.workloadTrace != null) {
+			return new TraceWorkloadSource(this.workloadTrace);
+		}
+		if(this.jobs != null) {
+			return new ListWorkloadSource(this.jobs, copyJobs);
+		}
+		return null;
+	}
+
+	public List<BatchJob> getJobs() {
+		return this.jobs;
+	}
+
+	public BatchJobTraceStatistics getWorkloadStatistics() {
+		return this.workloadStatistics;
+	}
+
+	public List<EnergyPrice> getEnergyPrices() {
+		return this.energyPrices;
+	}
+
+	public List<PUE> getPues() {
+		return this.pues;
+	}
+
+	public List<DRRequest> getDrRequests() {
+		return this.drRequests;
+	}
+
+}
@@ -0,0 +1,104 @@
+package de.uma.dcsim.simulationControl;
+
+import de.uma.dcsim.scheduling.schedulingStrategies.SchedulingStrategyType;
+
+/**
+ * This class represents one scenario of a parameter sweep. Each parameter value that is not set (null) is taken from the base
+ * configuration of the sweep.
+ * @author nilsw
+ *
+ */
+public class SweepScenario {
+
+	/**
+	 * Name of the scenario that contains all parameter values that differ from the base configuration.
+	 */
+	private String name;
+
+	private SchedulingStrategyType schedulingStrategyType;
+
+	private Double usagePrice;
+
+	private Integer schedulingInterval;
+
+	private Integer solverTimeout;
+
+	/**
+	 * Path to the file that contains the DR event trace of the scenario.
+	 */
+	private String drEventTraceFile;
+
+	public SweepScenario(SchedulingStrategyType schedulingStrategyType, Double usagePrice, Integer schedulingInterval, Integer solverTimeout, String drEventTraceFile) {
+		this.schedulingStrategyType = schedulingStrategyType;
+		this.usagePrice = usagePrice;
+		this.schedulingInterval = schedulingInterval;
+		this.solverTimeout = solverTimeout;
+		this.drEventTraceFile = drEventTraceFile;
+
+		StringBuilder nameBuilder = new StringBuilder();
+		this.appendToName(nameBuilder, "SchedulingStrategy", schedulingStrategyType);
+		this.appendToName(nameBuilder, "UsagePrice", usagePrice);
+		this.appendToName(nameBuilder, "SchedulingInterval", schedulingInterval);
+		this.appendToName(nameBuilder, "SolverTimeout", solverTimeout);
+		this.appendToName(nameBuilder, "DREventTraceFile", drEventTraceFile);
+		this.name = nameBuilder.length() > 0 ? nameBuilder.toString() : "base";
+	}
+
+	private void appendToName(StringBuilder nameBuilder, String parameter, Object value) {
+		if(value != null) {
+			if(nameBuilder.length() > 0) {
+				nameBuilder.append(", ");
+			}
+			nameBuilder.append(parameter).append("=").append(value);
+		}
+	}
+
+	/**
+	 * Overrides the values of the passed context with all parameter values that are set in this scenario.
+	 * @param context Context of the scenario.
+	 */
+	public void applyTo(SimulationContext context) {
+		if(this.schedulingStrategyType != null) {
+			context.setSchedulingStrategyType(this.schedulingStrategyType);
+		}
+		if(this.usagePrice != null) {
+			context.setUsagePrice(this.usagePrice);
+		}
+		if(this.schedulingInterval != null) {
+			context.setSchedulingInterval(this.schedulingInterval);
+		}
+		if(this.solverTimeout != null) {
+			context.setSolverTimeout(this.solverTimeout);
+		}
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public SchedulingStrategyType getSchedulingStrategyType() {
+		return this.schedulingStrategyType;
+	}
+
+	public Double getUsagePrice() {
+		return this.usagePrice;
+	}
+
+	public Integer getSchedulingInterval() {
+		return this.schedulingInterval;
+	}
+
+	public Integer getSolverTimeout() {
+		return this.solverTimeout;
+	}
+
+	public String getDrEventTraceFile() {
+		return this.drEventTraceFile;
+	}
+
+	@Override
+	public String toString() {
+		return this.name;
+	}
+
+}
@@ -0,0 +1,88 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uma.dcsim.database.BoundDatabaseRecord;
+import de.uma.dcsim.database.ColumnType;
+import de.uma.dcsim.database.EvaluationTable;
+import de.uma.dcsim.database.SqLiteDBHandler;
+import de.uma.dcsim.database.StatisticType;
+import de.uma.dcsim.evaluation.AggregationEngine;
+
+public class AggregationEngineTest {
+
+	@Test
+	public void testSinglePassMatchesQueryPerInterval() throws IOException {
+		File dbFile = File.createTempFile("dcsim_aggregation_test", ".db");
+		dbFile.deleteOnExit();
+
+		Date simStart = new Date(1388534400000L);
+		Date simEnd = new Date(simStart.getTime() + 2L*86400000L);
+
+		SqLiteDBHandler dbHandler = new SqLiteDBHandler(dbFile.getAbsolutePath());
+		dbHandler.createRecordTables(simStart, simEnd, EvaluationTable.GENERAL_EVALUATION_TABLE);
+		BoundDatabaseRecord record = new BoundDatabaseRecord(EvaluationTable.GENERAL_EVALUATION_TABLE);
+		for(int i=0; i < 2*86400; i += 30) {
+			record.setLong(ColumnType.TIMESTAMP, simStart.getTime() + i*1000L);
+			record.setInt(ColumnType.NUMBER_OF_ACTIVE_NODES, i%101);
+			record.setDouble(ColumnType.TOTAL_EC, (i%977)*0.1);
+			dbHandler.insertRecord(record);
+		}
+		dbHandler.flush();
+
+		//The evaluation interval spans the day boundary and does not end at an interval boundary
+		Date start = new Date(simStart.getTime() + 20L*3600000L);
+		Date end = new Date(simStart.getTime() + 30L*3600000L + 600000L);
+		long millisecondsPerInterval = 900000L;
+
+		AggregationEngine engine = new AggregationEngine(start, end, millisecondsPerInterval);
+		StatisticType[] statistics = StatisticType.values();
+		int[] ecAggregations = new int[statistics.length];
+		int[] nodeAggregations = new int[statistics.length];
+		for(int i=0; i < statistics.length; i++) {
+			ecAggregations[i] = engine.addIntervalAggregation(EvaluationTable.GENERAL_EVALUATION_TABLE, ColumnType.TOTAL_EC, statistics[i]);
+			nodeAggregations[i] = engine.addIntervalAggregation(EvaluationTable.GENERAL_EVALUATION_TABLE, ColumnType.NUMBER_OF_ACTIVE_NODES, statistics[i]);
+		}
+		int totalAggregation = engine.addTotalAggregation(EvaluationTable.GENERAL_EVALUATION_TABLE, ColumnType.TOTAL_EC, StatisticType.SUM);
+		engine.aggregate(dbHandler);
+
+		for(int i=0; i < statistics.length; i++) {
+			assertEquals(queryPerInterval(dbHandler, statistics[i], ColumnType.TOTAL_EC, start, end, millisecondsPerInterval), engine.getIntervalResult(ecAggregations[i]));
+			assertEquals(queryPerInterval(dbHandler, statistics[i], ColumnType.NUMBER_OF_ACTIVE_NODES, start, end, millisecondsPerInterval), engine.getIntervalResult(nodeAggregations[i]));
+		}
+		assertEquals(queryStatistic(dbHandler, StatisticType.SUM, ColumnType.TOTAL_EC, start.getTime(), end.getTime()), engine.getTotalResult(totalAggregation), 0.0);
+		dbHandler.close();
+	}
+
+	/**
+	 * Calculates the statistic with one query per aggregation interval (as SimulationEvaluator.getStatistic did before the aggregation engine was introduced).
+	 */
+	private static ArrayList<Double> queryPerInterval(SqLiteDBHandler dbHandler, StatisticType statistic, ColumnType column, Date startDate, Date endDate, long millisecondsPerInterval) {
+		ArrayList<Double> result = new ArrayList<Double>();
+		long intervalStart = startDate.getTime();
+		long intervalEnd = intervalStart + millisecondsPerInterval;
+		while(intervalStart < endDate.getTime()) {
+			result.add(queryStatistic(dbHandler, statistic, column, intervalStart, intervalEnd));
+			intervalStart += millisecondsPerInterval;
+			intervalEnd = intervalStart + millisecondsPerInterval - 1000;
+		}
+		return result;
+	}
+
+	private static double queryStatistic(SqLiteDBHandler dbHandler, StatisticType statistic, ColumnType column, long start, long end) {
+		List<ColumnType> filterColumns = new ArrayList<ColumnType>();
+		filterColumns.add(ColumnType.TIMESTAMP);
+		List<Object[]> filterFrames = new ArrayList<Object[]>();
+		filterFrames.add(new Object[] {start, end});
+		return dbHandler.getStatisticWithFilter(EvaluationTable.GENERAL_EVALUATION_TABLE, statistic, column, filterColumns, filterFrames);
+	}
+
+}
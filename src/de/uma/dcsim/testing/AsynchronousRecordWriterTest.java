@@ -0,0 +1,202 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+
+import org.junit.Test;
+
+import de.uma.dcsim.database.BoundDatabaseRecord;
+import de.uma.dcsim.database.ColumnType;
+import de.uma.dcsim.database.DatabaseRecord;
+import de.uma.dcsim.database.EvaluationTable;
+import de.uma.dcsim.database.SqLiteDBHandler;
+import de.uma.dcsim.database.StatisticType;
+
+public class AsynchronousRecordWriterTest {
+
+	@Test
+	public void testAsynchronousWriterWritesAllRecords() throws IOException {
+		File dbFile = File.createTempFile("dcsim_writer_test", ".db");
+		dbFile.deleteOnExit();
+
+		Date simStart = new Date(1388534400000L);
+		Date simEnd = new Date(simStart.getTime() + 3L*86400000L);
+		ColumnType[] schema = EvaluationTable.getTableSchema(EvaluationTable.GENERAL_EVALUATION_TABLE);
+
+		SqLiteDBHandler dbHandler = new SqLiteDBHandler(dbFile.getAbsolutePath());
+		dbHandler.createRecordTables(simStart, simEnd, EvaluationTable.GENERAL_EVALUATION_TABLE);
+
+		//Small buffer and batch sizes, such that the simulation thread has to wait for the writer thread
+		dbHandler.startAsynchronousWriter(16, 7, 100);
+
+		int records = 3*1440;
+		double expectedSum = 0;
+		for(int i=0; i < records; i++) {
+			Object[] values = new Object[] {simStart.getTime() + (long)i*60000L, i, i%10, (double)i, 1.0, 2.0, 3.0, 4.0, 5.0};
+			dbHandler.insertRecord(new DatabaseRecord(schema, values));
+			expectedSum += i;
+
+			if(i%1440 == 0) {
+				dbHandler.commit();
+			}
+		}
+
+		dbHandler.flush();
+		assertTrue(dbHandler.getRowCount(EvaluationTable.GENERAL_EVALUATION_TABLE) == records);
+		assertTrue(dbHandler.getStatistic(EvaluationTable.GENERAL_EVALUATION_TABLE, ColumnType.TOTAL_EC, StatisticType.SUM) == expectedSum);
+
+		//Records that are inserted after a flush are written when the handler is closed
+		dbHandler.insertRecord(new DatabaseRecord(schema, new Object[] {simStart.getTime() + (long)records*60000L, 0, 0, 0.5, 1.0, 2.0, 3.0, 4.0, 5.0}));
+		dbHandler.close();
+
+		SqLiteDBHandler reopened = new SqLiteDBHandler(dbFile.getAbsolutePath());
+		assertTrue(reopened.getRowCount(EvaluationTable.GENERAL_EVALUATION_TABLE) == records+1);
+		reopened.close();
+	}
+
+	@Test
+	public void testBoundRecordIsReusable() throws IOException {
+		File dbFile = File.createTempFile("dcsim_bound_record_test", ".db");
+		dbFile.deleteOnExit();
+
+		Date simStart = new Date(1388534400000L);
+		Date simEnd = new Date(simStart.getTime() + 86400000L);
+
+		SqLiteDBHandler dbHandler = new SqLiteDBHandler(dbFile.getAbsolutePath());
+		dbHandler.createRecordTables(simStart, simEnd, EvaluationTable.GENERAL_EVALUATION_TABLE);
+
+		BoundDatabaseRecord record = new BoundDatabaseRecord(EvaluationTable.GENERAL_EVALUATION_TABLE);
+		int records = 1000;
+		double expectedSum = 0;
+		for(int i=0; i < 2*records; i++) {
+			//The first half of the records is inserted synchronously, the second half is buffered by the writer
+			if(i == records) {
+				dbHandler.startAsynchronousWriter(8, 3, 0);
+			}
+			record.setLong(ColumnType.TIMESTAMP, simStart.getTime() + (long)i*1000L);
+			record.setInt(ColumnType.NUMBER_OF_ACTIVE_NODES, i);
+			record.setInt(ColumnType.NUMBER_OF_RUNNING_JOBS, i%10);
+			record.setDouble(ColumnType.TOTAL_EC, i*0.5);
+			record.setDouble(ColumnType.IT_POWER, 1.0);
+			record.setDouble(ColumnType.HVAC_EC, 2.0);
+			record.setDouble(ColumnType.JOB_POWER, 3.0);
+			record.setDouble(ColumnType.ENERGY_COST, 4.0);
+			record.setDouble(ColumnType.SLA_COST, 5.0);
+			dbHandler.insertRecord(record);
+			expectedSum += i*0.5;
+		}
+		dbHandler.flush();
+
+		assertTrue(dbHandler.getRowCount(EvaluationTable.GENERAL_EVALUATION_TABLE) == 2*records);
+		assertTrue(dbHandler.getStatistic(EvaluationTable.GENERAL_EVALUATION_TABLE, ColumnType.TOTAL_EC, StatisticType.SUM) == expectedSum);
+		assertTrue(dbHandler.getStatistic(EvaluationTable.GENERAL_EVALUATION_TABLE, ColumnType.NUMBER_OF_ACTIVE_NODES, StatisticType.MAXIMUM) == 2*records-1);
+		dbHandler.close();
+	}
+
+	@Test
+	public void testWriterFailureIsRethrown() throws IOException {
+		File dbFile = File.createTempFile("dcsim_writer_failure_test", ".db");
+		dbFile.deleteOnExit();
+
+		Date simStart = new Date(1388534400000L);
+		ColumnType[] schema = EvaluationTable.getTableSchema(EvaluationTable.GENERAL_EVALUATION_TABLE);
+
+		SqLiteDBHandler dbHandler = new SqLiteDBHandler(dbFile.getAbsolutePath());
+		dbHandler.createRecordTables(simStart, simStart, EvaluationTable.GENERAL_EVALUATION_TABLE);
+		dbHandler.startAsynchronousWriter(4, 2, 0);
+
+		//The writer thread fails when it binds a value of the wrong type
+		dbHandler.insertRecord(new DatabaseRecord(schema, new Object[] {simStart.getTime(), 0, 0, "no double", 1.0, 2.0, 3.0, 4.0, 5.0}));
+		try {
+			dbHandler.flush();
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof ClassCastException);
+		}
+
+		//Further records are rejected instead of blocking the simulation thread once the buffer is full
+		try {
+			for(int i=0; i < 100; i++) {
+				dbHandler.insertRecord(new DatabaseRecord(schema, new Object[] {simStart.getTime() + i*1000L, i, 0, 0.5, 1.0, 2.0, 3.0, 4.0, 5.0}));
+			}
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof ClassCastException);
+		}
+
+		try {
+			dbHandler.close();
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof ClassCastException);
+		}
+	}
+
+	@Test
+	public void testBatchFailureIsRethrown() throws IOException, SQLException {
+		File dbFile = File.createTempFile("dcsim_batch_failure_test", ".db");
+		dbFile.deleteOnExit();
+
+		Date simStart = new Date(1388534400000L);
+		ColumnType[] schema = EvaluationTable.getTableSchema(EvaluationTable.GENERAL_EVALUATION_TABLE);
+
+		SqLiteDBHandler dbHandler = new SqLiteDBHandler(dbFile.getAbsolutePath());
+		dbHandler.createRecordTables(simStart, simStart, EvaluationTable.GENERAL_EVALUATION_TABLE);
+		dbHandler.commit();
+
+		//Every insert into the record tables is aborted by the database, thus the execution of the JDBC batches fails
+		Connection connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile.getAbsolutePath());
+		Statement st = connection.createStatement();
+		ArrayList<String> tableNames = new ArrayList<String>();
+		ResultSet tables = st.executeQuery("select name from sqlite_master where type = 'table';");
+		while(tables.next()) {
+			tableNames.add(tables.getString(1));
+		}
+		tables.close();
+		for(String tableName : tableNames) {
+			st.executeUpdate("create trigger abort_" + tableName + " before insert on " + tableName + " begin select raise(abort, 'insert rejected'); end;");
+		}
+		st.close();
+		connection.close();
+
+		dbHandler.startAsynchronousWriter(4, 2, 0);
+		dbHandler.insertRecord(new DatabaseRecord(schema, new Object[] {simStart.getTime(), 0, 0, 0.5, 1.0, 2.0, 3.0, 4.0, 5.0}));
+		try {
+			dbHandler.flush();
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof SQLException);
+		}
+
+		try {
+			dbHandler.insertRecord(new DatabaseRecord(schema, new Object[] {simStart.getTime() + 1000L, 1, 0, 0.5, 1.0, 2.0, 3.0, 4.0, 5.0}));
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof SQLException);
+		}
+
+		try {
+			dbHandler.close();
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof SQLException);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBoundRecordRejectsForeignColumns() {
+		BoundDatabaseRecord record = new BoundDatabaseRecord(EvaluationTable.GENERAL_EVALUATION_TABLE);
+		record.setDouble(ColumnType.JOB_FREQUENCY, 2.0);
+	}
+
+}
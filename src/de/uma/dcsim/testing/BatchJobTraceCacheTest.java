@@ -0,0 +1,118 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uma.dcsim.simulationControl.Setup;
+import de.uma.dcsim.utilities.BatchJob;
+import de.uma.dcsim.utilities.BatchJobParser;
+import de.uma.dcsim.utilities.BatchJobTraceCache;
+import de.uma.dcsim.utilities.BinaryBatchJobTrace;
+import de.uma.dcsim.utilities.ListWorkloadSource;
+import de.uma.dcsim.utilities.TraceWorkloadSource;
+import de.uma.dcsim.utilities.WorkloadSource;
+
+public class BatchJobTraceCacheTest {
+
+	@Test
+	public void testCachedTraceMatchesParsedTrace() throws IOException {
+		File traceFile = BatchJobTraceCacheTest.writeTrace();
+
+		Date simStartDate = new Date(1388534400000L);
+		boolean jobTraceCache = Setup.jobTraceCache;
+		Setup.jobTraceCache = true;
+		try {
+			assertNull(BatchJobTraceCache.open(traceFile, simStartDate));
+			List<BatchJob> parsedJobs = BatchJobParser.parseJobFile(traceFile.getPath(), simStartDate);
+			BinaryBatchJobTrace cachedTrace = BatchJobTraceCache.open(traceFile, simStartDate);
+			assertNotNull(cachedTrace);
+			List<BatchJob> cachedJobs = BatchJobParser.parseJobFile(traceFile.getPath(), simStartDate);
+
+			assertEquals(3, parsedJobs.size());
+			assertEquals(parsedJobs.size(), cachedJobs.size());
+			for(int i=0; i < parsedJobs.size(); i++) {
+				BatchJob parsed = parsedJobs.get(i);
+				BatchJob cached = cachedJobs.get(i);
+				assertEquals(parsed.getId(), cached.getId());
+				assertEquals(parsed.getFrequency(), cached.getFrequency(), 0.0);
+				assertEquals(parsed.getAmountOfServers(), cached.getAmountOfServers());
+				assertEquals(parsed.getDurationInSimulationTime(), cached.getDurationInSimulationTime());
+				assertEquals(parsed.getSubmissionTime(), cached.getSubmissionTime());
+				assertEquals(parsed.getStartTime(), cached.getStartTime());
+				assertEquals(parsed.getSLADeadline(), cached.getSLADeadline());
+				assertEquals(parsed.getJobClass(), cached.getJobClass());
+			}
+
+			//Jobs with equal submission times keep the order of the trace
+			assertEquals("job1", cachedTrace.getJobInSubmissionOrder(0).getId());
+			assertEquals("job2", cachedTrace.getJobInSubmissionOrder(1).getId());
+			assertEquals("job0", cachedTrace.getJobInSubmissionOrder(2).getId());
+			assertEquals(0, cachedTrace.getFirstRankSubmittedAt(0));
+			assertEquals(0, cachedTrace.getFirstRankSubmittedAt(300));
+			assertEquals(2, cachedTrace.getFirstRankSubmittedAt(301));
+			assertEquals(3, cachedTrace.getFirstRankSubmittedAt(601));
+
+			//The cache is only valid for the simulation start time for which it was created
+			assertNull(BatchJobTraceCache.open(traceFile, new Date(simStartDate.getTime() + 1000L)));
+		} finally {
+			Setup.jobTraceCache = jobTraceCache;
+		}
+	}
+
+	@Test
+	public void testWorkloadSourcesProvideJobsInSubmissionOrder() throws IOException {
+		File traceFile = BatchJobTraceCacheTest.writeTrace();
+		Date simStartDate = new Date(1388534400000L);
+		BinaryBatchJobTrace trace = BatchJobParser.openJobTrace(traceFile.getPath(), simStartDate);
+		assertNotNull(trace);
+
+		List<BatchJob> sortedJobs = trace.getJobs();
+		sortedJobs.sort((j1, j2) -> Integer.compare(j1.getSubmissionTime(), j2.getSubmissionTime()));
+		WorkloadSource[] sources = {new TraceWorkloadSource(trace), new ListWorkloadSource(sortedJobs, true)};
+		for(WorkloadSource source : sources) {
+			assertEquals(300, source.getNextSubmissionTime());
+			BatchJob first = source.next();
+			assertEquals("job1", first.getId());
+			assertNotSame(sortedJobs.get(0), first);
+			assertEquals("job2", source.next().getId());
+			assertEquals(600, source.getNextSubmissionTime());
+			assertEquals("job0", source.next().getId());
+			assertEquals(3, source.getPosition());
+			assertEquals(Integer.MAX_VALUE, source.getNextSubmissionTime());
+
+			//Restoring a checkpoint moves the cursor back
+			source.seek(1);
+			assertEquals("job2", source.next().getId());
+		}
+	}
+
+	private static File writeTrace() throws IOException {
+		File traceFile = File.createTempFile("dcsim_trace_cache", ".csv");
+		traceFile.deleteOnExit();
+		BatchJobTraceCache.getCacheFile(traceFile).deleteOnExit();
+
+		BufferedWriter out = new BufferedWriter(new FileWriter(traceFile));
+		out.write("id;freq;servers;apc;sub;start;end;sla;class");
+		out.newLine();
+		out.write("job0;2.7;1;200;01.01.2014 00:10:00;01.01.2014 00:20:00;01.01.2014 01:20:00;01.01.2014 03:00:00;2");
+		out.newLine();
+		out.write("job1;2.3;8;180;01.01.2014 00:05:00;01.01.2014 00:30:00;01.01.2014 00:45:00;01.01.2014 02:00:00;1");
+		out.newLine();
+		out.write("job2;1.2;4;150;01.01.2014 00:05:00;01.01.2014 00:06:00;01.01.2014 00:06:00;01.01.2014 01:00:00;3");
+		out.newLine();
+		out.close();
+		return traceFile;
+	}
+
+}
@@ -0,0 +1,90 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import de.uma.dcsim.runtimeModels.BetaRuntimeImpactModel;
+import de.uma.dcsim.runtimeModels.DVFSRuntimeImpactModel;
+import de.uma.dcsim.runtimeModels.RuntimeModelSelector;
+import de.uma.dcsim.utilities.FrequencyIndex;
+
+public class BetaRuntimeImpactModelTest {
+
+	private static final double[] BETAS = {0.754,0.775,0.768,0.776,0.774,0.777,0.78,0.793,0.798,0.802,0.806,0.811,0.813,0.815,0.819};
+
+	private static final double[] FREQUENCIES = {2.6,2.5,2.4,2.3,2.2,2.1,2.0,1.9,1.8,1.7,1.6,1.5,1.4,1.3,1.2};
+
+	@Test
+	public void testFrequencyIndex() {
+		assertEquals(FrequencyIndex.COUNT, FREQUENCIES.length + 1);
+		for(int i=0; i < FREQUENCIES.length; i++) {
+			FrequencyIndex index = FrequencyIndex.of(FREQUENCIES[i]);
+			assertEquals(FrequencyIndex.COUNT - 2 - i, index.getIndex());
+			assertEquals(FREQUENCIES[i], index.getFrequency(), 0.0);
+			assertSame(index, FrequencyIndex.get(index.getIndex()));
+		}
+		assertSame(FrequencyIndex.MAXIMUM, FrequencyIndex.of(2.7));
+		assertSame(FrequencyIndex.MINIMUM, FrequencyIndex.of(1.2));
+		//Frequencies that only differ in the last bit are not discrete execution frequencies
+		assertEquals(-1, FrequencyIndex.indexOf(Math.nextUp(2.0)));
+		assertEquals(-1, FrequencyIndex.indexOf(1.25));
+		assertEquals(-1, FrequencyIndex.indexOf(2.8));
+		try {
+			FrequencyIndex.of(1.1);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	@Test
+	public void testDiscreteFrequenciesMatchBetaFormula() {
+		DVFSRuntimeImpactModel model = RuntimeModelSelector.createRuntimeModel();
+		double[] frequencies = new double[FREQUENCIES.length + 1];
+		double[] betas = new double[BETAS.length + 1];
+		System.arraycopy(FREQUENCIES, 0, frequencies, 0, FREQUENCIES.length);
+		System.arraycopy(BETAS, 0, betas, 0, BETAS.length);
+		frequencies[FREQUENCIES.length] = 2.7;
+		for(int a=0; a < frequencies.length; a++) {
+			for(int c=0; c < frequencies.length; c++) {
+				for(int remainingRuntime : new int[] {0, 1, 17, 3600, 86399}) {
+					int tFmax = (int)((double)remainingRuntime / fraction(betas[c], frequencies[c]));
+					assertEquals((int)((double)tFmax * fraction(betas[a], frequencies[a])),
+							model.getAdjustedRuntime(frequencies[a], frequencies[c], remainingRuntime));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testOffGridFrequencies() {
+		BetaRuntimeImpactModel model = new BetaRuntimeImpactModel(BETAS, FREQUENCIES, 2.7);
+		//The beta value of 1.25 GHz is interpolated between 1.2 GHz (0.819) and 1.3 GHz (0.815)
+		double expected = fraction(0.817, 1.25);
+		assertEquals((int)(100000.0 * expected), model.getAdjustedRuntime(1.25, 2.7, 100000), 1);
+
+		//Discrete execution frequencies between the available frequencies of a model are interpolated as well
+		BetaRuntimeImpactModel coarseModel = new BetaRuntimeImpactModel(new double[] {0.8}, new double[] {1.5}, 2.7);
+		assertEquals((int)(100000.0 * fraction(0.4, 2.1)), coarseModel.getAdjustedRuntime(2.1, 2.7, 100000), 1);
+		try {
+			coarseModel.getAdjustedRuntime(1.2, 2.7, 1000);
+			fail("IllegalArgumentException expected");
+		} catch (IllegalArgumentException e) {
+		}
+
+		for(double frequency : new double[] {1.1, 2.8, Double.NaN}) {
+			try {
+				model.getAdjustedRuntime(frequency, 2.7, 1000);
+				fail("IllegalArgumentException expected for " + frequency);
+			} catch (IllegalArgumentException e) {
+			}
+		}
+	}
+
+	private static double fraction(double beta, double f) {
+		return (beta * ((2.7/f) - 1.0)) + 1.0;
+	}
+
+}
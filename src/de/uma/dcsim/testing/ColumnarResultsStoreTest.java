@@ -0,0 +1,146 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uma.dcsim.database.BoundDatabaseRecord;
+import de.uma.dcsim.database.ColumnType;
+import de.uma.dcsim.database.ColumnarResultsStore;
+import de.uma.dcsim.database.DatabaseRecord;
+import de.uma.dcsim.database.EvaluationTable;
+import de.uma.dcsim.database.ResultsBackend;
+import de.uma.dcsim.database.ResultsBackendType;
+import de.uma.dcsim.database.SqLiteDBHandler;
+import de.uma.dcsim.database.StatisticType;
+import de.uma.dcsim.evaluation.SimulationEvaluator;
+
+public class ColumnarResultsStoreTest {
+
+	@Test
+	public void testColumnarStoreMatchesSqLite() throws IOException {
+		File dbFile = File.createTempFile("dcsim_columnar_reference", ".db");
+		dbFile.deleteOnExit();
+		File storeDirectory = Files.createTempDirectory("dcsim_columnar_store").toFile();
+		storeDirectory.deleteOnExit();
+
+		Date simStart = new Date(1388534400000L);
+		Date simEnd = new Date(simStart.getTime() + 2L*86400000L);
+
+		ResultsBackend[] backends = new ResultsBackend[] {new SqLiteDBHandler(dbFile.getAbsolutePath()), new ColumnarResultsStore(storeDirectory.getAbsolutePath())};
+		for(ResultsBackend backend : backends) {
+			writeRecords(backend, simStart, simEnd);
+		}
+
+		//Statistics over whole days, single hours and intervals that do not contain any record
+		long[][] intervals = new long[][] {{simStart.getTime(), simEnd.getTime()}, {simStart.getTime() + 3600000L, simStart.getTime() + 7199000L},
+			{simStart.getTime() + 86399000L, simStart.getTime() + 86401000L}, {simEnd.getTime() + 1000L, simEnd.getTime() + 3600000L}};
+		for(long[] interval : intervals) {
+			for(StatisticType statistic : StatisticType.values()) {
+				for(ColumnType column : new ColumnType[] {ColumnType.TOTAL_EC, ColumnType.NUMBER_OF_ACTIVE_NODES}) {
+					assertEquals(getStatistic(backends[0], statistic, column, interval), getStatistic(backends[1], statistic, column, interval), 1e-6);
+				}
+			}
+		}
+		for(EvaluationTable table : EvaluationTable.values()) {
+			assertEquals(backends[0].getRowCount(table), backends[1].getRowCount(table));
+		}
+
+		ArrayList<DatabaseRecord> expected = backends[0].getRecordsBetweenDates(EvaluationTable.FINISHED_JOB_INFO_TABLE, simStart, simEnd);
+		ArrayList<DatabaseRecord> actual = backends[1].getRecordsBetweenDates(EvaluationTable.FINISHED_JOB_INFO_TABLE, simStart, simEnd);
+		assertEquals(expected.size(), actual.size());
+		for(int i=0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getString(ColumnType.JOB_ID), actual.get(i).getString(ColumnType.JOB_ID));
+			assertEquals(expected.get(i).getLong(ColumnType.JOB_DELAY_IN_SECONDS), actual.get(i).getLong(ColumnType.JOB_DELAY_IN_SECONDS));
+		}
+
+		for(ResultsBackend backend : backends) {
+			backend.close();
+		}
+
+		//The evaluator detects the format of the results and reads the closed store through the same interface
+		assertTrue(ResultsBackendType.detectFromPath(storeDirectory.getAbsolutePath()) == ResultsBackendType.COLUMNAR);
+		assertTrue(ResultsBackendType.detectFromPath(dbFile.getAbsolutePath()) == ResultsBackendType.SQLITE);
+		SimulationEvaluator sqLiteEvaluator = new SimulationEvaluator(simStart, dbFile.getAbsolutePath());
+		SimulationEvaluator columnarEvaluator = new SimulationEvaluator(simStart, storeDirectory.getAbsolutePath());
+		assertEquals(sqLiteEvaluator.getTotalSum(EvaluationTable.GENERAL_EVALUATION_TABLE, simStart, simEnd, ColumnType.ENERGY_COST),
+				columnarEvaluator.getTotalSum(EvaluationTable.GENERAL_EVALUATION_TABLE, simStart, simEnd, ColumnType.ENERGY_COST), 1e-6);
+		assertEquals(sqLiteEvaluator.getStatistic(StatisticType.AVERAGE, EvaluationTable.GENERAL_EVALUATION_TABLE, simStart, simEnd, ColumnType.TOTAL_EC, 3600000L),
+				columnarEvaluator.getStatistic(StatisticType.AVERAGE, EvaluationTable.GENERAL_EVALUATION_TABLE, simStart, simEnd, ColumnType.TOTAL_EC, 3600000L));
+	}
+
+	@Test
+	public void testOnlyCommittedRecordsAreVisibleAfterReopening() throws IOException {
+		File storeDirectory = Files.createTempDirectory("dcsim_columnar_commit").toFile();
+		storeDirectory.deleteOnExit();
+		Date simStart = new Date(1388534400000L);
+
+		ColumnarResultsStore store = new ColumnarResultsStore(storeDirectory.getAbsolutePath());
+		store.createRecordTables(simStart, simStart, EvaluationTable.GENERAL_EVALUATION_TABLE);
+		BoundDatabaseRecord record = new BoundDatabaseRecord(EvaluationTable.GENERAL_EVALUATION_TABLE);
+		for(int i=0; i < 5000; i++) {
+			if(i == 3000) {
+				store.commit();
+			}
+			record.setLong(ColumnType.TIMESTAMP, simStart.getTime() + i*1000L);
+			record.setDouble(ColumnType.TOTAL_EC, 1.0);
+			store.insertRecord(record);
+		}
+		assertEquals(5000, store.getRowCount(EvaluationTable.GENERAL_EVALUATION_TABLE));
+
+		//A second store on the same directory only sees the committed rows and appends after them
+		ColumnarResultsStore reader = new ColumnarResultsStore(storeDirectory.getAbsolutePath());
+		assertEquals(3000, reader.getRowCount(EvaluationTable.GENERAL_EVALUATION_TABLE));
+		assertEquals(3000.0, reader.getStatistic(EvaluationTable.GENERAL_EVALUATION_TABLE, ColumnType.TOTAL_EC, StatisticType.SUM), 0.0);
+		reader.close();
+		store.close();
+	}
+
+	private static void writeRecords(ResultsBackend backend, Date simStart, Date simEnd) {
+		for(EvaluationTable table : EvaluationTable.values()) {
+			backend.createRecordTables(simStart, simEnd, table);
+		}
+
+		BoundDatabaseRecord record = new BoundDatabaseRecord(EvaluationTable.GENERAL_EVALUATION_TABLE);
+		ColumnType[] jobSchema = EvaluationTable.getTableSchema(EvaluationTable.FINISHED_JOB_INFO_TABLE);
+		long timestamp;
+		for(int i=0; i < 2*86400; i += 10) {
+			timestamp = simStart.getTime() + i*1000L;
+			record.setLong(ColumnType.TIMESTAMP, timestamp);
+			record.setInt(ColumnType.NUMBER_OF_ACTIVE_NODES, i%97);
+			record.setInt(ColumnType.NUMBER_OF_RUNNING_JOBS, i%13);
+			record.setDouble(ColumnType.TOTAL_EC, (i%1000)*0.25);
+			record.setDouble(ColumnType.IT_POWER, 1.0);
+			record.setDouble(ColumnType.HVAC_EC, 2.0);
+			record.setDouble(ColumnType.JOB_POWER, 3.0);
+			record.setDouble(ColumnType.ENERGY_COST, (i%7)*0.125);
+			record.setDouble(ColumnType.SLA_COST, 0.0);
+			backend.insertRecord(record);
+
+			if(i%3600 == 0) {
+				backend.insertRecord(new DatabaseRecord(jobSchema, new Object[] {timestamp, "job_" + i, timestamp - 7200000L, timestamp, 7200L, (long)(i%60), 2.3}));
+			}
+			if(i%86400 == 0) {
+				backend.commit();
+			}
+		}
+		backend.flush();
+	}
+
+	private static double getStatistic(ResultsBackend backend, StatisticType statistic, ColumnType column, long[] interval) {
+		List<ColumnType> filterColumns = new ArrayList<ColumnType>();
+		filterColumns.add(ColumnType.TIMESTAMP);
+		List<Object[]> filterFrames = new ArrayList<Object[]>();
+		filterFrames.add(new Object[] {interval[0], interval[1]});
+		return backend.getStatisticWithFilter(EvaluationTable.GENERAL_EVALUATION_TABLE, statistic, column, filterColumns, filterFrames);
+	}
+
+}
@@ -0,0 +1,71 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.uma.dcsim.powerModels.frequencyBasedServerPowerModels.CompiledServerPowerModel;
+import de.uma.dcsim.powerModels.frequencyBasedServerPowerModels.WekaBasedServerPowerModel;
+import weka.classifiers.functions.LinearRegression;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+public class CompiledServerPowerModelTest {
+
+	@Test
+	public void testCompiledModelMatchesWekaModel() throws Exception {
+		File wekaModelFile = File.createTempFile("dcsim_power_model", ".mod");
+		wekaModelFile.deleteOnExit();
+		File compiledModelFile = File.createTempFile("dcsim_power_model", ".cpm");
+		compiledModelFile.deleteOnExit();
+
+		//Linear regression models of the form P_serv = k_1*f^3 + k_2 for three job classes
+		Random random = new Random(3);
+		ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(wekaModelFile));
+		out.writeInt(3);
+		for(int c=0; c < 3; c++) {
+			ArrayList<Attribute> attributes = new ArrayList<Attribute>();
+			attributes.add(new Attribute("f3"));
+			attributes.add(new Attribute("power"));
+			Instances data = new Instances("power", attributes, 0);
+			data.setClassIndex(1);
+			for(int i=12; i <= 27; i++) {
+				double f3 = Math.pow(i/10.0, 3);
+				data.add(new DenseInstance(1.0, new double[] {f3, 50.0 + (4.0 + c)*f3 + random.nextDouble()}));
+			}
+			LinearRegression classifier = new LinearRegression();
+			classifier.buildClassifier(data);
+			out.writeObject(classifier);
+		}
+		out.close();
+
+		WekaBasedServerPowerModel wekaModel = new WekaBasedServerPowerModel(wekaModelFile.getPath());
+		wekaModel.compile().write(compiledModelFile.getPath());
+		assertTrue(CompiledServerPowerModel.isCompiledModelFile(compiledModelFile.getPath()));
+		assertFalse(CompiledServerPowerModel.isCompiledModelFile(wekaModelFile.getPath()));
+		CompiledServerPowerModel compiledModel = CompiledServerPowerModel.read(compiledModelFile.getPath());
+		assertEquals(3, compiledModel.getJobClassCount());
+
+		for(int c=0; c < 3; c++) {
+			//Discrete frequencies are served from the table
+			for(int i=12; i <= 27; i++) {
+				assertEquals(wekaModel.getPower(i/10.0, c), compiledModel.getPower(i/10.0, c), 0.0);
+			}
+			//Other frequencies are calculated from the coefficients
+			for(int i=0; i < 1000; i++) {
+				double frequency = 1.0 + 2.0*random.nextDouble();
+				assertEquals(wekaModel.getPower(frequency, c), compiledModel.getPower(frequency, c), 0.0);
+			}
+		}
+	}
+
+}
@@ -8,7 +8,17 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
@@ -229,4 +239,198 @@ public class DeepCopyTest {
 		
 	}
 
+	@Test
+	public void testDeepCopiesAreIndependent() throws IOException {
+		InputStream in = new BufferedInputStream(new FileInputStream("src/main/resources/SuperMUC_testSetup.xml"));
+		Setup setup = new Setup();
+		setup.readDC(in);
+
+		List<DC> dcs = setup.getDcs();
+		in.close();
+
+		dcs.get(0).setupDC();
+		
+		//Copies do not write results to the database, thus the state that is copied is simulated on a copy
+		DC original = dcs.get(0).deepCopy(dcs.get(0).getEndOfNextSchedulingInterval());
+		for(int i=0; i < 10000; i++) {
+			original.scheduleJobs();
+			original.updateJobAllocation(true, true);
+		}
+		
+		List<Server> originalIdleServer = new ArrayList<Server>(original.getIdleServer());
+		
+		DC copy = original.deepCopy(original.getEndOfNextSchedulingInterval());
+		DC otherCopy = original.deepCopy(original.getEndOfNextSchedulingInterval());
+		
+		assertTrue(copy.getOverallCurrentPC() == otherCopy.getOverallCurrentPC());
+		assertTrue(copy.getOccupiedServerPC() == otherCopy.getOccupiedServerPC());
+		assertTrue(copy.getOccupiedServer().size() == otherCopy.getOccupiedServer().size());
+		assertTrue(copy.getIdleServer().size() == otherCopy.getIdleServer().size());
+		assertNoSharedServers(original, copy);
+		assertNoSharedServers(original, otherCopy);
+		assertNoSharedServers(copy, otherCopy);
+		
+		for(int i=0; i < 100000; i++) {
+			copy.scheduleJobs();
+			copy.updateJobAllocation(true, true);
+			
+			otherCopy.scheduleJobs();
+			otherCopy.updateJobAllocation(true, true);
+			
+			assertCopiesEquivalent(copy, otherCopy);
+		}
+		
+		//The idle servers of the original must not be modified by the copies
+		for(Server s : originalIdleServer) {
+			assertTrue(s.getStatus() == ServerStatus.IDLE);
+			assertTrue(s.getCurrentJob() == null);
+		}
+		assertTrue(original.getIdleServer().size() == originalIdleServer.size());
+		
+		//Copies of copies and DR event windows
+		DC copy2 = copy.deepCopy(copy.getEndOfNextSchedulingInterval());
+		DC otherCopy2 = otherCopy.deepCopy(otherCopy.getEndOfNextSchedulingInterval());
+		int copyTime = otherCopy2.getClock();
+		assertNoSharedServers(otherCopy, otherCopy2);
+		
+		SimpleDREventHandler copy2Handler = (SimpleDREventHandler)copy2.getDREventHandler();
+		SimpleDREventHandler otherCopy2Handler = (SimpleDREventHandler)otherCopy2.getDREventHandler();
+		
+		copy2Handler.setShiftingFraction(0.8);
+		copy2Handler.setScalingFrequency(2.0);
+		copy2Handler.issueDemandResponseRequest(100, ReserveProvisionType.POSITIVE, 900, 0);
+		
+		otherCopy2Handler.setShiftingFraction(0.8);
+		otherCopy2Handler.setScalingFrequency(2.0);
+		otherCopy2Handler.issueDemandResponseRequest(100, ReserveProvisionType.POSITIVE, 900, 0);
+		
+		for(int i=0; i < 100000; i++) {
+			copy2.scheduleJobs();
+			copy2.updateJobAllocation(true, true);
+			
+			otherCopy2.scheduleJobs();
+			otherCopy2.updateJobAllocation(true, true);
+			
+			//The parent of the copy continues its simulation while the copy is used
+			otherCopy.scheduleJobs();
+			otherCopy.updateJobAllocation(true, true);
+			
+			assertCopiesEquivalent(copy2, otherCopy2);
+		}
+		
+		assertTrue(copy2.getCostsInSpecifiedInterval(copyTime, copy2.getClock()) == otherCopy2.getCostsInSpecifiedInterval(copyTime, otherCopy2.getClock()));
+	}
+	
+	@Test
+	public void testConcurrentCopiesOfStreamedWorkload() throws IOException, InterruptedException, ExecutionException {
+		//The jobs are pulled from the workload source when the DC is copied, which happens concurrently during a parallel DR optimization
+		Setup.jobTraceCache = true;
+		Setup.streamingWorkload = true;
+		int parallelism = 8;
+		
+		InputStream in = new BufferedInputStream(new FileInputStream("src/main/resources/SuperMUC_testSetup.xml"));
+		Setup setup = new Setup();
+		setup.readDC(in);
+
+		List<DC> dcs = setup.getDcs();
+		in.close();
+
+		dcs.get(0).setupDC();
+		DC original = dcs.get(0);
+		for(int i=0; i < 1000; i++) {
+			original.scheduleJobs();
+			original.updateJobAllocation(true, true);
+		}
+		
+		int copyCount = 8*parallelism;
+		List<Callable<double[]>> tasks = new ArrayList<Callable<double[]>>();
+		for(int k=0; k < copyCount; k++) {
+			int lastSubmissionDate = original.getClock() + (k%8 + 1)*900;
+			tasks.add(() -> simulateCopies(original, lastSubmissionDate));
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+		List<Future<double[]>> results;
+		try {
+			results = pool.invokeAll(tasks);
+		} finally {
+			pool.shutdown();
+		}
+		
+		//Each job is pulled exactly once from the workload source
+		HashSet<String> ids = new HashSet<String>();
+		int previousSubmissionTime = Integer.MIN_VALUE;
+		for(BatchJob job : original.getUnsubmittedParsedJobs()) {
+			assertTrue(ids.add(job.getId()));
+			assertTrue(job.getSubmissionTime() >= previousSubmissionTime);
+			previousSubmissionTime = job.getSubmissionTime();
+		}
+		
+		//The concurrently created copies behave like copies that are created one after another
+		for(int k=0; k < copyCount; k++) {
+			double[] expected = simulateCopies(original, original.getClock() + (k%8 + 1)*900);
+			double[] actual = results.get(k).get();
+			for(int i=0; i < expected.length; i++) {
+				assertTrue(expected[i] == actual[i]);
+			}
+		}
+	}
+	
+	/**
+	 * Simulates a copy of the specified DC and a copy of that copy, both request additional unsubmitted jobs from the DC while they are simulated.
+	 * @return Costs, finished jobs and current power consumption of both copies.
+	 */
+	private static double[] simulateCopies(DC original, int lastSubmissionDate) {
+		int copyTime = original.getClock();
+		DC copy = original.deepCopy(lastSubmissionDate);
+		for(int i=0; i < 5000; i++) {
+			copy.scheduleJobs();
+			copy.updateJobAllocation(true, true);
+		}
+		DC copy2 = copy.deepCopy(copy.getEndOfNextSchedulingInterval());
+		for(int i=0; i < 5000; i++) {
+			copy.scheduleJobs();
+			copy.updateJobAllocation(true, true);
+			copy2.scheduleJobs();
+			copy2.updateJobAllocation(true, true);
+		}
+		return new double[] {copy.getCostsInSpecifiedInterval(copyTime, copy.getClock()), copy.getFinishedJobs().size(), copy.getOverallCurrentPC(),
+				copy2.getCostsInSpecifiedInterval(copyTime + 5000, copy2.getClock()), copy2.getFinishedJobs().size(), copy2.getOverallCurrentPC()};
+	}
+	
+	private static void assertNoSharedServers(DC dc, DC copy) {
+		Set<Server> servers = Collections.newSetFromMap(new IdentityHashMap<Server, Boolean>());
+		servers.addAll(dc.getServer());
+		for(Server s : copy.getServer()) {
+			assertFalse(servers.contains(s));
+		}
+	}
+	
+	private static void assertCopiesEquivalent(DC copy, DC otherCopy) {
+		assertTrue(copy.getClock() == otherCopy.getClock());
+		assertTrue(copy.getOverallCurrentPC() == otherCopy.getOverallCurrentPC());
+		assertTrue(copy.getOccupiedServerPC() == otherCopy.getOccupiedServerPC());
+		assertTrue(copy.getEnergyCostOfCurrentTimestep() == otherCopy.getEnergyCostOfCurrentTimestep());
+		
+		assertTrue(copy.getOccupiedServer().size() == otherCopy.getOccupiedServer().size());
+		assertTrue(copy.getIdleServer().size() == otherCopy.getIdleServer().size());
+		assertTrue(copy.getRunningJobs().size() == otherCopy.getRunningJobs().size());
+		assertTrue(copy.getPausedJobs().size() == otherCopy.getPausedJobs().size());
+		assertTrue(copy.getFinishedJobs().size() == otherCopy.getFinishedJobs().size());
+		
+		for(int i=0; i < copy.getOccupiedServer().size(); i++) {
+			Server cs = copy.getOccupiedServer().get(i);
+			Server fs = otherCopy.getOccupiedServer().get(i);
+			assertTrue(cs != fs);
+			assertTrue(cs.getId() == fs.getId());
+			assertTrue(cs.getStatus() == fs.getStatus());
+			assertTrue(cs.getCurrentPC() == fs.getCurrentPC());
+			if(cs.getCurrentJob() != null) {
+				assertTrue(cs.getCurrentJob().getId().equals(fs.getCurrentJob().getId()));
+			}
+			else {
+				assertTrue(fs.getCurrentJob() == null);
+			}
+		}
+	}
+
 }
@@ -0,0 +1,58 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import org.junit.Test;
+
+import de.uma.dcsim.database.BoundDatabaseRecord;
+import de.uma.dcsim.database.ColumnType;
+import de.uma.dcsim.database.DeferredRecordBuffer;
+import de.uma.dcsim.database.EvaluationTable;
+
+public class DeferredRecordBufferTest {
+
+	@Test
+	public void testBufferedRecordsAreCopies() {
+		DeferredRecordBuffer buffer = new DeferredRecordBuffer();
+		BoundDatabaseRecord record = new BoundDatabaseRecord(EvaluationTable.GENERAL_EVALUATION_TABLE);
+
+		//The caller reuses its record instance for all timesteps
+		for(int i=0; i < 10; i++) {
+			record.setLong(ColumnType.TIMESTAMP, 1000L*i);
+			record.setDouble(ColumnType.TOTAL_EC, 0.5*i);
+			buffer.insertRecord(record);
+		}
+		assertEquals(10, buffer.getBoundRecordCount());
+		for(int i=0; i < 10; i++) {
+			assertNotSame(record, buffer.getBoundRecord(i));
+			assertEquals(1000L*i, buffer.getBoundRecord(i).getLong(ColumnType.TIMESTAMP));
+			assertEquals(0.5*i, buffer.getBoundRecord(i).getDouble(ColumnType.TOTAL_EC), 0.0);
+		}
+	}
+
+	@Test
+	public void testOwnedRecordsAreReusedForOtherTables() {
+		DeferredRecordBuffer buffer = new DeferredRecordBuffer();
+		BoundDatabaseRecord generalRecord = new BoundDatabaseRecord(EvaluationTable.GENERAL_EVALUATION_TABLE);
+		generalRecord.setLong(ColumnType.TIMESTAMP, 42L);
+		generalRecord.setInt(ColumnType.NUMBER_OF_RUNNING_JOBS, 7);
+		buffer.insertRecord(generalRecord);
+		BoundDatabaseRecord firstRecord = buffer.getBoundRecord(0);
+		buffer.clear();
+		assertEquals(0, buffer.getBoundRecordCount());
+
+		BoundDatabaseRecord jobInfoRecord = new BoundDatabaseRecord(EvaluationTable.FINISHED_JOB_INFO_TABLE);
+		jobInfoRecord.setLong(ColumnType.TIMESTAMP, 43L);
+		buffer.insertRecord(jobInfoRecord);
+		buffer.insertRecord(generalRecord);
+
+		//The first owned record is rebound to the table of the buffered record
+		assertEquals(firstRecord, buffer.getBoundRecord(0));
+		assertEquals(EvaluationTable.FINISHED_JOB_INFO_TABLE, buffer.getBoundRecord(0).getTargetEvaluationTable());
+		assertEquals(43L, buffer.getBoundRecord(0).getLong(ColumnType.TIMESTAMP));
+		assertEquals(EvaluationTable.GENERAL_EVALUATION_TABLE, buffer.getBoundRecord(1).getTargetEvaluationTable());
+		assertEquals(7, buffer.getBoundRecord(1).getInt(ColumnType.NUMBER_OF_RUNNING_JOBS));
+	}
+
+}
@@ -0,0 +1,167 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uma.dcsim.eventHandling.Event;
+import de.uma.dcsim.eventHandling.EventQueue;
+import de.uma.dcsim.eventHandling.EventType;
+
+public class EventQueueTest {
+
+	@Test
+	public void testEventsAreReturnedInSchedulingOrder() {
+		EventQueue queue = new EventQueue();
+		Event first = new Event(EventType.JOB_START, 10);
+		Event second = new Event(EventType.JOB_START, 10);
+		Event later = new Event(EventType.JOB_START, 20);
+
+		queue.scheduleEvent(later);
+		queue.scheduleEvent(first);
+		queue.scheduleEvent(second);
+		queue.scheduleEvent(first);
+
+		assertEquals(10, queue.nextEventTime());
+		assertNull(queue.getEvents(EventType.JOB_FINISH, 10));
+
+		List<Event> events = queue.getEvents(EventType.JOB_START, 10);
+		assertEquals(2, events.size());
+		assertSame(first, events.get(0));
+		assertSame(second, events.get(1));
+
+		queue.handledEvent(first);
+		assertEquals(1, queue.getEvents(EventType.JOB_START, 10).size());
+
+		queue.rescheduleEvent(second, 20);
+		assertTrue(queue.getEvents(EventType.JOB_START, 10).isEmpty());
+		assertEquals(20, queue.nextEventTime());
+
+		events = queue.getEvents(EventType.JOB_START, 20);
+		assertEquals(2, events.size());
+		assertSame(later, events.get(0));
+		assertSame(second, events.get(1));
+	}
+
+	@Test
+	public void testRescheduleAndUnschedule() {
+		EventQueue queue = new EventQueue();
+		Event[] events = new Event[1000];
+		for(int i=0; i < events.length; i++) {
+			events[i] = new Event(EventType.SERVER_UPDATE, (i*7919)%events.length);
+			queue.scheduleEvent(events[i]);
+		}
+		for(int i=0; i < events.length; i += 2) {
+			queue.unscheduleEvent(events[i]);
+		}
+		for(int i=1; i < events.length; i += 4) {
+			queue.rescheduleEvent(events[i], events[i].getTimestamp() + events.length);
+		}
+		assertEquals(events.length/2, queue.size());
+
+		int previous = Integer.MIN_VALUE;
+		int counted = 0;
+		int time;
+		while((time = queue.nextEventTime()) != Integer.MAX_VALUE) {
+			assertTrue(time > previous);
+			for(Event event : queue.getEvents(EventType.SERVER_UPDATE, time)) {
+				assertEquals(time, event.getTimestamp());
+				counted++;
+			}
+			queue.removeKey(time);
+			previous = time;
+		}
+		assertEquals(events.length/2, counted);
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void testClearedDueEventsAreUnscheduled() {
+		EventQueue queue = new EventQueue();
+		queue.scheduleEvent(new Event(EventType.JOB_SUBMISSION, 5));
+		queue.scheduleEvent(new Event(EventType.JOB_SUBMISSION, 5));
+
+		queue.getEvents(EventType.JOB_SUBMISSION, 5).clear();
+
+		assertNull(queue.getEvents(EventType.JOB_SUBMISSION, 6));
+		assertEquals(Integer.MAX_VALUE, queue.nextEventTime());
+	}
+
+	@Test
+	public void testScheduledEventsRestoreQueueOrder() {
+		EventQueue queue = new EventQueue();
+		Event a = new Event(EventType.JOB_FINISH, 5);
+		Event b = new Event(EventType.JOB_START, 5);
+		Event c = new Event(EventType.JOB_FINISH, 5);
+		Event d = new Event(EventType.JOB_FINISH, 3);
+		queue.scheduleEvent(a);
+		queue.scheduleEvent(b);
+		queue.scheduleEvent(c);
+		queue.scheduleEvent(d);
+		queue.rescheduleEvent(a, 5);
+
+		//Due events that were not handled yet are still scheduled
+		assertEquals(1, queue.getEvents(EventType.JOB_FINISH, 3).size());
+
+		List<Event> scheduled = queue.getScheduledEvents();
+		assertEquals(4, scheduled.size());
+		assertSame(b, scheduled.get(0));
+		assertSame(c, scheduled.get(1));
+		assertSame(d, scheduled.get(2));
+		assertSame(a, scheduled.get(3));
+
+		for(Event event : scheduled) {
+			queue.unscheduleEvent(event);
+		}
+		assertEquals(0, queue.size());
+
+		EventQueue restored = new EventQueue();
+		for(Event event : scheduled) {
+			restored.scheduleEvent(event);
+		}
+		List<Event> finishEvents = restored.getEvents(EventType.JOB_FINISH, 5);
+		assertEquals(2, finishEvents.size());
+		assertSame(c, finishEvents.get(0));
+		assertSame(a, finishEvents.get(1));
+	}
+
+	@Test
+	public void testSchedulingInAnotherQueueMovesEvent() {
+		EventQueue first = new EventQueue();
+		EventQueue second = new EventQueue();
+		Event scheduled = new Event(EventType.JOB_START, 5);
+		Event due = new Event(EventType.JOB_START, 7);
+		first.scheduleEvent(scheduled);
+		first.scheduleEvent(due);
+		assertEquals(1, first.getEvents(EventType.JOB_START, 7).size());
+
+		//Events are unscheduled from the queue in which they are scheduled, regardless of whether they are due
+		second.scheduleEvent(scheduled);
+		second.scheduleEvent(due);
+		assertEquals(0, first.size());
+		assertTrue(first.getEvents(EventType.JOB_START, 7).isEmpty());
+		assertNull(first.getEvents(EventType.JOB_START, 5));
+		assertEquals(2, second.size());
+
+		//Unscheduling an event from a queue in which it is not scheduled has no effect
+		first.unscheduleEvent(due);
+		assertEquals(2, second.size());
+		assertSame(scheduled, second.getEvents(EventType.JOB_START, 5).get(0));
+		assertSame(due, second.getEvents(EventType.JOB_START, 7).get(0));
+
+		//Due events that were removed from the list by the caller can be scheduled again
+		List<Event> dueEvents = second.getEvents(EventType.JOB_START, 7);
+		dueEvents.remove(due);
+		assertEquals(0, second.size());
+		second.scheduleEvent(due);
+		assertEquals(1, second.getEvents(EventType.JOB_START, 7).size());
+		second.scheduleEvent(due);
+		assertEquals(1, second.size());
+	}
+
+}
@@ -0,0 +1,94 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.uma.dcsim.utilities.FinishedJobArchive;
+
+public class FinishedJobArchiveTest {
+
+	@Test
+	public void testIntervalSLACostsMatchLinearScan() {
+		Random random = new Random(5);
+		FinishedJobArchive archive = new FinishedJobArchive();
+		int[] finishingTimes = new int[5000];
+		double[] slaCosts = new double[5000];
+		int time = 0;
+		for(int i=0; i < finishingTimes.length; i++) {
+			//Mostly in order, sometimes several jobs at the same time and a few out of order
+			time += random.nextInt(3);
+			finishingTimes[i] = (i % 500 == 499) ? random.nextInt(time + 1) : time;
+			slaCosts[i] = random.nextInt(4) == 0 ? random.nextDouble()*10 : 0;
+			archive.add("job" + i, finishingTimes[i], i % 7, 2.1, slaCosts[i]);
+		}
+		assertEquals(finishingTimes.length, archive.size());
+
+		for(int k=0; k < 1000; k++) {
+			int intervalStart = random.nextInt(time + 10) - 5;
+			int intervalEnd = intervalStart + random.nextInt(time/4 + 1) - 2;
+			double expected = 0;
+			for(int i=0; i < finishingTimes.length; i++) {
+				if(finishingTimes[i] >= intervalStart && finishingTimes[i] <= intervalEnd) {
+					expected += slaCosts[i];
+				}
+			}
+			assertEquals(expected, archive.getSLACosts(intervalStart, intervalEnd), 1e-9);
+		}
+
+		archive.clear();
+		assertEquals(0, archive.size());
+		assertEquals(0, archive.getSLACosts(0, time), 0.0);
+	}
+
+	@Test
+	public void testColumnsAndCheckpoint() throws IOException {
+		FinishedJobArchive archive = new FinishedJobArchive();
+		archive.add("a", 10, 0, 2.1, 0.0);
+		archive.add("b", 30, 5, 1.6, 1.5);
+		archive.add("c", 20, 2, 1.2, 0.5);
+
+		//The jobs are ordered by their finishing times and the columns are moved together
+		assertEquals("a", archive.getId(0));
+		assertEquals("c", archive.getId(1));
+		assertEquals("b", archive.getId(2));
+		assertEquals(20, archive.getFinishingTime(1));
+		assertEquals(2, archive.getDelay(1));
+		assertEquals(1.2, archive.getFrequency(1), 0.0);
+		assertEquals(0.5, archive.getSLACosts(1), 0.0);
+		assertEquals(1.5, archive.getSLACosts(30, 30), 0.0);
+		assertEquals(2.0, archive.getSLACosts(0, 100), 0.0);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		archive.writeCheckpoint(out);
+		out.close();
+		FinishedJobArchive restored = new FinishedJobArchive();
+		restored.add("d", 5, 0, 2.1, 3.0);
+		restored.readCheckpoint(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		assertEquals(archive.size(), restored.size());
+		for(int i=0; i < archive.size(); i++) {
+			assertEquals(archive.getId(i), restored.getId(i));
+			assertEquals(archive.getFinishingTime(i), restored.getFinishingTime(i));
+			assertEquals(archive.getDelay(i), restored.getDelay(i));
+			assertEquals(archive.getFrequency(i), restored.getFrequency(i), 0.0);
+			assertEquals(archive.getSLACosts(i), restored.getSLACosts(i), 0.0);
+		}
+		assertEquals(archive.getSLACosts(0, 100), restored.getSLACosts(0, 100), 0.0);
+
+		try {
+			restored.getId(3);
+			fail("IndexOutOfBoundsException expected");
+		} catch (IndexOutOfBoundsException e) {
+		}
+	}
+
+}
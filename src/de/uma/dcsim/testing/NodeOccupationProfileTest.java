@@ -0,0 +1,88 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.NodeOccupationProfile;
+import de.uma.dcsim.scheduling.schedulingStrategies.schedulingUtilities.SchedulingStrategyUtilities;
+import de.uma.dcsim.utilities.BatchJob;
+import de.uma.dcsim.utilities.BatchJobStatus;
+
+public class NodeOccupationProfileTest {
+
+	@Test
+	public void testProfileMatchesNodeOccupationPlan() {
+		Random random = new Random(42);
+		NodeOccupationProfile profile = new NodeOccupationProfile(SchedulingStrategyUtilities.MAXIMUM_AMOUNT_OF_NODES);
+		int intervalLength = 900;
+
+		//The profile is kept across several scheduling intervals (and moves its window), only the changed jobs are updated
+		List<BatchJob> jobs = new ArrayList<BatchJob>();
+		for(int currentTime = 0; currentTime < 40*intervalLength; currentTime += intervalLength) {
+			final int time = currentTime;
+			jobs.removeIf(job -> job.getCalculatedFinishTime() < time || random.nextInt(4) == 0
+					|| (job.getStatus() == BatchJobStatus.SCHEDULED && job.getScheduledStartTime() < time)
+					|| (job.getStatus() == BatchJobStatus.RESCHEDULED && job.getScheduledRestartTime() < time));
+			while(jobs.size() < 30) {
+				jobs.add(createJob(random, currentTime, intervalLength));
+			}
+			profile.synchronize(jobs, currentTime);
+			int[] plan = SchedulingStrategyUtilities.getNodeOccupationPlan(jobs, intervalLength, currentTime);
+			int intervalEnd = currentTime + intervalLength;
+
+			for(int i=0; i < intervalLength; i++) {
+				assertEquals(plan[i], profile.getOccupation(currentTime + i));
+			}
+
+			for(int k=0; k < 20; k++) {
+				BatchJob candidate = new BatchJob("candidate" + k, 2.3, 1 + random.nextInt(4000), 100.0, 1 + random.nextInt(3*intervalLength), BatchJobStatus.SUBMITTED, currentTime, currentTime, currentTime + 86400, 0);
+				int expected = -1;
+				for(int tmp = currentTime; tmp < intervalEnd; tmp++) {
+					candidate.setStartTime(tmp);
+					boolean feasible = SchedulingStrategyUtilities.checkSchedulingFeasibilityForJob(plan, candidate, currentTime);
+					assertEquals(feasible, profile.checkSchedulingFeasibility(candidate, intervalEnd));
+					if(feasible && expected < 0) {
+						expected = tmp;
+					}
+				}
+				candidate.setStartTime(currentTime);
+				assertEquals(expected, profile.findEarliestStartTime(candidate, currentTime, intervalEnd, intervalEnd));
+
+				List<BatchJob> relevantJobs = new ArrayList<BatchJob>(jobs);
+				for(BatchJob job : relevantJobs) {
+					if(job.getStatus() == BatchJobStatus.SCHEDULED) {
+						job.setStartTime(job.getScheduledStartTime());
+					}
+				}
+				assertEquals(SchedulingStrategyUtilities.determineEarliestTimeForNodeAvailability(relevantJobs, candidate.getAmountOfServers(), currentTime),
+						profile.determineEarliestTimeForNodeAvailability(candidate.getAmountOfServers(), currentTime));
+			}
+		}
+	}
+
+	private static BatchJob createJob(Random random, int currentTime, int intervalLength) {
+		int servers = 1 + random.nextInt(2000);
+		int duration = 1 + random.nextInt(4*intervalLength);
+		int start = currentTime + random.nextInt(intervalLength);
+		BatchJob job = new BatchJob("job" + random.nextInt(), 2.3, servers, 100.0, duration, BatchJobStatus.SCHEDULED, currentTime, start, currentTime + 86400, 0);
+		switch(random.nextInt(3)) {
+		case 0:
+			job.setStatus(BatchJobStatus.RUNNING);
+			job.setStartTime(currentTime - random.nextInt(intervalLength));
+			break;
+		case 1:
+			job.setStatus(BatchJobStatus.RESCHEDULED);
+			job.setScheduledRestartTime(start);
+			break;
+		default:
+			break;
+		}
+		return job;
+	}
+
+}
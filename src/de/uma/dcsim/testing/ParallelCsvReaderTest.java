@@ -0,0 +1,111 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.uma.dcsim.utilities.Constants;
+import de.uma.dcsim.utilities.CsvLine;
+import de.uma.dcsim.utilities.CsvTrace;
+import de.uma.dcsim.utilities.ParallelCsvReader;
+import de.uma.dcsim.utilities.TraceFieldParser;
+import de.uma.dcsim.utilities.TraceStatistics;
+
+public class ParallelCsvReaderTest {
+
+	@Test
+	public void testFieldParserMatchesJavaParsers() throws ParseException {
+		SimpleDateFormat format = Constants.getDateFormat();
+		Random random = new Random(42);
+		for(int i=0; i < 10000; i++) {
+			String date = format.format(new Date(946684800000L + (long)(random.nextDouble()*1.6e12)));
+			assertEquals(format.parse(date).getTime(), TraceFieldParser.parseTimestamp(wrap(date), 0, date.length()));
+		}
+		//Values outside of their ranges are rolled over by the lenient date format
+		for(String date : new String[] {"31.02.2014 00:00:00", "00.01.2014 24:60:60", "1.1.2014 00:00:00", "29.02.2016 23:59:59"}) {
+			assertEquals(format.parse(date).getTime(), TraceFieldParser.parseTimestamp(wrap(date), 0, date.length()));
+		}
+		assertEquals(TraceFieldParser.NO_TIMESTAMP, TraceFieldParser.parseTimestamp(wrap("86400"), 0, 5));
+
+		for(int i=0; i < 10000; i++) {
+			String value = Double.toString(random.nextDouble()*Math.pow(10, random.nextInt(12) - 4));
+			assertEquals(Double.parseDouble(value), TraceFieldParser.parseDouble(wrap(value), 0, value.length(), false), 0.0);
+			value = String.format("%." + random.nextInt(8) + "f", (random.nextDouble() - 0.5)*1000).replace(',', '.');
+			assertEquals(Double.parseDouble(value), TraceFieldParser.parseDouble(wrap(value), 0, value.length(), false), 0.0);
+			assertEquals(Double.parseDouble(value), TraceFieldParser.parseDouble(wrap(value.replace('.', ',')), 0, value.length(), true), 0.0);
+		}
+		for(String value : new String[] {"1", "-0.0", "+2.5", ".5", "1.", "1e3", "0.1234567890123456789", "12345678901234567890"}) {
+			assertEquals(Double.parseDouble(value), TraceFieldParser.parseDouble(wrap(value), 0, value.length(), false), 0.0);
+		}
+		for(String value : new String[] {"0", "-2147483648", "2147483647", "+17", "0000000000042"}) {
+			assertEquals(Integer.parseInt(value), TraceFieldParser.parseInt(wrap(value), 0, value.length()));
+		}
+		for(String value : new String[] {"", "-", "2147483648", "1.5", " 1"}) {
+			try {
+				TraceFieldParser.parseInt(wrap(value), 0, value.length());
+				fail("NumberFormatException expected for " + value);
+			} catch (NumberFormatException e) {
+			}
+		}
+	}
+
+	@Test
+	public void testChunkedReadMatchesSequentialRead() throws IOException {
+		File traceFile = File.createTempFile("dcsim_parallel_csv", ".csv");
+		traceFile.deleteOnExit();
+		BufferedWriter out = new BufferedWriter(new FileWriter(traceFile));
+		out.write("timestep;value\r\n");
+		Random random = new Random(7);
+		for(int i=0; i < 200000; i++) {
+			out.write(i + ";" + random.nextDouble() + (i % 3 == 0 ? "\r\n" : "\n"));
+		}
+		out.close();
+
+		ParallelCsvReader.LineParser<double[], TraceStatistics> parser = new ParallelCsvReader.LineParser<double[], TraceStatistics>() {
+			@Override
+			public TraceStatistics createStatistics() {
+				return new TraceStatistics();
+			}
+
+			@Override
+			public double[] parseLine(CsvLine line, int lineNumber, TraceStatistics statistics) {
+				//Every tenth line is skipped
+				if(lineNumber % 10 == 0) {
+					return null;
+				}
+				return new double[] {lineNumber, line.getInt(0), line.getDouble(1)};
+			}
+		};
+
+		CsvTrace<double[], TraceStatistics> sequential = ParallelCsvReader.read(traceFile, parser, 1);
+		CsvTrace<double[], TraceStatistics> chunked = ParallelCsvReader.read(traceFile, parser, 4);
+		assertEquals(200000, chunked.getStatistics().getLineCount());
+		assertEquals(20000, chunked.getStatistics().getSkippedLineCount());
+		assertEquals(sequential.getRecords().size(), chunked.getRecords().size());
+		for(int i=0; i < sequential.getRecords().size(); i++) {
+			double[] expected = sequential.getRecords().get(i);
+			double[] actual = chunked.getRecords().get(i);
+			assertEquals(expected[0], actual[0], 0.0);
+			//The line number of a line is its timestep + 1
+			assertEquals(expected[0], actual[1] + 1, 0.0);
+			assertEquals(expected[2], actual[2], 0.0);
+		}
+	}
+
+	private static ByteBuffer wrap(String value) {
+		return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
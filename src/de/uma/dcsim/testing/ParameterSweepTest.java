@@ -0,0 +1,112 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uma.dcsim.database.DatabaseRecord;
+import de.uma.dcsim.database.EvaluationTable;
+import de.uma.dcsim.database.ResultsBackend;
+import de.uma.dcsim.database.ResultsBackendType;
+import de.uma.dcsim.simulationControl.DCSimCore;
+import de.uma.dcsim.simulationControl.ParameterSweep;
+import de.uma.dcsim.simulationControl.Setup;
+import de.uma.dcsim.simulationControl.SimulationContext;
+import de.uma.dcsim.simulationControl.SweepScenario;
+
+public class ParameterSweepTest {
+
+	private static final String CONFIGURATION_FILE = "src/main/resources/SuperMUC_testSetup.xml";
+
+	@Test
+	public void testScenariosAreCartesianProductOfArguments() throws IOException {
+		ParameterSweep sweep = new ParameterSweep(new BufferedInputStream(new FileInputStream(CONFIGURATION_FILE)), "unused", 1);
+		sweep.parseArgument("UsagePrice=0.1,0.2");
+		sweep.parseArgument("SchedulingInterval=900, 1800,3600");
+
+		List<SweepScenario> scenarios = sweep.createScenarios();
+		assertEquals(6, scenarios.size());
+		double[] usagePrices = {0.1, 0.2};
+		int[] schedulingIntervals = {900, 1800, 3600};
+		for(int i=0; i < usagePrices.length; i++) {
+			for(int k=0; k < schedulingIntervals.length; k++) {
+				SweepScenario scenario = scenarios.get(i*schedulingIntervals.length + k);
+				assertEquals(usagePrices[i], scenario.getUsagePrice(), 0.0);
+				assertEquals(schedulingIntervals[k], (int)scenario.getSchedulingInterval());
+				//Parameters without values keep the value of the base configuration
+				assertNull(scenario.getSchedulingStrategyType());
+				assertNull(scenario.getSolverTimeout());
+				assertNull(scenario.getDrEventTraceFile());
+			}
+		}
+
+		//Without any parameter values, the sweep consists of the base configuration only
+		ParameterSweep baseSweep = new ParameterSweep(new BufferedInputStream(new FileInputStream(CONFIGURATION_FILE)), "unused", 1);
+		assertEquals(1, baseSweep.createScenarios().size());
+		assertEquals("base", baseSweep.createScenarios().get(0).getName());
+	}
+
+	@Test
+	public void testEachScenarioWritesItsOwnStore() throws IOException {
+		File directory = Files.createTempDirectory("dcsim_sweep").toFile();
+		directory.deleteOnExit();
+
+		//Reference simulation of the base configuration
+		String basePath = new File(directory, "base").getAbsolutePath();
+		InputStream in = new BufferedInputStream(new FileInputStream(CONFIGURATION_FILE));
+		Setup setup = new Setup();
+		setup.readDC(in);
+		in.close();
+		SimulationContext base = setup.getContext();
+		base.setEvaluationDatabasePath(basePath);
+		int length = base.getLength();
+		DCSimCore.simulate(base);
+
+		//The scenarios are simulated concurrently, the first scenario has the values of the base configuration
+		File resultsDirectory = new File(directory, "sweep");
+		ParameterSweep sweep = new ParameterSweep(new BufferedInputStream(new FileInputStream(CONFIGURATION_FILE)), resultsDirectory.getAbsolutePath(), 4);
+		sweep.parseArgument("UsagePrice=" + base.getUsagePrice() + ",0.5");
+		sweep.parseArgument("SchedulingInterval=" + base.getSchedulingInterval() + ",1800");
+		int scenarioCount = sweep.createScenarios().size();
+		assertEquals(4, scenarioCount);
+		sweep.run();
+
+		List<ResultsBackend> stores = new ArrayList<ResultsBackend>();
+		for(int i=0; i < scenarioCount; i++) {
+			File store = new File(resultsDirectory, "scenario_" + i + (Setup.resultsBackend == ResultsBackendType.SQLITE ? ".db" : ""));
+			assertTrue(store.exists());
+			stores.add(ResultsBackendType.openBackend(store.getAbsolutePath()));
+			//Each store contains the records of exactly one simulation
+			assertEquals(length, stores.get(i).getRowCount(EvaluationTable.GENERAL_EVALUATION_TABLE));
+		}
+
+		ResultsBackend baseResults = ResultsBackendType.openBackend(basePath);
+		Date firstDate = new Date(0);
+		Date lastDate = new Date(Long.MAX_VALUE/2);
+		for(EvaluationTable table : EvaluationTable.values()) {
+			ArrayList<DatabaseRecord> expected = baseResults.getRecordsBetweenDates(table, firstDate, lastDate);
+			ArrayList<DatabaseRecord> actual = stores.get(0).getRecordsBetweenDates(table, firstDate, lastDate);
+			assertEquals(expected.size(), actual.size());
+			for(int i=0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).toString(), actual.get(i).toString());
+			}
+		}
+		baseResults.close();
+		for(ResultsBackend store : stores) {
+			store.close();
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.uma.dcsim.utilities.PowerConsumptionHistory;
+
+public class PowerConsumptionHistoryTest {
+
+	@Test
+	public void testRunningSums() {
+		Random random = new Random(3);
+		PowerConsumptionHistory history = new PowerConsumptionHistory(PowerConsumptionHistory.UNLIMITED_RETENTION);
+		double[] values = new double[20000];
+		for(int i=0; i < values.length; i++) {
+			values[i] = random.nextInt(500000);
+			history.add(values[i], values[i]/1000.0/3600.0, 0.2*values[i]/1000.0/3600.0);
+		}
+		assertEquals(values.length, history.size());
+		assertEquals(0, history.getFirstRetainedIndex());
+
+		for(int k=0; k < 100; k++) {
+			int first = random.nextInt(values.length);
+			int last = first + random.nextInt(values.length - first + 1);
+			double energy = 0;
+			for(int i=first; i < last; i++) {
+				assertEquals(values[i], history.get(i), 0.0);
+				energy += values[i]/1000.0/3600.0;
+			}
+			assertEquals(energy, history.getEnergySum(last) - history.getEnergySum(first), 1e-9);
+			assertEquals(0.2*energy, history.getEnergyCostSum(last) - history.getEnergyCostSum(first), 1e-9);
+		}
+	}
+
+	@Test
+	public void testRetentionAndCheckpoint() throws IOException {
+		PowerConsumptionHistory history = new PowerConsumptionHistory(5000);
+		for(int i=0; i < 30000; i++) {
+			history.add(i, 1.0, 2.0);
+		}
+		//At least the last 5000 values are retained, older chunks are released
+		assertTrue(history.getFirstRetainedIndex() <= 25000);
+		assertTrue(history.getFirstRetainedIndex() > 0);
+		assertEquals(29999, history.get(29999), 0.0);
+		assertEquals(5000, history.getEnergySum(30000) - history.getEnergySum(25000), 0.0);
+		try {
+			history.get(history.getFirstRetainedIndex() - 1);
+			fail("IndexOutOfBoundsException expected");
+		} catch (IndexOutOfBoundsException e) {
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		history.writeCheckpoint(out);
+		out.close();
+		PowerConsumptionHistory restored = new PowerConsumptionHistory(5000);
+		restored.readCheckpoint(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		assertEquals(history.size(), restored.size());
+		assertEquals(history.getFirstRetainedIndex(), restored.getFirstRetainedIndex());
+
+		for(int i=30000; i < 40000; i++) {
+			history.add(i, 1.0, 2.0);
+			restored.add(i, 1.0, 2.0);
+		}
+		assertEquals(history.getFirstRetainedIndex(), restored.getFirstRetainedIndex());
+		for(int i=history.getFirstRetainedIndex(); i < history.size(); i++) {
+			assertEquals(history.get(i), restored.get(i), 0.0);
+			assertEquals(history.getEnergyCostSum(i), restored.getEnergyCostSum(i), 0.0);
+		}
+		assertEquals(history.getEnergySum(40000), restored.getEnergySum(40000), 0.0);
+	}
+
+}
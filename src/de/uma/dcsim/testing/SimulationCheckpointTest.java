@@ -0,0 +1,99 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+
+import org.junit.Test;
+
+import de.uma.dcsim.database.ColumnType;
+import de.uma.dcsim.database.DatabaseRecord;
+import de.uma.dcsim.database.EvaluationTable;
+import de.uma.dcsim.database.ResultsBackend;
+import de.uma.dcsim.database.ResultsBackendType;
+import de.uma.dcsim.database.StatisticType;
+import de.uma.dcsim.hardware.DC;
+import de.uma.dcsim.simulationControl.DCSimCore;
+import de.uma.dcsim.simulationControl.Setup;
+import de.uma.dcsim.simulationControl.SimulationContext;
+
+public class SimulationCheckpointTest {
+
+	@Test
+	public void testResumedSimulationMatchesUninterruptedSimulation() throws IOException {
+		File directory = Files.createTempDirectory("dcsim_checkpoint").toFile();
+		directory.deleteOnExit();
+		String uninterruptedPath = new File(directory, "uninterrupted").getAbsolutePath();
+		String resumedPath = new File(directory, "resumed").getAbsolutePath();
+		String checkpointPath = new File(directory, "simulation.checkpoint").getAbsolutePath();
+
+		SimulationContext uninterrupted = readContext(uninterruptedPath);
+		int length = uninterrupted.getLength();
+		DCSimCore.simulate(uninterrupted);
+
+		//The interrupted simulation writes a checkpoint in the middle of the simulation and continues for a while, the records after the checkpoint are removed when it is resumed
+		SimulationContext interrupted = readContext(resumedPath);
+		interrupted.setLength(length/2 + length/4);
+		interrupted.setCheckpointInterval(length/2);
+		interrupted.setCheckpointFile(checkpointPath);
+		DCSimCore.simulate(interrupted);
+		assertTrue(new File(checkpointPath).exists());
+
+		SimulationContext resumed = readContext(resumedPath);
+		resumed.setResumeCheckpointFile(checkpointPath);
+		DCSimCore.simulate(resumed);
+
+		//Final state of the DCs
+		assertEquals(uninterrupted.getDcs().size(), resumed.getDcs().size());
+		for(int k=0; k < uninterrupted.getDcs().size(); k++) {
+			DC expected = uninterrupted.getDcs().get(k);
+			DC actual = resumed.getDcs().get(k);
+			assertEquals(expected.getClock(), actual.getClock());
+			assertEquals(expected.getFinishedJobs().size(), actual.getFinishedJobs().size());
+			assertEquals(expected.getFinishedJobs().getSLACosts(0, expected.getClock()), actual.getFinishedJobs().getSLACosts(0, actual.getClock()), 0.0);
+			assertEquals(expected.getRunningJobs().size(), actual.getRunningJobs().size());
+			assertEquals(expected.getOverallCurrentPC(), actual.getOverallCurrentPC(), 0.0);
+		}
+
+		//Per-timestep records and costs
+		ResultsBackend expectedResults = ResultsBackendType.openBackend(uninterruptedPath);
+		ResultsBackend actualResults = ResultsBackendType.openBackend(resumedPath);
+		Date firstDate = new Date(0);
+		Date lastDate = new Date(Long.MAX_VALUE/2);
+		for(EvaluationTable table : EvaluationTable.values()) {
+			ArrayList<DatabaseRecord> expected = expectedResults.getRecordsBetweenDates(table, firstDate, lastDate);
+			ArrayList<DatabaseRecord> actual = actualResults.getRecordsBetweenDates(table, firstDate, lastDate);
+			assertEquals(expected.size(), actual.size());
+			for(int i=0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).toString(), actual.get(i).toString());
+			}
+		}
+		assertEquals(length, actualResults.getRowCount(EvaluationTable.GENERAL_EVALUATION_TABLE));
+		for(ColumnType column : new ColumnType[] {ColumnType.TOTAL_EC, ColumnType.ENERGY_COST}) {
+			assertEquals(expectedResults.getStatistic(EvaluationTable.GENERAL_EVALUATION_TABLE, column, StatisticType.SUM),
+					actualResults.getStatistic(EvaluationTable.GENERAL_EVALUATION_TABLE, column, StatisticType.SUM), 0.0);
+		}
+		expectedResults.close();
+		actualResults.close();
+	}
+
+	private static SimulationContext readContext(String evaluationDatabasePath) throws IOException {
+		InputStream in = new BufferedInputStream(new FileInputStream("src/main/resources/SuperMUC_testSetup.xml"));
+		Setup setup = new Setup();
+		setup.readDC(in);
+		in.close();
+
+		SimulationContext context = setup.getContext();
+		context.setEvaluationDatabasePath(evaluationDatabasePath);
+		return context;
+	}
+
+}
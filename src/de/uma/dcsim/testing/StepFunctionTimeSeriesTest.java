@@ -0,0 +1,81 @@
+package de.uma.dcsim.testing;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import de.uma.dcsim.energyPriceModels.TraceBasedEnergyPrice;
+import de.uma.dcsim.pueModels.TraceBasedPUE;
+import de.uma.dcsim.utilities.EnergyPrice;
+import de.uma.dcsim.utilities.PUE;
+import de.uma.dcsim.utilities.StepFunctionTimeSeries;
+
+public class StepFunctionTimeSeriesTest {
+
+	@Test
+	public void testSeriesMatchesTreeMapLookup() {
+		Random random = new Random(11);
+		int[] timestamps = new int[500];
+		double[] values = new double[500];
+		TreeMap<Integer, Double> reference = new TreeMap<Integer, Double>();
+		for(int i=0; i < timestamps.length; i++) {
+			//Unsorted timestamps with duplicates
+			timestamps[i] = random.nextInt(20000) - 1000;
+			values[i] = random.nextDouble();
+			reference.put(timestamps[i], values[i]);
+		}
+		StepFunctionTimeSeries series = new StepFunctionTimeSeries(timestamps, values, -1.0);
+		assertEquals(reference.size(), series.size());
+
+		//Monotonic requests like in the simulation loop
+		for(int time=-2000; time < 22000; time++) {
+			assertEquals(lookup(reference, time, -1.0), series.getValue(time), 0.0);
+		}
+		//Random requests
+		for(int i=0; i < 20000; i++) {
+			int time = random.nextInt(24000) - 2000;
+			assertEquals(lookup(reference, time, -1.0), series.getValue(time), 0.0);
+			assertEquals(lookup(reference, time, -1.0), series.getValueBySearch(time), 0.0);
+		}
+
+		StepFunctionTimeSeries empty = new StepFunctionTimeSeries(new int[0], new double[0], 0.5);
+		assertEquals(0.5, empty.getValue(42), 0.0);
+	}
+
+	@Test
+	public void testTraceBasedModels() {
+		ArrayList<EnergyPrice> prices = new ArrayList<EnergyPrice>();
+		ArrayList<PUE> pues = new ArrayList<PUE>();
+		TraceBasedEnergyPrice priceModel = new TraceBasedEnergyPrice();
+		TraceBasedPUE pueModel = new TraceBasedPUE();
+		priceModel.initializeModel(prices);
+		pueModel.initializeModel(pues);
+		assertEquals(0.16, priceModel.getEnergyPriceInCentPerKWH(100), 0.0);
+		assertEquals(1.15, pueModel.getPUE(100), 0.0);
+
+		prices.add(new EnergyPrice(3600, 0.2));
+		prices.add(new EnergyPrice(0, 0.1));
+		pues.add(new PUE(900, 1.3));
+		priceModel.initializeModel(prices);
+		pueModel.initializeModel(pues);
+		assertEquals(0.1, priceModel.getEnergyPriceInCentPerKWH(3599), 0.0);
+		assertEquals(0.2, priceModel.getEnergyPriceInCentPerKWH(3600), 0.0);
+		assertEquals(0.1, priceModel.getEnergyPriceInCentPerKWH(-5), 0.0);
+		assertEquals(1.3, pueModel.getPUE(0), 0.0);
+		assertEquals(1.3, pueModel.getPUE(100000), 0.0);
+	}
+
+	private static double lookup(TreeMap<Integer, Double> reference, int time, double defaultValue) {
+		Map.Entry<Integer, Double> entry = reference.floorEntry(time);
+		if(entry == null) {
+			entry = reference.ceilingEntry(time);
+		}
+		return entry == null ? defaultValue : entry.getValue();
+	}
+
+}
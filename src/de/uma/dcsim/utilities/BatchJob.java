@@ -1,5 +1,8 @@
 package de.uma.dcsim.utilities;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.List;
 
 import de.uma.dcsim.SLAModels.SLAModel;
@@ -8,9 +11,7 @@ import de.uma.dcsim.eventHandling.Event;
 import de.uma.dcsim.eventHandling.EventType;
 import de.uma.dcsim.eventHandling.JobEvent;
 import de.uma.dcsim.hardware.Server;
-import de.uma.dcsim.powerModels.PowerModelSelector;
-import de.uma.dcsim.runtimeModels.RuntimeModelSelector;
-import de.uma.dcsim.simulationControl.Setup;
+import de.uma.dcsim.simulationControl.SimulationContext;
 
 /**
  * This class represents a batch job within the simulation framework.
@@ -140,6 +141,11 @@ public class BatchJob {
 	 * List of all servers on which the job is executed. This is null if the job is currently not running.
 	 */
 	private List<Server> servers; 
+	
+	/**
+	 * Context of the simulation to which the job belongs (set when the job is assigned to a DC).
+	 */
+	private SimulationContext context;
 
 	public BatchJob(String id, double frequency, int amountOfServers, double averagePowerConsumption, int duration, BatchJobStatus status, int submissionTime, int scheduledStartTime, int slaDeadline, int jobClass) {
 		
@@ -207,6 +213,7 @@ public class BatchJob {
 		copy.setActualFinsihingTime(this.finishingTime);
 		copy.setSubmissionTime(this.submissionTime);
 		copy.setScheduledRestartTime(this.scheduledRestartTime);
+		copy.setContext(this.context);
 		
 		Event finishEvent = new JobEvent(EventType.JOB_FINISH, copy.getCalculatedFinishTime(), copy);
 		copy.setFinishEvent(finishEvent);
@@ -214,6 +221,76 @@ public class BatchJob {
 		return copy;
 	}
 	
+	/**
+	 * Writes the state of the job to a checkpoint. The assigned servers are not written, as they are written by the DC to which the job belongs.
+	 * @param out Stream to which the checkpoint is written.
+	 * @throws IOException If the state cannot be written.
+	 */
+	public void writeCheckpoint(DataOutputStream out) throws IOException {
+		out.writeUTF(this.id);
+		out.writeDouble(this.frequency);
+		out.writeDouble(this.originalFrequency);
+		out.writeInt(this.amountOfServers);
+		out.writeDouble(this.averagePowerConsumption);
+		out.writeInt(this.duration);
+		out.writeInt(this.jobClass);
+		out.writeInt(this.slaDeadline);
+		out.writeInt(this.delay);
+		out.writeInt(this.submissionTime);
+		out.writeInt(this.scheduledStartTime);
+		out.writeInt(this.scheduledRestartTime);
+		out.writeInt(this.finishingTime);
+		out.writeInt(this.elapsedRuntime);
+		out.writeInt(this.remainingRuntime);
+		out.writeInt(this.pausedTime);
+		out.writeInt(this.status.ordinal());
+		out.writeBoolean(this.requestedToPause);
+		out.writeBoolean(this.alreadyRescheduled);
+		out.writeInt(this.startEvent.getTimestamp());
+		out.writeInt(this.finishEvent.getTimestamp());
+		out.writeInt(this.restartEvent.getTimestamp());
+	}
+	
+	/**
+	 * Creates a job from the state that was written to a checkpoint by writeCheckpoint.
+	 * @param in Stream from which the checkpoint is read.
+	 * @param context Context of the simulation to which the job belongs.
+	 * @return Job with the state that is contained in the checkpoint.
+	 * @throws IOException If the state cannot be read.
+	 */
+	public static BatchJob readCheckpoint(DataInputStream in, SimulationContext context) throws IOException {
+		String id = in.readUTF();
+		double frequency = in.readDouble();
+		double originalFrequency = in.readDouble();
+		int amountOfServers = in.readInt();
+		double averagePowerConsumption = in.readDouble();
+		int duration = in.readInt();
+		int jobClass = in.readInt();
+		int slaDeadline = in.readInt();
+		int delay = in.readInt();
+		int submissionTime = in.readInt();
+		int scheduledStartTime = in.readInt();
+		
+		BatchJob job = new BatchJob(id, frequency, amountOfServers, averagePowerConsumption, duration, BatchJobStatus.PARSED, submissionTime, scheduledStartTime, slaDeadline, jobClass);
+		job.originalFrequency = originalFrequency;
+		job.averagePowerConsumption = averagePowerConsumption;
+		job.delay = delay;
+		job.scheduledRestartTime = in.readInt();
+		job.finishingTime = in.readInt();
+		job.elapsedRuntime = in.readInt();
+		job.remainingRuntime = in.readInt();
+		job.pausedTime = in.readInt();
+		job.status = BatchJobStatus.values()[in.readInt()];
+		job.requestedToPause = in.readBoolean();
+		job.alreadyRescheduled = in.readBoolean();
+		job.startEvent = new JobEvent(EventType.JOB_START, in.readInt(), job);
+		job.finishEvent = new JobEvent(EventType.JOB_FINISH, in.readInt(), job);
+		job.restartEvent = new JobEvent(EventType.JOB_RESTART, in.readInt(), job);
+		job.context = context;
+		
+		return job;
+	}
+	
 	/**
 	 * Calculates the SLA costs of a job. This method uses the delay variable of the job and thus the SLA costs
 	 * that are calculated by this method are 0 until the job has actually finished. Before this, the getCurrentlyCausedSLACosts
@@ -223,7 +300,7 @@ public class BatchJob {
 	 * @return SLA costs of the job.
 	 */
 	public double calculateSLACosts(double usagePrice) {
-		usagePrice = (usagePrice*(double)this.amountOfServers)*(((double)this.duration*(double)Setup.secondsPerSimulationTimestep)/3600.0);
+		usagePrice = (usagePrice*(double)this.amountOfServers)*(((double)this.duration*(double)this.getSecondsPerSimulationTimestep())/3600.0);
 		return this.slaModel.calculateSLAFee(((double)this.delay/(double)this.duration), usagePrice);
 	}
 	
@@ -235,7 +312,7 @@ public class BatchJob {
 	 * @return Estimated SLA costs of the job.
 	 */
 	public double getCurrentlyCausedSLACosts(double usagePrice) {
-		usagePrice = (usagePrice*(double)this.amountOfServers)*(((double)this.duration*(double)Setup.secondsPerSimulationTimestep)/3600.0);
+		usagePrice = (usagePrice*(double)this.amountOfServers)*(((double)this.duration*(double)this.getSecondsPerSimulationTimestep())/3600.0);
 		int delay = this.calculateFinishTime() - this.slaDeadline;
 		if(delay <= 0) {
 			return 0;
@@ -264,6 +341,24 @@ public class BatchJob {
 		}
 	}
 	
+	/**
+	 * Elapses several timesteps of simulation time at once. The result equals the result of calling elapseOneSimulationTimestep the specified amount of times.
+	 * @param steps Amount of timesteps to elapse.
+	 */
+	public void elapseSimulationTimesteps(int steps) {
+		if(this.status == BatchJobStatus.RUNNING) {
+			int elapsed = Math.max(0, Math.min(steps, this.remainingRuntime));
+			this.elapsedRuntime += elapsed;
+			this.remainingRuntime -= elapsed;
+			for(int i=elapsed; i < steps; i++) {
+				System.out.println(this.getId() + " remaining runtime over! " + this.finishEvent.getTimestamp() );
+			}
+		}
+		else if(this.status == BatchJobStatus.PAUSED || this.status == BatchJobStatus.RESCHEDULED) {
+			this.pausedTime += steps;
+		}
+	}
+	
 	/**
 	 * Returns the estimated finish time of this job. Thereby, it is assumed that the run configuration of the job
 	 * is not changed and that the job is not shifted.
@@ -287,7 +382,7 @@ public class BatchJob {
 	 * @return Modeled APC value  of the job.
 	 */
 	public double getModeledAveragePowerConsumption() {
-		return PowerModelSelector.getServerPower(this.frequency, this.jobClass);
+		return this.context.getServerPower(this.frequency, this.jobClass);
 	}
 
 	/**
@@ -297,13 +392,32 @@ public class BatchJob {
 	 * @return Total APC value  of this job.
 	 */
 	public double getTotalPowerConsumption() {
-		return (PowerModelSelector.getServerPower(this.frequency, this.jobClass)*(double)this.amountOfServers);
+		return (this.context.getServerPower(this.frequency, this.jobClass)*(double)this.amountOfServers);
 	}
 	
 	public int getJobClass() {
 		return this.jobClass;
 	}
 	
+	public SimulationContext getContext() {
+		return this.context;
+	}
+	
+	public void setContext(SimulationContext context) {
+		this.context = context;
+	}
+	
+	/**
+	 * Retrieves the amount of real time seconds per simulation timestep of the simulation to which the job belongs.
+	 * @return Amount of real time seconds per simulation timestep.
+	 */
+	private int getSecondsPerSimulationTimestep() {
+		if(this.context == null) {
+			throw new IllegalStateException("Job " + this.id + " does not belong to a simulation");
+		}
+		return this.context.getSecondsPerSimulationTimestep();
+	}
+	
 	public Event getStartEvent() {
 		return this.startEvent;
 	}
@@ -499,11 +613,11 @@ public class BatchJob {
 	}
 	
 	private void updateRemainingRuntime(double adjustedFrequency) {
-		this.remainingRuntime = RuntimeModelSelector.getAdjustedRuntime(adjustedFrequency, this.frequency, this.remainingRuntime);
+		this.remainingRuntime = this.context.getAdjustedRuntime(adjustedFrequency, this.frequency, this.remainingRuntime);
 	}
 	
 	private void updateAveragePowerConsumption(double adjustedFrequency) {
-		this.averagePowerConsumption = PowerModelSelector.getServerPower(adjustedFrequency, this.jobClass);
+		this.averagePowerConsumption = this.context.getServerPower(adjustedFrequency, this.jobClass);
 	}
 	
 	private int calculateFinishTime() {
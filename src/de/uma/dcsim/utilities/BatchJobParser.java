@@ -1,21 +1,20 @@
 package de.uma.dcsim.utilities;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
 import de.uma.dcsim.simulationControl.Setup;
+import de.uma.dcsim.simulationControl.SimulationContext;
 
 /**
- * This class can be used to parse a workload trace from a .csv file.
+ * This class can be used to parse a workload trace from a .csv file. The trace is parsed in parallel chunks (see ParallelCsvReader),
+ * the statistics of the trace are returned together with the jobs (see parseJobTrace).
  * @author nilsw
  *
  */
@@ -32,87 +31,182 @@ public class BatchJobParser {
 	private static final SimpleDateFormat INPUT_DATE_FORMAT = Constants.getDateFormat();
 	
 	/**
-	 * Maximum runtime of the jobs in the workload trace.
+	 * Parses a workload trace from a .csv file. The statistics of the trace are not applied to any simulation (see parseJobTrace and applyStatistics).
+	 * @param fileName Path of the file to parse.
+	 * @param simStartDate Start date of the current simulation.
+	 * @return List of all jobs that were parsed from the provided file.
 	 */
-	private static int maxDuration = Integer.MIN_VALUE;
+	public static List<BatchJob> parseJobFile(String fileName, Date simStartDate) {
+		CsvTrace<BatchJob, BatchJobTraceStatistics> trace = BatchJobParser.parseJobTrace(fileName, simStartDate);
+		if(trace == null) {
+			return null;
+		}
+		return trace.getRecords();
+	}
 	
 	/**
-	 * Minimum difference between the submission time and the start time of all jobs in the workload trace.
+	 * Parses a workload trace from a .csv file without changing the setup. If the binary cache of the trace is enabled (see Setup.jobTraceCache),
+	 * the jobs are loaded from the cache of the trace when it is valid. Otherwise, the cache is written after the trace was parsed.
+	 * In both cases, all jobs of the trace are created (the cache only saves the parsing); jobs are only created on demand when the
+	 * workload is streamed from the cache (see Setup.streamingWorkload and SimulationTraces.createWorkloadSource).
+	 * @param fileName Path of the file to parse.
+	 * @param simStartDate Start date of the current simulation.
+	 * @return Jobs (in the order of the file) and statistics of the trace (null if the file does not exist).
 	 */
-	private static int minSubTimeDiff = Integer.MAX_VALUE;
-	
-	private static long subTimeDiffSum;
+	public static CsvTrace<BatchJob, BatchJobTraceStatistics> parseJobTrace(String fileName, Date simStartDate) {
+		File inputFile = ParallelCsvReader.getCsvFile(fileName);
+		if(!inputFile.exists()) {
+			System.out.println("Input file does not exist!");
+			return null;
+		}
+		
+		if(Setup.jobTraceCache) {
+			BinaryBatchJobTrace cachedTrace = BatchJobTraceCache.open(inputFile, simStartDate);
+			if(cachedTrace != null) {
+				BatchJobTraceStatistics statistics = BatchJobParser.getStatistics(cachedTrace);
+				System.out.println("Loaded " + cachedTrace.getJobCount() + " jobs from trace cache " + BatchJobTraceCache.getCacheFile(inputFile));
+				System.out.println("Max runtime: " + statistics.getMaximumRuntime());
+				return new CsvTrace<BatchJob, BatchJobTraceStatistics>(cachedTrace.getJobs(), statistics);
+			}
+		}
+		
+		CsvTrace<BatchJob, BatchJobTraceStatistics> trace = BatchJobParser.parseCSVFile(inputFile, simStartDate);
+		if(trace != null && Setup.jobTraceCache) {
+			BatchJobParser.storeCache(inputFile, simStartDate, trace);
+		}
+		if(trace != null) {
+			System.out.println("Max runtime: " + trace.getStatistics().getMaximumRuntime());
+		}
+		return trace;
+	}
 	
 	/**
-	 * Parses a workload trace from a .csv file.
-	 * @param fileName Path of the file to parse.
+	 * Opens the binary cache of a workload trace, such that the jobs can be streamed from the cache (see TraceWorkloadSource). If the cache
+	 * does not exist or is not valid, the trace is parsed and the cache is written first.
+	 * @param fileName Path of the workload trace.
 	 * @param simStartDate Start date of the current simulation.
-	 * @return List of all jobs that were parsed from the provided file.
+	 * @return Binary trace (null if the trace does not exist or the cache cannot be written).
 	 */
-	public static List<BatchJob> parseJobFile(String fileName, Date simStartDate) {
-		ArrayList<BatchJob> result = new ArrayList<BatchJob>();
-		
+	public static BinaryBatchJobTrace openJobTrace(String fileName, Date simStartDate) {
+		File inputFile = ParallelCsvReader.getCsvFile(fileName);
+		if(!inputFile.exists()) {
+			System.out.println("Input file does not exist!");
+			return null;
+		}
 		
-		try {
-			File inputFile;
-			
-			if(fileName.endsWith(".csv") || fileName.endsWith(".CSV")) {
-				inputFile = new File(fileName);
-			}
-			else {
-				inputFile = new File(fileName + ".csv");
-			}
-			
-			if(inputFile.exists()) {
-				BufferedReader reader = new BufferedReader(new FileReader(inputFile));
-//				BufferedWriter writer = new BufferedWriter(new FileWriter(new File("slaDeadlines.csv")));
-				
-				//Skip first line
-				reader.readLine();
-				
-				String line;
-				BatchJob parsedJob;
-				int lineNumber = 0;
-				while((line=reader.readLine()) != null) {
-					if((parsedJob=BatchJobParser.parseJobCSVLine(line, ++lineNumber, simStartDate)) != null) {
-						result.add(parsedJob);
-//						writer.write(INPUT_DATE_FORMAT.format(new Date(simStartDate.getTime() + ((long)parsedJob.getSLADeadline()*1000L))));
-//						writer.newLine();
-					}
-				}
-				
-				Setup.maximumRuntime = maxDuration;
-				System.out.println("Minimum difference between submission and start time: " + minSubTimeDiff);
-//				System.out.println("Average time between submission time and start time: " + (subTimeDiffSum/lineNumber));
-				
-				reader.close();
-//				writer.close();
+		BinaryBatchJobTrace cachedTrace = BatchJobTraceCache.open(inputFile, simStartDate);
+		if(cachedTrace == null) {
+			CsvTrace<BatchJob, BatchJobTraceStatistics> trace = BatchJobParser.parseCSVFile(inputFile, simStartDate);
+			if(trace == null || !BatchJobParser.storeCache(inputFile, simStartDate, trace)) {
+				return null;
 			}
-			else {
-				System.out.println("Input file does not exist!");
+			cachedTrace = BatchJobTraceCache.open(inputFile, simStartDate);
+			if(cachedTrace == null) {
 				return null;
 			}
-			
-			
+		}
+		System.out.println("Streaming " + cachedTrace.getJobCount() + " jobs from trace cache " + BatchJobTraceCache.getCacheFile(inputFile));
+		System.out.println("Max runtime: " + cachedTrace.getMaximumRuntime());
+		return cachedTrace;
+	}
+	
+	/**
+	 * Determines the statistics of a workload trace from its binary cache.
+	 * @param trace Binary trace.
+	 * @return Statistics of the trace.
+	 */
+	public static BatchJobTraceStatistics getStatistics(BinaryBatchJobTrace trace) {
+		return new BatchJobTraceStatistics(trace.getJobCount(), trace.getMaximumRuntime(), trace.getMinimumSubmissionStartDifference(),
+				trace.getSecondsPerSimulationTimestep() > 0);
+	}
+	
+	/**
+	 * Applies the statistics of a parsed workload trace to a simulation, i.e., the maximum runtime of the jobs and the timestep length of one second
+	 * that is implied by traces that contain dates. The static configuration values of the setup are not changed.
+	 * @param statistics Statistics of the workload trace.
+	 * @param context Simulation to which the statistics are applied.
+	 */
+	public static void applyStatistics(BatchJobTraceStatistics statistics, SimulationContext context) {
+		context.setMaximumRuntime(statistics.getMaximumRuntime());
+		context.setSecondsPerSimulationTimestep(BatchJobParser.getSecondsPerSimulationTimestep(statistics, context.getSecondsPerSimulationTimestep()));
+	}
+	
+	/**
+	 * Determines the amount of real time seconds per simulation timestep that is used with a workload trace.
+	 * @param statistics Statistics of the workload trace.
+	 * @param configuredSecondsPerSimulationTimestep Timestep length that is configured for the simulation.
+	 * @return One second for traces that contain dates, the configured timestep length otherwise.
+	 */
+	public static int getSecondsPerSimulationTimestep(BatchJobTraceStatistics statistics, int configuredSecondsPerSimulationTimestep) {
+		return statistics.isDateBased() ? 1 : configuredSecondsPerSimulationTimestep;
+	}
+	
+	/**
+	 * Parses a workload trace from a .csv file and writes the binary cache of the trace (regardless of whether a valid cache already exists).
+	 * @param fileName Path of the file to parse.
+	 * @param simStartDate Start date of the simulations for which the cache is used.
+	 * @return Cache file of the trace (null if the trace does not exist or the cache cannot be written).
+	 */
+	public static File convertJobFile(String fileName, Date simStartDate) {
+		File inputFile = ParallelCsvReader.getCsvFile(fileName);
+		if(!inputFile.exists()) {
+			System.out.println("Input file does not exist!");
+			return null;
+		}
+		CsvTrace<BatchJob, BatchJobTraceStatistics> trace = BatchJobParser.parseCSVFile(inputFile, simStartDate);
+		if(trace != null && BatchJobParser.storeCache(inputFile, simStartDate, trace)) {
+			return BatchJobTraceCache.getCacheFile(inputFile);
+		}
+		return null;
+	}
+	
+	private static boolean storeCache(File inputFile, Date simStartDate, CsvTrace<BatchJob, BatchJobTraceStatistics> trace) {
+		BatchJobTraceStatistics statistics = trace.getStatistics();
+		return BatchJobTraceCache.store(inputFile, simStartDate, trace.getRecords(), statistics.getMaximumRuntime(), statistics.isDateBased() ? 1 : 0,
+				statistics.getMinimumSubmissionStartDifference());
+	}
+	
+	/**
+	 * Parses all lines of a workload trace .csv file.
+	 * @param inputFile File to parse.
+	 * @param simStartDate Start date of the current simulation.
+	 * @return Jobs and statistics of the trace (null if the file cannot be read).
+	 */
+	private static CsvTrace<BatchJob, BatchJobTraceStatistics> parseCSVFile(File inputFile, Date simStartDate) {
+		final long simStartTime = simStartDate.getTime();
+		try {
+			CsvTrace<BatchJob, BatchJobTraceStatistics> trace = ParallelCsvReader.read(inputFile, new ParallelCsvReader.LineParser<BatchJob, BatchJobTraceStatistics>() {
+				@Override
+				public BatchJobTraceStatistics createStatistics() {
+					return new BatchJobTraceStatistics();
+				}
+
+				@Override
+				public BatchJob parseLine(CsvLine line, int lineNumber, BatchJobTraceStatistics statistics) {
+					return BatchJobParser.parseJobCSVLine(line, lineNumber, simStartTime, statistics);
+				}
+			}, Setup.traceParserParallelism);
+			System.out.println("Minimum difference between submission and start time: " + trace.getStatistics().getMinimumSubmissionStartDifference());
+//			System.out.println("Average time between submission time and start time: " + (trace.getStatistics().getSubmissionStartDifferenceSum()/trace.getStatistics().getLineCount()));
+			return trace;
 		}catch(IOException e) {
 			e.printStackTrace();
+			return null;
 		}
-		System.out.println("Max runtime: " + Setup.maximumRuntime);
-		return result;
 	}
 	
 	/**
 	 * Parses CSV line from workload trace file. 
 	 * 
-	 * @param csvLine
-	 * @param lineNumber
-	 * @return 
+	 * @param line Fields of the line.
+	 * @param lineNumber Number of the line within the file.
+	 * @param simStartTime Start time of the current simulation (in milliseconds since 01.01.1970).
+	 * @param statistics Statistics to which the job is added.
+	 * @return Parsed job (null if the line is malformed).
 	 */
-	private static BatchJob parseJobCSVLine(String csvLine, int lineNumber, Date simStartDate) {
-		
-		String[] split = csvLine.split(CSV_SEPARATOR);
+	private static BatchJob parseJobCSVLine(CsvLine line, int lineNumber, long simStartTime, BatchJobTraceStatistics statistics) {
 		
-		if(split.length == 9) {
+		if(line.getFieldCount() == 9) {
 			try {
 				int duration;
 				int startTime;
@@ -120,28 +214,21 @@ public class BatchJobParser {
 				int submissionTime;
 				int slaDeadline;
 				int subTimeDiff;
-				try {
-					Date submissionDate = INPUT_DATE_FORMAT.parse(split[4]);
-					Date startDate = INPUT_DATE_FORMAT.parse(split[5]);
-					if(startDate.before(simStartDate)) {
-						return null;
-					}
-					Date endDate = INPUT_DATE_FORMAT.parse(split[6]);
-					Date slaDeadlineDate = INPUT_DATE_FORMAT.parse(split[7]);
-					
-					
-					startTime = (int)((startDate.getTime() - simStartDate.getTime())/1000L);
-					endTime = (int)((endDate.getTime() - simStartDate.getTime())/1000L);
-					submissionTime = (int)((submissionDate.getTime() - simStartDate.getTime())/1000L);
-					slaDeadline = (int)((slaDeadlineDate.getTime() - simStartDate.getTime())/1000L);
+				long submissionDate = line.getTimestamp(4);
+				long startDate = line.getTimestamp(5);
+				long endDate = line.getTimestamp(6);
+				long slaDeadlineDate = line.getTimestamp(7);
+				if(submissionDate != TraceFieldParser.NO_TIMESTAMP && startDate != TraceFieldParser.NO_TIMESTAMP
+						&& endDate != TraceFieldParser.NO_TIMESTAMP && slaDeadlineDate != TraceFieldParser.NO_TIMESTAMP) {
+					startTime = (int)((startDate - simStartTime)/1000L);
+					endTime = (int)((endDate - simStartTime)/1000L);
+					submissionTime = (int)((submissionDate - simStartTime)/1000L);
+					slaDeadline = (int)((slaDeadlineDate - simStartTime)/1000L);
 					if(submissionTime < 0) {
 						submissionTime = 0;
 					}
-//					System.out.println(split[4] + " Start: " + startTime + "; End: " + endTime);
 					duration = endTime - startTime;
-					if(duration > maxDuration) {
-						maxDuration = duration;
-					}
+					statistics.addRuntime(duration);
 					subTimeDiff = startTime - submissionTime;
 					if(subTimeDiff < 0) {
 						submissionTime = startTime;
@@ -150,16 +237,14 @@ public class BatchJobParser {
 						}
 						subTimeDiff = 0;
 					}
-					subTimeDiffSum += subTimeDiff;
-					if(subTimeDiff < minSubTimeDiff) {
-						minSubTimeDiff = subTimeDiff;
-					}
-					Setup.secondsPerSimulationTimestep = 1;
-				}catch(ParseException e) {
-					submissionTime = Integer.parseInt(split[4]);
-					startTime = Integer.parseInt(split[5]);
-					endTime = Integer.parseInt(split[6]);
-					slaDeadline = Integer.parseInt(split[7]);
+					statistics.addSubmissionStartDifference(subTimeDiff);
+					statistics.setDateBased();
+				}
+				else {
+					submissionTime = line.getInt(4);
+					startTime = line.getInt(5);
+					endTime = line.getInt(6);
+					slaDeadline = line.getInt(7);
 					duration = endTime - startTime;
 				}
 				if(duration == 0) {
@@ -169,37 +254,33 @@ public class BatchJobParser {
 //				StandardSLAModel model = new StandardSLAModel();
 //				slaDeadline = model.createDeadline(startTime, duration);
 				
-				return new BatchJob(split[0], Double.parseDouble(split[1]),
-						Integer.parseInt(split[2]), Double.parseDouble(split[3]),
-						duration, BatchJobStatus.PARSED, submissionTime, startTime, slaDeadline, Integer.parseInt(split[8]));
+				return new BatchJob(line.getString(0), line.getDouble(1),
+						line.getInt(2), line.getDouble(3),
+						duration, BatchJobStatus.PARSED, submissionTime, startTime, slaDeadline, line.getInt(8));
 			} catch (NumberFormatException e) {
 				System.out.println("NumberFormatException occured while parsing line " + lineNumber);
 				e.printStackTrace();
 			}
 		}
-		else if(split.length == 8) {
+		else if(line.getFieldCount() == 8) {
 			int duration;
 			int submissionTime;
 			int slaDeadline;
-			try {
-				Date submissionDate = INPUT_DATE_FORMAT.parse(split[4]);
-				Date slaDeadlineDate = INPUT_DATE_FORMAT.parse(split[6]);
-				
-				
-				submissionTime = (int)((submissionDate.getTime() - simStartDate.getTime())/1000L);
-				slaDeadline = (int)((slaDeadlineDate.getTime() - simStartDate.getTime())/1000L);
+			long submissionDate = line.getTimestamp(4);
+			long slaDeadlineDate = line.getTimestamp(6);
+			if(submissionDate != TraceFieldParser.NO_TIMESTAMP && slaDeadlineDate != TraceFieldParser.NO_TIMESTAMP) {
+				submissionTime = (int)((submissionDate - simStartTime)/1000L);
+				slaDeadline = (int)((slaDeadlineDate - simStartTime)/1000L);
 				if(submissionTime < 0) {
 					submissionTime = 0;
 				}
-//				System.out.println(split[4] + " Start: " + startTime + "; End: " + endTime);
-				duration = Integer.parseInt(split[5]);
-				if(duration > maxDuration) {
-					maxDuration = duration;
-				}
-			}catch(ParseException e) {
-				submissionTime = Integer.parseInt(split[4]);
-				slaDeadline = Integer.parseInt(split[6]);
-				duration = Integer.parseInt(split[5]);
+				duration = line.getInt(5);
+				statistics.addRuntime(duration);
+			}
+			else {
+				submissionTime = line.getInt(4);
+				slaDeadline = line.getInt(6);
+				duration = line.getInt(5);
 			}
 			if(duration == 0) {
 				duration = 1;
@@ -208,9 +289,9 @@ public class BatchJobParser {
 //			StandardSLAModel model = new StandardSLAModel();
 //			slaDeadline = model.createDeadline(startTime, duration);
 			
-			return new BatchJob(split[0], Double.parseDouble(split[1]),
-					Integer.parseInt(split[2]), Double.parseDouble(split[3]),
-					duration, BatchJobStatus.PARSED, submissionTime, 0, slaDeadline, Integer.parseInt(split[7]));
+			return new BatchJob(line.getString(0), line.getDouble(1),
+					line.getInt(2), line.getDouble(3),
+					duration, BatchJobStatus.PARSED, submissionTime, 0, slaDeadline, line.getInt(7));
 			
 		}
 		else {
@@ -220,7 +301,14 @@ public class BatchJobParser {
 		return null;
 	}
 	
-	public static void writeBatchJobFile(String outputPath, List<BatchJob> jobs, Date simStartTime) {
+	/**
+	 * Writes jobs to a .csv file in the format of the workload traces.
+	 * @param outputPath Path of the file to write.
+	 * @param jobs Jobs to write.
+	 * @param simStartTime Start date of the simulation, the points in simulation time of the jobs are relative to it.
+	 * @param secondsPerSimulationTimestep Amount of real time seconds per simulation timestep of the jobs (see getSecondsPerSimulationTimestep).
+	 */
+	public static void writeBatchJobFile(String outputPath, List<BatchJob> jobs, Date simStartTime, int secondsPerSimulationTimestep) {
 		BufferedWriter out;
 		StringBuffer buff;
 		try {
@@ -234,12 +322,12 @@ public class BatchJobParser {
 			Date slaDeadline;
 			
 			for(BatchJob job : jobs) {
-				submissionTime = new Date((long)((long)job.getSubmissionTime()*(long)Setup.secondsPerSimulationTimestep*1000L));
+				submissionTime = new Date((long)((long)job.getSubmissionTime()*(long)secondsPerSimulationTimestep*1000L));
 				submissionTime.setTime(submissionTime.getTime() + simStartTime.getTime());
-				startTime = new Date((long)((long)job.getStartTime()*(long)Setup.secondsPerSimulationTimestep*1000L));
+				startTime = new Date((long)((long)job.getStartTime()*(long)secondsPerSimulationTimestep*1000L));
 				startTime.setTime(startTime.getTime() + simStartTime.getTime());
-				endTime = new Date(startTime.getTime()+(long)((long)job.getDurationInSimulationTime()*(long)Setup.secondsPerSimulationTimestep*1000L));
-				slaDeadline = new Date((long)((long)job.getSLADeadline()*(long)Setup.secondsPerSimulationTimestep*1000L));
+				endTime = new Date(startTime.getTime()+(long)((long)job.getDurationInSimulationTime()*(long)secondsPerSimulationTimestep*1000L));
+				slaDeadline = new Date((long)((long)job.getSLADeadline()*(long)secondsPerSimulationTimestep*1000L));
 				slaDeadline.setTime(slaDeadline.getTime() + simStartTime.getTime());
 				
 				
@@ -0,0 +1,130 @@
+package de.uma.dcsim.utilities;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * This class manages the binary caches of workload traces. The cache of a trace is stored next to the .csv file of the trace (with the additional
+ * file extension .jobcache) and contains the jobs that were parsed from the trace in the format of BinaryBatchJobTrace.
+ *
+ * A cache is only used if it was created for the same simulation start time and the length of the .csv file did not change. Additionally, either the
+ * modification time or the hash of the content of the .csv file has to be unchanged. Thus, the content of the .csv file is only hashed if its modification
+ * time changed (e.g., because it was copied).
+ * @author nilsw
+ *
+ */
+public class BatchJobTraceCache {
+
+	/**
+	 * File extension that is appended to the path of a workload trace to obtain the path of its cache.
+	 */
+	public static final String CACHE_FILE_EXTENSION = ".jobcache";
+
+	/**
+	 * Determines the cache file of a workload trace.
+	 * @param traceFile File that contains the workload trace.
+	 * @return Cache file of the workload trace.
+	 */
+	public static File getCacheFile(File traceFile) {
+		return new File(traceFile.getPath() + CACHE_FILE_EXTENSION);
+	}
+
+	/**
+	 * Opens the cache of a workload trace.
+	 * @param traceFile File that contains the workload trace.
+	 * @param simStartDate Start date of the current simulation.
+	 * @return Memory-mapped cache of the trace (null if there is no valid cache).
+	 */
+	public static BinaryBatchJobTrace open(File traceFile, Date simStartDate) {
+		File cacheFile = BatchJobTraceCache.getCacheFile(traceFile);
+		if(!cacheFile.isFile()) {
+			return null;
+		}
+		try {
+			BinaryBatchJobTrace cachedTrace = new BinaryBatchJobTrace(cacheFile);
+			if(cachedTrace.getSimStartTime() != simStartDate.getTime() || cachedTrace.getSourceLength() != traceFile.length()) {
+				return null;
+			}
+			if(cachedTrace.getSourceLastModified() != traceFile.lastModified() && cachedTrace.getSourceHash() != BatchJobTraceCache.hash(traceFile)) {
+				return null;
+			}
+			return cachedTrace;
+		} catch (IOException e) {
+			System.out.println("Trace cache " + cacheFile + " cannot be used: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the cache of a workload trace.
+	 * @param traceFile File that contains the workload trace.
+	 * @param simStartDate Start date of the simulation for which the trace was parsed.
+	 * @param jobs Jobs that were parsed from the trace (in the order of the trace).
+	 * @param maximumRuntime Maximum runtime of the jobs that was determined while parsing the trace.
+	 * @param secondsPerSimulationTimestep Length of a timestep that is implied by the trace (0 if the trace does not imply a length).
+	 * @param minimumSubmissionStartDifference Minimum difference between the submission and the start time of the jobs.
+	 * @return True if the cache was written.
+	 */
+	public static boolean store(File traceFile, Date simStartDate, List<BatchJob> jobs, int maximumRuntime, int secondsPerSimulationTimestep, int minimumSubmissionStartDifference) {
+		File cacheFile = BatchJobTraceCache.getCacheFile(traceFile);
+		try {
+			BinaryBatchJobTrace.write(cacheFile, jobs, traceFile.length(), traceFile.lastModified(), BatchJobTraceCache.hash(traceFile), simStartDate.getTime(),
+					maximumRuntime, secondsPerSimulationTimestep, minimumSubmissionStartDifference);
+			return true;
+		} catch (IOException e) {
+			System.out.println("Trace cache " + cacheFile + " cannot be written: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Calculates the hash (CRC32) of the content of a file.
+	 * @param file File whose content is hashed.
+	 * @return Hash of the content of the file.
+	 * @throws IOException If the file cannot be read.
+	 */
+	public static long hash(File file) throws IOException {
+		CRC32 crc = new CRC32();
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+			while(channel.read(buffer) > 0) {
+				buffer.flip();
+				crc.update(buffer);
+				buffer.clear();
+			}
+		} finally {
+			in.close();
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Converts a workload trace into its binary cache. Expected arguments: the path of the .csv file of the trace and the simulation start time
+	 * (format dd.MM.yyyy HH:mm:ss) relative to which the trace is parsed.
+	 */
+	public static void main(String[] args) {
+		if(args.length < 2) {
+			System.out.println("Usage: BatchJobTraceCache <workload trace> <simulation start time (dd.MM.yyyy HH:mm:ss)>");
+			System.exit(0);
+		}
+		try {
+			Date simStartDate = Constants.getDateFormat().parse(args[1]);
+			File cacheFile = BatchJobParser.convertJobFile(args[0], simStartDate);
+			if(cacheFile != null) {
+				System.out.println("Wrote trace cache " + cacheFile);
+			}
+		} catch (ParseException e) {
+			e.printStackTrace();
+		}
+	}
+
+}
@@ -0,0 +1,86 @@
+package de.uma.dcsim.utilities;
+
+/**
+ * This class contains the statistics of a parsed workload trace. The runtimes and the differences between submission and start times are
+ * only determined for jobs whose points in time are specified as dates.
+ * @author nilsw
+ *
+ */
+public class BatchJobTraceStatistics extends TraceStatistics {
+
+	/**
+	 * Maximum runtime of the jobs in the workload trace.
+	 */
+	private int maximumRuntime = Integer.MIN_VALUE;
+
+	/**
+	 * Minimum difference between the submission time and the start time of all jobs in the workload trace.
+	 */
+	private int minimumSubmissionStartDifference = Integer.MAX_VALUE;
+
+	private long submissionStartDifferenceSum;
+
+	/**
+	 * Indicates whether the dates in the workload trace imply a timestep length of one second.
+	 */
+	private boolean dateBased;
+
+	public BatchJobTraceStatistics() {
+	}
+
+	/**
+	 * Creates the statistics of a workload trace that was loaded from its binary cache (see BatchJobTraceCache).
+	 */
+	BatchJobTraceStatistics(int recordCount, int maximumRuntime, int minimumSubmissionStartDifference, boolean dateBased) {
+		super(recordCount);
+		this.maximumRuntime = maximumRuntime;
+		this.minimumSubmissionStartDifference = minimumSubmissionStartDifference;
+		this.dateBased = dateBased;
+	}
+
+	void addRuntime(int runtime) {
+		if(runtime > this.maximumRuntime) {
+			this.maximumRuntime = runtime;
+		}
+	}
+
+	void addSubmissionStartDifference(int difference) {
+		this.submissionStartDifferenceSum += difference;
+		if(difference < this.minimumSubmissionStartDifference) {
+			this.minimumSubmissionStartDifference = difference;
+		}
+	}
+
+	void setDateBased() {
+		this.dateBased = true;
+	}
+
+	@Override
+	void merge(TraceStatistics other) {
+		super.merge(other);
+		BatchJobTraceStatistics otherStatistics = (BatchJobTraceStatistics)other;
+		this.addRuntime(otherStatistics.maximumRuntime);
+		this.submissionStartDifferenceSum += otherStatistics.submissionStartDifferenceSum;
+		if(otherStatistics.minimumSubmissionStartDifference < this.minimumSubmissionStartDifference) {
+			this.minimumSubmissionStartDifference = otherStatistics.minimumSubmissionStartDifference;
+		}
+		this.dateBased |= otherStatistics.dateBased;
+	}
+
+	public int getMaximumRuntime() {
+		return this.maximumRuntime;
+	}
+
+	public int getMinimumSubmissionStartDifference() {
+		return this.minimumSubmissionStartDifference;
+	}
+
+	public long getSubmissionStartDifferenceSum() {
+		return this.submissionStartDifferenceSum;
+	}
+
+	public boolean isDateBased() {
+		return this.dateBased;
+	}
+
+}
@@ -0,0 +1,317 @@
+package de.uma.dcsim.utilities;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * This class represents a workload trace that is stored in a compact binary file. The file consists of a fixed size header, one column per job attribute
+ * (stored in the order of the jobs in the original trace), an index that contains the positions of the jobs in the order of their submission times and
+ * a heap that contains the job IDs.
+ *
+ * The file is memory-mapped when it is opened, thus opening a trace only takes the time that is needed to read the header. BatchJob instances are only
+ * created when they are requested (each request creates a new instance).
+ * @author nilsw
+ *
+ */
+public class BinaryBatchJobTrace {
+
+	/**
+	 * Identifies binary workload trace files ("DCJT").
+	 */
+	private static final int MAGIC_NUMBER = 0x44434A54;
+
+	private static final int VERSION = 1;
+
+	/**
+	 * Size of the header in bytes.
+	 */
+	private static final int HEADER_SIZE = 64;
+
+	private MappedByteBuffer buffer;
+
+	private long sourceLength;
+
+	private long sourceLastModified;
+
+	private long sourceHash;
+
+	private long simStartTime;
+
+	private int maximumRuntime;
+
+	private int secondsPerSimulationTimestep;
+
+	private int minimumSubmissionStartDifference;
+
+	private int jobCount;
+
+	//Start positions of the columns within the file
+	private int frequencyPosition;
+	private int averagePowerConsumptionPosition;
+	private int amountOfServersPosition;
+	private int durationPosition;
+	private int submissionTimePosition;
+	private int startTimePosition;
+	private int slaDeadlinePosition;
+	private int jobClassPosition;
+	private int idOffsetPosition;
+	private int submissionOrderPosition;
+	private int idHeapPosition;
+
+	/**
+	 * Memory-maps a binary workload trace file.
+	 * @param file File that was written by write.
+	 * @throws IOException If the file cannot be mapped or is not a binary workload trace.
+	 */
+	public BinaryBatchJobTrace(File file) throws IOException {
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			if(channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(file + " is not a binary workload trace");
+			}
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			randomAccessFile.close();
+		}
+
+		if(this.buffer.getInt(0) != MAGIC_NUMBER || this.buffer.getInt(4) != VERSION) {
+			throw new IOException(file + " is not a binary workload trace of version " + VERSION);
+		}
+		this.sourceLength = this.buffer.getLong(8);
+		this.sourceLastModified = this.buffer.getLong(16);
+		this.sourceHash = this.buffer.getLong(24);
+		this.simStartTime = this.buffer.getLong(32);
+		this.maximumRuntime = this.buffer.getInt(40);
+		this.secondsPerSimulationTimestep = this.buffer.getInt(44);
+		this.minimumSubmissionStartDifference = this.buffer.getInt(48);
+		this.jobCount = this.buffer.getInt(52);
+		int idHeapLength = this.buffer.getInt(56);
+
+		this.frequencyPosition = HEADER_SIZE;
+		this.averagePowerConsumptionPosition = this.frequencyPosition + 8*this.jobCount;
+		this.amountOfServersPosition = this.averagePowerConsumptionPosition + 8*this.jobCount;
+		this.durationPosition = this.amountOfServersPosition + 4*this.jobCount;
+		this.submissionTimePosition = this.durationPosition + 4*this.jobCount;
+		this.startTimePosition = this.submissionTimePosition + 4*this.jobCount;
+		this.slaDeadlinePosition = this.startTimePosition + 4*this.jobCount;
+		this.jobClassPosition = this.slaDeadlinePosition + 4*this.jobCount;
+		this.idOffsetPosition = this.jobClassPosition + 4*this.jobCount;
+		this.submissionOrderPosition = this.idOffsetPosition + 4*(this.jobCount+1);
+		this.idHeapPosition = this.submissionOrderPosition + 4*this.jobCount;
+		if((long)this.idHeapPosition + idHeapLength != this.buffer.capacity()) {
+			throw new IOException(file + " is truncated");
+		}
+	}
+
+	/**
+	 * Writes jobs to a binary workload trace file. The file is first written to a temporary file, which replaces the specified file afterwards.
+	 * @param file File to which the trace is written.
+	 * @param jobs Jobs of the trace in the order of the original trace.
+	 * @param sourceLength Length of the file that contains the original trace.
+	 * @param sourceLastModified Modification time of the file that contains the original trace.
+	 * @param sourceHash Hash of the content of the file that contains the original trace.
+	 * @param simStartTime Simulation start time (in milliseconds since 01.01.1970) relative to which the points in simulation time of the jobs were parsed.
+	 * @param maximumRuntime Maximum runtime of the jobs that was determined while parsing the trace.
+	 * @param secondsPerSimulationTimestep Length of a timestep that is implied by the trace (0 if the trace does not imply a length).
+	 * @param minimumSubmissionStartDifference Minimum difference between the submission and the start time of the jobs.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public static void write(File file, List<BatchJob> jobs, long sourceLength, long sourceLastModified, long sourceHash, long simStartTime,
+			int maximumRuntime, int secondsPerSimulationTimestep, int minimumSubmissionStartDifference) throws IOException {
+		int n = jobs.size();
+
+		//Encode the job IDs into the ID heap
+		ByteArrayOutputStream idHeap = new ByteArrayOutputStream(n*16);
+		int[] idOffsets = new int[n+1];
+		byte[] id;
+		for(int i=0; i < n; i++) {
+			idOffsets[i] = idHeap.size();
+			id = jobs.get(i).getId().getBytes(StandardCharsets.UTF_8);
+			idHeap.write(id, 0, id.length);
+		}
+		idOffsets[n] = idHeap.size();
+
+		//Positions of the jobs in the order of their submission times (jobs with equal submission times keep their order)
+		Integer[] submissionOrder = new Integer[n];
+		for(int i=0; i < n; i++) {
+			submissionOrder[i] = i;
+		}
+		Arrays.sort(submissionOrder, Comparator.comparingInt((Integer i) -> jobs.get(i).getSubmissionTime()));
+
+		File temporaryFile = new File(file.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile), 1 << 16));
+		try {
+			out.writeInt(MAGIC_NUMBER);
+			out.writeInt(VERSION);
+			out.writeLong(sourceLength);
+			out.writeLong(sourceLastModified);
+			out.writeLong(sourceHash);
+			out.writeLong(simStartTime);
+			out.writeInt(maximumRuntime);
+			out.writeInt(secondsPerSimulationTimestep);
+			out.writeInt(minimumSubmissionStartDifference);
+			out.writeInt(n);
+			out.writeInt(idHeap.size());
+			out.writeInt(0);
+
+			for(BatchJob job : jobs) {
+				out.writeDouble(job.getFrequency());
+			}
+			for(BatchJob job : jobs) {
+				out.writeDouble(job.getParsedAveragePowerConsumption());
+			}
+			for(BatchJob job : jobs) {
+				out.writeInt(job.getAmountOfServers());
+			}
+			for(BatchJob job : jobs) {
+				out.writeInt(job.getDurationInSimulationTime());
+			}
+			for(BatchJob job : jobs) {
+				out.writeInt(job.getSubmissionTime());
+			}
+			for(BatchJob job : jobs) {
+				out.writeInt(job.getStartTime());
+			}
+			for(BatchJob job : jobs) {
+				out.writeInt(job.getSLADeadline());
+			}
+			for(BatchJob job : jobs) {
+				out.writeInt(job.getJobClass());
+			}
+			for(int offset : idOffsets) {
+				out.writeInt(offset);
+			}
+			for(int position : submissionOrder) {
+				out.writeInt(position);
+			}
+			idHeap.writeTo(out);
+		} finally {
+			out.close();
+		}
+		//Readers either see the previous cache or the complete new one, never a missing or partially written file
+		Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Creates the job at the specified position of the trace.
+	 * @param index Position of the job in the original trace.
+	 * @return New BatchJob instance in the PARSED status.
+	 */
+	public BatchJob getJob(int index) {
+		int idStart = this.buffer.getInt(this.idOffsetPosition + 4*index);
+		int idEnd = this.buffer.getInt(this.idOffsetPosition + 4*(index+1));
+		byte[] id = new byte[idEnd - idStart];
+		for(int i=0; i < id.length; i++) {
+			id[i] = this.buffer.get(this.idHeapPosition + idStart + i);
+		}
+
+		return new BatchJob(new String(id, StandardCharsets.UTF_8), this.buffer.getDouble(this.frequencyPosition + 8*index),
+				this.buffer.getInt(this.amountOfServersPosition + 4*index), this.buffer.getDouble(this.averagePowerConsumptionPosition + 8*index),
+				this.buffer.getInt(this.durationPosition + 4*index), BatchJobStatus.PARSED, this.getSubmissionTime(index),
+				this.buffer.getInt(this.startTimePosition + 4*index), this.buffer.getInt(this.slaDeadlinePosition + 4*index),
+				this.buffer.getInt(this.jobClassPosition + 4*index));
+	}
+
+	/**
+	 * Creates the job at the specified position in the order of the submission times.
+	 * @param rank Position of the job in the order of the submission times.
+	 * @return New BatchJob instance in the PARSED status.
+	 */
+	public BatchJob getJobInSubmissionOrder(int rank) {
+		return this.getJob(this.buffer.getInt(this.submissionOrderPosition + 4*rank));
+	}
+
+	/**
+	 * Determines the submission time of the job at the specified position in the order of the submission times (without creating the job).
+	 * @param rank Position of the job in the order of the submission times.
+	 * @return Submission time of the job.
+	 */
+	public int getSubmissionTimeInSubmissionOrder(int rank) {
+		return this.getSubmissionTime(this.buffer.getInt(this.submissionOrderPosition + 4*rank));
+	}
+
+	/**
+	 * Determines the position (in the order of the submission times) of the first job that is submitted at or after the specified point in simulation time.
+	 * @param submissionTime Point in simulation time.
+	 * @return Position of the first job that is submitted at or after the specified point in simulation time (getJobCount() if there is none).
+	 */
+	public int getFirstRankSubmittedAt(int submissionTime) {
+		int low = 0;
+		int high = this.jobCount;
+		int middle;
+		while(low < high) {
+			middle = (low + high) >>> 1;
+			if(this.getSubmissionTime(this.buffer.getInt(this.submissionOrderPosition + 4*middle)) < submissionTime) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Creates all jobs of the trace.
+	 * @return List of new BatchJob instances in the order of the original trace.
+	 */
+	public ArrayList<BatchJob> getJobs() {
+		ArrayList<BatchJob> jobs = new ArrayList<BatchJob>(this.jobCount);
+		for(int i=0; i < this.jobCount; i++) {
+			jobs.add(this.getJob(i));
+		}
+		return jobs;
+	}
+
+	private int getSubmissionTime(int index) {
+		return this.buffer.getInt(this.submissionTimePosition + 4*index);
+	}
+
+	public int getJobCount() {
+		return this.jobCount;
+	}
+
+	public long getSourceLength() {
+		return this.sourceLength;
+	}
+
+	public long getSourceLastModified() {
+		return this.sourceLastModified;
+	}
+
+	public long getSourceHash() {
+		return this.sourceHash;
+	}
+
+	public long getSimStartTime() {
+		return this.simStartTime;
+	}
+
+	public int getMaximumRuntime() {
+		return this.maximumRuntime;
+	}
+
+	public int getSecondsPerSimulationTimestep() {
+		return this.secondsPerSimulationTimestep;
+	}
+
+	public int getMinimumSubmissionStartDifference() {
+		return this.minimumSubmissionStartDifference;
+	}
+
+}
@@ -0,0 +1,94 @@
+package de.uma.dcsim.utilities;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class provides access to the fields of one line of a trace file. The fields are not copied, they are parsed directly from the buffer that
+ * contains the file (see TraceFieldParser). An instance is reused for all lines of a chunk of the file, thus it must not be stored by parsers.
+ *
+ * The fields are separated like String.split(Constants.CSV_SEPARATOR), i.e., trailing empty fields are removed.
+ * @author nilsw
+ *
+ */
+public class CsvLine {
+
+	private static final byte SEPARATOR = (byte)Constants.CSV_SEPARATOR.charAt(0);
+
+	private ByteBuffer buffer;
+
+	private int fieldCount;
+
+	private int[] fieldStarts;
+
+	private int[] fieldEnds;
+
+	public CsvLine(ByteBuffer buffer) {
+		this.buffer = buffer;
+		this.fieldStarts = new int[16];
+		this.fieldEnds = new int[16];
+	}
+
+	/**
+	 * Splits a line of the buffer into its fields.
+	 * @param start Position of the first byte of the line.
+	 * @param end Position after the last byte of the line (without line terminator).
+	 */
+	void reset(int start, int end) {
+		this.fieldCount = 0;
+		int fieldStart = start;
+		for(int i=start; i <= end; i++) {
+			if(i == end || this.buffer.get(i) == SEPARATOR) {
+				if(this.fieldCount == this.fieldStarts.length) {
+					int[] newStarts = new int[2*this.fieldCount];
+					int[] newEnds = new int[2*this.fieldCount];
+					System.arraycopy(this.fieldStarts, 0, newStarts, 0, this.fieldCount);
+					System.arraycopy(this.fieldEnds, 0, newEnds, 0, this.fieldCount);
+					this.fieldStarts = newStarts;
+					this.fieldEnds = newEnds;
+				}
+				this.fieldStarts[this.fieldCount] = fieldStart;
+				this.fieldEnds[this.fieldCount] = i;
+				this.fieldCount++;
+				fieldStart = i+1;
+			}
+		}
+		//A line without separators consists of one (possibly empty) field, otherwise trailing empty fields are removed
+		if(this.fieldCount > 1) {
+			while(this.fieldCount > 0 && this.fieldStarts[this.fieldCount-1] == this.fieldEnds[this.fieldCount-1]) {
+				this.fieldCount--;
+			}
+		}
+	}
+
+	public int getFieldCount() {
+		return this.fieldCount;
+	}
+
+	public String getString(int field) {
+		return TraceFieldParser.decode(this.buffer, this.fieldStarts[field], this.fieldEnds[field]);
+	}
+
+	public int getInt(int field) {
+		return TraceFieldParser.parseInt(this.buffer, this.fieldStarts[field], this.fieldEnds[field]);
+	}
+
+	public double getDouble(int field) {
+		return TraceFieldParser.parseDouble(this.buffer, this.fieldStarts[field], this.fieldEnds[field], false);
+	}
+
+	/**
+	 * Parses a decimal number that uses either a dot or a comma as decimal separator.
+	 */
+	public double getDoubleWithDecimalComma(int field) {
+		return TraceFieldParser.parseDouble(this.buffer, this.fieldStarts[field], this.fieldEnds[field], true);
+	}
+
+	/**
+	 * Parses a timestamp in the date format of the traces.
+	 * @return Timestamp in milliseconds since 01.01.1970 (TraceFieldParser.NO_TIMESTAMP if the field does not contain a timestamp).
+	 */
+	public long getTimestamp(int field) {
+		return TraceFieldParser.parseTimestamp(this.buffer, this.fieldStarts[field], this.fieldEnds[field]);
+	}
+
+}
@@ -0,0 +1,31 @@
+package de.uma.dcsim.utilities;
+
+import java.util.List;
+
+/**
+ * This class contains the records that were parsed from a trace file (in the order of the file) together with the statistics of the file.
+ * @author nilsw
+ *
+ * @param <T> Type of the records.
+ * @param <S> Type of the statistics.
+ */
+public class CsvTrace<T, S extends TraceStatistics> {
+
+	private List<T> records;
+
+	private S statistics;
+
+	public CsvTrace(List<T> records, S statistics) {
+		this.records = records;
+		this.statistics = statistics;
+	}
+
+	public List<T> getRecords() {
+		return this.records;
+	}
+
+	public S getStatistics() {
+		return this.statistics;
+	}
+
+}
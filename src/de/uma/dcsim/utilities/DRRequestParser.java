@@ -1,15 +1,11 @@
 package de.uma.dcsim.utilities;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Locale;
+
+import de.uma.dcsim.simulationControl.Setup;
 
 /**
  * This class can be used to parse a DR request event trace from a .csv file.
@@ -18,16 +14,6 @@ import java.util.Locale;
  */
 public class DRRequestParser {
 	
-	/**
-	 * Separator that is used in the .csv file that contains the DR request event trace.
-	 */
-	private static final String CSV_SEPARATOR = ";";
-	
-	/**
-	 * Format of the dates that are used in the file that contains the DR request event trace.
-	 */
-	private static final SimpleDateFormat INPUT_DATE_FORMAT = Constants.getDateFormat();;
-	
 	/**
 	 * Parses a DR request event trace from a .csv file. 
 	 * @param fileName Path of the file to parse.
@@ -35,82 +21,76 @@ public class DRRequestParser {
 	 * @return List of the DR requests that were parsed from the specified file.
 	 */
 	public List<DRRequest> parseDRRequestFile(String fileName, Date simStartDate) {
-		ArrayList<DRRequest> result = new ArrayList<DRRequest>();
-		
+		CsvTrace<DRRequest, TraceStatistics> trace = this.parseDRRequestTrace(fileName, simStartDate);
+		return trace != null ? trace.getRecords() : null;
+	}
+	
+	/**
+	 * Parses a DR request event trace from a .csv file (see ParallelCsvReader).
+	 * @param fileName Path of the file to parse.
+	 * @param simStartDate Start date of the current simulation.
+	 * @return DR requests (in the order of the file) and statistics of the trace (null if the file does not exist).
+	 */
+	public CsvTrace<DRRequest, TraceStatistics> parseDRRequestTrace(String fileName, Date simStartDate) {
+		File inputFile = ParallelCsvReader.getCsvFile(fileName);
+		if(!inputFile.exists()) {
+			System.out.println("Input file does not exist!");
+			return null;
+		}
 		
+		final long simStartTime = simStartDate.getTime();
 		try {
-			File inputFile;
-			
-			if(fileName.endsWith(".csv") || fileName.endsWith(".CSV")) {
-				inputFile = new File(fileName);
-			}
-			else {
-				inputFile = new File(fileName + ".csv");
-			}
-			
-			if(inputFile.exists()) {
-				BufferedReader reader = new BufferedReader(new FileReader(inputFile));
-				
-				reader.readLine();
-				
-				String line;
-				DRRequest parsedRequest;
-				int lineNumber = 0;
-				while((line=reader.readLine()) != null) {
-					if((parsedRequest=this.parseDRRequestCSVLine(line, ++lineNumber, simStartDate)) != null) {
-						result.add(parsedRequest);
-					}
+			return ParallelCsvReader.read(inputFile, new ParallelCsvReader.LineParser<DRRequest, TraceStatistics>() {
+				@Override
+				public TraceStatistics createStatistics() {
+					return new TraceStatistics();
 				}
-				
-				reader.close();
-			}
-			else {
-				System.out.println("Input file does not exist!");
-				return null;
-			}
-			
-			
+
+				@Override
+				public DRRequest parseLine(CsvLine line, int lineNumber, TraceStatistics statistics) {
+					return DRRequestParser.parseDRRequestCSVLine(line, lineNumber, simStartTime);
+				}
+			}, Setup.traceParserParallelism);
 		}catch(IOException e) {
 			e.printStackTrace();
+			return null;
 		}
-		
-		return result;
 	}
 	
 	/**
 	 * Parses CSV line from a DR request event trace file. The line has to contain the following values: timestamp;adjustmentHeight;
 	 * provisonType;requestLength;compensationReward
 	 * 
-	 * @param csvLine
-	 * @param lineNumber
-	 * @return 
+	 * @param line Fields of the line.
+	 * @param lineNumber Number of the line within the file.
+	 * @param simStartTime Start time of the current simulation (in milliseconds since 01.01.1970).
+	 * @return Parsed DR request (null if the line is malformed or lies before the start of the simulation).
 	 */
-	private DRRequest parseDRRequestCSVLine(String csvLine, int lineNumber, Date simStartDate) {
-		
-		String[] split = csvLine.split(CSV_SEPARATOR);
+	private static DRRequest parseDRRequestCSVLine(CsvLine line, int lineNumber, long simStartTime) {
 		
-		if(split.length == 5) {
+		if(line.getFieldCount() == 5) {
 			try {
 				int requestLength;
 				int timestamp;
 				double adjustmentHeight;
 				ReserveProvisionType provisionType;
 				double compensationReward;
-				try {
-					Date timestampDate = INPUT_DATE_FORMAT.parse(split[0]);
-					if(timestampDate.before(simStartDate)) {
+				long timestampDate = line.getTimestamp(0);
+				if(timestampDate != TraceFieldParser.NO_TIMESTAMP) {
+					if(timestampDate < simStartTime) {
 						return null;
 					}
 					
-					timestamp = (int)((timestampDate.getTime() - simStartDate.getTime())/1000L);
-				}catch(ParseException e) {
-					timestamp = Integer.parseInt(split[0]);
+					timestamp = (int)((timestampDate - simStartTime)/1000L);
+				}
+				else {
+					timestamp = line.getInt(0);
 				}
 				
-				adjustmentHeight = Double.parseDouble(split[1]);
-				provisionType = ReserveProvisionType.parseFromString(split[2]);
-				requestLength = Integer.parseInt(split[3]);
-				compensationReward = Double.parseDouble(split[4]);
+				adjustmentHeight = line.getDouble(1);
+				provisionType = ReserveProvisionType.parseFromString(line.getString(2));
+				requestLength = line.getInt(3);
+				compensationReward = line.getDouble(4);
 				
 				return new DRRequest(timestamp, adjustmentHeight, provisionType, requestLength, compensationReward);
 			} catch (NumberFormatException e) {
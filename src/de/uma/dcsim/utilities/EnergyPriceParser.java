@@ -1,15 +1,11 @@
 package de.uma.dcsim.utilities;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Locale;
+
+import de.uma.dcsim.simulationControl.Setup;
 
 /**
  * This class can be used to parse an energy price trace from a .csv file.
@@ -19,16 +15,6 @@ import java.util.Locale;
  */
 public class EnergyPriceParser {
 	
-	/**
-	 * Separator that is used in the csv file that contains the energy price trace.
-	 */
-	private static final String CSV_SEPARATOR = ";";
-	
-	/**
-	 * Format of the dates that are used in the csv file that contains the energy price trace.
-	 */
-	private static final SimpleDateFormat INPUT_DATE_FORMAT = Constants.getDateFormat();;
-	
 	/**
 	 * Parses the energy trace from a specified file.
 	 * @param fileName Path of the file to parse.
@@ -36,74 +22,69 @@ public class EnergyPriceParser {
 	 * @return List of energy prices that were parsed.
 	 */
 	public List<EnergyPrice> parseEnergyPriceFile(String fileName, Date simStartDate) {
-		ArrayList<EnergyPrice> result = new ArrayList<EnergyPrice>();
-		
+		CsvTrace<EnergyPrice, TraceStatistics> trace = this.parseEnergyPriceTrace(fileName, simStartDate);
+		return trace != null ? trace.getRecords() : null;
+	}
+	
+	/**
+	 * Parses the energy trace from a specified file (see ParallelCsvReader).
+	 * @param fileName Path of the file to parse.
+	 * @param simStartDate Start date of the current simulation.
+	 * @return Energy prices (in the order of the file) and statistics of the trace (null if the file does not exist).
+	 */
+	public CsvTrace<EnergyPrice, TraceStatistics> parseEnergyPriceTrace(String fileName, Date simStartDate) {
+		File inputFile = ParallelCsvReader.getCsvFile(fileName);
+		if(!inputFile.exists()) {
+			System.out.println("Input file does not exist!");
+			return null;
+		}
 		
+		final long simStartTime = simStartDate.getTime();
 		try {
-			File inputFile;
-			
-			if(fileName.endsWith(".csv") || fileName.endsWith(".CSV")) {
-				inputFile = new File(fileName);
-			}
-			else {
-				inputFile = new File(fileName + ".csv");
-			}
-			
-			if(inputFile.exists()) {
-				BufferedReader reader = new BufferedReader(new FileReader(inputFile));
-				
-				String line;
-				EnergyPrice parsedEnergyPrice;
-				int lineNumber = 0;
-				reader.readLine();
-				while((line=reader.readLine()) != null) {
-					if((parsedEnergyPrice=this.parseEnergyPriceCSVLine(line, ++lineNumber, simStartDate)) != null) {
-						result.add(parsedEnergyPrice);
-					}
+			return ParallelCsvReader.read(inputFile, new ParallelCsvReader.LineParser<EnergyPrice, TraceStatistics>() {
+				@Override
+				public TraceStatistics createStatistics() {
+					return new TraceStatistics();
 				}
-				
-				reader.close();
-			}
-			else {
-				System.out.println("Input file does not exist!");
-				return null;
-			}
-			
-			
+
+				@Override
+				public EnergyPrice parseLine(CsvLine line, int lineNumber, TraceStatistics statistics) {
+					return EnergyPriceParser.parseEnergyPriceCSVLine(line, lineNumber, simStartTime);
+				}
+			}, Setup.traceParserParallelism);
 		}catch(IOException e) {
 			e.printStackTrace();
+			return null;
 		}
-		
-		return result;
 	}
 	
 	/**
 	 * Parses CSV line from an energy price trace file. The line has to contain the following values: timestamp;energyPrice.
 	 * 
-	 * @param csvLine
-	 * @param lineNumber
-	 * @return 
+	 * @param line Fields of the line.
+	 * @param lineNumber Number of the line within the file.
+	 * @param simStartTime Start time of the current simulation (in milliseconds since 01.01.1970).
+	 * @return Parsed energy price (null if the line is malformed or lies before the start of the simulation).
 	 */
-	private EnergyPrice parseEnergyPriceCSVLine(String csvLine, int lineNumber, Date simStartDate) {
-		
-		String[] split = csvLine.split(CSV_SEPARATOR);
+	private static EnergyPrice parseEnergyPriceCSVLine(CsvLine line, int lineNumber, long simStartTime) {
 		
-		if(split.length == 2) {
+		if(line.getFieldCount() == 2) {
 			try {
 				int timestamp;
 				double price;
-				try {
-					Date timestampDate = INPUT_DATE_FORMAT.parse(split[0]);
-					if(timestampDate.before(simStartDate)) {
+				long timestampDate = line.getTimestamp(0);
+				if(timestampDate != TraceFieldParser.NO_TIMESTAMP) {
+					if(timestampDate < simStartTime) {
 						return null;
 					}
 					
-					timestamp = (int)((timestampDate.getTime() - simStartDate.getTime())/1000L);
-				}catch(ParseException e) {
-					timestamp = Integer.parseInt(split[0]);
+					timestamp = (int)((timestampDate - simStartTime)/1000L);
+				}
+				else {
+					timestamp = line.getInt(0);
 				}
 				
-				price = Double.parseDouble(split[1].replace(",", "."));
+				price = line.getDoubleWithDecimalComma(1);
 				
 				return new EnergyPrice(timestamp, price);
 			} catch (NumberFormatException e) {
@@ -0,0 +1,222 @@
+package de.uma.dcsim.utilities;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * This class archives the finished jobs of a DC. Instead of the BatchJob instances (with their events, SLA models and server lists), only the
+ * values that are needed after a job finished are kept in primitive columns: the id, the finishing time, the delay, the execution frequency and the
+ * SLA costs of the job. The results of the finished jobs are written to the results backend when they finish, thus the BatchJob instances can be
+ * released afterwards.
+ *
+ * The jobs are ordered by their finishing times. Together with running sums of the SLA costs, the SLA costs of the jobs that finished within an
+ * interval are determined by two binary searches, independent of the amount of finished jobs. Jobs finish in the order of the simulation time,
+ * thus they are usually appended at the end of the archive. Jobs that are added out of order (e.g., finished jobs of a parsed workload) are
+ * inserted at their position.
+ *
+ * @author nilsw
+ *
+ */
+public class FinishedJobArchive {
+
+	private String[] ids;
+
+	/**
+	 * Finishing times of the jobs in ascending order.
+	 */
+	private int[] finishingTimes;
+
+	/**
+	 * Delays of the jobs in simulation time (see BatchJob.getFinishingDelayInSimulationTime).
+	 */
+	private int[] delays;
+
+	/**
+	 * Execution frequencies of the jobs when they finished.
+	 */
+	private double[] frequencies;
+
+	private double[] slaCosts;
+
+	/**
+	 * Running sums of the SLA costs, element i contains the SLA costs of the first i jobs.
+	 */
+	private double[] slaCostSums;
+
+	private int size;
+
+	public FinishedJobArchive() {
+		this.ids = new String[64];
+		this.finishingTimes = new int[64];
+		this.delays = new int[64];
+		this.frequencies = new double[64];
+		this.slaCosts = new double[64];
+		this.slaCostSums = new double[65];
+	}
+
+	/**
+	 * Adds a finished job to the archive. The job itself is not referenced by the archive.
+	 * @param job Finished job.
+	 * @param slaCosts SLA costs of the job (see BatchJob.calculateSLACosts).
+	 */
+	public void add(BatchJob job, double slaCosts) {
+		this.add(job.getId(), job.getActualFinishingTime(), job.getFinishingDelayInSimulationTime(), job.getFrequency(), slaCosts);
+	}
+
+	/**
+	 * Adds a finished job to the archive.
+	 * @param id Id of the job.
+	 * @param finishingTime Point in simulation time at which the job finished.
+	 * @param delay Delay of the job in simulation time.
+	 * @param frequency Execution frequency of the job when it finished.
+	 * @param slaCosts SLA costs of the job.
+	 */
+	public void add(String id, int finishingTime, int delay, double frequency, double slaCosts) {
+		if(this.size == this.finishingTimes.length) {
+			int capacity = 2*this.size;
+			this.ids = Arrays.copyOf(this.ids, capacity);
+			this.finishingTimes = Arrays.copyOf(this.finishingTimes, capacity);
+			this.delays = Arrays.copyOf(this.delays, capacity);
+			this.frequencies = Arrays.copyOf(this.frequencies, capacity);
+			this.slaCosts = Arrays.copyOf(this.slaCosts, capacity);
+			this.slaCostSums = Arrays.copyOf(this.slaCostSums, capacity+1);
+		}
+		int position = this.size;
+		if(position > 0 && this.finishingTimes[position-1] > finishingTime) {
+			//Move the jobs that finished later behind the added job
+			position = this.getFirstIndexAfter(finishingTime);
+			int length = this.size - position;
+			System.arraycopy(this.ids, position, this.ids, position+1, length);
+			System.arraycopy(this.finishingTimes, position, this.finishingTimes, position+1, length);
+			System.arraycopy(this.delays, position, this.delays, position+1, length);
+			System.arraycopy(this.frequencies, position, this.frequencies, position+1, length);
+			System.arraycopy(this.slaCosts, position, this.slaCosts, position+1, length);
+		}
+		this.ids[position] = id;
+		this.finishingTimes[position] = finishingTime;
+		this.delays[position] = delay;
+		this.frequencies[position] = frequency;
+		this.slaCosts[position] = slaCosts;
+		this.size++;
+
+		for(int i=position; i < this.size; i++) {
+			this.slaCostSums[i+1] = this.slaCostSums[i] + this.slaCosts[i];
+		}
+	}
+
+	/**
+	 * Retrieves the SLA costs of the jobs that finished within an interval.
+	 * @param intervalStart First point in simulation time of the interval.
+	 * @param intervalEnd Last point in simulation time of the interval (inclusive).
+	 * @return Total SLA costs of the jobs whose finishing times lie within the interval.
+	 */
+	public double getSLACosts(int intervalStart, int intervalEnd) {
+		if(intervalEnd < intervalStart) {
+			return 0;
+		}
+		int first = this.getFirstIndexAfter(intervalStart-1);
+		int last = this.getFirstIndexAfter(intervalEnd);
+		return this.slaCostSums[last] - this.slaCostSums[first];
+	}
+
+	/**
+	 * @return Amount of finished jobs.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * @param index Index of a job in the order of the finishing times.
+	 * @return Id of the job.
+	 */
+	public String getId(int index) {
+		this.checkIndex(index);
+		return this.ids[index];
+	}
+
+	public int getFinishingTime(int index) {
+		this.checkIndex(index);
+		return this.finishingTimes[index];
+	}
+
+	public int getDelay(int index) {
+		this.checkIndex(index);
+		return this.delays[index];
+	}
+
+	public double getFrequency(int index) {
+		this.checkIndex(index);
+		return this.frequencies[index];
+	}
+
+	public double getSLACosts(int index) {
+		this.checkIndex(index);
+		return this.slaCosts[index];
+	}
+
+	/**
+	 * Removes all jobs from the archive.
+	 */
+	public void clear() {
+		Arrays.fill(this.ids, 0, this.size, null);
+		this.size = 0;
+	}
+
+	/**
+	 * Writes the archived jobs to a checkpoint.
+	 * @param out Stream to which the checkpoint is written.
+	 * @throws IOException If the jobs cannot be written.
+	 */
+	public void writeCheckpoint(DataOutputStream out) throws IOException {
+		out.writeInt(this.size);
+		for(int i=0; i < this.size; i++) {
+			out.writeUTF(this.ids[i]);
+			out.writeInt(this.finishingTimes[i]);
+			out.writeInt(this.delays[i]);
+			out.writeDouble(this.frequencies[i]);
+			out.writeDouble(this.slaCosts[i]);
+		}
+	}
+
+	/**
+	 * Restores the jobs that were written to a checkpoint by writeCheckpoint.
+	 * @param in Stream from which the checkpoint is read.
+	 * @throws IOException If the jobs cannot be read.
+	 */
+	public void readCheckpoint(DataInputStream in) throws IOException {
+		this.clear();
+		int size = in.readInt();
+		for(int i=0; i < size; i++) {
+			this.add(in.readUTF(), in.readInt(), in.readInt(), in.readDouble(), in.readDouble());
+		}
+	}
+
+	/**
+	 * Determines the index of the first job that finished after a point in simulation time.
+	 */
+	private int getFirstIndexAfter(int time) {
+		int low = 0;
+		int high = this.size;
+		int middle;
+		while(low < high) {
+			middle = (low + high) >>> 1;
+			if(this.finishingTimes[middle] <= time) {
+				low = middle + 1;
+			}
+			else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private void checkIndex(int index) {
+		if(index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index " + index + " of the finished job archive (size " + this.size + ")");
+		}
+	}
+
+}
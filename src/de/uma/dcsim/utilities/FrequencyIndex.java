@@ -0,0 +1,112 @@
+package de.uma.dcsim.utilities;
+
+/**
+ * This class represents one of the discrete execution frequencies (DVFS steps) of the servers, i.e., 1.2 GHz to 2.7 GHz in steps of 0.1 GHz.
+ * Each step is mapped to an index (0 for the lowest frequency), thus models can store their factors in primitive arrays that are indexed
+ * by the step. The values of the frequencies are equal to the parsed decimal values (e.g., 1.2), thus they can be compared exactly to the
+ * frequencies of the jobs.
+ *
+ * There is exactly one instance per step, thus instances can be compared by reference.
+ *
+ * @author nilsw
+ *
+ */
+public final class FrequencyIndex {
+
+	/**
+	 * Lowest execution frequency in steps of 0.1 GHz.
+	 */
+	private static final int MINIMUM_STEP = 12;
+
+	/**
+	 * Amount of discrete execution frequencies.
+	 */
+	public static final int COUNT = 16;
+
+	private static final FrequencyIndex[] INDICES = new FrequencyIndex[COUNT];
+
+	static {
+		for(int i=0; i < COUNT; i++) {
+			INDICES[i] = new FrequencyIndex(i, (double)(MINIMUM_STEP + i)/10.0);
+		}
+	}
+
+	/**
+	 * Lowest execution frequency (1.2 GHz).
+	 */
+	public static final FrequencyIndex MINIMUM = INDICES[0];
+
+	/**
+	 * Highest execution frequency (2.7 GHz).
+	 */
+	public static final FrequencyIndex MAXIMUM = INDICES[COUNT-1];
+
+	private final int index;
+
+	private final double frequency;
+
+	private FrequencyIndex(int index, double frequency) {
+		this.index = index;
+		this.frequency = frequency;
+	}
+
+	/**
+	 * @param index Index of a discrete execution frequency.
+	 * @return Discrete execution frequency with the specified index.
+	 * @throws IllegalArgumentException If there is no execution frequency with the specified index.
+	 */
+	public static FrequencyIndex get(int index) {
+		if(index < 0 || index >= COUNT) {
+			throw new IllegalArgumentException("No execution frequency with index " + index);
+		}
+		return INDICES[index];
+	}
+
+	/**
+	 * @param frequency Execution frequency in GHz.
+	 * @return Discrete execution frequency that is equal to the specified frequency.
+	 * @throws IllegalArgumentException If the specified frequency is not one of the discrete execution frequencies.
+	 */
+	public static FrequencyIndex of(double frequency) {
+		int index = FrequencyIndex.indexOf(frequency);
+		if(index < 0) {
+			throw new IllegalArgumentException(frequency + " GHz is not a discrete execution frequency");
+		}
+		return INDICES[index];
+	}
+
+	/**
+	 * Determines the index of an execution frequency without creating or looking up an instance.
+	 * @param frequency Execution frequency in GHz.
+	 * @return Index of the discrete execution frequency that is equal to the specified frequency (-1 if there is none).
+	 */
+	public static int indexOf(double frequency) {
+		int index = (int)Math.round(frequency*10.0) - MINIMUM_STEP;
+		if(index >= 0 && index < COUNT && INDICES[index].frequency == frequency) {
+			return index;
+		}
+		return -1;
+	}
+
+	/**
+	 * @param index Index of a discrete execution frequency.
+	 * @return Execution frequency in GHz with the specified index.
+	 */
+	public static double getFrequency(int index) {
+		return INDICES[index].frequency;
+	}
+
+	public int getIndex() {
+		return this.index;
+	}
+
+	public double getFrequency() {
+		return this.frequency;
+	}
+
+	@Override
+	public String toString() {
+		return this.frequency + " GHz";
+	}
+
+}
@@ -0,0 +1,52 @@
+package de.uma.dcsim.utilities;
+
+import java.util.List;
+
+/**
+ * This class provides the jobs of a workload trace that was parsed completely into memory. The list has to be sorted by the submission times
+ * of the jobs. If the list is shared (e.g., by several DCs or scenarios), each job is copied when it is provided.
+ * @author nilsw
+ *
+ */
+public class ListWorkloadSource implements WorkloadSource {
+
+	private List<BatchJob> jobs;
+
+	/**
+	 * Indicates whether the provided jobs are copies of the jobs in the list.
+	 */
+	private boolean copyJobs;
+
+	private int position;
+
+	public ListWorkloadSource(List<BatchJob> jobs, boolean copyJobs) {
+		this.jobs = jobs;
+		this.copyJobs = copyJobs;
+		this.position = 0;
+	}
+
+	@Override
+	public int getNextSubmissionTime() {
+		if(this.position < this.jobs.size()) {
+			return this.jobs.get(this.position).getSubmissionTime();
+		}
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public BatchJob next() {
+		BatchJob job = this.jobs.get(this.position++);
+		return this.copyJobs ? job.deepCopy() : job;
+	}
+
+	@Override
+	public int getPosition() {
+		return this.position;
+	}
+
+	@Override
+	public void seek(int position) {
+		this.position = position;
+	}
+
+}
@@ -1,15 +1,11 @@
 package de.uma.dcsim.utilities;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.Locale;
+
+import de.uma.dcsim.simulationControl.Setup;
 
 /**
  * This class can be used to parse a PUE trace from a file.
@@ -19,16 +15,6 @@ import java.util.Locale;
  */
 public class PUEParser {
 	
-	/**
-	 * Separator in the csv file that is used for the PUE trace.
-	 */
-	private static final String CSV_SEPARATOR = ";";
-	
-	/**
-	 * Format of the date strings within the PUE trace file.
-	 */
-	private static final SimpleDateFormat INPUT_DATE_FORMAT = Constants.getDateFormat();
-	
 	/**
 	 * Parses a PUE trace from a specified file.
 	 * @param fileName Name of the file to parse.
@@ -36,75 +22,69 @@ public class PUEParser {
 	 * @return List of PUE values that were parsed from the file.
 	 */
 	public List<PUE> parsePUEFile(String fileName, Date simStartDate) {
-		ArrayList<PUE> result = new ArrayList<PUE>();
-		
+		CsvTrace<PUE, TraceStatistics> trace = this.parsePUETrace(fileName, simStartDate);
+		return trace != null ? trace.getRecords() : null;
+	}
+	
+	/**
+	 * Parses a PUE trace from a specified file (see ParallelCsvReader).
+	 * @param fileName Name of the file to parse.
+	 * @param simStartDate Start date of the current simulation.
+	 * @return PUE values (in the order of the file) and statistics of the trace (null if the file does not exist).
+	 */
+	public CsvTrace<PUE, TraceStatistics> parsePUETrace(String fileName, Date simStartDate) {
+		File inputFile = ParallelCsvReader.getCsvFile(fileName);
+		if(!inputFile.exists()) {
+			System.out.println("Input file does not exist!");
+			return null;
+		}
 		
+		final long simStartTime = simStartDate.getTime();
 		try {
-			File inputFile;
-			
-			if(fileName.endsWith(".csv") || fileName.endsWith(".CSV")) {
-				inputFile = new File(fileName);
-			}
-			else {
-				inputFile = new File(fileName + ".csv");
-			}
-			
-			if(inputFile.exists()) {
-				BufferedReader reader = new BufferedReader(new FileReader(inputFile));
-				
-				reader.readLine();
-				
-				String line;
-				PUE parsedPUE;
-				int lineNumber = 0;
-				while((line=reader.readLine()) != null) {
-					if((parsedPUE=this.parsePUECSVLine(line, ++lineNumber, simStartDate)) != null) {
-						result.add(parsedPUE);
-					}
+			return ParallelCsvReader.read(inputFile, new ParallelCsvReader.LineParser<PUE, TraceStatistics>() {
+				@Override
+				public TraceStatistics createStatistics() {
+					return new TraceStatistics();
 				}
-				
-				reader.close();
-			}
-			else {
-				System.out.println("Input file does not exist!");
-				return null;
-			}
-			
-			
+
+				@Override
+				public PUE parseLine(CsvLine line, int lineNumber, TraceStatistics statistics) {
+					return PUEParser.parsePUECSVLine(line, lineNumber, simStartTime);
+				}
+			}, Setup.traceParserParallelism);
 		}catch(IOException e) {
 			e.printStackTrace();
+			return null;
 		}
-		
-		return result;
 	}
 	
 	/**
 	 * Parses CSV line from a PUE trace file. The line has to contain the following values: timestep of the PUE value; PUE value.
 	 * 
-	 * @param csvLine String representation of the line to parse.
-	 * @param lineNumber 
+	 * @param line Fields of the line.
+	 * @param lineNumber Number of the line within the file.
+	 * @param simStartTime Start time of the current simulation (in milliseconds since 01.01.1970).
 	 * @return Parsed PUE object.
 	 */
-	private PUE parsePUECSVLine(String csvLine, int lineNumber, Date simStartDate) {
-		
-		String[] split = csvLine.split(CSV_SEPARATOR);
+	private static PUE parsePUECSVLine(CsvLine line, int lineNumber, long simStartTime) {
 		
-		if(split.length == 2) {
+		if(line.getFieldCount() == 2) {
 			try {
 				int timestamp;
 				double pue;
-				try {
-					Date timestampDate = INPUT_DATE_FORMAT.parse(split[0]);
-					if(timestampDate.before(simStartDate)) {
+				long timestampDate = line.getTimestamp(0);
+				if(timestampDate != TraceFieldParser.NO_TIMESTAMP) {
+					if(timestampDate < simStartTime) {
 						return null;
 					}
 					
-					timestamp = (int)((timestampDate.getTime() - simStartDate.getTime())/1000L);
-				}catch(ParseException e) {
-					timestamp = Integer.parseInt(split[0]);
+					timestamp = (int)((timestampDate - simStartTime)/1000L);
+				}
+				else {
+					timestamp = line.getInt(0);
 				}
 				
-				pue = Double.parseDouble(split[1]);
+				pue = line.getDouble(1);
 				
 				return new PUE(timestamp, pue);
 			} catch (NumberFormatException e) {
@@ -0,0 +1,214 @@
+package de.uma.dcsim.utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class reads trace files (.csv files with one header line) in parallel. The file is memory-mapped and split into chunks at line boundaries,
+ * each chunk is parsed by its own thread. The records of the chunks are concatenated in the order of the file and the statistics of the chunks
+ * are merged, thus the result does not depend on the amount of threads.
+ *
+ * Lines are terminated like in BufferedReader.readLine (\n, \r or \r\n). The line numbers that are passed to the parser start with 1 for the
+ * first line after the header.
+ * @author nilsw
+ *
+ */
+public class ParallelCsvReader {
+
+	/**
+	 * Minimum size of a chunk in bytes (smaller files are parsed by the calling thread).
+	 */
+	private static final int MINIMUM_CHUNK_SIZE = 1 << 20;
+
+	/**
+	 * Parses the lines of a trace file. Implementations have to be thread-safe, as the chunks of a file are parsed concurrently.
+	 *
+	 * @param <T> Type of the records.
+	 * @param <S> Type of the statistics.
+	 */
+	public interface LineParser<T, S extends TraceStatistics> {
+
+		/**
+		 * Creates the statistics of one chunk.
+		 */
+		public S createStatistics();
+
+		/**
+		 * Parses one line.
+		 * @param line Fields of the line (only valid during the call).
+		 * @param lineNumber Number of the line within the file.
+		 * @param statistics Statistics of the chunk that contains the line.
+		 * @return Parsed record (null if the line is skipped).
+		 */
+		public T parseLine(CsvLine line, int lineNumber, S statistics);
+
+	}
+
+	/**
+	 * Determines the file of a trace.
+	 * @param fileName Path of the trace file (the extension .csv is appended if it is missing).
+	 * @return File of the trace.
+	 */
+	public static File getCsvFile(String fileName) {
+		if(fileName.endsWith(".csv") || fileName.endsWith(".CSV")) {
+			return new File(fileName);
+		}
+		else {
+			return new File(fileName + ".csv");
+		}
+	}
+
+	/**
+	 * Parses a trace file.
+	 * @param file File to parse.
+	 * @param parser Parser of the lines.
+	 * @param parallelism Maximum amount of threads that parse the file concurrently.
+	 * @return Parsed records and statistics of the file.
+	 * @throws IOException If the file cannot be mapped.
+	 */
+	public static <T, S extends TraceStatistics> CsvTrace<T, S> read(File file, final LineParser<T, S> parser, int parallelism) throws IOException {
+		final ByteBuffer buffer;
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = randomAccessFile.getChannel();
+			if(channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(file + " is too large to be parsed");
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			randomAccessFile.close();
+		}
+
+		//Skip the header line
+		int limit = buffer.capacity();
+		int dataStart = ParallelCsvReader.nextLineStart(buffer, ParallelCsvReader.lineEnd(buffer, 0, limit), limit);
+
+		int chunkCount = (int)Math.max(1, Math.min((long)parallelism, (long)(limit - dataStart)/MINIMUM_CHUNK_SIZE));
+		final int[] boundaries = new int[chunkCount+1];
+		boundaries[0] = dataStart;
+		for(int k=1; k < chunkCount; k++) {
+			int position = Math.max(boundaries[k-1], dataStart + (int)((long)(limit - dataStart)*k/chunkCount));
+			while(position < limit && buffer.get(position) != '\n') {
+				position++;
+			}
+			boundaries[k] = Math.min(limit, position+1);
+		}
+		boundaries[chunkCount] = limit;
+
+		if(chunkCount == 1) {
+			S statistics = parser.createStatistics();
+			List<T> records = new ArrayList<T>();
+			ParallelCsvReader.parseChunk(buffer, dataStart, limit, 1, parser, records, statistics);
+			return new CsvTrace<T, S>(records, statistics);
+		}
+
+		ExecutorService chunkPool = Executors.newFixedThreadPool(chunkCount);
+		try {
+			//Count the lines of all chunks to determine the number of the first line of each chunk
+			List<Callable<Integer>> countTasks = new ArrayList<Callable<Integer>>();
+			for(int k=0; k < chunkCount; k++) {
+				final int chunk = k;
+				countTasks.add(() -> ParallelCsvReader.countLines(buffer, boundaries[chunk], boundaries[chunk+1]));
+			}
+			List<Future<Integer>> lineCounts = chunkPool.invokeAll(countTasks);
+
+			List<Callable<CsvTrace<T, S>>> parseTasks = new ArrayList<Callable<CsvTrace<T, S>>>();
+			int firstLineNumber = 1;
+			for(int k=0; k < chunkCount; k++) {
+				final int chunk = k;
+				final int chunkFirstLineNumber = firstLineNumber;
+				parseTasks.add(() -> {
+					S statistics = parser.createStatistics();
+					List<T> records = new ArrayList<T>();
+					ParallelCsvReader.parseChunk(buffer, boundaries[chunk], boundaries[chunk+1], chunkFirstLineNumber, parser, records, statistics);
+					return new CsvTrace<T, S>(records, statistics);
+				});
+				firstLineNumber += lineCounts.get(k).get();
+			}
+
+			List<CsvTrace<T, S>> chunkTraces = new ArrayList<CsvTrace<T, S>>();
+			int recordCount = 0;
+			for(Future<CsvTrace<T, S>> chunkTrace : chunkPool.invokeAll(parseTasks)) {
+				chunkTraces.add(chunkTrace.get());
+				recordCount += chunkTrace.get().getRecords().size();
+			}
+			List<T> records = new ArrayList<T>(recordCount);
+			S statistics = chunkTraces.get(0).getStatistics();
+			for(int k=0; k < chunkCount; k++) {
+				records.addAll(chunkTraces.get(k).getRecords());
+				if(k > 0) {
+					statistics.merge(chunkTraces.get(k).getStatistics());
+				}
+			}
+			return new CsvTrace<T, S>(records, statistics);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			chunkPool.shutdownNow();
+		}
+	}
+
+	private static <T, S extends TraceStatistics> void parseChunk(ByteBuffer buffer, int start, int end, int firstLineNumber, LineParser<T, S> parser,
+			List<T> records, S statistics) {
+		CsvLine line = new CsvLine(buffer);
+		int lineNumber = firstLineNumber;
+		int position = start;
+		int lineEnd;
+		T record;
+		while(position < end) {
+			lineEnd = ParallelCsvReader.lineEnd(buffer, position, end);
+			line.reset(position, lineEnd);
+			record = parser.parseLine(line, lineNumber++, statistics);
+			if(record != null) {
+				records.add(record);
+			}
+			statistics.addLine(record != null);
+			position = ParallelCsvReader.nextLineStart(buffer, lineEnd, end);
+		}
+	}
+
+	private static int countLines(ByteBuffer buffer, int start, int end) {
+		int lines = 0;
+		int position = start;
+		while(position < end) {
+			position = ParallelCsvReader.nextLineStart(buffer, ParallelCsvReader.lineEnd(buffer, position, end), end);
+			lines++;
+		}
+		return lines;
+	}
+
+	/**
+	 * Determines the position of the line terminator of the line that starts at the passed position.
+	 */
+	private static int lineEnd(ByteBuffer buffer, int position, int end) {
+		byte b;
+		while(position < end && (b = buffer.get(position)) != '\n' && b != '\r') {
+			position++;
+		}
+		return position;
+	}
+
+	/**
+	 * Determines the start of the line that follows the line terminator at the passed position.
+	 */
+	private static int nextLineStart(ByteBuffer buffer, int lineEnd, int end) {
+		if(lineEnd < end && buffer.get(lineEnd) == '\r' && lineEnd+1 < end && buffer.get(lineEnd+1) == '\n') {
+			return lineEnd+2;
+		}
+		return lineEnd+1;
+	}
+
+}
@@ -0,0 +1,216 @@
+package de.uma.dcsim.utilities;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * This class stores the total facility power consumption of a DC at past points in simulation time, together with running sums of the
+ * energy consumption and the energy costs of these values (see DC.getCostsInSpecifiedInterval).
+ *
+ * The values are stored in chunks of primitive arrays. Only the values within the retention horizon (the most recent values) are guaranteed
+ * to be retained, chunks that lie completely before the horizon are released. Thus, the memory that is used by the history of long simulations
+ * is bounded by the retention horizon instead of the length of the simulation.
+ *
+ * @author nilsw
+ *
+ */
+public class PowerConsumptionHistory {
+
+	/**
+	 * Retention horizon of histories that retain all values.
+	 */
+	public static final int UNLIMITED_RETENTION = Integer.MAX_VALUE;
+
+	private static final int CHUNK_SHIFT = 12;
+
+	/**
+	 * Amount of values per chunk.
+	 */
+	private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * Chunks of the power consumption values (null if the chunk was released).
+	 */
+	private ArrayList<double[]> values;
+
+	/**
+	 * Chunks of the running sums of the energy consumption, element i contains the energy consumption of all values before value i.
+	 */
+	private ArrayList<double[]> energySums;
+
+	/**
+	 * Chunks of the running sums of the energy costs, indexed like energySums.
+	 */
+	private ArrayList<double[]> energyCostSums;
+
+	/**
+	 * Amount of values that were added to the history (including released values).
+	 */
+	private int size;
+
+	/**
+	 * Index of the oldest value that is still retained.
+	 */
+	private int firstRetainedIndex;
+
+	/**
+	 * Running sums after the last value.
+	 */
+	private double energySum;
+
+	private double energyCostSum;
+
+	/**
+	 * Minimum amount of most recent values that are retained.
+	 */
+	private int retention;
+
+	/**
+	 * Creates an empty history.
+	 * @param retention Minimum amount of most recent values that are retained (UNLIMITED_RETENTION to retain all values).
+	 */
+	public PowerConsumptionHistory(int retention) {
+		this.retention = retention;
+		this.values = new ArrayList<double[]>();
+		this.energySums = new ArrayList<double[]>();
+		this.energyCostSums = new ArrayList<double[]>();
+	}
+
+	/**
+	 * Adds a power consumption value to the history.
+	 * @param pc Total facility power consumption.
+	 * @param energy Energy consumption that corresponds to the value.
+	 * @param energyCost Energy costs that correspond to the value.
+	 */
+	public void add(double pc, double energy, double energyCost) {
+		if((this.size & CHUNK_MASK) == 0) {
+			this.releaseChunks();
+		}
+		this.store(this.size, pc, this.energySum, this.energyCostSum);
+		this.energySum += energy;
+		this.energyCostSum += energyCost;
+		this.size++;
+	}
+
+	/**
+	 * @param index Index of a retained value.
+	 * @return Power consumption value with the specified index.
+	 */
+	public double get(int index) {
+		this.checkIndex(index, this.size - 1);
+		return this.values.get(index >>> CHUNK_SHIFT)[index & CHUNK_MASK];
+	}
+
+	/**
+	 * @param index Index of a retained value or the size of the history.
+	 * @return Energy consumption of all values before the specified index.
+	 */
+	public double getEnergySum(int index) {
+		if(index == this.size) {
+			return this.energySum;
+		}
+		this.checkIndex(index, this.size - 1);
+		return this.energySums.get(index >>> CHUNK_SHIFT)[index & CHUNK_MASK];
+	}
+
+	/**
+	 * @param index Index of a retained value or the size of the history.
+	 * @return Energy costs of all values before the specified index.
+	 */
+	public double getEnergyCostSum(int index) {
+		if(index == this.size) {
+			return this.energyCostSum;
+		}
+		this.checkIndex(index, this.size - 1);
+		return this.energyCostSums.get(index >>> CHUNK_SHIFT)[index & CHUNK_MASK];
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public int getFirstRetainedIndex() {
+		return this.firstRetainedIndex;
+	}
+
+	/**
+	 * Writes the retained values to a checkpoint.
+	 * @param out Stream to which the checkpoint is written.
+	 * @throws IOException If the values cannot be written.
+	 */
+	public void writeCheckpoint(DataOutputStream out) throws IOException {
+		out.writeInt(this.size);
+		out.writeInt(this.firstRetainedIndex);
+		for(int i=this.firstRetainedIndex; i < this.size; i++) {
+			out.writeDouble(this.get(i));
+			out.writeDouble(this.getEnergySum(i));
+			out.writeDouble(this.getEnergyCostSum(i));
+		}
+		out.writeDouble(this.energySum);
+		out.writeDouble(this.energyCostSum);
+	}
+
+	/**
+	 * Restores the values that were written to a checkpoint by writeCheckpoint. The retention horizon of this history is kept.
+	 * @param in Stream from which the checkpoint is read.
+	 * @throws IOException If the values cannot be read.
+	 */
+	public void readCheckpoint(DataInputStream in) throws IOException {
+		this.size = in.readInt();
+		this.firstRetainedIndex = in.readInt();
+		this.values.clear();
+		this.energySums.clear();
+		this.energyCostSums.clear();
+		for(int i=this.firstRetainedIndex; i < this.size; i++) {
+			this.store(i, in.readDouble(), in.readDouble(), in.readDouble());
+		}
+		this.energySum = in.readDouble();
+		this.energyCostSum = in.readDouble();
+	}
+
+	/**
+	 * Stores a value and the running sums before the value, the chunk of the value is allocated if necessary.
+	 */
+	private void store(int index, double pc, double energySum, double energyCostSum) {
+		int chunk = index >>> CHUNK_SHIFT;
+		//Chunks before the first retained value are not allocated
+		while(this.values.size() <= chunk) {
+			boolean retained = this.values.size() >= (this.firstRetainedIndex >>> CHUNK_SHIFT);
+			this.values.add(retained ? new double[CHUNK_SIZE] : null);
+			this.energySums.add(retained ? new double[CHUNK_SIZE] : null);
+			this.energyCostSums.add(retained ? new double[CHUNK_SIZE] : null);
+		}
+		int position = index & CHUNK_MASK;
+		this.values.get(chunk)[position] = pc;
+		this.energySums.get(chunk)[position] = energySum;
+		this.energyCostSums.get(chunk)[position] = energyCostSum;
+	}
+
+	/**
+	 * Releases the chunks that lie completely before the retention horizon.
+	 */
+	private void releaseChunks() {
+		if(this.retention == UNLIMITED_RETENTION) {
+			return;
+		}
+		//The chunk that contains the oldest retained value is kept
+		int firstChunk = Math.max(0, this.size - this.retention) >>> CHUNK_SHIFT;
+		for(int chunk = this.firstRetainedIndex >>> CHUNK_SHIFT; chunk < firstChunk; chunk++) {
+			this.values.set(chunk, null);
+			this.energySums.set(chunk, null);
+			this.energyCostSums.set(chunk, null);
+		}
+		this.firstRetainedIndex = Math.max(this.firstRetainedIndex, firstChunk << CHUNK_SHIFT);
+	}
+
+	private void checkIndex(int index, int lastIndex) {
+		if(index < this.firstRetainedIndex || index > lastIndex) {
+			throw new IndexOutOfBoundsException("Index " + index + " is not retained by the power consumption history (retained: " + this.firstRetainedIndex + " to " + lastIndex + ")");
+		}
+	}
+
+}
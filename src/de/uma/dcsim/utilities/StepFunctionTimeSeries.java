@@ -0,0 +1,132 @@
+package de.uma.dcsim.utilities;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class represents a trace of values that are observed at points in simulation time (e.g., energy prices or PUE values) as a step function.
+ * The value at a point in simulation time is the last observed value at or before this point. Before the first observation the first observed
+ * value is returned, a series without observations always returns its default value.
+ *
+ * The observations are stored in sorted primitive arrays. Random requests are answered by binary search. Each thread additionally keeps a cursor
+ * on the last requested step, thus the monotonic requests of the simulation loop are answered in amortised constant time. Apart from the cursors
+ * the series is immutable, thus it can be shared by concurrent simulations.
+ *
+ * @author nilsw
+ *
+ */
+public class StepFunctionTimeSeries {
+
+	/**
+	 * Points in simulation time of the observations in ascending order.
+	 */
+	private int[] timestamps;
+
+	/**
+	 * Observed values, indexed like the timestamps.
+	 */
+	private double[] values;
+
+	/**
+	 * Value that is returned if the series does not contain any observations.
+	 */
+	private double defaultValue;
+
+	/**
+	 * Index of the step that was requested last by each thread.
+	 */
+	private ThreadLocal<int[]> cursors = ThreadLocal.withInitial(() -> new int[1]);
+
+	/**
+	 * Creates a series from observations in arbitrary order. If several observations have the same point in simulation time, the last one is used.
+	 * @param timestamps Points in simulation time of the observations.
+	 * @param values Observed values.
+	 * @param defaultValue Value that is returned if there are no observations.
+	 */
+	public StepFunctionTimeSeries(int[] timestamps, double[] values, double defaultValue) {
+		this.defaultValue = defaultValue;
+
+		//Stable sort, thus later observations with the same point in simulation time follow earlier ones
+		Integer[] order = new Integer[timestamps.length];
+		for(int i=0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingInt(i -> timestamps[i]));
+
+		int count = 0;
+		this.timestamps = new int[timestamps.length];
+		this.values = new double[timestamps.length];
+		for(int i=0; i < order.length; i++) {
+			if(count > 0 && this.timestamps[count-1] == timestamps[order[i]]) {
+				count--;
+			}
+			this.timestamps[count] = timestamps[order[i]];
+			this.values[count] = values[order[i]];
+			count++;
+		}
+		this.timestamps = Arrays.copyOf(this.timestamps, count);
+		this.values = Arrays.copyOf(this.values, count);
+	}
+
+	/**
+	 * Retrieves the value of the series at a point in simulation time. Requests for the same or the next step as the previous request of the
+	 * calling thread are answered without search.
+	 * @param time Point in simulation time.
+	 * @return Last observed value at or before the specified point in simulation time.
+	 */
+	public double getValue(int time) {
+		if(this.timestamps.length == 0) {
+			return this.defaultValue;
+		}
+		int[] cursor = this.cursors.get();
+		int step = cursor[0];
+		if(!this.containsTime(step, time)) {
+			if(this.containsTime(step+1, time)) {
+				step++;
+			}
+			else {
+				step = this.getStep(time);
+			}
+			cursor[0] = step;
+		}
+		return this.values[step];
+	}
+
+	/**
+	 * Retrieves the value of the series at a point in simulation time by binary search, without using the cursor of the calling thread.
+	 * @param time Point in simulation time.
+	 * @return Last observed value at or before the specified point in simulation time.
+	 */
+	public double getValueBySearch(int time) {
+		if(this.timestamps.length == 0) {
+			return this.defaultValue;
+		}
+		return this.values[this.getStep(time)];
+	}
+
+	public int size() {
+		return this.timestamps.length;
+	}
+
+	/**
+	 * Determines the step that contains a point in simulation time (the first step for points before the first observation).
+	 */
+	private int getStep(int time) {
+		int position = Arrays.binarySearch(this.timestamps, time);
+		if(position >= 0) {
+			return position;
+		}
+		return Math.max(0, -position - 2);
+	}
+
+	/**
+	 * Determines whether a step contains a point in simulation time.
+	 */
+	private boolean containsTime(int step, int time) {
+		if(step >= this.timestamps.length) {
+			return false;
+		}
+		return (step == 0 || this.timestamps[step] <= time) && (step == this.timestamps.length-1 || time < this.timestamps[step+1]);
+	}
+
+}
@@ -0,0 +1,227 @@
+package de.uma.dcsim.utilities;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+
+/**
+ * This class parses primitive values directly from the bytes of a trace file, without creating String or Date objects.
+ *
+ * Timestamps in the format dd.MM.yyyy HH:mm:ss (GMT, see Constants.getDateFormat) are converted arithmetically. Timestamps in other layouts
+ * that are accepted by the (lenient) SimpleDateFormat of the traces are handed over to it, thus the results are the same as the ones of
+ * SimpleDateFormat.parse. Numbers are parsed exactly like Integer.parseInt and Double.parseDouble, decimal numbers that cannot be converted
+ * exactly by the fast path are handed over to Double.parseDouble.
+ * @author nilsw
+ *
+ */
+public class TraceFieldParser {
+
+	/**
+	 * Returned by parseTimestamp if a field does not contain a timestamp.
+	 */
+	public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+	/**
+	 * Length of a timestamp in the format dd.MM.yyyy HH:mm:ss.
+	 */
+	private static final int TIMESTAMP_LENGTH = 19;
+
+	/**
+	 * Largest mantissa that is exactly representable as a double (2^53).
+	 */
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	/**
+	 * Powers of ten that are exactly representable as a double.
+	 */
+	private static final double[] EXACT_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+			1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+	/**
+	 * Date format of the traces for timestamps that are not in the fixed layout (SimpleDateFormat is not thread-safe).
+	 */
+	private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = ThreadLocal.withInitial(Constants::getDateFormat);
+
+	/**
+	 * Parses a timestamp in the format dd.MM.yyyy HH:mm:ss.
+	 * @param buffer Buffer that contains the field.
+	 * @param start Position of the first byte of the field.
+	 * @param end Position after the last byte of the field.
+	 * @return Timestamp in milliseconds since 01.01.1970 (NO_TIMESTAMP if the field does not contain a timestamp).
+	 */
+	public static long parseTimestamp(ByteBuffer buffer, int start, int end) {
+		//Fields without a dot (e.g., points in simulation time) are never accepted by the date format
+		int dot = start;
+		while(dot < end && buffer.get(dot) != '.') {
+			dot++;
+		}
+		if(dot == end) {
+			return NO_TIMESTAMP;
+		}
+
+		if(end - start == TIMESTAMP_LENGTH && buffer.get(start+2) == '.' && buffer.get(start+5) == '.' && buffer.get(start+10) == ' '
+				&& buffer.get(start+13) == ':' && buffer.get(start+16) == ':') {
+			int day = parseDigits(buffer, start, 2);
+			int month = parseDigits(buffer, start+3, 2);
+			int year = parseDigits(buffer, start+6, 4);
+			int hour = parseDigits(buffer, start+11, 2);
+			int minute = parseDigits(buffer, start+14, 2);
+			int second = parseDigits(buffer, start+17, 2);
+			//Days, hours, minutes and seconds outside of their ranges are rolled over like in the lenient date format
+			if(day >= 0 && month >= 1 && month <= 12 && year >= 1600 && hour >= 0 && minute >= 0 && second >= 0) {
+				long days = daysSinceEpoch(year, month) + day - 1;
+				return (((days*24L + hour)*60L + minute)*60L + second)*1000L;
+			}
+		}
+
+		try {
+			return DATE_FORMAT.get().parse(decode(buffer, start, end)).getTime();
+		} catch (ParseException e) {
+			return NO_TIMESTAMP;
+		}
+	}
+
+	/**
+	 * Parses an integer like Integer.parseInt.
+	 * @param buffer Buffer that contains the field.
+	 * @param start Position of the first byte of the field.
+	 * @param end Position after the last byte of the field.
+	 * @return Parsed value.
+	 * @throws NumberFormatException If the field does not contain an integer.
+	 */
+	public static int parseInt(ByteBuffer buffer, int start, int end) {
+		int position = start;
+		boolean negative = false;
+		if(position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+			negative = buffer.get(position) == '-';
+			position++;
+		}
+		if(position == end) {
+			throw new NumberFormatException("For input string: \"" + decode(buffer, start, end) + "\"");
+		}
+		long value = 0;
+		byte b;
+		for(; position < end; position++) {
+			b = buffer.get(position);
+			if(b < '0' || b > '9' || (value = value*10 + (b - '0')) > 1L + Integer.MAX_VALUE) {
+				throw new NumberFormatException("For input string: \"" + decode(buffer, start, end) + "\"");
+			}
+		}
+		value = negative ? -value : value;
+		if(value > Integer.MAX_VALUE) {
+			throw new NumberFormatException("For input string: \"" + decode(buffer, start, end) + "\"");
+		}
+		return (int)value;
+	}
+
+	/**
+	 * Parses a decimal number like Double.parseDouble.
+	 * @param buffer Buffer that contains the field.
+	 * @param start Position of the first byte of the field.
+	 * @param end Position after the last byte of the field.
+	 * @param decimalComma Determines whether a comma is accepted as decimal separator (like Double.parseDouble(field.replace(",", "."))).
+	 * @return Parsed value.
+	 * @throws NumberFormatException If the field does not contain a decimal number.
+	 */
+	public static double parseDouble(ByteBuffer buffer, int start, int end, boolean decimalComma) {
+		int position = start;
+		boolean negative = false;
+		if(position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+			negative = buffer.get(position) == '-';
+			position++;
+		}
+
+		long mantissa = 0;
+		boolean anyDigit = false;
+		int digits = 0;
+		int fractionDigits = 0;
+		boolean separator = false;
+		boolean exact = true;
+		byte b;
+		for(; position < end; position++) {
+			b = buffer.get(position);
+			if(b >= '0' && b <= '9') {
+				anyDigit = true;
+				if(mantissa > 0 || b != '0') {
+					digits++;
+				}
+				if(digits > 18) {
+					exact = false;
+					break;
+				}
+				mantissa = mantissa*10 + (b - '0');
+				if(separator) {
+					fractionDigits++;
+				}
+			}
+			else if((b == '.' || (decimalComma && b == ',')) && !separator) {
+				separator = true;
+			}
+			else {
+				//Exponents, whitespace, special values, etc.
+				exact = false;
+				break;
+			}
+		}
+
+		if(exact && anyDigit && mantissa <= MAX_EXACT_MANTISSA && fractionDigits < EXACT_POWERS_OF_TEN.length) {
+			//Both operands are exact, thus the quotient is correctly rounded
+			double value = (double)mantissa/EXACT_POWERS_OF_TEN[fractionDigits];
+			return negative ? -value : value;
+		}
+
+		String field = decode(buffer, start, end);
+		if(decimalComma) {
+			field = field.replace(",", ".");
+		}
+		return Double.parseDouble(field);
+	}
+
+	/**
+	 * Decodes a field to a String.
+	 * @param buffer Buffer that contains the field.
+	 * @param start Position of the first byte of the field.
+	 * @param end Position after the last byte of the field.
+	 * @return Content of the field.
+	 */
+	public static String decode(ByteBuffer buffer, int start, int end) {
+		byte[] bytes = new byte[end - start];
+		for(int i=0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(start + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Parses a fixed amount of decimal digits.
+	 * @return Parsed value (-1 if one of the bytes is not a digit).
+	 */
+	private static int parseDigits(ByteBuffer buffer, int start, int length) {
+		int value = 0;
+		byte b;
+		for(int i=start; i < start + length; i++) {
+			b = buffer.get(i);
+			if(b < '0' || b > '9') {
+				return -1;
+			}
+			value = value*10 + (b - '0');
+		}
+		return value;
+	}
+
+	/**
+	 * Calculates the amount of days between 01.01.1970 and the first day of a month of the proleptic Gregorian calendar.
+	 */
+	private static long daysSinceEpoch(int year, int month) {
+		//Years start in March, thus the leap day is the last day of a year
+		int y = month <= 2 ? year - 1 : year;
+		int era = y/400;
+		int yearOfEra = y - era*400;
+		int monthOfYear = month > 2 ? month - 3 : month + 9;
+		int dayOfYear = (153*monthOfYear + 2)/5;
+		int dayOfEra = yearOfEra*365 + yearOfEra/4 - yearOfEra/100 + dayOfYear;
+		return (long)era*146097L + dayOfEra - 719468L;
+	}
+
+}
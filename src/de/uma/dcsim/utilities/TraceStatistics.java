@@ -0,0 +1,64 @@
+package de.uma.dcsim.utilities;
+
+/**
+ * This class contains the statistics of a parsed trace file. Each chunk of a file that is parsed in parallel collects its own statistics,
+ * which are merged afterwards (see ParallelCsvReader). Parsers that determine additional statistics extend this class.
+ * @author nilsw
+ *
+ */
+public class TraceStatistics {
+
+	/**
+	 * Amount of lines of the trace file (without the header line).
+	 */
+	private int lineCount;
+
+	/**
+	 * Amount of lines from which a record was parsed.
+	 */
+	private int recordCount;
+
+	public TraceStatistics() {
+	}
+
+	/**
+	 * Creates the statistics of a trace whose records were not parsed line by line (e.g., because they were loaded from a cache).
+	 * @param recordCount Amount of records of the trace.
+	 */
+	TraceStatistics(int recordCount) {
+		this.lineCount = recordCount;
+		this.recordCount = recordCount;
+	}
+
+	void addLine(boolean parsedRecord) {
+		this.lineCount++;
+		if(parsedRecord) {
+			this.recordCount++;
+		}
+	}
+
+	/**
+	 * Adds the statistics of the subsequent chunk of the same trace file to these statistics.
+	 * @param other Statistics of the subsequent chunk.
+	 */
+	void merge(TraceStatistics other) {
+		this.lineCount += other.lineCount;
+		this.recordCount += other.recordCount;
+	}
+
+	public int getLineCount() {
+		return this.lineCount;
+	}
+
+	public int getRecordCount() {
+		return this.recordCount;
+	}
+
+	/**
+	 * Amount of lines that were skipped (e.g., because they are malformed or lie before the start of the simulation).
+	 */
+	public int getSkippedLineCount() {
+		return this.lineCount - this.recordCount;
+	}
+
+}
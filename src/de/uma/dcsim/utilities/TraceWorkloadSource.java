@@ -0,0 +1,43 @@
+package de.uma.dcsim.utilities;
+
+/**
+ * This class streams the jobs of a memory-mapped binary workload trace (see BinaryBatchJobTrace) in the order of their submission times.
+ * The jobs are only created when they are provided, thus the memory that is required does not depend on the length of the trace.
+ * @author nilsw
+ *
+ */
+public class TraceWorkloadSource implements WorkloadSource {
+
+	private BinaryBatchJobTrace trace;
+
+	private int position;
+
+	public TraceWorkloadSource(BinaryBatchJobTrace trace) {
+		this.trace = trace;
+		this.position = 0;
+	}
+
+	@Override
+	public int getNextSubmissionTime() {
+		if(this.position < this.trace.getJobCount()) {
+			return this.trace.getSubmissionTimeInSubmissionOrder(this.position);
+		}
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public BatchJob next() {
+		return this.trace.getJobInSubmissionOrder(this.position++);
+	}
+
+	@Override
+	public int getPosition() {
+		return this.position;
+	}
+
+	@Override
+	public void seek(int position) {
+		this.position = position;
+	}
+
+}
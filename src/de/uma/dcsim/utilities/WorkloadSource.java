@@ -0,0 +1,33 @@
+package de.uma.dcsim.utilities;
+
+/**
+ * This interface represents a cursor over the jobs of a workload trace in the order of their submission times. A DC pulls the jobs from its
+ * workload source only up to the end of its look-ahead window, thus only the jobs within the window have to be kept in memory.
+ * @author nilsw
+ *
+ */
+public interface WorkloadSource {
+
+	/**
+	 * @return Submission time of the next job (Integer.MAX_VALUE if all jobs were provided).
+	 */
+	public int getNextSubmissionTime();
+
+	/**
+	 * Provides the next job and advances the cursor.
+	 * @return Next job in the PARSED status (a new instance that is not shared with any other DC).
+	 */
+	public BatchJob next();
+
+	/**
+	 * @return Amount of jobs that were provided so far.
+	 */
+	public int getPosition();
+
+	/**
+	 * Moves the cursor to the specified position (used to restore checkpoints).
+	 * @param position Amount of jobs that are skipped from the beginning of the workload.
+	 */
+	public void seek(int position);
+
+}